@@ -0,0 +1,324 @@
+package tech.mcprison.prison.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+
+import tech.mcprison.prison.file.FileCollection;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>Measures the time and the bytes that are allocated to save and load
+ * synthetic player and mine files through a FileCollection.  The players have
+ * many balances and block counts, and the mines have many blocks with their
+ * block stats, so their json is large.
+ * </p>
+ *
+ * <p>The legacy benchmark repeats how the files were saved and loaded before
+ * the json was streamed, where the document was converted to one String that
+ * was split in to lines and written, and loading read all of the lines in to a
+ * StringBuilder before parsing it.
+ * </p>
+ *
+ * <p>Usage:
+ * </p>
+ * <pre>./gradlew :prison-core:jsonBenchmark -Pplayers=10000 -Pmines=500</pre>
+ *
+ */
+public class JsonPersistenceBenchmark {
+
+	public static final int WARMUP_PASSES = 2;
+	public static final int MEASURED_PASSES = 5;
+
+	private final int playerCount;
+	private final int mineCount;
+
+	private final Random random = new Random( 42 );
+
+	private File rootDir;
+
+	private List<Document> players;
+	private List<Document> mines;
+
+	private interface Pass {
+		public int run( FileCollection collection, List<Document> documents ) throws IOException;
+	}
+
+	public JsonPersistenceBenchmark( int playerCount, int mineCount ) {
+		super();
+
+		this.playerCount = playerCount;
+		this.mineCount = mineCount;
+	}
+
+	public static void main( String[] args ) throws IOException {
+
+		int playerCount = args.length > 0 ? Integer.parseInt( args[0] ) : 10000;
+		int mineCount = args.length > 1 ? Integer.parseInt( args[1] ) : 500;
+
+		JsonPersistenceBenchmark benchmark = new JsonPersistenceBenchmark( playerCount, mineCount );
+		benchmark.setup();
+
+		try {
+			benchmark.runAll();
+		}
+		finally {
+			benchmark.cleanup();
+		}
+	}
+
+	private void setup() throws IOException {
+
+		rootDir = Files.createTempDirectory( "prison-json-benchmark" ).toFile();
+
+		players = new ArrayList<>();
+		for ( int i = 0; i < playerCount; i++ ) {
+			players.add( getPlayer( i ) );
+		}
+
+		mines = new ArrayList<>();
+		for ( int i = 0; i < mineCount; i++ ) {
+			mines.add( getMine( i ) );
+		}
+	}
+
+	private Document getPlayer( int id ) {
+		Document document = new Document();
+
+		UUID uuid = new UUID( random.nextLong(), random.nextLong() );
+		document.put( "uid", uuid.toString() );
+		document.put( "name", "player_" + id );
+
+		Map<String, Object> ranks = new LinkedHashMap<>();
+		ranks.put( "default", (double) random.nextInt( 26 ) );
+		ranks.put( "prestiges", (double) random.nextInt( 50 ) );
+		document.put( "ranks", ranks );
+
+		Map<String, Object> balances = new LinkedHashMap<>();
+		for ( int i = 0; i < 20; i++ ) {
+			balances.put( "currency_" + i, random.nextDouble() * 1_000_000 );
+		}
+		document.put( "balances", balances );
+
+		Map<String, Object> blocks = new LinkedHashMap<>();
+		for ( int i = 0; i < 150; i++ ) {
+			blocks.put( "mine_" + random.nextInt( 500 ) + ":block_" + i, (double) random.nextInt( 100_000 ) );
+		}
+		document.put( "blocksMined", blocks );
+
+		return document;
+	}
+
+	private Document getMine( int id ) {
+		Document document = new Document();
+
+		document.put( "name", "mine_" + id );
+		document.put( "world", "prison" );
+		document.put( "minX", (double) random.nextInt( 10000 ) );
+		document.put( "minY", 5.0 );
+		document.put( "minZ", (double) random.nextInt( 10000 ) );
+		document.put( "maxX", (double) random.nextInt( 10000 ) );
+		document.put( "maxY", 100.0 );
+		document.put( "maxZ", (double) random.nextInt( 10000 ) );
+		document.put( "resetTime", 600.0 );
+
+		List<String> blocks = new ArrayList<>();
+		for ( int i = 0; i < 200; i++ ) {
+			// blockName-chance-constraintMin-constraintMax-constraintExcludeTopLayers-
+			// blockPlacedCount-blockCountTotal-blockCountUnsaved:
+			blocks.add( String.format( "block_%d-%.3f-0-0-0-%d-%d-%d", i, random.nextDouble(),
+					random.nextInt( 10_000 ), random.nextInt( 10_000_000 ), random.nextInt( 1000 ) ) );
+		}
+		document.put( "blocks", blocks );
+
+		List<String> commands = new ArrayList<>();
+		for ( int i = 0; i < 10; i++ ) {
+			commands.add( "before: broadcast Mine mine_" + id + " is resetting " + i );
+		}
+		document.put( "commands", commands );
+
+		return document;
+	}
+
+	private void runAll() throws IOException {
+
+		System.out.println( String.format( "Json persistence benchmarks: players=%d  mines=%d",
+				playerCount, mineCount ) );
+		System.out.println();
+
+		FileCollection playerCollection = getCollection( "players" );
+		FileCollection mineCollection = getCollection( "mines" );
+
+		run( "players save (legacy, String)", playerCollection, players, this::saveLegacy );
+		run( "players save (streaming)", playerCollection, players, this::save );
+		run( "players load (legacy, String)", playerCollection, players, this::loadLegacy );
+		run( "players load (streaming)", playerCollection, players, this::load );
+
+		System.out.println();
+
+		run( "mines save (legacy, String)", mineCollection, mines, this::saveLegacy );
+		run( "mines save (streaming)", mineCollection, mines, this::save );
+		run( "mines load (legacy, String)", mineCollection, mines, this::loadLegacy );
+		run( "mines load (streaming)", mineCollection, mines, this::load );
+	}
+
+	private FileCollection getCollection( String name ) {
+		File dir = new File( rootDir, name );
+		dir.mkdirs();
+
+		return new FileCollection( dir );
+	}
+
+	private int save( FileCollection collection, List<Document> documents ) {
+		for ( Document document : documents ) {
+			collection.save( document );
+		}
+
+		return documents.size();
+	}
+
+	private int load( FileCollection collection, List<Document> documents ) {
+		int results = 0;
+
+		for ( Document document : documents ) {
+			results += collection.get( (String) document.get( "name" ) ).get().size();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>How JsonFileIO and FileIO saved a file before the json was streamed.
+	 * </p>
+	 */
+	private int saveLegacy( FileCollection collection, List<Document> documents ) throws IOException {
+		Gson gson = collection.getGson();
+		File dir = new File( rootDir, collection.getName() );
+
+		for ( Document document : documents ) {
+			File file = new File( dir, document.get( "name" ) + ".json" );
+			File tempFile = new File( dir, file.getName() + ".tmp" );
+
+			String json = gson.toJson( document );
+			List<String> lines = Arrays.asList( json.split( "\n" ) );
+
+			Files.write( tempFile.toPath(), lines, StandardCharsets.UTF_8 );
+
+			if ( file.exists() ) {
+				file.delete();
+			}
+			tempFile.renameTo( file );
+		}
+
+		return documents.size();
+	}
+
+	/**
+	 * <p>How JsonFileIO and FileIO loaded a file before the json was streamed.
+	 * </p>
+	 */
+	private int loadLegacy( FileCollection collection, List<Document> documents ) throws IOException {
+		Gson gson = collection.getGson();
+		File dir = new File( rootDir, collection.getName() );
+
+		int results = 0;
+
+		for ( Document document : documents ) {
+			File file = new File( dir, document.get( "name" ) + ".json" );
+
+			StringBuilder sb = new StringBuilder();
+			for ( String line : Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 ) ) {
+				sb.append( line ).append( "\n" );
+			}
+
+			results += gson.fromJson( sb.toString(), Document.class ).size();
+		}
+
+		return results;
+	}
+
+	private void run( String name, FileCollection collection, List<Document> documents, Pass pass )
+			throws IOException {
+
+		int total = 0;
+
+		for ( int i = 0; i < WARMUP_PASSES; i++ ) {
+			total += pass.run( collection, documents );
+		}
+
+		long allocStart = getAllocatedBytes();
+		long start = System.nanoTime();
+
+		for ( int i = 0; i < MEASURED_PASSES; i++ ) {
+			total += pass.run( collection, documents );
+		}
+
+		long elapsed = System.nanoTime() - start;
+		long allocated = getAllocatedBytes() - allocStart;
+
+		if ( total == 0 ) {
+			System.out.println( "  no documents were processed" );
+		}
+
+		DecimalFormat dFmt = new DecimalFormat( "#,##0.0" );
+
+		System.out.println( String.format( "  %-35s %12s ms/pass  %12s us/file  %12s KB/file",
+				name,
+				dFmt.format( elapsed / 1_000_000.0 / MEASURED_PASSES ),
+				dFmt.format( elapsed / 1_000.0 / MEASURED_PASSES / documents.size() ),
+				(allocStart < 0 ? "n/a" :
+					dFmt.format( allocated / 1024.0 / MEASURED_PASSES / documents.size() )) ) );
+	}
+
+	private void cleanup() {
+		delete( rootDir );
+	}
+
+	private void delete( File file ) {
+		File[] files = file.listFiles();
+
+		if ( files != null ) {
+			for ( File child : files ) {
+				delete( child );
+			}
+		}
+
+		file.delete();
+	}
+
+	/**
+	 * <p>The bytes allocated by the current thread, or -1 if the JVM does not
+	 * support it.
+	 * </p>
+	 *
+	 * @return
+	 */
+	private long getAllocatedBytes() {
+		long results = -1;
+
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		if ( threadBean instanceof com.sun.management.ThreadMXBean ) {
+			com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+
+			if ( sunThreadBean.isThreadAllocatedMemorySupported() &&
+					sunThreadBean.isThreadAllocatedMemoryEnabled() ) {
+				results = sunThreadBean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+			}
+		}
+
+		return results;
+	}
+}
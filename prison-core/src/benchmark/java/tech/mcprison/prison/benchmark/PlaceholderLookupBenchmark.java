@@ -0,0 +1,369 @@
+package tech.mcprison.prison.benchmark;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.TestPlatform;
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.placeholders.ManagerPlaceholders;
+import tech.mcprison.prison.placeholders.PlaceHolderKey;
+import tech.mcprison.prison.placeholders.PlaceholderAttribute;
+import tech.mcprison.prison.placeholders.PlaceholderDispatcher;
+import tech.mcprison.prison.placeholders.PlaceholderIdentifier;
+import tech.mcprison.prison.placeholders.PlaceholderManager;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceHolderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+import tech.mcprison.prison.placeholders.PlaceholderRegistry;
+import tech.mcprison.prison.placeholders.PlaceholderResults;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
+
+/**
+ * <p>Measures the core placeholder lookup classes with a large number of placeholder
+ * keys: the PlaceholderDispatcher with its PlaceholderRegistry, the
+ * PlaceholderValueCache, the PlaceholderTextTokenizer, and the parsing of the
+ * placeholder attributes.  This
+ * uses the TestPlatform so it can run without a server, and generates the keys
+ * for N mines, M ranks, and K players with the same names that the managers use.
+ * </p>
+ *
+ * <p>The lookups run through the PlaceholderDispatcher, which is the same dispatch
+ * that SpigotPlaceholders uses.  The rank and mine managers that calculate the
+ * values need a server, so the BenchmarkManager only returns the key's data, and
+ * the results only show the cost of finding the placeholder.  The legacy methods
+ * repeat the linear scans that were used before the registry, for comparison.
+ * </p>
+ *
+ * <p>Each benchmark reports the average time and the average number of bytes
+ * allocated per operation.
+ * </p>
+ *
+ * <p>Usage:
+ * </p>
+ * <pre>./gradlew :prison-core:placeholderLookupBenchmark -Pmines=200 -Pranks=100 -Pplayers=50</pre>
+ *
+ */
+public class PlaceholderLookupBenchmark {
+
+	public static final int WARMUP_OPERATIONS = 200_000;
+	public static final int MEASURED_OPERATIONS = 1_000_000;
+
+	private final int mineCount;
+	private final int rankCount;
+	private final int playerCount;
+
+	private final Random random = new Random( 42 );
+
+	private BenchmarkManager players;
+	private BenchmarkManager mines;
+	private BenchmarkManager ranks;
+
+	private PlaceholderDispatcher dispatcher;
+	private PlaceholderManager pman;
+
+	private List<UUID> playerUuids;
+	private List<String> identifiers;
+	private List<String> messages;
+
+	private volatile int sink;
+
+	/**
+	 * <p>A stand-in for the managers that only returns the data that is stored on
+	 * the placeholder key, so the benchmarks measure the placeholder lookups and not
+	 * the calculation of the values.
+	 * </p>
+	 */
+	private static class BenchmarkManager
+			implements ManagerPlaceholders {
+
+		private final List<PlaceHolderKey> keys;
+
+		public BenchmarkManager( List<PlaceHolderKey> keys ) {
+			super();
+
+			this.keys = keys;
+		}
+
+		@Override
+		public List<PlaceHolderKey> getTranslatedPlaceHolderKeys() {
+			return keys;
+		}
+
+		@Override
+		public PlaceholderRegistry getPlaceholderRegistry() {
+			return PlaceholderRegistry.build( this );
+		}
+
+		@Override
+		public void reloadPlaceholders() {
+		}
+
+		@Override
+		public String getTranslatedPlaceHolder( UUID playerUuid, String playerName,
+						PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+			return translate( placeHolderKey, attribute );
+		}
+
+		public String translate( PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+			String results = placeHolderKey.getData() == null ?
+							placeHolderKey.getKey() : placeHolderKey.getData();
+
+			if ( attribute != null ) {
+				results = attribute.format( Integer.toString( results.length() * 1000 ) );
+			}
+
+			return results;
+		}
+	}
+
+	private interface Operation {
+		public int run( int i );
+	}
+
+	public PlaceholderLookupBenchmark( int mineCount, int rankCount, int playerCount ) {
+		super();
+
+		this.mineCount = mineCount;
+		this.rankCount = rankCount;
+		this.playerCount = playerCount;
+	}
+
+	public static void main( String[] args ) throws Exception {
+
+		int mineCount = args.length > 0 ? Integer.parseInt( args[0] ) : 200;
+		int rankCount = args.length > 1 ? Integer.parseInt( args[1] ) : 100;
+		int playerCount = args.length > 2 ? Integer.parseInt( args[2] ) : 50;
+
+		File folder = Files.createTempDirectory( "prison-benchmark" ).toFile();
+		Prison.get().init( new TestPlatform( folder, true ), "benchmark" );
+
+		PlaceholderLookupBenchmark benchmark = new PlaceholderLookupBenchmark( mineCount, rankCount, playerCount );
+		benchmark.setup();
+		benchmark.runAll();
+	}
+
+	private void setup() {
+
+		List<PlaceHolderKey> playerKeys = new ArrayList<>();
+		for ( PrisonPlaceHolders ph : PrisonPlaceHolders.getTypes( PlaceHolderFlags.PLAYER ) ) {
+			playerKeys.add( new PlaceHolderKey( ph.name().toLowerCase(), ph ) );
+		}
+
+		List<PlaceHolderKey> mineKeys = new ArrayList<>();
+		for ( int m = 0; m < mineCount; m++ ) {
+			String mineName = "mine" + m;
+
+			for ( PrisonPlaceHolders ph : PrisonPlaceHolders.getTypes( PlaceHolderFlags.MINES ) ) {
+				String key = ph.name().replace(
+						PlaceholderManager.PRISON_PLACEHOLDER_MINENAME_SUFFIX, "_" + mineName ).toLowerCase();
+				mineKeys.add( new PlaceHolderKey( key, ph, mineName ) );
+			}
+		}
+
+		List<PlaceHolderKey> rankKeys = new ArrayList<>();
+		for ( int r = 0; r < rankCount; r++ ) {
+			String rankName = "rank" + r;
+
+			for ( PrisonPlaceHolders ph : PrisonPlaceHolders.getTypes( PlaceHolderFlags.RANKS ) ) {
+				String key = ph.name().replace(
+						PlaceholderManager.PRISON_PLACEHOLDER_RANKNAME_SUFFIX, "_" + rankName ).toLowerCase();
+				rankKeys.add( new PlaceHolderKey( key, ph, rankName ) );
+			}
+		}
+
+		players = new BenchmarkManager( playerKeys );
+		mines = new BenchmarkManager( mineKeys );
+		ranks = new BenchmarkManager( rankKeys );
+
+		pman = Prison.get().getPlaceholderManager();
+		dispatcher = new PlaceholderDispatcher( pman, players, mines, ranks );
+
+		playerUuids = new ArrayList<>();
+		playerUuids.add( new TestPlayer().getUUID() );
+		while ( playerUuids.size() < playerCount ) {
+			playerUuids.add( new UUID( random.nextLong(), random.nextLong() ) );
+		}
+
+		// A mix of the placeholders that a scoreboard would request:
+		identifiers = new ArrayList<>();
+		for ( int i = 0; i < 1000; i++ ) {
+			List<PlaceHolderKey> keys = i % 3 == 0 ? playerKeys : i % 3 == 1 ? mineKeys : rankKeys;
+			String key = keys.get( random.nextInt( keys.size() ) ).getKey();
+
+			identifiers.add( i % 4 == 0 ? key + "::nFormat:#,##0.00:1:kmg" : key );
+		}
+
+		messages = new ArrayList<>();
+		for ( int i = 0; i < 100; i++ ) {
+			messages.add( "&7[{" + identifiers.get( random.nextInt( identifiers.size() ) ) + "}&7] " +
+					"Blocks remaining: {" + mineKeys.get( random.nextInt( mineKeys.size() ) ).getKey() + "} " +
+					"Next: %" + rankKeys.get( random.nextInt( rankKeys.size() ) ).getKey() + "% 100% done" );
+		}
+	}
+
+	private void runAll() {
+
+		System.out.println( String.format( "Placeholder lookup benchmarks: mines=%d  ranks=%d  players=%d  " +
+				"placeholder keys=%d",
+				mineCount, rankCount, playerCount, dispatcher.getRegistry().size() ) );
+		System.out.println();
+
+		PlaceholderValueCache valueCache = pman.getValueCache();
+		int ttlTicks = (int) valueCache.getTtlTicks();
+
+		valueCache.setTtlTicks( 0 );
+
+		run( "lookup (registry)", i -> {
+			UUID uuid = playerUuids.get( i % playerUuids.size() );
+			String result = dispatcher.translate( uuid, null, identifiers.get( i % identifiers.size() ) );
+			return result == null ? 0 : result.length();
+		});
+
+		valueCache.setTtlTicks( ttlTicks > 0 ? ttlTicks : PlaceholderValueCache.TTL_TICKS_DEFAULT );
+
+		run( "lookup (registry + value cache)", i -> {
+			UUID uuid = playerUuids.get( i % playerUuids.size() );
+			String result = dispatcher.translate( uuid, null, identifiers.get( i % identifiers.size() ) );
+			return result == null ? 0 : result.length();
+		});
+
+		valueCache.setTtlTicks( 0 );
+
+		run( "lookup (legacy linear scan)", i -> {
+			String result = translateLegacy( identifiers.get( i % identifiers.size() ) );
+			return result == null ? 0 : result.length();
+		});
+
+		run( "text lookup (tokenizer + registry)", i -> {
+			String result = dispatcher.translateText( null, null, messages.get( i % messages.size() ) );
+			return result.length();
+		}, MEASURED_OPERATIONS / 10 );
+
+		run( "text lookup (legacy per key scan)", i -> {
+			String result = translateTextLegacy( messages.get( i % messages.size() ) );
+			return result.length();
+		}, MEASURED_OPERATIONS / 1000 );
+
+		run( "attribute parsing (cached)", i -> {
+			PlaceholderIdentifier pId = pman.getPlaceholderIdentifier( identifiers.get( i % identifiers.size() ) );
+			return pId.getPlaceholder().length();
+		});
+
+		run( "attribute parsing (uncached)", i -> {
+			pman.clearPlaceholderIdentifierCache();
+			PlaceholderIdentifier pId = pman.getPlaceholderIdentifier( identifiers.get( i % identifiers.size() ) );
+			return pId.getPlaceholder().length();
+		});
+	}
+
+	/**
+	 * <p>The linear scan of every manager's keys that was used before the registry.
+	 * </p>
+	 */
+	private String translateLegacy( String identifier ) {
+		String results = null;
+
+		String placeholder = pman.extractPlaceholderString( identifier );
+		PlaceholderAttribute attribute = pman.extractPlaceholderExtractAttribute( identifier );
+
+		for ( BenchmarkManager manager : new BenchmarkManager[] { players, mines, ranks } ) {
+			for ( PlaceHolderKey placeHolderKey : manager.getTranslatedPlaceHolderKeys() ) {
+				if ( placeHolderKey.getKey().equalsIgnoreCase( placeholder ) ) {
+					results = manager.translate( placeHolderKey, attribute );
+					break;
+				}
+			}
+
+			if ( results != null ) {
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	private String translateTextLegacy( String text ) {
+		String results = text;
+
+		for ( BenchmarkManager manager : new BenchmarkManager[] { players, mines, ranks } ) {
+			for ( PlaceHolderKey placeHolderKey : manager.getTranslatedPlaceHolderKeys() ) {
+
+				PlaceholderResults identifier = placeHolderKey.getIdentifier( results );
+
+				if ( identifier != null && identifier.hasResults() ) {
+					PlaceholderAttribute attribute =
+							pman.extractPlaceholderExtractAttribute( identifier.getIdentifier() );
+
+					results = results.replaceAll( "(?i)" + Pattern.quote( identifier.getEscapedIdentifier() ),
+								manager.translate( placeHolderKey, attribute ) );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private void run( String name, Operation operation ) {
+		run( name, operation, MEASURED_OPERATIONS );
+	}
+
+	private void run( String name, Operation operation, int operations ) {
+
+		int warmup = Math.min( WARMUP_OPERATIONS, operations );
+		int total = 0;
+
+		for ( int i = 0; i < warmup; i++ ) {
+			total += operation.run( i );
+		}
+
+		long allocStart = getAllocatedBytes();
+		long start = System.nanoTime();
+
+		for ( int i = 0; i < operations; i++ ) {
+			total += operation.run( i );
+		}
+
+		long elapsed = System.nanoTime() - start;
+		long allocated = getAllocatedBytes() - allocStart;
+
+		sink += total;
+
+		DecimalFormat dFmt = new DecimalFormat( "#,##0.0" );
+
+		System.out.println( String.format( "  %-50s %12s ns/op  %12s bytes/op",
+				name,
+				dFmt.format( elapsed / (double) operations ),
+				(allocStart < 0 ? "n/a" : dFmt.format( allocated / (double) operations )) ) );
+	}
+
+	/**
+	 * <p>The bytes allocated by the current thread, or -1 if the JVM does not
+	 * support it.
+	 * </p>
+	 *
+	 * @return
+	 */
+	private long getAllocatedBytes() {
+		long results = -1;
+
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		if ( threadBean instanceof com.sun.management.ThreadMXBean ) {
+			com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+
+			if ( sunThreadBean.isThreadAllocatedMemorySupported() &&
+					sunThreadBean.isThreadAllocatedMemoryEnabled() ) {
+				results = sunThreadBean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+			}
+		}
+
+		return results;
+	}
+}
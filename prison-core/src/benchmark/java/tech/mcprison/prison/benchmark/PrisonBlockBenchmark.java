@@ -0,0 +1,219 @@
+package tech.mcprison.prison.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockTypes;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>Measures the cost of identifying the blocks that are broken in a mine, and
+ * the number of bytes that are allocated for each block.  SpigotBlock needs a
+ * server, so this uses stand-in blocks that have a block name and coordinates,
+ * and calls the same core methods that SpigotBlock and Spigot18Blocks call:
+ * PrisonBlockTypes.getInternedBlockType() to identify the block, and
+ * InternedPrisonBlock.withLocation() for SpigotBlock.getPrisonBlock().  The
+ * bukkit lookup of the XMaterial is not included.
+ * </p>
+ *
+ * <p>The legacy benchmark repeats how the blocks were identified before they
+ * were interned, where PrisonBlockTypes.getBlockTypesByName() returned a clone,
+ * and then SpigotBlock cloned it again to set the location.
+ * </p>
+ *
+ * <p>Usage:
+ * </p>
+ * <pre>./gradlew :prison-core:blockBenchmark -Pblocks=1000</pre>
+ *
+ */
+public class PrisonBlockBenchmark {
+
+	public static final int WARMUP_OPERATIONS = 200_000;
+	public static final int MEASURED_OPERATIONS = 2_000_000;
+
+	private final int blockCount;
+
+	private final Random random = new Random( 42 );
+
+	private PrisonBlockTypes prisonBlockTypes;
+
+	private List<StandInBlock> blocks;
+
+	private volatile int sink;
+
+	/**
+	 * <p>A stand-in for a bukkit block, where the name is the same as the
+	 * XMaterial's name, which is a constant so it is never created on a lookup.
+	 * </p>
+	 */
+	private static class StandInBlock {
+		private final String xMaterialName;
+		private final TestWorld world;
+		private final int x;
+		private final int y;
+		private final int z;
+
+		public StandInBlock( String xMaterialName, TestWorld world, int x, int y, int z ) {
+			super();
+
+			this.xMaterialName = xMaterialName.intern();
+			this.world = world;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+
+		public Location getLocation() {
+			return new Location( world, x, y, z );
+		}
+	}
+
+	private interface Operation {
+		public int run( int i );
+	}
+
+	public PrisonBlockBenchmark( int blockCount ) {
+		super();
+
+		this.blockCount = blockCount;
+	}
+
+	public static void main( String[] args ) {
+
+		int blockCount = args.length > 0 ? Integer.parseInt( args[0] ) : 1000;
+
+		PrisonBlockBenchmark benchmark = new PrisonBlockBenchmark( blockCount );
+		benchmark.setup();
+		benchmark.runAll();
+	}
+
+	private void setup() {
+
+		String[] names = { "STONE", "COBBLESTONE", "COAL_ORE", "IRON_ORE", "GOLD_ORE",
+				"DIAMOND_ORE", "EMERALD_ORE", "REDSTONE_ORE", "LAPIS_ORE", "ANDESITE",
+				"DIORITE", "GRANITE", "GRAVEL", "DIRT", "SAND", "AIR" };
+
+		List<PrisonBlock> blockTypes = new ArrayList<>();
+		for ( String name : names ) {
+			blockTypes.add( new PrisonBlock( name.toLowerCase() ) );
+		}
+
+		prisonBlockTypes = new PrisonBlockTypes();
+		prisonBlockTypes.addBlockTypes( blockTypes );
+
+		TestWorld world = new TestWorld( "mine" );
+
+		blocks = new ArrayList<>();
+		for ( int i = 0; i < blockCount; i++ ) {
+			blocks.add( new StandInBlock( names[random.nextInt( names.length )], world,
+					random.nextInt( 100 ), random.nextInt( 256 ), random.nextInt( 100 ) ) );
+		}
+	}
+
+	private void runAll() {
+
+		System.out.println( String.format( "PrisonBlock benchmarks: blocks=%d", blockCount ) );
+		System.out.println();
+
+		run( "getPrisonBlock (legacy, cloned twice)", i -> {
+			PrisonBlock prisonBlock = getPrisonBlockLegacy( blocks.get( i % blocks.size() ) );
+			return prisonBlock.getBlockName().length();
+		});
+
+		run( "getPrisonBlock (interned, with location)", i -> {
+			PrisonBlock prisonBlock = getPrisonBlock( blocks.get( i % blocks.size() ) );
+			return prisonBlock.getBlockName().length();
+		});
+
+		run( "getSharedPrisonBlock (interned)", i -> {
+			PrisonBlock prisonBlock = getSharedPrisonBlock( blocks.get( i % blocks.size() ) );
+			return prisonBlock.getBlockName().length();
+		});
+	}
+
+	private PrisonBlock getPrisonBlockLegacy( StandInBlock block ) {
+		PrisonBlock results = prisonBlockTypes.getBlockTypesByName( block.xMaterialName );
+
+		if ( results.getLocation() == null && block.getLocation() != null ) {
+			results = new PrisonBlock( results );
+
+			results.setLocation( block.getLocation() );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>The same lookup as Spigot18Blocks.getPrisonBlock().
+	 * </p>
+	 */
+	private InternedPrisonBlock getSharedPrisonBlock( StandInBlock block ) {
+		return prisonBlockTypes.getInternedBlockType( block.xMaterialName );
+	}
+
+	/**
+	 * <p>The same copy as SpigotBlock.getPrisonBlock().
+	 * </p>
+	 */
+	private PrisonBlock getPrisonBlock( StandInBlock block ) {
+		return getSharedPrisonBlock( block ).withLocation( block.getLocation() );
+	}
+
+	private void run( String name, Operation operation ) {
+
+		int total = 0;
+
+		for ( int i = 0; i < WARMUP_OPERATIONS; i++ ) {
+			total += operation.run( i );
+		}
+
+		long allocStart = getAllocatedBytes();
+		long start = System.nanoTime();
+
+		for ( int i = 0; i < MEASURED_OPERATIONS; i++ ) {
+			total += operation.run( i );
+		}
+
+		long elapsed = System.nanoTime() - start;
+		long allocated = getAllocatedBytes() - allocStart;
+
+		sink += total;
+
+		DecimalFormat dFmt = new DecimalFormat( "#,##0.0" );
+
+		System.out.println( String.format( "  %-50s %12s ns/op  %12s bytes/op",
+				name,
+				dFmt.format( elapsed / (double) MEASURED_OPERATIONS ),
+				(allocStart < 0 ? "n/a" : dFmt.format( allocated / (double) MEASURED_OPERATIONS )) ) );
+	}
+
+	/**
+	 * <p>The bytes allocated by the current thread, or -1 if the JVM does not
+	 * support it.
+	 * </p>
+	 *
+	 * @return
+	 */
+	private long getAllocatedBytes() {
+		long results = -1;
+
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		if ( threadBean instanceof com.sun.management.ThreadMXBean ) {
+			com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+
+			if ( sunThreadBean.isThreadAllocatedMemorySupported() &&
+					sunThreadBean.isThreadAllocatedMemoryEnabled() ) {
+				results = sunThreadBean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+			}
+		}
+
+		return results;
+	}
+}
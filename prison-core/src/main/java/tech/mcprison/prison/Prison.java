@@ -31,6 +31,7 @@ import tech.mcprison.prison.error.ErrorManager;
 import tech.mcprison.prison.integration.IntegrationManager;
 import tech.mcprison.prison.internal.platform.Platform;
 import tech.mcprison.prison.localization.LocaleManager;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleManager;
 import tech.mcprison.prison.modules.PluginEntity;
@@ -38,6 +39,7 @@ import tech.mcprison.prison.output.ChatDisplay;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.PlaceholderManager;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
+import tech.mcprison.prison.scoreboard.ScoreboardRenderer;
 import tech.mcprison.prison.selection.SelectionManager;
 import tech.mcprison.prison.store.Database;
 import tech.mcprison.prison.troubleshoot.TroubleshootManager;
@@ -97,6 +99,8 @@ public class Prison
     
     
     private PrisonTPS prisonTPS;
+
+    private ScoreboardRenderer scoreboardRenderer;
     
     
     private Prison() {
@@ -141,6 +145,9 @@ public class Prison
         
         this.prisonTPS = new PrisonTPS();
         this.prisonTPS.submitAsyncTPSTask();
+        
+        PrisonMetrics.get().setEnabled( 
+        		platform.getConfigBooleanFalse( PrisonMetrics.CONFIG_ENABLED ) );
 
 
         sendBanner();
@@ -692,5 +699,15 @@ public class Prison
 	public PrisonTPS getPrisonTPS() {
 		return prisonTPS;
 	}
+
+	/**
+	 * Returns the renderer that shows the sidebars, which only sends the lines that changed.
+	 */
+	public synchronized ScoreboardRenderer getScoreboardRenderer() {
+		if ( scoreboardRenderer == null ) {
+			scoreboardRenderer = new ScoreboardRenderer( getPlatform().getScoreboardManager() );
+		}
+		return scoreboardRenderer;
+	}
     
 }
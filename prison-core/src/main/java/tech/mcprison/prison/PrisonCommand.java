@@ -41,6 +41,7 @@ import tech.mcprison.prison.integration.IntegrationManager;
 import tech.mcprison.prison.integration.IntegrationType;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleStatus;
 import tech.mcprison.prison.output.BulletedListComponent;
@@ -989,6 +990,43 @@ public class PrisonCommand {
     }
     
     
+    @Command(identifier = "prison perf", 
+    		description = "Shows how long the mine resets, block breaks, sellall, placeholders, " +
+    				"and saves are taking, with the mines that are taking the most time.", 
+    		onlyPlayers = false, permissions = "prison.perf" )
+    public void perfCommand(CommandSender sender,
+    		@Arg(name = "action", def = "report",
+    				description = "Optional. [report, enable, disable, reset]  The metrics are " +
+    						"only recorded while they are enabled.  Enabling them, or reset, " +
+    						"starts a new sample." ) String action ) {
+    	
+    	PrisonMetrics metrics = PrisonMetrics.get();
+    	
+    	if ( "enable".equalsIgnoreCase( action ) ) {
+    		metrics.setEnabled( true );
+    	}
+    	else if ( "disable".equalsIgnoreCase( action ) ) {
+    		metrics.setEnabled( false );
+    	}
+    	else if ( "reset".equalsIgnoreCase( action ) ) {
+    		metrics.reset();
+    	}
+    	else if ( !"report".equalsIgnoreCase( action ) ) {
+    		sender.sendMessage( "&7Invalid action. [report, enable, disable, reset]" );
+    		return;
+    	}
+    	
+    	ChatDisplay display = new ChatDisplay( "/prison perf" );
+    	
+    	Prison.get().displaySystemTPS( display );
+    	display.addText( "" );
+    	
+    	metrics.displayReport( display );
+    	
+    	display.send( sender );
+    }
+    
+    
     @Command(identifier = "prison findCmd", 
     		description = "For internal use only. Do not use.  This command is used by internal code to look up " +
     				"a command to get the registered command.  Example would be when prison is registering  the " +
@@ -20,6 +20,8 @@ public class AutoFeaturesFileConfig {
     
     private Map<String, ValueNode> config;
     
+    private volatile AutoFeaturesSnapshot snapshot;
+    
     public enum AutoFeatures {
 
     	
@@ -91,6 +93,7 @@ public class AutoFeaturesFileConfig {
 				loreTrackBlockBreakCount(lore, false),
 				loreBlockBreakCountName(lore, "&dPrison Blocks Mined:&7 "),
 				loreBlockExplosionCountName(lore, "&dPrison Blocks Exploded:&7 "),
+				loreBlockBreakCountFlushInterval(lore, 20),
 				
 				loreDurabiltyResistance(lore, false),
 				loreDurabiltyResistanceName(lore, "&dDurability Resistance&7"),
@@ -543,6 +546,8 @@ public class AutoFeaturesFileConfig {
 
 		dne.size();
 		
+		refreshSnapshot();
+		
 //		Set<String> keys = getConfig().keySet();
 //		for ( String key : keys ) {
 //			ValueNode value = getConfig().get( key );
@@ -568,6 +573,8 @@ public class AutoFeaturesFileConfig {
 		List<AutoFeatures> dne = yamlFileIO.loadYamlAutoFeatures( getConfig() );
 		
 		dne.size();
+		
+		refreshSnapshot();
     }
     
 
@@ -604,6 +611,8 @@ public class AutoFeaturesFileConfig {
 			TextNode text = TextNode.valueOf( value );
 			
 			getConfig().put( feature.getKey(), text );
+			
+			refreshSnapshot();
 		}
 		
 	}
@@ -636,6 +645,8 @@ public class AutoFeaturesFileConfig {
 			BooleanNode bool = BooleanNode.valueOf( value  );
 			
 			getConfig().put( feature.getKey(), bool );
+			
+			refreshSnapshot();
 		}
 		
 	}
@@ -649,20 +660,46 @@ public class AutoFeaturesFileConfig {
 	 * @return
 	 */
 	public boolean isFeatureBoolean( AutoFeatures feature ) {
-		return feature.getBoolean( getConfig() );
+		return getSnapshot().isBoolean( feature );
 	}
 	
 	public String getFeatureMessage( AutoFeatures feature ) {
-		return feature.getMessage( getConfig() );
+		return getSnapshot().getMessage( feature );
 	}
 	
 	public int getInteger( AutoFeatures feature ) {
-		return feature.getInteger( getConfig() );
+		return getSnapshot().getInteger( feature );
 	}
 	
 	public List<String> getFeatureStringList( AutoFeatures feature ) {
 		
-		return feature.getStringList( getConfig() );
+		return getSnapshot().getStringList( feature );
+	}
+	
+	/**
+	 * <p>Rebuilds the snapshot of all of the settings from the config.  This
+	 * must be called if the config map is changed directly.
+	 * </p>
+	 */
+	public void refreshSnapshot() {
+		this.snapshot = AutoFeaturesSnapshot.build( getConfig() );
+	}
+	
+	/**
+	 * <p>The current immutable snapshot of all of the settings. The snapshot 
+	 * is replaced whenever the settings change, so hold on to the returned 
+	 * value if multiple settings need to be consistent with each other.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public AutoFeaturesSnapshot getSnapshot() {
+		AutoFeaturesSnapshot results = snapshot;
+		if ( results == null ) {
+			results = AutoFeaturesSnapshot.build( getConfig() );
+			snapshot = results;
+		}
+		return results;
 	}
 	
 	public boolean saveConf() {
@@ -706,6 +743,8 @@ public class AutoFeaturesFileConfig {
 
 	public void setConfig( Map<String, ValueNode> config ) {
 		this.config = config;
+		
+		refreshSnapshot();
 	}
 
 }
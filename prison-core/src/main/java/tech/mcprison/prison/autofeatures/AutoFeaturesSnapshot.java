@@ -0,0 +1,122 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+/**
+ * <p>This is an immutable copy of all of the auto features settings, which are
+ * stored in arrays that are indexed by the AutoFeatures ordinal.  The values are
+ * resolved from the config map only once when the snapshot is built, so reading
+ * a setting during a block break event is just an array access, instead of
+ * building the key and looking it up within the config map.
+ * </p>
+ *
+ * <p>A new snapshot is built by AutoFeaturesFileConfig whenever the config is
+ * loaded, reloaded, or changed.
+ * </p>
+ *
+ * <p>Objects that are derived from the settings, such as the enabled smelting
+ * recipes, can be cached with getCached().  Since they are held by the
+ * snapshot, they are rebuilt from the new settings after a reload.
+ * </p>
+ *
+ */
+public class AutoFeaturesSnapshot {
+
+	private final boolean[] booleans;
+	private final String[] messages;
+	private final int[] integers;
+	private final List<List<String>> stringLists;
+
+	private final Map<Object, Object> cache;
+
+	private AutoFeaturesSnapshot( int size ) {
+		super();
+
+		this.booleans = new boolean[size];
+		this.messages = new String[size];
+		this.integers = new int[size];
+		this.stringLists = new ArrayList<>( Collections.nCopies( size, null ) );
+
+		this.cache = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * <p>Resolves all of the AutoFeatures from the given config map.  The values
+	 * are identical to what the AutoFeatures getters would return for the same map.
+	 * </p>
+	 *
+	 * @param conf
+	 * @return
+	 */
+	public static AutoFeaturesSnapshot build( Map<String, ValueNode> conf ) {
+
+		AutoFeatures[] features = AutoFeatures.values();
+		AutoFeaturesSnapshot results = new AutoFeaturesSnapshot( features.length );
+
+		for ( AutoFeatures af : features ) {
+
+			if ( af.isSection() ) {
+				continue;
+			}
+
+			int i = af.ordinal();
+
+			results.booleans[i] = af.getBoolean( conf );
+			results.messages[i] = af.getMessage( conf );
+			// AutoFeatures.getInteger() cannot be used on the boolean features since
+			// they have no int value to default to:
+			if ( af.getValue() == null || af.getIntValue() != null ) {
+				results.integers[i] = af.getInteger( conf );
+			}
+
+			// The config's list could be changed, so the snapshot has its own copy:
+			List<String> stringList = af.getStringList( conf );
+			results.stringLists.set( i, stringList == null ? null :
+						Collections.unmodifiableList( new ArrayList<>( stringList ) ) );
+		}
+
+		return results;
+	}
+
+	public boolean isBoolean( AutoFeatures feature ) {
+		return booleans[feature.ordinal()];
+	}
+
+	public String getMessage( AutoFeatures feature ) {
+		return messages[feature.ordinal()];
+	}
+
+	public int getInteger( AutoFeatures feature ) {
+		return integers[feature.ordinal()];
+	}
+
+	/**
+	 * @param feature
+	 * @return The list, which cannot be changed.
+	 */
+	public List<String> getStringList( AutoFeatures feature ) {
+		return stringLists.get( feature.ordinal() );
+	}
+
+	/**
+	 * <p>Returns the object that was built from this snapshot for the key,
+	 * building it the first time.  The factory must only use the settings
+	 * within the snapshot that it is given.
+	 * </p>
+	 *
+	 * @param key
+	 * @param factory
+	 * @return
+	 */
+	@SuppressWarnings( "unchecked" )
+	public <T> T getCached( Object key, Function<AutoFeaturesSnapshot, T> factory ) {
+		return (T) cache.computeIfAbsent( key, k -> factory.apply( this ) );
+	}
+}
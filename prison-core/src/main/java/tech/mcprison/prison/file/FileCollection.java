@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import tech.mcprison.prison.metrics.KeyedMetricTimer;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
@@ -19,6 +21,9 @@ public class FileCollection
 	extends JsonFileIO
 	implements Collection 
 {
+	private static final KeyedMetricTimer METRICS_SAVE_TIMER = 
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_SAVE );
+	
     private File collDir;
     
     public FileCollection(File collDir) {
@@ -74,6 +79,29 @@ public class FileCollection
     }
     
 
+    /**
+     * <p>The keys of the documents, which are their file names without the 
+     * <code>.json</code> suffix.  The logically deleted files are skipped.
+     * </p>
+     * 
+     * @return The keys of all of the documents in this collection.
+     */
+    public List<String> getKeys() {
+    	List<String> keys = new ArrayList<>();
+    	
+    	File[] collectionFiles = this.collDir.listFiles((dir, name) -> name.endsWith(".json"));
+    	if (collectionFiles != null) {
+    		for (File dbFile : collectionFiles) {
+    			if ( !isDeleted( dbFile ) ) {
+    				String name = dbFile.getName();
+    				keys.add( name.substring( 0, name.length() - ".json".length() ) );
+    			}
+    		}
+    	}
+    	
+    	return keys;
+    }
+
     @Override 
     public Optional<Document> get(String key) {
     	File dbFile = new File(collDir, key + ".json");
@@ -91,8 +119,12 @@ public class FileCollection
     @Override 
     public void save(String filename, Document document)
     {
+    	long metricsStart = METRICS_SAVE_TIMER.start();
+    	
     	File dbFile = new File(collDir, filename + ".json");
     	saveJsonFile( dbFile, document );
+    	
+    	METRICS_SAVE_TIMER.stop( getName(), metricsStart );
     }
     
     @Override 
@@ -1,9 +1,15 @@
 package tech.mcprison.prison.file;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
@@ -17,6 +23,12 @@ import tech.mcprison.prison.output.Output;
 public abstract class FileIO
 	extends FileVirtualDelete
 {
+	/**
+	 * The size of the character buffer used when streaming a file.  This is 
+	 * allocated for each file, so it is kept small since most player and mine 
+	 * files are only a few KB.
+	 */
+	public static final int STREAM_BUFFER_SIZE = 8 * 1024;
 
 	private final SimpleDateFormat sdf;
 	
@@ -39,25 +51,79 @@ public abstract class FileIO
 	}
 
 	
+	/**
+	 * <p>Writes the contents of a file directly to the file's writer, so the
+	 * contents never have to be held in memory as one String.
+	 * </p>
+	 */
+	protected interface StreamWriter {
+		public void write( Writer writer ) throws IOException;
+	}
+	
 	protected void saveFile( File file, String data ) 
 	{
 		if ( file != null && data != null )
 		{
-			String tempFileName = file.getName() + "." + getTimestampFormat() + ".tmp";
-			File tempFile = new File(file.getParentFile(), tempFileName);
-			
-			try
-			{
-				// Write as a .tmp file:
+			saveFile( file, writer -> {
 				
 				// Add json data to lines, splitting on \n:
 				List<String> lines = Arrays.asList( data.split( "\n" ));
 				
-				// Write as an UTF-8 stream:
-				Files.write( tempFile.toPath(), lines, StandardCharsets.UTF_8 );
-				
-//				Files.write( tempFile.toPath(), data.getBytes() );
+				for ( String line : lines ) {
+					writer.write( line );
+					writer.write( System.lineSeparator() );
+				}
+			});
+		}
+	}
+	
+	/**
+	 * <p>This saves the file by streaming it to a temp file, and then once that is 
+	 * successful, it will delete the original target and rename the temp file.
+	 * If the write fails, then the partial temp file is removed and the original 
+	 * file is left as it was.
+	 * </p>
+	 * 
+	 * @param file
+	 * @param streamWriter Writes the contents through a buffered writer on the 
+	 * 				temp file's channel.
+	 */
+	protected void saveFile( File file, StreamWriter streamWriter ) 
+	{
+		if ( file != null && streamWriter != null )
+		{
+			String tempFileName = file.getName() + "." + getTimestampFormat() + ".tmp";
+			File tempFile = new File(file.getParentFile(), tempFileName);
+			
+			boolean success = false;
+			
+			// Write as a .tmp file, as an UTF-8 stream:
+			try ( FileChannel channel = FileChannel.open( tempFile.toPath(), 
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, 
+						StandardOpenOption.WRITE );
+				  Writer writer = new BufferedWriter( 
+						Channels.newWriter( channel, StandardCharsets.UTF_8.newEncoder(), -1 ), 
+						STREAM_BUFFER_SIZE ); )
+			{
+				streamWriter.write( writer );
 				
+				writer.flush();
+				success = true;
+			}
+			catch ( IOException e )
+			{
+				logException( "Failed to create file", file, e );
+			}
+			finally 
+			{
+				if ( !success && tempFile.exists() ) 
+				{
+					tempFile.delete();
+				}
+			}
+			
+			if ( success ) 
+			{
 				// If original target exists, then delete it:
 				if ( file.exists() )
 				{
@@ -66,14 +132,27 @@ public abstract class FileIO
 				
 				tempFile.renameTo( file );
 			}
-			catch ( IOException e )
-			{
-				logException( "Failed to create file", file, e );
-			}
-			
 		}
 	}
 
+	/**
+	 * <p>Opens a UTF-8 reader on the file's channel.  The caller must close it.
+	 * The decoder reads the channel in blocks, and the JsonReader has its own 
+	 * buffer, so it is not wrapped in a BufferedReader.
+	 * </p>
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException If the file does not exist or cannot be opened.
+	 */
+	protected Reader openReader( File file ) 
+			throws IOException
+	{
+		FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+		
+		return Channels.newReader( channel, StandardCharsets.UTF_8.newDecoder(), -1 );
+	}
+
 	protected String readFile( File file )
 	{
 		StringBuilder results = new StringBuilder();
@@ -98,7 +177,7 @@ public abstract class FileIO
 		return results.toString();
 	}
 
-	private void logException( String description, File file, IOException e )
+	protected void logException( String description, File file, IOException e )
 	{
 		String message = description + " " + file.getAbsolutePath();
 		
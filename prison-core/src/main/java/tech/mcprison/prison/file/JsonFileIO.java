@@ -1,9 +1,14 @@
 package tech.mcprison.prison.file;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import tech.mcprison.prison.error.ErrorManager;
 import tech.mcprison.prison.modules.ModuleStatus;
@@ -34,6 +39,10 @@ public class JsonFileIO
 	 * either the original file will remain, or the new file will saved under the 
 	 * *.tmp suffix, or both.  Should not reach a condition where both files disappear.
 	 * 
+	 * <p>The json is streamed to the file with a JsonWriter, so large mines and 
+	 * players are not first converted to one large String.
+	 * </p>
+	 * 
 	 * @param file
 	 * @param data
 	 */
@@ -41,9 +50,22 @@ public class JsonFileIO
 	{
 		if ( file != null && data != null )
 		{
-			String json = getGson().toJson( data );
-
-			saveFile( file, json );	
+			saveFile( file, writer -> {
+				
+				JsonWriter jsonWriter = getGson().newJsonWriter( writer );
+				
+				try
+				{
+					getGson().toJson( data, data.getClass(), jsonWriter );
+				}
+				catch ( JsonIOException e )
+				{
+					throw new IOException( e.getMessage(), e );
+				}
+				
+				jsonWriter.flush();
+				writer.write( System.lineSeparator() );
+			});
 		}
 	}
 	
@@ -53,6 +75,11 @@ public class JsonFileIO
 	 * Otherwise the resulting object will be the data object that is passed to this
 	 * function, which should be empty or however the new object should be structured.
 	 * 
+	 * <p>The file is parsed from a JsonReader as it is read, instead of reading 
+	 * the whole file in to a String first.  If the file cannot be read, such as
+	 * when it does not exist, then this returns a null.
+	 * </p>
+	 * 
 	 * @param file The source file that will be loaded. Should be JSON data within.
 	 * @param data This is the "new" object that is to be returned from this function if the source
 	 * 				file cannot be read successfully.
@@ -62,27 +89,32 @@ public class JsonFileIO
 	{
 		FileIOData results = data;
 		
-		String json = super.readFile( file );
-		
-		if ( json != null )
+		try ( Reader reader = openReader( file ) )
 		{
+			JsonReader jsonReader = getGson().newJsonReader( reader );
+			
 			try
 			{
-				results = getGson().fromJson( json, data.getClass() );
+				results = getGson().fromJson( jsonReader, data.getClass() );
 			}
 			catch ( Exception e ) {
 				
 				String message = String.format( 
 						"JsonFileIO.readJsonFile: JsonParse failure: file: [%s] " +
-						"error: [%s]  json: [%s] ", 
-						file.getAbsoluteFile(), e.getMessage(), 
-						json );
+						"error: [%s]", 
+						file.getAbsoluteFile(), e.getMessage() );
 				
 				Output.get().logError( message );
-
+				
 				// e.printStackTrace();
 			}
 		}
+		catch ( IOException e )
+		{
+			logException( "Failed to load file", file, e );
+			
+			results = null;
+		}
 		
 		return results;
 	}
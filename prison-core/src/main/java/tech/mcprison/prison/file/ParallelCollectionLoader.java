@@ -0,0 +1,171 @@
+package tech.mcprison.prison.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>Reads and parses all of the documents of a FileCollection on a small pool of
+ * worker threads, which is used at startup so the mines, ranks, ladders, and
+ * players are not read one file at a time on the server thread.
+ * </p>
+ *
+ * <p>Only the files are read on the workers.  The documents are returned to the
+ * calling thread, in the same order that <code>getAll()</code> would return
+ * them, so the managers can create their objects and add them all at once on
+ * the main thread, just as they did when loading sequentially.  A file that
+ * fails to load is reported by its name, and is skipped.
+ * </p>
+ *
+ * <p>Collections that are not a FileCollection, such as the journal storage,
+ * already have their documents indexed, so they are loaded with
+ * <code>getAll()</code>.
+ * </p>
+ *
+ */
+public class ParallelCollectionLoader {
+
+	public static final String CONFIG_LOAD_THREADS = "storage.load-threads";
+	public static final int LOAD_THREADS_DEFAULT = 4;
+
+	/**
+	 * Collections with fewer files than this are not worth starting the threads.
+	 */
+	public static final int MIN_PARALLEL_DOCUMENTS = 16;
+
+	private static final AtomicInteger poolNumber = new AtomicInteger();
+
+	private final int threads;
+
+	private int failures = 0;
+
+	public ParallelCollectionLoader( int threads ) {
+		super();
+
+		this.threads = threads;
+	}
+
+	/**
+	 * <p>Uses the number of threads set in config.yml, which are limited to the
+	 * number of processors.
+	 * </p>
+	 */
+	public ParallelCollectionLoader() {
+		this( getConfigThreads() );
+	}
+
+	private static int getConfigThreads() {
+		int results = LOAD_THREADS_DEFAULT;
+
+		if ( Prison.get().getPlatform() != null ) {
+			results = Prison.get().getPlatform().getConfigInt( CONFIG_LOAD_THREADS, LOAD_THREADS_DEFAULT );
+		}
+
+		return Math.max( 1, Math.min( results, Runtime.getRuntime().availableProcessors() ) );
+	}
+
+	/**
+	 * <p>Loads all of the documents in the collection.  This does not return
+	 * until all of the files have been read.
+	 * </p>
+	 *
+	 * @param collection
+	 * @return The documents, in the same order as <code>collection.getAll()</code>.
+	 */
+	public List<Document> loadAll( Collection collection ) {
+		List<Document> results;
+
+		if ( threads > 1 && collection instanceof FileCollection ) {
+			results = loadAll( (FileCollection) collection );
+		}
+		else {
+			results = collection.getAll();
+		}
+
+		return results;
+	}
+
+	private List<Document> loadAll( FileCollection collection ) {
+		List<String> keys = collection.getKeys();
+
+		if ( keys.size() < MIN_PARALLEL_DOCUMENTS ) {
+			return collection.getAll();
+		}
+
+		List<Document> results = new ArrayList<>( keys.size() );
+
+		int poolThreads = Math.min( threads, keys.size() );
+		String poolName = "Prison-Loader-" + poolNumber.incrementAndGet() + "-";
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool( poolThreads, runnable -> {
+			Thread thread = new Thread( runnable, poolName + threadNumber.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		});
+
+		try {
+			List<Future<Optional<Document>>> futures = new ArrayList<>( keys.size() );
+
+			for ( String key : keys ) {
+				futures.add( pool.submit( () -> collection.get( key ) ) );
+			}
+
+			// Collected in the order of the keys, so the results never depend on
+			// which thread finished first:
+			for ( int i = 0; i < keys.size(); i++ ) {
+				try {
+					Optional<Document> document = futures.get( i ).get();
+
+					if ( document.isPresent() ) {
+						results.add( document.get() );
+					}
+				}
+				catch ( ExecutionException e ) {
+					failures++;
+
+					Throwable cause = e.getCause() == null ? e : e.getCause();
+
+					Output.get().logError( String.format(
+							"ParallelCollectionLoader: Failed to load %s/%s.json: [%s]",
+							collection.getName(), keys.get( i ), cause.getMessage() ), cause );
+				}
+			}
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+
+			Output.get().logError( "ParallelCollectionLoader: Interrupted while loading " +
+					collection.getName() + ".  Loading the rest on this thread." );
+
+			results = collection.getAll();
+		}
+		finally {
+			pool.shutdownNow();
+		}
+
+		return results;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return The number of files that failed to load with an exception.  The
+	 * 			json parse failures are logged by JsonFileIO instead.
+	 */
+	public int getFailures() {
+		return failures;
+	}
+}
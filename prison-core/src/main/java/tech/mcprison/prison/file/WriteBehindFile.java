@@ -0,0 +1,153 @@
+package tech.mcprison.prison.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>Writes the contents of one file, either on the calling thread or on
+ * another thread, so the caller can serialize the data on the server thread
+ * and not wait for the disk.
+ * </p>
+ *
+ * <p>Each write is numbered when it is requested.  If the writes finish out of
+ * order, then an older one is skipped instead of replacing the newer one, so
+ * a burst of writes is coalesced in to the newest.  The file is written to a
+ * temp file that is then moved over the file, so a reader never sees it half
+ * written.
+ * </p>
+ *
+ */
+public class WriteBehindFile {
+
+	private final File file;
+	private final Executor asyncExecutor;
+
+	private final Object lock = new Object();
+	private final AtomicInteger pendingWrites;
+
+	private long sequence = 0;
+	private long sequenceWritten = 0;
+
+	private int skippedWrites = 0;
+
+	/**
+	 * @param file
+	 * @param asyncExecutor Runs the asynchronous writes.
+	 */
+	public WriteBehindFile( File file, Executor asyncExecutor ) {
+		super();
+
+		this.file = file;
+		this.asyncExecutor = asyncExecutor;
+
+		this.pendingWrites = new AtomicInteger();
+	}
+
+	/**
+	 * <p>The asynchronous writes are submitted as async tasks.
+	 * </p>
+	 */
+	public WriteBehindFile( File file ) {
+		this( file, task -> PrisonTaskSubmitter.runTaskLaterAsync( task, 0 ) );
+	}
+
+	/**
+	 * <p>Writes the data on the calling thread.
+	 * </p>
+	 *
+	 * @param data
+	 * @throws IOException
+	 */
+	public void writeNow( String data ) throws IOException {
+		write( data, nextSequence() );
+	}
+
+	/**
+	 * <p>Writes the data on another thread.  Errors are logged.
+	 * </p>
+	 *
+	 * @param data
+	 */
+	public void writeLater( String data ) {
+		long writeSequence = nextSequence();
+
+		pendingWrites.incrementAndGet();
+
+		try {
+			asyncExecutor.execute( () -> {
+				try {
+					write( data, writeSequence );
+				}
+				catch ( IOException e ) {
+					Output.get().logError( "WriteBehindFile: Failed to save the file " +
+							file.getAbsolutePath() + ": " + e.getMessage(), e );
+				}
+				finally {
+					pendingWrites.decrementAndGet();
+				}
+			});
+		}
+		catch ( RuntimeException e ) {
+			pendingWrites.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private long nextSequence() {
+		synchronized ( lock ) {
+			return ++sequence;
+		}
+	}
+
+	private void write( String data, long writeSequence ) throws IOException {
+		synchronized ( lock ) {
+
+			// A newer version of the data has already been written:
+			if ( writeSequence <= sequenceWritten ) {
+				skippedWrites++;
+				return;
+			}
+
+			File temp = new File( file.getParentFile(), file.getName() + ".tmp" );
+
+			Files.write( temp.toPath(), data.getBytes( StandardCharsets.UTF_8 ) );
+			Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+
+			sequenceWritten = writeSequence;
+		}
+	}
+
+	/**
+	 * @return True if there are writes that have not finished, so the file is
+	 * 			older than the data that was last written.
+	 */
+	public boolean hasPendingWrites() {
+		return pendingWrites.get() > 0;
+	}
+
+	public int getPendingWrites() {
+		return pendingWrites.get();
+	}
+
+	/**
+	 * @return The number of writes that were skipped because a newer write had
+	 * 			already finished.
+	 */
+	public int getSkippedWrites() {
+		synchronized ( lock ) {
+			return skippedWrites;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+}
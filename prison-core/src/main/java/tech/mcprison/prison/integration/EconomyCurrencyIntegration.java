@@ -35,6 +35,25 @@ public abstract class EconomyCurrencyIntegration
 
 	public abstract void removeBalance( Player player, double amount, String currency );
 
+	/**
+	 * <p>Removes from the player's balance in the currency only if they can afford
+	 * it, and reports whether the amount was taken.
+	 * </p>
+	 * 
+	 * @return true if the amount was removed, false otherwise.
+	 */
+	public boolean withdraw( Player player, double amount, String currency ) {
+		double before = getBalance( player, currency );
+		
+		if ( before < amount ) {
+			return false;
+		}
+		
+		removeBalance( player, amount, currency );
+		
+		return getBalance( player, currency ) <= before - amount + WITHDRAW_TOLERANCE;
+	}
+
 	public abstract boolean canAfford( Player player, double amount, String currency );
 	
 
@@ -0,0 +1,414 @@
+package tech.mcprison.prison.integration;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>All of prison's reads and writes to a player's balance go through this gateway
+ * so the economy plugin is called fewer times.  Sellall, rankups, and the
+ * placeholders would each call the economy plugin on their own, and a sellall with
+ * autosell could deposit many times in one tick.
+ * </p>
+ *
+ * <p>The gateway has two parts.  The first is a cache of each player's balance,
+ * which is kept for a short time, and is invalidated when prison writes to that
+ * player's balance.  The second is a write queue, where all of the deposits for a
+ * player within one tick are netted into one call to the economy plugin, which is
+ * made by a sync task on the next tick.
+ * </p>
+ *
+ * <p>The rules that keep the balances consistent:
+ * </p>
+ * <ul>
+ *   <li>getBalance() always includes the deposits that are queued, so prison never
+ *   sees a balance without its own writes.</li>
+ *   <li>Only deposits are queued.  Withdrawals are written right away, after the
+ *   player's queued deposits are written and their balance is read from the
+ *   economy plugin, so a player is never charged against a stale balance, and
+ *   the caller knows if the economy plugin took the amount.</li>
+ *   <li>setBalance() is written right away, and replaces any deposits that were
+ *   queued before it.</li>
+ *   <li>After a player's changes are written, their cached balance is invalidated so
+ *   the next read comes from the economy plugin.</li>
+ * </ul>
+ *
+ */
+public class EconomyGateway {
+
+	public static final String CONFIG_BALANCE_CACHE_MILLIS = "economy.balance-cache-millis";
+	public static final String CONFIG_QUEUE_WRITES = "economy.queue-writes";
+
+	public static final long DEFAULT_BALANCE_CACHE_MILLIS = 1000;
+
+	private final EconomyIntegration economy;
+	private final String currency;
+
+	private final long cacheMillis;
+	private final boolean queueWrites;
+	private final boolean scheduleFlush;
+
+	private final Map<UUID, PlayerBalance> balances;
+
+	private boolean flushScheduled = false;
+
+	private long providerReads = 0;
+	private long providerWrites = 0;
+	private long nettedWrites = 0;
+
+	private static class PlayerBalance {
+		private Player player;
+
+		private boolean cached = false;
+		private double cachedBalance;
+		private long cachedTime;
+
+		private boolean pending = false;
+		private double net;
+		private int writes;
+
+		private PlayerBalance( Player player ) {
+			super();
+
+			this.player = player;
+		}
+
+		private void clearPending() {
+			pending = false;
+			net = 0;
+			writes = 0;
+		}
+	}
+
+	/**
+	 * <p>The gateway for the economy plugin.  The queued writes are flushed by a
+	 * sync task on the next tick.
+	 * </p>
+	 *
+	 * @param economy The economy plugin.
+	 * @param currency The currency if this is an EconomyCurrencyIntegration, otherwise
+	 * 			null for the default currency.
+	 * @param cacheMillis How long a balance is cached. Zero disables the cache.
+	 * @param queueWrites If false, then every write calls the economy plugin.
+	 */
+	public EconomyGateway( EconomyIntegration economy, String currency,
+				long cacheMillis, boolean queueWrites ) {
+		this( economy, currency, cacheMillis, queueWrites, true );
+	}
+
+	/**
+	 * <p>If scheduleFlush is false, then the queued writes are only written when
+	 * flush() is called, which is used for testing.
+	 * </p>
+	 */
+	protected EconomyGateway( EconomyIntegration economy, String currency,
+				long cacheMillis, boolean queueWrites, boolean scheduleFlush ) {
+		super();
+
+		this.economy = economy;
+		this.currency = currency;
+
+		this.cacheMillis = cacheMillis;
+		this.queueWrites = queueWrites;
+		this.scheduleFlush = scheduleFlush;
+
+		this.balances = new HashMap<>();
+	}
+
+	public EconomyIntegration getEconomy() {
+		return economy;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public synchronized double getBalance( Player player ) {
+		PlayerBalance balance = getPlayerBalance( player );
+
+		long now = System.currentTimeMillis();
+
+		if ( !balance.cached || now - balance.cachedTime >= cacheMillis ) {
+			balance.cachedBalance = providerGetBalance( player );
+			balance.cachedTime = now;
+			balance.cached = cacheMillis > 0;
+		}
+
+		return balance.cachedBalance + balance.net;
+	}
+
+	/**
+	 * <p>Writes the player's queued deposits, then reads their balance from the
+	 * economy plugin, skipping the cache.  This should be used before a player
+	 * is charged.
+	 * </p>
+	 *
+	 * @param player
+	 * @return The player's balance.
+	 */
+	public synchronized double getLatestBalance( Player player ) {
+		return readLatestBalance( getPlayerBalance( player ) );
+	}
+
+	private double readLatestBalance( PlayerBalance balance ) {
+		if ( balance.pending ) {
+			write( balance );
+		}
+
+		balance.cachedBalance = providerGetBalance( balance.player );
+		balance.cachedTime = System.currentTimeMillis();
+		balance.cached = cacheMillis > 0;
+
+		return balance.cachedBalance;
+	}
+
+	public boolean canAfford( Player player, double amount ) {
+		return getBalance( player ) >= amount;
+	}
+
+	/**
+	 * <p>Queues a deposit, which is netted with the player's other deposits in
+	 * this tick.
+	 * </p>
+	 */
+	public void addBalance( Player player, double amount ) {
+
+		synchronized ( this ) {
+			PlayerBalance balance = getPlayerBalance( player );
+
+			balance.net += amount;
+			balance.pending = true;
+			balance.writes++;
+
+			if ( !queueWrites ) {
+				write( balance );
+				return;
+			}
+
+			if ( !scheduleFlush || flushScheduled ) {
+				return;
+			}
+
+			flushScheduled = true;
+		}
+
+		PrisonRunnable flushTask = () -> flush();
+		PrisonTaskSubmitter.runTaskLater( flushTask, 0 );
+	}
+
+	/**
+	 * <p>Charges the player right away.  Their queued deposits are written first,
+	 * and their balance is read from the economy plugin, so the amount is only
+	 * taken if they can afford it right now.
+	 * </p>
+	 *
+	 * @param player
+	 * @param amount
+	 * @return True if the economy plugin took the amount.  False if the player
+	 * 			cannot afford it, or the economy plugin failed.
+	 */
+	public synchronized boolean removeBalance( Player player, double amount ) {
+		boolean results = false;
+
+		PlayerBalance balance = getPlayerBalance( player );
+
+		try {
+			if ( readLatestBalance( balance ) >= amount ) {
+
+				// Prison is changing the balance, so it must be read again:
+				balance.cached = false;
+
+				results = providerWithdraw( player, amount );
+				providerWrites++;
+				nettedWrites++;
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "EconomyGateway: Failed to withdraw " + amount + " from " +
+						player.getName() + ": " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Sets the player's balance right away.  Any deposits that were queued for
+	 * the player are replaced by the new balance.
+	 * </p>
+	 */
+	public synchronized void setBalance( Player player, double amount ) {
+		PlayerBalance balance = getPlayerBalance( player );
+
+		balance.clearPending();
+		balance.cached = false;
+
+		try {
+			providerSetBalance( player, amount );
+			providerWrites++;
+			nettedWrites++;
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "EconomyGateway: Failed to set the balance for " +
+						player.getName() + ": " + e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * <p>Writes all of the queued deposits to the economy plugin.  This is ran on
+	 * the tick after the changes were queued, and when prison is disabled.
+	 * </p>
+	 */
+	public synchronized void flush() {
+		flushScheduled = false;
+
+		long now = System.currentTimeMillis();
+
+		Iterator<PlayerBalance> iterator = balances.values().iterator();
+		while ( iterator.hasNext() ) {
+			PlayerBalance balance = iterator.next();
+
+			if ( balance.pending ) {
+				write( balance );
+			}
+			else if ( !balance.cached || now - balance.cachedTime >= cacheMillis ) {
+				// Nothing is queued or cached, so it is no longer needed:
+				iterator.remove();
+			}
+		}
+	}
+
+	private void write( PlayerBalance balance ) {
+		Player player = balance.player;
+
+		try {
+			if ( balance.net > 0 ) {
+				providerAddBalance( player, balance.net );
+				providerWrites++;
+			}
+			else if ( balance.net < 0 ) {
+				providerRemoveBalance( player, -balance.net );
+				providerWrites++;
+			}
+
+			nettedWrites += balance.writes;
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "EconomyGateway: Failed to update the balance for " +
+						player.getName() + ": " + e.getMessage(), e );
+		}
+
+		balance.clearPending();
+
+		// Prison changed the balance, so it must be read again:
+		balance.cached = false;
+	}
+
+	/**
+	 * <p>Removes the player's cached balance so it is read from the economy plugin
+	 * the next time.  Any queued changes are kept.
+	 * </p>
+	 *
+	 * @param player
+	 */
+	public synchronized void invalidate( Player player ) {
+		PlayerBalance balance = balances.get( player.getUUID() );
+
+		if ( balance != null ) {
+			balance.cached = false;
+		}
+	}
+
+	private PlayerBalance getPlayerBalance( Player player ) {
+		PlayerBalance balance = balances.get( player.getUUID() );
+
+		if ( balance == null ) {
+			balance = new PlayerBalance( player );
+			balances.put( player.getUUID(), balance );
+		}
+		else {
+			// Use the newest player object when the changes are written:
+			balance.player = player;
+		}
+
+		return balance;
+	}
+
+	private double providerGetBalance( Player player ) {
+		providerReads++;
+
+		return currency == null ? economy.getBalance( player ) :
+				((EconomyCurrencyIntegration) economy).getBalance( player, currency );
+	}
+
+	private void providerSetBalance( Player player, double amount ) {
+		if ( currency == null ) {
+			economy.setBalance( player, amount );
+		}
+		else {
+			((EconomyCurrencyIntegration) economy).setBalance( player, amount, currency );
+		}
+	}
+
+	private void providerAddBalance( Player player, double amount ) {
+		if ( currency == null ) {
+			economy.addBalance( player, amount );
+		}
+		else {
+			((EconomyCurrencyIntegration) economy).addBalance( player, amount, currency );
+		}
+	}
+
+	private void providerRemoveBalance( Player player, double amount ) {
+		if ( currency == null ) {
+			economy.removeBalance( player, amount );
+		}
+		else {
+			((EconomyCurrencyIntegration) economy).removeBalance( player, amount, currency );
+		}
+	}
+
+	private boolean providerWithdraw( Player player, double amount ) {
+		return currency == null ? economy.withdraw( player, amount ) :
+				((EconomyCurrencyIntegration) economy).withdraw( player, amount, currency );
+	}
+
+	public synchronized int getPendingCount() {
+		int count = 0;
+
+		for ( PlayerBalance balance : balances.values() ) {
+			if ( balance.pending ) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return The number of times the balance was read from the economy plugin.
+	 */
+	public synchronized long getProviderReads() {
+		return providerReads;
+	}
+
+	/**
+	 * @return The number of times the economy plugin was called to change a balance.
+	 */
+	public synchronized long getProviderWrites() {
+		return providerWrites;
+	}
+
+	/**
+	 * @return The number of changes from prison that were written, which is larger
+	 * 			than getProviderWrites() when they are netted together.
+	 */
+	public synchronized long getNettedWrites() {
+		return nettedWrites;
+	}
+}
@@ -11,6 +11,12 @@ import tech.mcprison.prison.internal.Player;
 public abstract class EconomyIntegration 
 	extends IntegrationCore {
 
+	/**
+	 * How far the balance may be off after a withdrawal, for the rounding of
+	 * the economy plugins.
+	 */
+	protected static final double WITHDRAW_TOLERANCE = 0.0001;
+
 	public EconomyIntegration( String keyName, String providerName ) {
 		super( keyName, providerName, IntegrationType.ECONOMY );
 		
@@ -49,6 +55,28 @@ public abstract class EconomyIntegration
      */
     public abstract void removeBalance(Player player, double amount);
 
+    /**
+     * <p>Removes from the player's balance only if they can afford it, and reports
+     * whether the amount was taken.  Economies that can tell if a withdrawal worked
+     * should override this.  Otherwise the balance is checked before and after.
+     * </p>
+     *
+     * @param player The {@link Player}.
+     * @param amount The amount.
+     * @return true if the amount was removed, false otherwise.
+     */
+    public boolean withdraw(Player player, double amount) {
+        double before = getBalance(player);
+
+        if (before < amount) {
+            return false;
+        }
+
+        removeBalance(player, amount);
+
+        return getBalance(player) <= before - amount + WITHDRAW_TOLERANCE;
+    }
+
     /**
      * Returns whether or not the player can afford a transaction.
      *
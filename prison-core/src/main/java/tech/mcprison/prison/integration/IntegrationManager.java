@@ -8,8 +8,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.chat.FancyMessage;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.internal.platform.Platform;
 import tech.mcprison.prison.output.DisplayComponent;
 import tech.mcprison.prison.output.FancyMessageComponent;
 import tech.mcprison.prison.output.TextComponent;
@@ -27,10 +29,14 @@ public class IntegrationManager {
     private Map<IntegrationType, List<Integration>> integrations;
     
     private List<Integration> deferredIntegrations;
+    
+    private Map<String, EconomyGateway> economyGateways;
 
     public IntegrationManager() {
         this.integrations = new HashMap<>();
         this.deferredIntegrations = new ArrayList<>();
+        
+        this.economyGateways = new HashMap<>();
     }
 
 
@@ -101,6 +107,70 @@ public class IntegrationManager {
     			.orElse( null );
     }
 
+    /**
+     * <p>Gets the EconomyGateway for the default currency, which should be used 
+     * for all of prison's reads and writes to the player's balances.
+     * </p>
+     * 
+     * @return The gateway, or null if there is no economy.
+     */
+    public EconomyGateway getEconomyGateway() {
+    	return getEconomyGateway( null );
+    }
+    
+    /**
+     * <p>Gets the EconomyGateway for the currency.  If the economy plugin for the
+     * currency has changed, such as on a reload, then the old gateway is flushed
+     * and replaced.
+     * </p>
+     * 
+     * @param currency The currency, or null for the default currency.
+     * @return The gateway, or null if there is no economy for the currency.
+     */
+    public synchronized EconomyGateway getEconomyGateway( String currency ) {
+    	EconomyGateway results = null;
+    	
+    	EconomyIntegration economy = currency == null ? 
+    					getEconomy() : getEconomyForCurrency( currency );
+    	
+    	if ( economy != null ) {
+    		String key = currency == null ? "" : currency;
+    		
+    		results = economyGateways.get( key );
+    		
+    		if ( results == null || results.getEconomy() != economy ) {
+    			
+    			if ( results != null ) {
+    				results.flush();
+    			}
+    			
+    			Platform platform = Prison.get().getPlatform();
+    			
+    			long cacheMillis = platform.getConfigLong( 
+    					EconomyGateway.CONFIG_BALANCE_CACHE_MILLIS, 
+    					EconomyGateway.DEFAULT_BALANCE_CACHE_MILLIS );
+    			boolean queueWrites = platform.getConfigBooleanTrue( 
+    					EconomyGateway.CONFIG_QUEUE_WRITES );
+    			
+    			results = new EconomyGateway( economy, currency, cacheMillis, queueWrites );
+    			economyGateways.put( key, results );
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Writes all of the queued balance changes.  This must be called when 
+     * prison is disabled, before the economy plugin is disabled.
+     * </p>
+     */
+    public synchronized void flushEconomyGateways() {
+    	for ( EconomyGateway gateway : economyGateways.values() ) {
+    		gateway.flush();
+    	}
+    }
+
     public EconomyCurrencyIntegration getEconomyForCurrency(String currency) {
     	EconomyCurrencyIntegration results = null;
     	
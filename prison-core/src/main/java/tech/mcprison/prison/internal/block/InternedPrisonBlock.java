@@ -0,0 +1,169 @@
+package tech.mcprison.prison.internal.block;
+
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>The one shared PrisonBlock for a type of block, which is kept by the
+ * PrisonBlockTypes and used to identify the blocks in the world.  Since it is
+ * shared by every block of the same type, it cannot be changed: it has no
+ * location and no block counts, and all of the setters throw an
+ * UnsupportedOperationException.
+ * </p>
+ *
+ * <p>The location and the counts belong to the block that is being identified,
+ * such as the SpigotBlock.  If a PrisonBlock that can be changed is needed, then
+ * use withLocation() or clone(), which return a new PrisonBlock.
+ * </p>
+ *
+ */
+public final class InternedPrisonBlock
+		extends PrisonBlock {
+
+	/**
+	 * <p>Copies the type and the flags of the block, but not its location,
+	 * chance, counts, or constraints.
+	 * </p>
+	 *
+	 * @param block
+	 */
+	public InternedPrisonBlock( PrisonBlock block ) {
+		super( block.getBlockType(), block.getBlockName() );
+
+		super.setUseBlockTypeAsPrefix( block.isUseBlockTypeAsPrefix() );
+		super.setValid( block.isValid() );
+		super.setBlock( block.isBlock() );
+		super.setLegacyBlock( block.isLegacyBlock() );
+	}
+
+	/**
+	 * <p>Creates a new PrisonBlock of this type, at the location.
+	 * </p>
+	 *
+	 * @param location
+	 * @return A new PrisonBlock that can be changed.
+	 */
+	public PrisonBlock withLocation( Location location ) {
+		PrisonBlock results = new PrisonBlock( this );
+
+		results.setLocation( location );
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns a PrisonBlock that can be changed.
+	 * </p>
+	 */
+	@Override
+	public PrisonBlock clone() {
+		return new PrisonBlock( this );
+	}
+
+	private UnsupportedOperationException immutable() {
+		return new UnsupportedOperationException( "The interned PrisonBlock " +
+					getBlockName() + " is shared and cannot be changed.  Use a copy." );
+	}
+
+	@Override
+	public void setBlockType( PrisonBlockType blockType ) {
+		throw immutable();
+	}
+	@Override
+	public void setUseBlockTypeAsPrefix( boolean useBlockTypeAsPrefix ) {
+		throw immutable();
+	}
+	@Override
+	public void setValid( boolean valid ) {
+		throw immutable();
+	}
+	@Override
+	public void setBlock( boolean isBlock ) {
+		throw immutable();
+	}
+	@Override
+	public void setLegacyBlock( boolean legacyBlock ) {
+		throw immutable();
+	}
+	@Override
+	public void setLocation( Location location ) {
+		throw immutable();
+	}
+
+	@Override
+	public void setBlockName( String blockName ) {
+		throw immutable();
+	}
+	@Override
+	public void setChance( double chance ) {
+		throw immutable();
+	}
+	@Override
+	public void setResetBlockCount( int resetBlockCount ) {
+		throw immutable();
+	}
+	@Override
+	public void setBlockCountTotal( long blockCountTotal ) {
+		throw immutable();
+	}
+	@Override
+	public void setBlockCountSession( long blockCountSession ) {
+		throw immutable();
+	}
+	@Override
+	public void setBlockCountUnsaved( long blockCountUnsaved ) {
+		throw immutable();
+	}
+	@Override
+	public void setConstraintMin( int constraintMin ) {
+		throw immutable();
+	}
+	@Override
+	public void setConstraintMax( int constraintMax ) {
+		throw immutable();
+	}
+	@Override
+	public void setConstraintExcludeTopLayers( int constraintExcludeTopLayers ) {
+		throw immutable();
+	}
+	@Override
+	public void setConstraintExcludeBottomLayers( int constraintExcludeBottomLayers ) {
+		throw immutable();
+	}
+	@Override
+	public void setRangeBlockCountLow( int rangeBlockCountLow ) {
+		throw immutable();
+	}
+	@Override
+	public void setRangeBlockCountHigh( int rangeBlockCountHigh ) {
+		throw immutable();
+	}
+
+	@Override
+	public void resetAfterSave() {
+		throw immutable();
+	}
+	@Override
+	public void incrementResetBlockCount() {
+		throw immutable();
+	}
+	@Override
+	public void decrementResetBlockCount() {
+		throw immutable();
+	}
+	@Override
+	public void incrementMiningBlockCount() {
+		throw immutable();
+	}
+	@Override
+	public void parseFromSaveFileFormatStats( String blockString ) {
+		throw immutable();
+	}
+	@Override
+	public void transferStats( PrisonBlockStatusData oldBlock ) {
+		throw immutable();
+	}
+	@Override
+	public void addStats( PrisonBlockStatusData block ) {
+		throw immutable();
+	}
+}
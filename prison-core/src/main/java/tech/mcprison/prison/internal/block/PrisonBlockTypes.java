@@ -3,6 +3,8 @@ package tech.mcprison.prison.internal.block;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 
@@ -17,6 +19,9 @@ public class PrisonBlockTypes {
 	private List<PrisonBlock> blockTypes;
 	private TreeMap<String, PrisonBlock> blockTypesByName;
 	
+	private final ConcurrentHashMap<String, InternedPrisonBlock> internedBlocks;
+	private final Function<String, PrisonBlock> blockTypesByNameFactory;
+	
 	public enum InternalBlockTypes {
 		AIR,
 		GLASS,
@@ -31,6 +36,9 @@ public class PrisonBlockTypes {
 		
 		this.blockTypesByName = new TreeMap<>();
 		
+		this.internedBlocks = new ConcurrentHashMap<>();
+		this.blockTypesByNameFactory = this::getBlockTypesByName;
+		
 		initializeBlockTypes();
 	}
 	
@@ -150,6 +158,57 @@ public class PrisonBlockTypes {
 		return results;
 	}
 	
+	/**
+	 * <p>Gets the one shared PrisonBlock for the block name.  This is used when
+	 * identifying the blocks in the world, such as when they are broken, so a new
+	 * PrisonBlock does not have to be created for every block.
+	 * </p>
+	 * 
+	 * <p>The first time a block name is requested, the blockFactory creates the
+	 * block, which is then interned as an InternedPrisonBlock.  The interned block
+	 * is shared, so it cannot be changed and has no location.  Use 
+	 * InternedPrisonBlock.withLocation() to get a copy at a location.
+	 * </p>
+	 * 
+	 * @param blockName The exact block name, which is case sensitive.
+	 * @param blockFactory Creates the block if it has not been interned.  It 
+	 * 				may return null if the block name is not valid.
+	 * @return The shared block, or null if the blockFactory returned null.
+	 */
+	public InternedPrisonBlock getInternedBlock( String blockName, 
+							Function<String, PrisonBlock> blockFactory ) {
+		InternedPrisonBlock results = internedBlocks.get( blockName );
+		
+		if ( results == null ) {
+			PrisonBlock block = blockFactory.apply( blockName );
+			
+			if ( block != null ) {
+				InternedPrisonBlock interned = new InternedPrisonBlock( block );
+				
+				// Another thread may have interned it first:
+				results = internedBlocks.putIfAbsent( blockName, interned );
+				
+				if ( results == null ) {
+					results = interned;
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Gets the one shared PrisonBlock for the block name, interning a copy
+	 * of the block type from getBlockTypesByName() the first time.
+	 * </p>
+	 * 
+	 * @param blockName The exact block name, which is case sensitive.
+	 * @return The shared block, or null if it is not a valid block type.
+	 */
+	public InternedPrisonBlock getInternedBlockType( String blockName ) {
+		return getInternedBlock( blockName, blockTypesByNameFactory );
+	}
+	
 	private PrisonBlock searchBlockTypesByName( String blockName ) {
 		PrisonBlock block = blockTypesByName.get( blockName );
 		
@@ -17,7 +17,8 @@
  */
 
 /**
- * An currently incomplete scoreboard API. Use the {@link tech.mcprison.prison.util.Scoreboard} utility instead.
+ * An currently incomplete scoreboard API. Use the {@link tech.mcprison.prison.util.Scoreboard} utility, or
+ * the {@link tech.mcprison.prison.scoreboard.ScoreboardRenderer} for sidebars that are updated often, instead.
  * <p>
  * This package exists as a direct interface to the Minecraft server's scoreboards. It's not meant for direct usage
  * in your modules, though you may use it if you wish.
@@ -0,0 +1,77 @@
+package tech.mcprison.prison.journal;
+
+import java.util.List;
+import java.util.Optional;
+
+import tech.mcprison.prison.metrics.KeyedMetricTimer;
+import tech.mcprison.prison.metrics.PrisonMetrics;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>A collection within a JournalDatabase.  The documents are not cached, but
+ * the database has an index of where each one is in the journal, so a document
+ * is read with one read of the file.
+ * </p>
+ *
+ */
+public class JournalCollection
+	implements Collection
+{
+	private static final KeyedMetricTimer METRICS_SAVE_TIMER =
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_SAVE );
+
+	private final JournalDatabase database;
+	private final String name;
+
+	protected JournalCollection( JournalDatabase database, String name ) {
+		super();
+
+		this.database = database;
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return The documents in the order that they were first saved.
+	 */
+	@Override
+	public List<Document> getAll() {
+		return database.readAll( name );
+	}
+
+	@Override
+	public Optional<Document> get( String key ) {
+		return database.read( name, key );
+	}
+
+	/**
+	 * @return The keys of all of the documents.
+	 */
+	public List<String> getKeys() {
+		return database.getKeys( name );
+	}
+
+	@Override
+	public void save( Document document ) {
+		save( (String) document.get( "name" ), document );
+	}
+
+	@Override
+	public void save( String filename, Document document ) {
+		long metricsStart = METRICS_SAVE_TIMER.start();
+
+		database.beginTransaction().put( name, filename, document ).commit();
+
+		METRICS_SAVE_TIMER.stop( name, metricsStart );
+	}
+
+	@Override
+	public boolean delete( String name ) {
+		return database.delete( this.name, name );
+	}
+}
@@ -0,0 +1,239 @@
+package tech.mcprison.prison.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.gson.Gson;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Database;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>A database that keeps all of its collections in one JournalFile, so a
+ * transaction can change documents in more than one collection.  All of the
+ * reads and writes are synchronized on the database.
+ * </p>
+ *
+ * <p>Unlike the FileDatabase, deleting a collection or a document does not keep
+ * a copy that can be recovered, since the space is reclaimed when the journal
+ * is compacted.
+ * </p>
+ *
+ */
+public class JournalDatabase
+	implements Database
+{
+	private final String name;
+	private final JournalFile journal;
+
+	private final Gson gson;
+
+	private final Map<String, JournalCollection> collectionMap;
+
+	public JournalDatabase( String name, File file ) throws IOException {
+		super();
+
+		this.name = name;
+		this.journal = new JournalFile( file );
+
+		this.gson = new Gson();
+
+		this.collectionMap = new LinkedHashMap<>();
+
+		for ( String collectionName : journal.getCollectionNames() ) {
+			collectionMap.put( collectionName, new JournalCollection( this, collectionName ) );
+		}
+	}
+
+	protected JournalFile getJournal() {
+		return journal;
+	}
+
+	protected Gson getGson() {
+		return gson;
+	}
+
+	/**
+	 * @return A new transaction, which is not written until it is committed.
+	 */
+	public JournalTransaction beginTransaction() {
+		return new JournalTransaction( this );
+	}
+
+	/**
+	 * <p>Writes all of the operations as one transaction.
+	 * </p>
+	 *
+	 * @param operations
+	 * @return False if the transaction could not be written, in which case none
+	 * 			of the operations were applied.
+	 */
+	protected synchronized boolean commit( List<JournalFile.Operation> operations ) {
+		boolean results = false;
+
+		try {
+			journal.commit( operations );
+
+			// A put into a collection creates the collection:
+			for ( JournalFile.Operation operation : operations ) {
+				String collectionName = operation.getCollection();
+
+				if ( journal.hasCollection( collectionName ) ) {
+					if ( !collectionMap.containsKey( collectionName ) ) {
+						collectionMap.put( collectionName, new JournalCollection( this, collectionName ) );
+					}
+				}
+				else {
+					collectionMap.remove( collectionName );
+				}
+			}
+
+			results = true;
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "JournalDatabase: Failed to write a transaction to " +
+					journal.getFile().getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	protected synchronized Optional<Document> read( String collection, String key ) {
+		Document results = null;
+
+		try {
+			String json = journal.read( collection, key );
+
+			if ( json != null ) {
+				results = getGson().fromJson( json, Document.class );
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "JournalDatabase: Failed to read " + collection + "/" + key +
+					" from " + journal.getFile().getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+
+		return Optional.ofNullable( results );
+	}
+
+	protected synchronized List<Document> readAll( String collection ) {
+		List<Document> results = new ArrayList<>();
+
+		try {
+			for ( String json : journal.readAll( collection ) ) {
+				results.add( getGson().fromJson( json, Document.class ) );
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "JournalDatabase: Failed to read the collection " + collection +
+					" from " + journal.getFile().getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	protected synchronized boolean contains( String collection, String key ) {
+		return journal.contains( collection, key );
+	}
+
+	/**
+	 * <p>Deletes the document if it exists.  The check and the delete are made
+	 * while holding the database's lock, so another thread cannot delete or save
+	 * the document in between.
+	 * </p>
+	 *
+	 * @return False if the document does not exist, or the delete could not be written.
+	 */
+	protected synchronized boolean delete( String collection, String key ) {
+		return journal.contains( collection, key ) &&
+				commit( Collections.singletonList(
+					new JournalFile.Operation( JournalFile.OP_DELETE, collection, key, null ) ) );
+	}
+
+	protected synchronized List<String> getKeys( String collection ) {
+		return journal.getKeys( collection );
+	}
+
+	@Override
+	public synchronized Optional<Collection> getCollection( String name ) {
+		Collection results = collectionMap.get( name );
+
+		if ( results == null ) {
+			createCollection( name );
+			results = collectionMap.get( name );
+		}
+
+		return Optional.ofNullable( results );
+	}
+
+	@Override
+	public synchronized boolean createCollection( String name ) {
+		boolean results = false;
+
+		if ( collectionMap.containsKey( name ) ) {
+			String message = "The attempt to create a new JournalCollection named " + name +
+					" failed because a collection already exists by that name.";
+			Output.get().logWarn( message );
+		}
+		else {
+			results = commit( Collections.singletonList(
+					new JournalFile.Operation( JournalFile.OP_CREATE_COLLECTION, name, null, null ) ) );
+		}
+
+		return results;
+	}
+
+	@Override
+	public synchronized boolean deleteCollection( String name ) {
+		boolean results = false;
+
+		if ( collectionMap.containsKey( name ) ) {
+			results = commit( Collections.singletonList(
+					new JournalFile.Operation( JournalFile.OP_DROP_COLLECTION, name, null, null ) ) );
+		}
+		else {
+			String message = "The attempt to delete a JournalCollection named " + name +
+					" failed because it does not exist.";
+			Output.get().logWarn( message );
+		}
+
+		return results;
+	}
+
+	@Override
+	public synchronized List<Collection> getCollections() {
+		return new ArrayList<>( collectionMap.values() );
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		collectionMap.clear();
+	}
+
+	public synchronized void close() {
+		try {
+			journal.close();
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "JournalDatabase: Failed to close " +
+					journal.getFile().getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+	}
+
+	public synchronized boolean isOpen() {
+		return journal.isOpen();
+	}
+}
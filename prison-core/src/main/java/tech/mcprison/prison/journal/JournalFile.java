@@ -0,0 +1,589 @@
+package tech.mcprison.prison.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>The append-only log that holds all of the collections of one JournalDatabase.
+ * Each transaction is written as one record, with its length and a CRC32 of its
+ * contents, so a transaction is either all there or is ignored:
+ * </p>
+ *
+ * <pre>
+ *   file:    int MAGIC, record...
+ *   record:  int length, int crc32, payload
+ *   payload: int operationCount, operation...
+ *   operation: byte type, string collection, [string key, int jsonLength, json bytes]
+ * </pre>
+ *
+ * <p>When the file is opened, the records are read to build the index of where
+ * each document's json is in the file.  If the server crashed while a record was
+ * being written, then the end of the file will be incomplete, or will fail its
+ * CRC, so it is truncated back to the last complete transaction.
+ * </p>
+ *
+ * <p>Saving a document again leaves its old json in the file.  When more than half
+ * of the file is old values, it is compacted by writing the current documents to
+ * a new file, which then replaces the log with an atomic rename.
+ * </p>
+ *
+ * <p>This is not thread safe; JournalDatabase synchronizes all access.
+ * </p>
+ *
+ */
+public class JournalFile {
+
+	public static final int MAGIC = 0x50524a31; // "PRJ1"
+
+	public static final byte OP_PUT = 1;
+	public static final byte OP_DELETE = 2;
+	public static final byte OP_CREATE_COLLECTION = 3;
+	public static final byte OP_DROP_COLLECTION = 4;
+
+	/**
+	 * Files smaller than this are never compacted.
+	 */
+	public static final long COMPACT_MIN_BYTES = 1024 * 1024;
+
+	/**
+	 * The maximum size of the records that are written when compacting.
+	 */
+	private static final int COMPACT_RECORD_BYTES = 4 * 1024 * 1024;
+
+	private static final int HEADER_BYTES = 4;
+	private static final int RECORD_HEADER_BYTES = 8;
+
+	private final File file;
+
+	private FileChannel channel;
+	private long size;
+
+	/**
+	 * <p>The bytes of the operations that are still current.  Compared to the size
+	 * of the file, it shows how much could be recovered by compacting.
+	 * </p>
+	 */
+	private long liveBytes;
+
+	private final Map<String, Map<String, Entry>> collections;
+
+	/**
+	 * <p>Where a document's json is in the file.
+	 * </p>
+	 */
+	public static class Entry {
+		private final long position;
+		private final int length;
+		private final int operationBytes;
+
+		private Entry( long position, int length, int operationBytes ) {
+			super();
+
+			this.position = position;
+			this.length = length;
+			this.operationBytes = operationBytes;
+		}
+	}
+
+	/**
+	 * <p>One change within a transaction.
+	 * </p>
+	 */
+	public static class Operation {
+		private final byte type;
+		private final String collection;
+		private final String key;
+		private final byte[] json;
+
+		public Operation( byte type, String collection, String key, String json ) {
+			super();
+
+			this.type = type;
+			this.collection = collection;
+			this.key = key;
+			this.json = json == null ? null : json.getBytes( StandardCharsets.UTF_8 );
+		}
+
+		public String getCollection() {
+			return collection;
+		}
+
+		public String getKey() {
+			return key;
+		}
+	}
+
+	public JournalFile( File file ) throws IOException {
+		super();
+
+		this.file = file;
+		this.collections = new LinkedHashMap<>();
+
+		open();
+
+		if ( isCompactionNeeded() ) {
+			compact();
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getLiveBytes() {
+		return liveBytes;
+	}
+
+	private void open() throws IOException {
+		collections.clear();
+		liveBytes = 0;
+
+		boolean exists = file.exists() && file.length() > 0;
+
+		channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE );
+
+		if ( !exists ) {
+			ByteBuffer header = ByteBuffer.allocate( HEADER_BYTES );
+			header.putInt( MAGIC );
+			header.flip();
+
+			writeFully( header, 0 );
+			channel.force( true );
+
+			size = HEADER_BYTES;
+		}
+		else {
+			size = replay();
+		}
+	}
+
+	/**
+	 * <p>Reads all of the complete transactions to build the index, and truncates
+	 * any incomplete transaction at the end of the file.
+	 * </p>
+	 *
+	 * @return The size of the file after it has been truncated.
+	 * @throws IOException
+	 */
+	private long replay() throws IOException {
+		long position = HEADER_BYTES;
+		long fileLength = file.length();
+
+		try ( InputStream fis = new FileInputStream( file );
+				DataInputStream in = new DataInputStream( new BufferedInputStream( fis, 64 * 1024 ) ) ) {
+
+			if ( in.readInt() != MAGIC ) {
+				throw new IOException( "Not a prison journal file: " + file.getAbsolutePath() );
+			}
+
+			CRC32 crc = new CRC32();
+
+			while ( position < fileLength ) {
+				int length;
+				int checksum;
+				byte[] payload;
+
+				try {
+					length = in.readInt();
+					checksum = in.readInt();
+
+					if ( length < 4 || length > fileLength - position - RECORD_HEADER_BYTES ) {
+						break;
+					}
+
+					payload = new byte[length];
+					in.readFully( payload );
+				}
+				catch ( EOFException e ) {
+					break;
+				}
+
+				crc.reset();
+				crc.update( payload, 0, payload.length );
+
+				if ( (int) crc.getValue() != checksum ) {
+					break;
+				}
+
+				apply( ByteBuffer.wrap( payload ), position + RECORD_HEADER_BYTES );
+
+				position += RECORD_HEADER_BYTES + length;
+			}
+		}
+
+		if ( position < fileLength ) {
+			Output.get().logWarn( String.format(
+					"JournalFile: Discarded an incomplete transaction of %d bytes at the end of %s. " +
+					"The server may not have been shut down normally.",
+					fileLength - position, file.getAbsolutePath() ) );
+
+			channel.truncate( position );
+			channel.force( true );
+		}
+
+		return position;
+	}
+
+	/**
+	 * <p>Applies the operations of one transaction to the index.
+	 * </p>
+	 *
+	 * @param payload
+	 * @param payloadPosition Where the payload starts in the file.
+	 */
+	private void apply( ByteBuffer payload, long payloadPosition ) {
+		int count = payload.getInt();
+
+		for ( int i = 0; i < count; i++ ) {
+			int start = payload.position();
+
+			byte type = payload.get();
+			String collection = getString( payload );
+
+			switch ( type ) {
+				case OP_PUT: {
+					String key = getString( payload );
+					int length = payload.getInt();
+					long position = payloadPosition + payload.position();
+					payload.position( payload.position() + length );
+
+					int operationBytes = payload.position() - start;
+					Entry old = getCollection( collection ).put( key,
+								new Entry( position, length, operationBytes ) );
+					removeLive( old );
+					liveBytes += operationBytes;
+					break;
+				}
+
+				case OP_DELETE: {
+					String key = getString( payload );
+
+					Map<String, Entry> entries = collections.get( collection );
+					if ( entries != null ) {
+						removeLive( entries.remove( key ) );
+					}
+					break;
+				}
+
+				case OP_CREATE_COLLECTION:
+					getCollection( collection );
+					break;
+
+				case OP_DROP_COLLECTION: {
+					Map<String, Entry> entries = collections.remove( collection );
+					if ( entries != null ) {
+						for ( Entry entry : entries.values() ) {
+							removeLive( entry );
+						}
+					}
+					break;
+				}
+
+				default:
+					throw new IllegalStateException( "JournalFile: Unknown operation " + type +
+							" in " + file.getAbsolutePath() );
+			}
+		}
+	}
+
+	private void removeLive( Entry entry ) {
+		if ( entry != null ) {
+			liveBytes -= entry.operationBytes;
+		}
+	}
+
+	private Map<String, Entry> getCollection( String collection ) {
+		Map<String, Entry> entries = collections.get( collection );
+
+		if ( entries == null ) {
+			entries = new LinkedHashMap<>();
+			collections.put( collection, entries );
+		}
+
+		return entries;
+	}
+
+	private static String getString( ByteBuffer buffer ) {
+		int length = buffer.getShort() & 0xFFFF;
+
+		String results = new String( buffer.array(), buffer.arrayOffset() + buffer.position(),
+					length, StandardCharsets.UTF_8 );
+		buffer.position( buffer.position() + length );
+
+		return results;
+	}
+
+	private static void putString( DataOutputStream out, String value ) throws IOException {
+		byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+
+		if ( bytes.length > 0xFFFF ) {
+			throw new IOException( "JournalFile: Name is too long: " + value.substring( 0, 64 ) );
+		}
+
+		out.writeShort( bytes.length );
+		out.write( bytes );
+	}
+
+	/**
+	 * <p>Writes all of the operations as one transaction, and forces it to the disk
+	 * before the index is changed.  If this fails, then none of the operations were
+	 * applied.
+	 * </p>
+	 *
+	 * @param operations
+	 * @throws IOException
+	 */
+	public void commit( List<Operation> operations ) throws IOException {
+		if ( operations.isEmpty() ) {
+			return;
+		}
+
+		byte[] payload = encode( operations );
+
+		ByteBuffer record = ByteBuffer.allocate( RECORD_HEADER_BYTES + payload.length );
+		record.putInt( payload.length );
+		record.putInt( checksum( payload ) );
+		record.put( payload );
+		record.flip();
+
+		try {
+			writeFully( record, size );
+			channel.force( false );
+		}
+		catch ( IOException e ) {
+			// Remove anything that was partly written so the next commit starts clean:
+			channel.truncate( size );
+			throw e;
+		}
+
+		apply( ByteBuffer.wrap( payload ), size + RECORD_HEADER_BYTES );
+		size += record.limit();
+
+		if ( isCompactionNeeded() ) {
+			try {
+				compact();
+			}
+			catch ( IOException e ) {
+				// The transaction was committed, so this is not a failure of the commit:
+				Output.get().logError( "JournalFile: Failed to compact " + file.getAbsolutePath() +
+						": " + e.getMessage(), e );
+			}
+		}
+	}
+
+	private byte[] encode( List<Operation> operations ) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+
+		out.writeInt( operations.size() );
+
+		for ( Operation operation : operations ) {
+			out.writeByte( operation.type );
+			putString( out, operation.collection );
+
+			if ( operation.type == OP_PUT || operation.type == OP_DELETE ) {
+				putString( out, operation.key );
+			}
+			if ( operation.type == OP_PUT ) {
+				out.writeInt( operation.json.length );
+				out.write( operation.json );
+			}
+		}
+
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static int checksum( byte[] payload ) {
+		CRC32 crc = new CRC32();
+		crc.update( payload, 0, payload.length );
+		return (int) crc.getValue();
+	}
+
+	private void writeFully( ByteBuffer buffer, long position ) throws IOException {
+		while ( buffer.hasRemaining() ) {
+			position += channel.write( buffer, position );
+		}
+	}
+
+	/**
+	 * @param collection
+	 * @param key
+	 * @return The document's json, or null if it does not exist.
+	 * @throws IOException
+	 */
+	public String read( String collection, String key ) throws IOException {
+		Map<String, Entry> entries = collections.get( collection );
+		Entry entry = entries == null ? null : entries.get( key );
+
+		return entry == null ? null : read( entry );
+	}
+
+	private String read( Entry entry ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate( entry.length );
+
+		long position = entry.position;
+		while ( buffer.hasRemaining() ) {
+			int read = channel.read( buffer, position );
+			if ( read < 0 ) {
+				throw new EOFException( "JournalFile: Document is past the end of " +
+							file.getAbsolutePath() );
+			}
+			position += read;
+		}
+
+		return new String( buffer.array(), StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * @param collection
+	 * @return All of the documents' json in the order they were first saved.
+	 * @throws IOException
+	 */
+	public List<String> readAll( String collection ) throws IOException {
+		List<String> results = new ArrayList<>();
+
+		Map<String, Entry> entries = collections.get( collection );
+		if ( entries != null ) {
+			for ( Entry entry : entries.values() ) {
+				results.add( read( entry ) );
+			}
+		}
+
+		return results;
+	}
+
+	public boolean hasCollection( String collection ) {
+		return collections.containsKey( collection );
+	}
+
+	public boolean contains( String collection, String key ) {
+		Map<String, Entry> entries = collections.get( collection );
+		return entries != null && entries.containsKey( key );
+	}
+
+	public List<String> getCollectionNames() {
+		return new ArrayList<>( collections.keySet() );
+	}
+
+	public List<String> getKeys( String collection ) {
+		Map<String, Entry> entries = collections.get( collection );
+		return entries == null ? new ArrayList<>() : new ArrayList<>( entries.keySet() );
+	}
+
+	private boolean isCompactionNeeded() {
+		return size > COMPACT_MIN_BYTES && liveBytes * 2 < size;
+	}
+
+	/**
+	 * <p>Writes the current documents to a new file, and then replaces the log with
+	 * it.  If the server crashes while compacting, the log is not changed, since the
+	 * new file is only renamed once it has been completely written.
+	 * </p>
+	 *
+	 * @throws IOException
+	 */
+	public void compact() throws IOException {
+		File compactFile = new File( file.getParentFile(), file.getName() + ".compact" );
+		Files.deleteIfExists( compactFile.toPath() );
+
+		try ( FileChannel out = FileChannel.open( compactFile.toPath(), StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE ) ) {
+
+			ByteBuffer header = ByteBuffer.allocate( HEADER_BYTES );
+			header.putInt( MAGIC );
+			header.flip();
+			out.write( header );
+
+			List<Operation> operations = new ArrayList<>();
+			int recordBytes = 0;
+
+			for ( Map.Entry<String, Map<String, Entry>> collection : collections.entrySet() ) {
+				operations.add( new Operation( OP_CREATE_COLLECTION, collection.getKey(), null, null ) );
+
+				for ( Map.Entry<String, Entry> document : collection.getValue().entrySet() ) {
+					operations.add( new Operation( OP_PUT, collection.getKey(), document.getKey(),
+								read( document.getValue() ) ) );
+					recordBytes += document.getValue().operationBytes;
+
+					if ( recordBytes >= COMPACT_RECORD_BYTES ) {
+						writeRecord( out, operations );
+						operations.clear();
+						recordBytes = 0;
+					}
+				}
+			}
+			writeRecord( out, operations );
+
+			out.force( true );
+		}
+
+		channel.close();
+
+		try {
+			Files.move( compactFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch ( AtomicMoveNotSupportedException e ) {
+			Files.move( compactFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		}
+		finally {
+			// Either the compacted file, or the original if the rename failed:
+			open();
+		}
+	}
+
+	private void writeRecord( FileChannel out, List<Operation> operations ) throws IOException {
+		if ( operations.isEmpty() ) {
+			return;
+		}
+
+		byte[] payload = encode( operations );
+
+		ByteBuffer record = ByteBuffer.allocate( RECORD_HEADER_BYTES + payload.length );
+		record.putInt( payload.length );
+		record.putInt( checksum( payload ) );
+		record.put( payload );
+		record.flip();
+
+		while ( record.hasRemaining() ) {
+			out.write( record );
+		}
+	}
+
+	public void close() throws IOException {
+		if ( channel != null && channel.isOpen() ) {
+			channel.close();
+		}
+	}
+
+	public boolean isOpen() {
+		return channel != null && channel.isOpen();
+	}
+}
@@ -0,0 +1,180 @@
+package tech.mcprison.prison.journal;
+
+import java.io.File;
+import java.util.Optional;
+
+import tech.mcprison.prison.file.FileCollection;
+import tech.mcprison.prison.file.FileStorage;
+import tech.mcprison.prison.journal.JournalStorage.MigrationStatus;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Database;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>Copies all of the documents from the FileStorage in to a JournalStorage.  This
+ * is ran once, when the JournalStorage is first used, and it does not change or
+ * remove the json files.  The documents are written in batches, with one
+ * transaction for each batch.
+ * </p>
+ *
+ * <p>The migration is only marked as complete after all of the batches are
+ * saved.  If it did not finish, then it is resumed the next time, and only the
+ * documents that are not in the journal are copied, since the documents that are
+ * in the journal are either already copied or were saved after they were copied.
+ * </p>
+ *
+ */
+public class JournalMigrator {
+
+	public static final int BATCH_SIZE = 500;
+
+	private int databases = 0;
+	private int collections = 0;
+	private int documents = 0;
+	private int skipped = 0;
+	private int failures = 0;
+
+	private boolean resume = false;
+
+	/**
+	 * <p>If the json files have not all been copied in to the JournalStorage, then
+	 * copy them, or finish copying them.
+	 * </p>
+	 *
+	 * @param dataDirectory The plugin's directory, which is the root of the FileStorage.
+	 * @param target
+	 */
+	public static void migrateIfNeeded( File dataDirectory, JournalStorage target ) {
+
+		MigrationStatus status = target.getMigrationStatus();
+
+		if ( status != MigrationStatus.complete ) {
+			JournalMigrator migrator = new JournalMigrator();
+
+			if ( status == MigrationStatus.started ) {
+				Output.get().logWarn( "JournalMigrator: The last migration in to the journal storage " +
+						"did not finish.  Copying the documents that are missing." );
+
+				migrator.setResume( true );
+			}
+
+			target.setMigrationStatus( MigrationStatus.started );
+
+			migrator.migrate( new FileStorage( dataDirectory ), target );
+
+			Output.get().logInfo( String.format( "JournalMigrator: Copied %d documents in %d collections " +
+					"from %d databases in to the journal storage.%s%s",
+					migrator.getDocuments(), migrator.getCollections(), migrator.getDatabases(),
+					(migrator.getSkipped() == 0 ? "" :
+						String.format( "  %d documents were already copied.", migrator.getSkipped() )),
+					(migrator.getFailures() == 0 ? "" :
+						String.format( "  %d batches failed to save.", migrator.getFailures() )) ) );
+
+			if ( migrator.getFailures() == 0 ) {
+				target.setMigrationStatus( MigrationStatus.complete );
+			}
+			else {
+				Output.get().logError( "JournalMigrator: The migration in to the journal storage " +
+						"did not finish, and will be tried again the next time the server starts." );
+			}
+		}
+	}
+
+	public void migrate( FileStorage source, JournalStorage target ) {
+
+		for ( Database sourceDb : source.getDatabases() ) {
+
+			if ( JournalStorage.DIRECTORY_NAME.equals( sourceDb.getName() ) ) {
+				continue;
+			}
+
+			Optional<Database> targetDb = target.getDatabase( sourceDb.getName() );
+			if ( !targetDb.isPresent() ) {
+				failures++;
+				continue;
+			}
+
+			databases++;
+
+			JournalDatabase journalDb = (JournalDatabase) targetDb.get();
+
+			for ( Collection collection : sourceDb.getCollections() ) {
+				migrate( (FileCollection) collection, journalDb );
+			}
+		}
+	}
+
+	private void migrate( FileCollection collection, JournalDatabase target ) {
+		collections++;
+
+		target.getCollection( collection.getName() );
+
+		JournalTransaction transaction = target.beginTransaction();
+
+		for ( String key : collection.getKeys() ) {
+
+			if ( resume && target.contains( collection.getName(), key ) ) {
+				skipped++;
+				continue;
+			}
+
+			Optional<Document> document = collection.get( key );
+
+			if ( document.isPresent() ) {
+				transaction.put( collection.getName(), key, document.get() );
+			}
+
+			if ( transaction.size() >= BATCH_SIZE ) {
+				commit( transaction );
+			}
+		}
+
+		commit( transaction );
+	}
+
+	private void commit( JournalTransaction transaction ) {
+		int size = transaction.size();
+
+		if ( size > 0 ) {
+			if ( transaction.commit() ) {
+				documents += size;
+			}
+			else {
+				failures++;
+			}
+		}
+	}
+
+	public int getDatabases() {
+		return databases;
+	}
+
+	public int getCollections() {
+		return collections;
+	}
+
+	public int getDocuments() {
+		return documents;
+	}
+
+	public int getSkipped() {
+		return skipped;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public boolean isResume() {
+		return resume;
+	}
+
+	/**
+	 * @param resume If true, then the documents that are already in the journal
+	 * 			are not copied.
+	 */
+	public void setResume( boolean resume ) {
+		this.resume = resume;
+	}
+}
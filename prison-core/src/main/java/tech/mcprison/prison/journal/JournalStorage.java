@@ -0,0 +1,271 @@
+package tech.mcprison.prison.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import tech.mcprison.prison.file.FileVirtualDelete;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Database;
+import tech.mcprison.prison.store.Storage;
+
+/**
+ * <p>Storage that keeps each database in one append-only journal file, instead
+ * of one json file per document like the FileStorage.  The changes are written
+ * in transactions that are either completely saved or not at all, even if the
+ * server crashes, and the documents are found with an index instead of a file
+ * lookup, so it works well with tens of thousands of players.
+ * </p>
+ *
+ * <p>It is enabled in config.yml with <pre>storageType: journal</pre>  The first
+ * time it is used, the json files are copied in to it by the JournalMigrator.
+ * The json files are not changed, so they can be used again by switching back.
+ * </p>
+ *
+ * <p>The progress of the migration is saved in a status file, so if the server
+ * stops before the migration is finished, it is finished the next time the
+ * server starts.
+ * </p>
+ *
+ */
+public class JournalStorage
+	extends FileVirtualDelete
+	implements Storage
+{
+	public static final String STORAGE_TYPE = "journal";
+
+	/**
+	 * The directory within the plugin's directory that holds the journal files.
+	 */
+	public static final String DIRECTORY_NAME = "journal_storage";
+
+	public static final String FILE_SUFFIX = ".journal";
+
+	public static final String MIGRATION_STATUS_FILE = "migration.status";
+
+	public enum MigrationStatus {
+		/**
+		 * The json files have not been copied.
+		 */
+		none,
+
+		/**
+		 * The copying of the json files was started, but it has not finished.
+		 */
+		started,
+
+		/**
+		 * All of the json files have been copied.
+		 */
+		complete;
+	}
+
+	private final File rootDir;
+	private final Map<String, JournalDatabase> databaseMap;
+
+	private boolean newStorage = false;
+	private boolean closed = false;
+
+	public JournalStorage( File rootDir ) {
+		super();
+
+		this.rootDir = rootDir;
+		this.databaseMap = new LinkedHashMap<>();
+
+		if ( !rootDir.exists() ) {
+			rootDir.mkdirs();
+		}
+
+		refresh();
+	}
+
+	/**
+	 * <p>Opens all of the journal files, skipping those that were deleted.
+	 * </p>
+	 */
+	private void refresh() {
+		File[] files = rootDir.listFiles( (dir, name) -> name.endsWith( FILE_SUFFIX ) );
+
+		newStorage = files == null || files.length == 0;
+
+		if ( files != null ) {
+			for ( File file : files ) {
+				if ( isDeleted( file ) ) {
+					String message = "JournalStorage.refresh skipping logically deleted JournalDatabase: " +
+							file.getAbsolutePath();
+					Output.get().logInfo( message );
+				}
+				else {
+					String name = file.getName().substring( 0,
+							file.getName().length() - FILE_SUFFIX.length() );
+					open( name, file );
+				}
+			}
+		}
+	}
+
+	private JournalDatabase open( String name, File file ) {
+		JournalDatabase results = null;
+
+		try {
+			results = new JournalDatabase( name, file );
+			databaseMap.put( name, results );
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "JournalStorage: Failed to open the journal " +
+					file.getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	/**
+	 * @return True if there were no databases when this was opened, so the json
+	 * 			files should be migrated.
+	 */
+	public boolean isNewStorage() {
+		return newStorage;
+	}
+
+	/**
+	 * <p>The journals that were migrated before the status file was added have
+	 * no status file, and are complete.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized MigrationStatus getMigrationStatus() {
+		MigrationStatus results = null;
+
+		File file = new File( rootDir, MIGRATION_STATUS_FILE );
+
+		if ( !file.exists() ) {
+			results = newStorage ? MigrationStatus.none : MigrationStatus.complete;
+		}
+		else {
+			try {
+				String status = new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 ).trim();
+
+				// Anything but complete, such as a partly written file, is not finished:
+				results = MigrationStatus.complete.name().equals( status ) ?
+								MigrationStatus.complete : MigrationStatus.started;
+			}
+			catch ( IOException e ) {
+				results = MigrationStatus.started;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * @param status
+	 * @return True if the status was saved.
+	 */
+	public synchronized boolean setMigrationStatus( MigrationStatus status ) {
+		boolean results = false;
+
+		File file = new File( rootDir, MIGRATION_STATUS_FILE );
+
+		try {
+			Files.write( file.toPath(), status.name().getBytes( StandardCharsets.UTF_8 ) );
+			results = true;
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "JournalStorage: Failed to save the migration status " +
+					file.getAbsolutePath() + ": " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	@Override
+	public synchronized boolean isConnected() {
+		return !closed && rootDir.exists();
+	}
+
+	/**
+	 * If the database does not exist, then create it.
+	 */
+	@Override
+	public synchronized Optional<Database> getDatabase( String name ) {
+		Database results = databaseMap.get( name );
+
+		if ( results == null ) {
+			createDatabase( name );
+			results = databaseMap.get( name );
+		}
+
+		return Optional.ofNullable( results );
+	}
+
+	@Override
+	public synchronized boolean createDatabase( String name ) {
+		boolean results = false;
+
+		File file = new File( rootDir, name + FILE_SUFFIX );
+
+		if ( !databaseMap.containsKey( name ) && !file.exists() ) {
+			results = open( name, file ) != null;
+		}
+		else {
+			String message = "The attempt to create a new JournalDatabase named " + name +
+					" failed because one already exists by that name.";
+			Output.get().logWarn( message );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>The journal file is renamed so it can be recovered, in the same way that
+	 * the FileStorage deletes a database.
+	 * </p>
+	 */
+	@Override
+	public synchronized boolean deleteDatabase( String name ) {
+		boolean results = false;
+
+		JournalDatabase db = databaseMap.get( name );
+		File file = new File( rootDir, name + FILE_SUFFIX );
+
+		if ( db != null && file.exists() ) {
+			db.close();
+			db.dispose();
+
+			results = virtualDelete( file );
+			databaseMap.remove( name );
+		}
+		else {
+			String message = "The attempt to delete a JournalDatabase named " + name +
+					" failed because it does not exist.";
+			Output.get().logWarn( message );
+		}
+
+		return results;
+	}
+
+	@Override
+	public synchronized List<Database> getDatabases() {
+		return new ArrayList<>( databaseMap.values() );
+	}
+
+	/**
+	 * <p>Closes all of the journal files.  Every transaction is already on the
+	 * disk, so this only releases the files.
+	 * </p>
+	 */
+	public synchronized void close() {
+		for ( JournalDatabase db : databaseMap.values() ) {
+			db.close();
+		}
+
+		closed = true;
+	}
+}
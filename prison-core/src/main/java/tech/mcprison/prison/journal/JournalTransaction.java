@@ -0,0 +1,64 @@
+package tech.mcprison.prison.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>A batch of changes to a JournalDatabase that are written together, so either
+ * all of them are saved or none of them are.  The documents are converted to json
+ * when they are added, so they can be changed afterwards.
+ * </p>
+ *
+ * <pre>
+ *   database.beginTransaction()
+ *   		.put( "players", key1, document1 )
+ *   		.put( "players", key2, document2 )
+ *   		.commit();
+ * </pre>
+ *
+ */
+public class JournalTransaction {
+
+	private final JournalDatabase database;
+	private final List<JournalFile.Operation> operations;
+
+	protected JournalTransaction( JournalDatabase database ) {
+		super();
+
+		this.database = database;
+		this.operations = new ArrayList<>();
+	}
+
+	public JournalTransaction put( String collection, String key, Document document ) {
+		String json = database.getGson().toJson( document );
+
+		operations.add( new JournalFile.Operation( JournalFile.OP_PUT, collection, key, json ) );
+		return this;
+	}
+
+	public JournalTransaction delete( String collection, String key ) {
+		operations.add( new JournalFile.Operation( JournalFile.OP_DELETE, collection, key, null ) );
+		return this;
+	}
+
+	public int size() {
+		return operations.size();
+	}
+
+	/**
+	 * <p>Writes all of the changes.  The transaction is empty afterwards, so it
+	 * can be used for the next batch.
+	 * </p>
+	 *
+	 * @return False if it failed, and nothing was written.
+	 */
+	public boolean commit() {
+		boolean results = database.commit( operations );
+
+		operations.clear();
+
+		return results;
+	}
+}
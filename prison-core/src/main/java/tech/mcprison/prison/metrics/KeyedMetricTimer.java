@@ -0,0 +1,77 @@
+package tech.mcprison.prison.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A timer that also keeps a separate timer for each key, such as for each
+ * mine, so the report can show which mines are taking the most time.  Every
+ * duration is also added to the timer for all of the keys.
+ * </p>
+ *
+ */
+public class KeyedMetricTimer
+	extends MetricTimer
+{
+	private final PrisonMetrics metrics;
+
+	private final Map<String, MetricTimer> keyedTimers;
+
+	protected KeyedMetricTimer( PrisonMetrics metrics, String name ) {
+		super( metrics, name );
+
+		this.metrics = metrics;
+		this.keyedTimers = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @param key Such as the mine name.  If null, then it is only added to the
+	 * 			total.
+	 * @param start The value that was returned by <code>start()</code>.
+	 */
+	public void stop( String key, long start ) {
+		if ( start != 0L ) {
+			record( key, System.nanoTime() - start );
+		}
+	}
+
+	public void record( String key, long nanos ) {
+		if ( metrics.isEnabled() ) {
+			getHistogram().record( nanos );
+
+			if ( key != null ) {
+				getTimer( key ).getHistogram().record( nanos );
+			}
+		}
+	}
+
+	public MetricTimer getTimer( String key ) {
+		return keyedTimers.computeIfAbsent( key,
+				k -> new MetricTimer( metrics, getName() + "." + k ) );
+	}
+
+	/**
+	 * @param count
+	 * @return The keys that have taken the most total time, with the worst first.
+	 */
+	public List<Map.Entry<String, MetricTimer>> getWorst( int count ) {
+		List<Map.Entry<String, MetricTimer>> results = new ArrayList<>( keyedTimers.entrySet() );
+
+		results.removeIf( entry -> entry.getValue().getCount() == 0 );
+		results.sort( Comparator.comparingLong(
+				(Map.Entry<String, MetricTimer> entry) -> entry.getValue().getHistogram().getTotalNanos() )
+					.reversed() );
+
+		return results.size() > count ? results.subList( 0, count ) : results;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+
+		keyedTimers.clear();
+	}
+}
@@ -0,0 +1,200 @@
+package tech.mcprison.prison.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A histogram of durations that has a fixed set of buckets, so recording a
+ * duration only finds its bucket and increments a counter, and the memory that
+ * it uses never grows.  The buckets follow a 1, 1.5, 2, 3, 5, 7.5 series for
+ * each power of ten, from 1 microsecond to 10 seconds, with one more bucket for
+ * everything that is longer.
+ * </p>
+ *
+ * <p>The percentiles are estimated by finding the bucket that holds the
+ * requested rank, and then interpolating within that bucket, so they are
+ * accurate to within the width of one bucket.  They are never reported as
+ * being larger than the longest duration that was recorded.
+ * </p>
+ *
+ * <p>This is thread safe.  A report that is taken while durations are being
+ * recorded may be off by the few that were recorded while it was being built.
+ * </p>
+ *
+ */
+public class LatencyHistogram {
+
+	private static final long[] BUCKET_LIMITS_NANOS = createBucketLimits();
+
+	private final AtomicLongArray buckets;
+	private final AtomicLong totalNanos;
+	private final AtomicLong maxNanos;
+
+	public LatencyHistogram() {
+		super();
+
+		this.buckets = new AtomicLongArray( BUCKET_LIMITS_NANOS.length + 1 );
+		this.totalNanos = new AtomicLong();
+		this.maxNanos = new AtomicLong();
+	}
+
+	private static long[] createBucketLimits() {
+		long[] steps = { 1000, 1500, 2000, 3000, 5000, 7500 };
+
+		// 7 powers of ten, from 1 us to 7.5 s, and then 10 s:
+		long[] results = new long[ steps.length * 7 + 1 ];
+
+		long scale = 1;
+		int i = 0;
+		for ( int decade = 0; decade < 7; decade++ ) {
+			for ( long step : steps ) {
+				results[i++] = step * scale;
+			}
+			scale *= 10;
+		}
+		results[i] = 1000 * scale;
+
+		return results;
+	}
+
+	/**
+	 * @return The upper limits of the buckets, in nanoseconds.  The last bucket,
+	 * 			which is not included, has no upper limit.
+	 */
+	public static long[] getBucketLimitsNanos() {
+		return BUCKET_LIMITS_NANOS.clone();
+	}
+
+	/**
+	 * @param nanos
+	 * @return The index of the bucket that the duration is counted in, where a
+	 * 			duration that equals a bucket's limit is in that bucket.
+	 */
+	public static int getBucketIndex( long nanos ) {
+		int index = Arrays.binarySearch( BUCKET_LIMITS_NANOS, nanos );
+
+		return index >= 0 ? index : -(index + 1);
+	}
+
+	public void record( long nanos ) {
+		if ( nanos < 0 ) {
+			nanos = 0;
+		}
+
+		buckets.incrementAndGet( getBucketIndex( nanos ) );
+		totalNanos.addAndGet( nanos );
+
+		long max = maxNanos.get();
+		while ( nanos > max && !maxNanos.compareAndSet( max, nanos ) ) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * @return A copy of the number of durations in each bucket.
+	 */
+	public long[] getBucketCounts() {
+		long[] results = new long[ buckets.length() ];
+
+		for ( int i = 0; i < results.length; i++ ) {
+			results[i] = buckets.get( i );
+		}
+
+		return results;
+	}
+
+	public long getCount() {
+		long results = 0;
+
+		for ( int i = 0; i < buckets.length(); i++ ) {
+			results += buckets.get( i );
+		}
+
+		return results;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public long getMeanNanos() {
+		long count = getCount();
+
+		return count == 0 ? 0 : getTotalNanos() / count;
+	}
+
+	public long getPercentileNanos( double percentile ) {
+		return getPercentilesNanos( percentile )[0];
+	}
+
+	/**
+	 * <p>Estimates the percentiles from one copy of the buckets, so they are
+	 * consistent with each other.
+	 * </p>
+	 *
+	 * @param percentiles Between 0 and 100.
+	 * @return The estimated durations, in nanoseconds, or zeros if nothing has
+	 * 			been recorded.
+	 */
+	public long[] getPercentilesNanos( double... percentiles ) {
+		long[] results = new long[ percentiles.length ];
+
+		long[] counts = getBucketCounts();
+		long max = getMaxNanos();
+
+		long count = 0;
+		for ( long bucketCount : counts ) {
+			count += bucketCount;
+		}
+
+		if ( count > 0 ) {
+			for ( int p = 0; p < percentiles.length; p++ ) {
+				results[p] = getPercentileNanos( counts, count, max, percentiles[p] );
+			}
+		}
+
+		return results;
+	}
+
+	private long getPercentileNanos( long[] counts, long count, long max, double percentile ) {
+		double clamped = Math.max( 0d, Math.min( 100d, percentile ) );
+
+		// The 1 based rank of the duration that is at the percentile:
+		long rank = Math.max( 1, (long) Math.ceil( clamped / 100d * count ) );
+
+		long results = max;
+		long cumulative = 0;
+
+		for ( int i = 0; i < counts.length; i++ ) {
+			if ( counts[i] > 0 && cumulative + counts[i] >= rank ) {
+
+				if ( i < BUCKET_LIMITS_NANOS.length ) {
+					long lower = i == 0 ? 0 : BUCKET_LIMITS_NANOS[i - 1];
+					long upper = BUCKET_LIMITS_NANOS[i];
+
+					double fraction = (rank - cumulative) / (double) counts[i];
+					results = Math.min( max, lower + Math.round( (upper - lower) * fraction ) );
+				}
+				break;
+			}
+
+			cumulative += counts[i];
+		}
+
+		return results;
+	}
+
+	public void reset() {
+		for ( int i = 0; i < buckets.length(); i++ ) {
+			buckets.set( i, 0 );
+		}
+
+		totalNanos.set( 0 );
+		maxNanos.set( 0 );
+	}
+}
@@ -0,0 +1,57 @@
+package tech.mcprison.prison.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counts events, such as the number of blocks that are placed by the mine
+ * resets.  It does nothing when the metrics are disabled.
+ * </p>
+ *
+ */
+public class MetricCounter {
+
+	private final PrisonMetrics metrics;
+	private final String name;
+
+	private final LongAdder count;
+
+	protected MetricCounter( PrisonMetrics metrics, String name ) {
+		super();
+
+		this.metrics = metrics;
+		this.name = name;
+
+		this.count = new LongAdder();
+	}
+
+	public void increment() {
+		if ( metrics.isEnabled() ) {
+			count.increment();
+		}
+	}
+
+	public void add( long amount ) {
+		if ( metrics.isEnabled() ) {
+			count.add( amount );
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return The number of events per second since the metrics were reset.
+	 */
+	public double getRate() {
+		return metrics.getRate( getCount() );
+	}
+
+	public void reset() {
+		count.reset();
+	}
+}
@@ -0,0 +1,86 @@
+package tech.mcprison.prison.metrics;
+
+/**
+ * <p>Times one kind of operation.  The caller gets the start time from
+ * <code>start()</code> and passes it to <code>stop()</code>:
+ * </p>
+ *
+ * <pre>
+ *   long start = timer.start();
+ *   ...
+ *   timer.stop( start );
+ * </pre>
+ *
+ * <p>When the metrics are disabled, <code>start()</code> returns 0 without
+ * reading the clock, and <code>stop()</code> ignores it, so an idle timer costs
+ * no more than reading one flag.
+ * </p>
+ *
+ */
+public class MetricTimer {
+
+	private final PrisonMetrics metrics;
+	private final String name;
+
+	private final LatencyHistogram histogram;
+
+	protected MetricTimer( PrisonMetrics metrics, String name ) {
+		super();
+
+		this.metrics = metrics;
+		this.name = name;
+
+		this.histogram = new LatencyHistogram();
+	}
+
+	/**
+	 * @return The current System.nanoTime(), or 0 if the metrics are disabled.
+	 */
+	public long start() {
+		return metrics.isEnabled() ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * @param start The value that was returned by <code>start()</code>.
+	 */
+	public void stop( long start ) {
+		if ( start != 0L ) {
+			histogram.record( System.nanoTime() - start );
+		}
+	}
+
+	/**
+	 * <p>Records a duration that was measured by the caller.
+	 * </p>
+	 *
+	 * @param nanos
+	 */
+	public void record( long nanos ) {
+		if ( metrics.isEnabled() ) {
+			histogram.record( nanos );
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LatencyHistogram getHistogram() {
+		return histogram;
+	}
+
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	/**
+	 * @return The number of operations per second since the metrics were reset.
+	 */
+	public double getRate() {
+		return metrics.getRate( getCount() );
+	}
+
+	public void reset() {
+		histogram.reset();
+	}
+}
@@ -0,0 +1,206 @@
+package tech.mcprison.prison.metrics;
+
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.output.ChatDisplay;
+
+/**
+ * <p>The registry of the timers and counters that measure how much time Prison
+ * spends in its busiest code: the mine resets, the block breaks, sellall, the
+ * placeholders, and saving the files.  The report is shown with
+ * <pre>/prison perf</pre>
+ * </p>
+ *
+ * <p>The metrics are disabled unless <pre>prison-metrics.enabled: true</pre> is
+ * set in config.yml, or they are enabled with <pre>/prison perf enable</pre>.
+ * While they are disabled, the timers do not read the clock and nothing is
+ * recorded.  Enabling them starts a new sample.
+ * </p>
+ *
+ * <p>The timers and counters are never removed, so the code that uses them
+ * should get them once and keep them in a static field.
+ * </p>
+ *
+ */
+public class PrisonMetrics {
+
+	public static final String CONFIG_ENABLED = "prison-metrics.enabled";
+
+	public static final String TIMER_MINE_RESET = "mine.reset";
+	public static final String TIMER_MINE_RESET_PAGE = "mine.reset.page";
+	public static final String TIMER_BLOCK_BREAK = "block.break";
+	public static final String TIMER_SELLALL = "sellall";
+	public static final String TIMER_PLACEHOLDER = "placeholder";
+	public static final String TIMER_SAVE = "save";
+
+	public static final String COUNTER_MINE_RESET_BLOCKS = "mine.reset.blocks";
+
+	/**
+	 * The number of mines, or other keys, that are listed under each timer.
+	 */
+	public static final int WORST_KEYS_TO_REPORT = 5;
+
+	private static final PrisonMetrics instance = new PrisonMetrics();
+
+	private volatile boolean enabled = false;
+
+	private long startNanos;
+	private long stopNanos;
+
+	private final Map<String, MetricTimer> timers;
+	private final Map<String, MetricCounter> counters;
+
+	public PrisonMetrics() {
+		super();
+
+		this.timers = new ConcurrentHashMap<>();
+		this.counters = new ConcurrentHashMap<>();
+
+		this.startNanos = System.nanoTime();
+		this.stopNanos = startNanos;
+	}
+
+	public static PrisonMetrics get() {
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * <p>Enabling the metrics when they are disabled clears them and starts a
+	 * new sample.  Disabling them keeps what was recorded so it can still be
+	 * reported.
+	 * </p>
+	 *
+	 * @param enabled
+	 */
+	public synchronized void setEnabled( boolean enabled ) {
+		if ( enabled && !this.enabled ) {
+			reset();
+		}
+		else if ( !enabled && this.enabled ) {
+			stopNanos = System.nanoTime();
+		}
+
+		this.enabled = enabled;
+	}
+
+	public MetricTimer getTimer( String name ) {
+		return timers.computeIfAbsent( name, n -> new MetricTimer( this, n ) );
+	}
+
+	/**
+	 * @param name
+	 * @return A timer that keeps a separate timer for each mine, or other key.
+	 * @throws IllegalStateException If the name is already used by a plain timer.
+	 */
+	public KeyedMetricTimer getKeyedTimer( String name ) {
+		MetricTimer timer = timers.computeIfAbsent( name, n -> new KeyedMetricTimer( this, n ) );
+
+		if ( !(timer instanceof KeyedMetricTimer) ) {
+			throw new IllegalStateException( "PrisonMetrics: The timer " + name +
+					" is not a keyed timer." );
+		}
+
+		return (KeyedMetricTimer) timer;
+	}
+
+	public MetricCounter getCounter( String name ) {
+		return counters.computeIfAbsent( name, n -> new MetricCounter( this, n ) );
+	}
+
+	/**
+	 * <p>Clears all of the timers and counters and starts a new sample.
+	 * </p>
+	 */
+	public synchronized void reset() {
+		for ( MetricTimer timer : timers.values() ) {
+			timer.reset();
+		}
+		for ( MetricCounter counter : counters.values() ) {
+			counter.reset();
+		}
+
+		startNanos = System.nanoTime();
+		stopNanos = startNanos;
+	}
+
+	/**
+	 * @return The length of the sample, which stops when they are disabled.
+	 */
+	public synchronized long getElapsedNanos() {
+		return (enabled ? System.nanoTime() : stopNanos) - startNanos;
+	}
+
+	protected double getRate( long count ) {
+		long elapsed = getElapsedNanos();
+
+		return elapsed <= 0 ? 0 : count / (elapsed / 1_000_000_000d);
+	}
+
+	/**
+	 * <p>Adds the rates and the percentiles of each timer to the display, with
+	 * the mines that took the most time under each of the keyed timers.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public void displayReport( ChatDisplay display ) {
+
+		DecimalFormat iFmt = new DecimalFormat( "#,##0" );
+		DecimalFormat dFmt = new DecimalFormat( "#,##0.00" );
+
+		display.addText( "&7Metrics are %s.  Sample length: &3%s s",
+				(isEnabled() ? "&2enabled&7" : "&cdisabled&7"),
+				dFmt.format( getElapsedNanos() / 1_000_000_000d ) );
+
+		if ( timers.isEmpty() && counters.isEmpty() ) {
+			display.addText( "&7Nothing has been recorded yet." );
+		}
+
+		for ( MetricTimer timer : new TreeMap<>( timers ).values() ) {
+
+			display.addText( "&3%s &7%s", timer.getName(), formatTimer( timer, iFmt, dFmt ) );
+
+			if ( timer instanceof KeyedMetricTimer ) {
+				List<Map.Entry<String, MetricTimer>> worst =
+						((KeyedMetricTimer) timer).getWorst( WORST_KEYS_TO_REPORT );
+
+				for ( Map.Entry<String, MetricTimer> entry : worst ) {
+					display.addText( ".   &b%s &7%s", entry.getKey(),
+							formatTimer( entry.getValue(), iFmt, dFmt ) );
+				}
+			}
+		}
+
+		for ( MetricCounter counter : new TreeMap<>( counters ).values() ) {
+			display.addText( "&3%s &7count: &3%s &7rate: &3%s/s",
+					counter.getName(), iFmt.format( counter.getCount() ),
+					dFmt.format( counter.getRate() ) );
+		}
+	}
+
+	private String formatTimer( MetricTimer timer, DecimalFormat iFmt, DecimalFormat dFmt ) {
+		LatencyHistogram histogram = timer.getHistogram();
+		long[] percentiles = histogram.getPercentilesNanos( 50, 95, 99 );
+
+		return String.format( "count: &3%s &7rate: &3%s/s &7p50: &3%s &7p95: &3%s &7p99: &3%s " +
+				"&7max: &3%s &7total: &3%s ms",
+				iFmt.format( histogram.getCount() ), dFmt.format( timer.getRate() ),
+				formatNanos( percentiles[0], dFmt ), formatNanos( percentiles[1], dFmt ),
+				formatNanos( percentiles[2], dFmt ), formatNanos( histogram.getMaxNanos(), dFmt ),
+				dFmt.format( histogram.getTotalNanos() / 1_000_000d ) );
+	}
+
+	private String formatNanos( long nanos, DecimalFormat dFmt ) {
+		return nanos < 1_000_000 ?
+				dFmt.format( nanos / 1_000d ) + " us" :
+				dFmt.format( nanos / 1_000_000d ) + " ms";
+	}
+}
@@ -1,10 +1,35 @@
 package tech.mcprison.prison.placeholders;
 
 import java.util.List;
+import java.util.UUID;
 
 public interface ManagerPlaceholders {
 	
     public List<PlaceHolderKey> getTranslatedPlaceHolderKeys();
 
+    /**
+     * <p>The hash index of this manager's placeholders, which must be rebuilt 
+     * when the translated placeholder keys are regenerated.
+     * </p>
+     * 
+     * @return
+     */
+    public PlaceholderRegistry getPlaceholderRegistry();
+    
 	public void reloadPlaceholders();
+	
+	/**
+	 * <p>Translates one of this manager's placeholders, which has already been
+	 * found in the placeholder registry, and its attribute has already been parsed.
+	 * This is used by the PlaceholderDispatcher.
+	 * </p>
+	 * 
+	 * @param playerUuid Null if there is no player.
+	 * @param playerName
+	 * @param placeHolderKey
+	 * @param attribute Null if there is no attribute.
+	 * @return Null if the placeholder has no value.
+	 */
+	public String getTranslatedPlaceHolder( UUID playerUuid, String playerName, 
+					PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute );
 }
@@ -79,6 +79,14 @@ public class PlaceholderAttributeNumberFormat
 	
 	private String format;
 	private int spaces = 1;
+	
+	/**
+	 * <p>The DecimalFormat is not thread safe, so each thread gets its own 
+	 * instance.  Since the parsed attributes are cached by the PlaceholderManager,
+	 * this prevents a new DecimalFormat from being created on every request.
+	 * </p>
+	 */
+	private transient ThreadLocal<DecimalFormat> decimalFormat;
 	private NumberTransformationUnitTypes unitType;
 	
 	private boolean hex = false;
@@ -136,7 +144,7 @@ public class PlaceholderAttributeNumberFormat
 //		boolean debug = debugStr != null && "debug".equalsIgnoreCase( debugStr );
 		
 
-		this.format = format;
+		setFormat( format );
 		this.spaces = spaces;
 		this.unitType = unitType;
 //		this.debug = debug;
@@ -173,9 +181,7 @@ public class PlaceholderAttributeNumberFormat
 		String spaces = StringUtils.repeat( " ", getSpaces() );
 
 		try {
-			// & will not work in the DecimalFormat so replace it with ^|^ then replace after formatting:
-			String fmt = getFormat();//.replace( "&", "^|^" );
-			DecimalFormat dFmt = new DecimalFormat( fmt );
+			DecimalFormat dFmt = decimalFormat.get();
 
 			switch ( getUnitType() )
 			{
@@ -262,6 +268,10 @@ public class PlaceholderAttributeNumberFormat
 	}
 	public void setFormat( String format ) {
 		this.format = format;
+		
+		// & will not work in the DecimalFormat so replace it with ^|^ then replace after formatting:
+		final String fmt = format;//.replace( "&", "^|^" );
+		this.decimalFormat = ThreadLocal.withInitial( () -> new DecimalFormat( fmt ) );
 	}
 
 	public int getSpaces() {
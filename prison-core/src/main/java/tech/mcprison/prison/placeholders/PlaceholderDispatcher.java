@@ -0,0 +1,173 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.UUID;
+
+/**
+ * <p>Translates the placeholders by finding them in the placeholder registry, and
+ * then asking only the manager that owns the placeholder to translate it.  This is
+ * used for both the single placeholders and the text that contains placeholders,
+ * so they are handled the same way.
+ * </p>
+ *
+ * <p>The player and mine placeholders are kept in the PlaceholderValueCache.  The
+ * player placeholders need a player, so if there is no player, then a rank
+ * placeholder with the same key is used instead, if there is one.
+ * </p>
+ *
+ * <p>A dispatcher is never changed once it is built.  If any of the managers
+ * regenerate their placeholders, then isCurrent() will return false and a new
+ * dispatcher must be built.
+ * </p>
+ *
+ */
+public class PlaceholderDispatcher {
+
+	private final PlaceholderManager pman;
+
+	private final ManagerPlaceholders players;
+	private final ManagerPlaceholders mines;
+	private final ManagerPlaceholders ranks;
+
+	private final PlaceholderRegistry registry;
+	private final PlaceholderRegistry rankRegistry;
+
+	/**
+	 * @param pman
+	 * @param players The player placeholders, which may be null.
+	 * @param mines The mine and player mine placeholders, which may be null.
+	 * @param ranks The rank placeholders, which may be null.
+	 */
+	public PlaceholderDispatcher( PlaceholderManager pman, ManagerPlaceholders players,
+					ManagerPlaceholders mines, ManagerPlaceholders ranks ) {
+		super();
+
+		this.pman = pman;
+
+		this.players = players;
+		this.mines = mines;
+		this.ranks = ranks;
+
+		this.registry = PlaceholderRegistry.build( players, mines, ranks );
+		this.rankRegistry = PlaceholderRegistry.build( ranks );
+	}
+
+	public ManagerPlaceholders getPlayers() {
+		return players;
+	}
+	public ManagerPlaceholders getMines() {
+		return mines;
+	}
+	public ManagerPlaceholders getRanks() {
+		return ranks;
+	}
+
+	public PlaceholderRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * @return False if any of the managers have regenerated their placeholders.
+	 */
+	public boolean isCurrent() {
+		return registry.isCurrent();
+	}
+
+	/**
+	 * <p>Translates a single placeholder, with or without the prison prefix.
+	 * </p>
+	 *
+	 * @param playerUuid Null if there is no player.
+	 * @param playerName
+	 * @param identifier The placeholder and any attributes.
+	 * @return Null if it is not a placeholder, or if it has no value.
+	 */
+	public String translate( UUID playerUuid, String playerName, String identifier ) {
+		String results = null;
+
+		if ( identifier != null ) {
+
+			String prefixed = identifier;
+			if ( !identifier.toLowerCase().startsWith( PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED ) ) {
+				prefixed = PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED + identifier;
+			}
+
+			PlaceholderIdentifier pId = pman.getPlaceholderIdentifier( prefixed, registry );
+			PlaceholderRegistry.Entry entry = getEntry( playerUuid, pId );
+
+			if ( entry != null ) {
+				results = translate( playerUuid, playerName, identifier, pId, entry );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Translates all of the placeholders within the text.  The text is scanned
+	 * only once.  A placeholder that has no value is removed from the text, and
+	 * anything that is not a placeholder is kept as-is.
+	 * </p>
+	 *
+	 * @param playerUuid Null if there is no player.
+	 * @param playerName
+	 * @param text
+	 * @return
+	 */
+	public String translateText( UUID playerUuid, String playerName, String text ) {
+
+		return PlaceholderTextTokenizer.translate( text, identifier -> {
+			String results = null;
+
+			// Only the spans that are placeholders are parsed:
+			PlaceholderIdentifier pId = pman.getPlaceholderIdentifier( identifier, registry );
+			PlaceholderRegistry.Entry entry = getEntry( playerUuid, pId );
+
+			if ( entry != null ) {
+				results = translate( playerUuid, playerName, identifier, pId, entry );
+
+				if ( results == null ) {
+					results = "";
+				}
+			}
+
+			return results;
+		});
+	}
+
+	private PlaceholderRegistry.Entry getEntry( UUID playerUuid, PlaceholderIdentifier pId ) {
+		PlaceholderRegistry.Entry results = null;
+
+		if ( pId != null ) {
+			results = registry.getEntry( pId.getPlaceholder() );
+
+			if ( results != null && results.getManager() == players && playerUuid == null ) {
+				// Without a player, a rank placeholder may still have the same key:
+				results = rankRegistry.getEntry( pId.getPlaceholder() );
+			}
+		}
+
+		return results;
+	}
+
+	private String translate( UUID playerUuid, String playerName, String identifier,
+					PlaceholderIdentifier pId, PlaceholderRegistry.Entry entry ) {
+
+		ManagerPlaceholders manager = entry.getManager();
+		boolean cached = manager == players || manager == mines;
+
+		PlaceholderValueCache valueCache = pman.getValueCache();
+
+		String results = cached ? valueCache.get( playerUuid, identifier ) : null;
+
+		if ( results == null ) {
+			results = manager.getTranslatedPlaceHolder( playerUuid, playerName,
+								entry.getPlaceHolderKey(), pId.getAttribute() );
+
+			if ( cached ) {
+				valueCache.put( playerUuid, identifier, results, manager == mines );
+			}
+		}
+
+		return results;
+	}
+}
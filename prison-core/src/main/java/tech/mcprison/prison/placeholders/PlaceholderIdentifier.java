@@ -0,0 +1,45 @@
+package tech.mcprison.prison.placeholders;
+
+/**
+ * <p>A placeholder identifier that has been parsed in to the placeholder and
+ * its attribute.  These are cached by the PlaceholderManager, so the same
+ * instance is shared by all requests for the same identifier, and must not be
+ * changed.
+ * </p>
+ *
+ */
+public class PlaceholderIdentifier {
+
+	private final String identifier;
+	private final String placeholder;
+	private final PlaceholderAttribute attribute;
+
+	public PlaceholderIdentifier( String identifier, String placeholder, PlaceholderAttribute attribute ) {
+		super();
+
+		this.identifier = identifier;
+		this.placeholder = placeholder;
+		this.attribute = attribute;
+	}
+
+	/**
+	 * @return The full identifier, including the attributes.
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * @return The placeholder without the attributes.
+	 */
+	public String getPlaceholder() {
+		return placeholder;
+	}
+
+	/**
+	 * @return The first attribute, or null if there are none.
+	 */
+	public PlaceholderAttribute getAttribute() {
+		return attribute;
+	}
+}
@@ -2,7 +2,9 @@ package tech.mcprison.prison.placeholders;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.output.Output;
@@ -15,14 +17,36 @@ public class PlaceholderManager {
     public static final String PRISON_PLACEHOLDER_MINENAME_SUFFIX = "_minename";
     public static final String PRISON_PLACEHOLDER_LADDERNAME_SUFFIX = "_laddername";
     public static final String PRISON_PLACEHOLDER_RANKNAME_SUFFIX = "_rankname";
+    public static final String PRISON_PLACEHOLDER_POSITION_SUFFIX = "_nnn";
     
     public static final String PRISON_PLACEHOLDER_ATTRIBUTE_FIELD_SEPARATOR = ":";
     public static final String PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR = 
 								    		PRISON_PLACEHOLDER_ATTRIBUTE_FIELD_SEPARATOR + 
 								    		PRISON_PLACEHOLDER_ATTRIBUTE_FIELD_SEPARATOR;
     
+    /**
+     * <p>The maximum number of parsed identifiers that are kept in the
+     * identifierCache.  Each distinct combination of placeholder and attributes
+     * is an entry, so this only needs to be large enough to hold the placeholders
+     * that are actually being used on the server.
+     * </p>
+     */
+    public static final int IDENTIFIER_CACHE_SIZE = 1000;
+    
     private PlaceholderProgressBarConfig progressBarConfig;
     
+    private volatile PlaceholderValueCache valueCache;
+    
+    private final Map<String, PlaceholderIdentifier> identifierCache = 
+    		new LinkedHashMap<String, PlaceholderIdentifier>( 64, 0.75f, true ) {
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry( Map.Entry<String, PlaceholderIdentifier> eldest ) {
+					return size() > IDENTIFIER_CACHE_SIZE;
+				}
+			};
+    
     public enum PlaceHolderFlags {
     	
     	PLAYER,
@@ -30,6 +54,7 @@ public class PlaceholderManager {
     	RANKS,
     	MINES,
     	PLAYERMINES,
+    	TOP,
     	
     	SUPRESS,
     	ALIAS
@@ -207,6 +232,24 @@ public class PlaceholderManager {
 		prison_player_sellall_multiplier(prison_psm, PlaceHolderFlags.PLAYER),
 		
 		
+		// The player's position on the leaderboards:
+		prison_ptb(PlaceHolderFlags.PLAYER, PlaceHolderFlags.ALIAS),
+		prison_player_top_balance(prison_ptb, PlaceHolderFlags.PLAYER),
+		prison_ptr(PlaceHolderFlags.PLAYER, PlaceHolderFlags.ALIAS),
+		prison_player_top_rank(prison_ptr, PlaceHolderFlags.PLAYER),
+		
+		// The players on the leaderboards, where nnn is their position:
+		prison_tbn_nnn(PlaceHolderFlags.TOP, PlaceHolderFlags.ALIAS),
+		prison_tbv_nnn(PlaceHolderFlags.TOP, PlaceHolderFlags.ALIAS),
+		prison_trn_nnn(PlaceHolderFlags.TOP, PlaceHolderFlags.ALIAS),
+		prison_trv_nnn(PlaceHolderFlags.TOP, PlaceHolderFlags.ALIAS),
+		
+		prison_top_balance_name_nnn(prison_tbn_nnn, PlaceHolderFlags.TOP),
+		prison_top_balance_value_nnn(prison_tbv_nnn, PlaceHolderFlags.TOP),
+		prison_top_rank_name_nnn(prison_trn_nnn, PlaceHolderFlags.TOP),
+		prison_top_rank_value_nnn(prison_trv_nnn, PlaceHolderFlags.TOP),
+		
+		
 		
 		// Mine aliases:
 		prison_mn_minename(PlaceHolderFlags.MINES, PlaceHolderFlags.ALIAS),
@@ -513,25 +556,110 @@ public class PlaceholderManager {
 	 * @return
 	 */
 	public PlaceholderAttribute extractPlaceholderExtractAttribute( String placeholder ) {
-		PlaceholderAttribute attribute = null;
+		PlaceholderIdentifier identifier = getPlaceholderIdentifier( placeholder );
 		
-		if ( placeholder != null ) {
-			String[] attributes = placeholder.split( PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR );
+		return identifier == null ? null : identifier.getAttribute();
+	}
+	
+	/**
+	 * <p>Parses the identifier in to the placeholder and its attribute.  The 
+	 * results are kept in a bounded LRU cache, so the same identifier is only
+	 * parsed once, instead of on every placeholder request.  The cache is cleared
+	 * when the progress bar config is changed, since the bar attributes use it.
+	 * </p>
+	 * 
+	 * <p>Identifiers with the debug attribute are not cached, so their debug 
+	 * messages are still logged on every request.
+	 * </p>
+	 * 
+	 * @param identifier
+	 * @return Null if the identifier is null.
+	 */
+	public PlaceholderIdentifier getPlaceholderIdentifier( String identifier ) {
+		PlaceholderIdentifier results = null;
+		
+		if ( identifier != null ) {
 			
-			// attributes[0] will be the placeholder, so ignore:
-			if ( attributes != null && attributes.length > 1 ) {
-				for ( int i = 1; i < attributes.length ; i++ ) {
-					String rawAttribute = attributes[i];
-					
-					if ( rawAttribute != null ) {
-						attribute = attributeFactory( rawAttribute );
-						break;
+			synchronized ( identifierCache ) {
+				results = identifierCache.get( identifier );
+			}
+			
+			if ( results == null ) {
+				results = parsePlaceholderIdentifier( identifier );
+				
+				if ( !identifier.contains( "debug" ) ) {
+					synchronized ( identifierCache ) {
+						identifierCache.put( identifier, results );
 					}
 				}
 			}
 		}
 		
-		return attribute;
+		return results;
+	}
+
+	/**
+	 * <p>This is for identifiers that may not be placeholders, such as every
+	 * escaped span within a chat message.  The placeholder is split off of the
+	 * attributes and looked up in the registry first, so only the placeholders
+	 * that exist are parsed and added to the cache.  Otherwise any text could
+	 * push the real placeholders out of the cache.
+	 * </p>
+	 *
+	 * @param identifier
+	 * @param registry
+	 * @return Null if the identifier is null, or if it is not in the registry.
+	 */
+	public PlaceholderIdentifier getPlaceholderIdentifier( String identifier,
+								PlaceholderRegistry registry ) {
+		PlaceholderIdentifier results = null;
+
+		if ( identifier != null ) {
+
+			int idx = identifier.indexOf( PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR );
+			String placeholder = idx >= 0 ? identifier.substring( 0, idx ) : identifier;
+
+			if ( registry.getEntry( placeholder ) != null ) {
+				results = getPlaceholderIdentifier( identifier );
+			}
+		}
+
+		return results;
+	}
+
+	int getPlaceholderIdentifierCacheSize() {
+		synchronized ( identifierCache ) {
+			return identifierCache.size();
+		}
+	}
+
+	private PlaceholderIdentifier parsePlaceholderIdentifier( String identifier ) {
+		PlaceholderAttribute attribute = null;
+		
+		String[] attributes = identifier.split( PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR );
+		
+		// attributes[0] will be the placeholder, so ignore:
+		if ( attributes != null && attributes.length > 1 ) {
+			for ( int i = 1; i < attributes.length ; i++ ) {
+				String rawAttribute = attributes[i];
+				
+				if ( rawAttribute != null ) {
+					attribute = attributeFactory( rawAttribute );
+					break;
+				}
+			}
+		}
+		
+		int idx = identifier.indexOf( PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR );
+		String placeholder = idx >= 0 ? identifier.substring( 0, idx ) : identifier;
+		
+		return new PlaceholderIdentifier( identifier, placeholder, attribute );
+	}
+	
+	public void clearPlaceholderIdentifierCache() {
+		synchronized ( identifierCache ) {
+			identifierCache.clear();
+		}
 	}
 	
 
@@ -572,23 +700,38 @@ public class PlaceholderManager {
 
 
 	public String extractPlaceholderString( String identifier ) {
-		String results = null;
+		PlaceholderIdentifier results = getPlaceholderIdentifier( identifier );
 		
-		int idx = identifier == null ? -1 :
-					identifier.indexOf( PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR );
-					
-		if ( idx >= 0 ) {
-			results = identifier.substring( 0, idx );
-		}
-		else {
-			results = identifier;
-		}
-		
-		return results;
+		return results == null ? null : results.getPlaceholder();
 	}
 	
 	public void reloadPlaceholderBarConfig() {
 		setProgressBarConfig( loadPlaceholderBarConfig() );
+		
+		getValueCache().setTtlTicks( loadValueCacheTtlTicks() );
+	}
+	
+	private int loadValueCacheTtlTicks() {
+		return Prison.get().getPlatform() == null ? PlaceholderValueCache.TTL_TICKS_DEFAULT :
+					Prison.get().getPlatform().getConfigInt( 
+							PlaceholderValueCache.CONFIG_TTL_TICKS, PlaceholderValueCache.TTL_TICKS_DEFAULT );
+	}
+	
+	/**
+	 * <p>The cache of the translated player placeholders.  See PlaceholderValueCache.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public PlaceholderValueCache getValueCache() {
+		if ( valueCache == null ) {
+			synchronized ( this ) {
+				if ( valueCache == null ) {
+					valueCache = new PlaceholderValueCache( loadValueCacheTtlTicks(), System::currentTimeMillis );
+				}
+			}
+		}
+		return valueCache;
 	}
 	
 	public PlaceholderProgressBarConfig loadPlaceholderBarConfig() {
@@ -657,6 +800,8 @@ public class PlaceholderManager {
 	}
 	public void setProgressBarConfig( PlaceholderProgressBarConfig progressBarConfig ) {
 		this.progressBarConfig = progressBarConfig;
+		
+		clearPlaceholderIdentifierCache();
 	}
 
 	/**
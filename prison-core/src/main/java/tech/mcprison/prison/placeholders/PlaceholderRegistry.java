@@ -0,0 +1,147 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>This is a hash index of the PlaceHolderKeys, which is keyed on the lower case
+ * placeholder key.  Before this, every placeholder request had to search through
+ * the full list of the PlaceHolderKeys, and since there are placeholders generated
+ * for every mine and ladder, the lists could have many thousands of entries.
+ * </p>
+ *
+ * <p>The registry records which ManagerPlaceholders owns each PlaceHolderKey, so it
+ * can be used to index one manager's placeholders, or the placeholders of all
+ * managers.  If more than one manager has the same key, then the first manager
+ * wins, which is the same as searching the lists in the same order.
+ * </p>
+ *
+ * <p>A registry is never changed once it is built.  It keeps a reference to the
+ * lists that it was built from, so if a manager regenerates its placeholders,
+ * such as when a mine is added or removed, then isCurrent() will return false
+ * and the registry must be rebuilt.
+ * </p>
+ *
+ */
+public class PlaceholderRegistry {
+
+	public static final PlaceholderRegistry EMPTY = new PlaceholderRegistry();
+
+	private final List<ManagerPlaceholders> managers;
+	private final List<List<PlaceHolderKey>> sources;
+
+	private final Map<String, Entry> entries;
+
+	public static class Entry {
+		private final PlaceHolderKey placeHolderKey;
+		private final ManagerPlaceholders manager;
+
+		public Entry( PlaceHolderKey placeHolderKey, ManagerPlaceholders manager ) {
+			super();
+
+			this.placeHolderKey = placeHolderKey;
+			this.manager = manager;
+		}
+
+		public PlaceHolderKey getPlaceHolderKey() {
+			return placeHolderKey;
+		}
+		public ManagerPlaceholders getManager() {
+			return manager;
+		}
+	}
+
+	private PlaceholderRegistry() {
+		super();
+
+		this.managers = Collections.emptyList();
+		this.sources = Collections.emptyList();
+		this.entries = Collections.emptyMap();
+	}
+
+	private PlaceholderRegistry( List<ManagerPlaceholders> managers ) {
+		super();
+
+		this.managers = managers;
+		this.sources = new ArrayList<>();
+		this.entries = new HashMap<>();
+
+		for ( ManagerPlaceholders manager : managers ) {
+			List<PlaceHolderKey> placeHolderKeys = manager.getTranslatedPlaceHolderKeys();
+
+			this.sources.add( placeHolderKeys );
+
+			for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
+				String key = placeHolderKey.getKey().toLowerCase();
+
+				if ( !entries.containsKey( key ) ) {
+					entries.put( key, new Entry( placeHolderKey, manager ) );
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Builds the registry from the managers' current placeholders.  Null
+	 * managers are ignored.
+	 * </p>
+	 *
+	 * @param managers In the order that they should be searched.
+	 * @return
+	 */
+	public static PlaceholderRegistry build( ManagerPlaceholders... managers ) {
+		List<ManagerPlaceholders> mgrs = new ArrayList<>();
+
+		for ( ManagerPlaceholders manager : managers ) {
+			if ( manager != null ) {
+				mgrs.add( manager );
+			}
+		}
+
+		return new PlaceholderRegistry( mgrs );
+	}
+
+	/**
+	 * <p>Returns false if any of the managers have regenerated their placeholders
+	 * since this registry was built.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public boolean isCurrent() {
+		boolean results = true;
+
+		for ( int i = 0; i < managers.size(); i++ ) {
+			if ( managers.get( i ).getTranslatedPlaceHolderKeys() != sources.get( i ) ) {
+				results = false;
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * @param placeholder The placeholder key, without any attributes, in any case.
+	 * @return The entry, or null if the placeholder does not exist.
+	 */
+	public Entry getEntry( String placeholder ) {
+		return placeholder == null ? null : entries.get( placeholder.toLowerCase() );
+	}
+
+	/**
+	 * @param placeholder The placeholder key, without any attributes, in any case.
+	 * @return The PlaceHolderKey, or null if the placeholder does not exist.
+	 */
+	public PlaceHolderKey getPlaceHolderKey( String placeholder ) {
+		Entry entry = getEntry( placeholder );
+		return entry == null ? null : entry.getPlaceHolderKey();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+}
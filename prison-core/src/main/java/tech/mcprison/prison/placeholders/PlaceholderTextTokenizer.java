@@ -0,0 +1,83 @@
+package tech.mcprison.prison.placeholders;
+
+/**
+ * <p>This scans a text message for placeholders in one pass, and builds the
+ * translated message as it goes.  The placeholders may be escaped with either
+ * <pre>{...}</pre> or <pre>%...%</pre>.
+ * </p>
+ *
+ * <p>Before, every PlaceHolderKey was searched for within the text, so the cost of
+ * translating a message grew with the number of mines and ranks, and each
+ * replacement compiled a new regex.  Now each escaped span within the text is
+ * looked up once by the resolver, which should use a PlaceholderRegistry.
+ * </p>
+ *
+ * <p>If the resolver returns null, then the span is not a placeholder and the text
+ * is kept as-is.  The scan then continues with the character after the opening
+ * escape character, so text such as <pre>{a {prison_rank}}</pre> or
+ * <pre>100% {prison_rank}</pre> is still translated.
+ * </p>
+ *
+ */
+public class PlaceholderTextTokenizer {
+
+	public interface SpanResolver {
+
+		/**
+		 * @param identifier The text within the escape characters, which is the placeholder
+		 * 				and any attributes.
+		 * @return The replacement for the whole span, or null if it is not a placeholder.
+		 */
+		public String resolve( String identifier );
+	}
+
+	private PlaceholderTextTokenizer() {
+		super();
+	}
+
+	public static String translate( String text, SpanResolver resolver ) {
+
+		if ( text == null ||
+				text.indexOf( '{' ) == -1 && text.indexOf( '%' ) == -1 ) {
+			return text;
+		}
+
+		StringBuilder sb = new StringBuilder( text.length() + 32 );
+
+		int len = text.length();
+		int copied = 0;
+		int i = 0;
+
+		while ( i < len ) {
+			char c = text.charAt( i );
+
+			char escRight = c == '{' ? '}' : c == '%' ? '%' : 0;
+			int idxEnd = escRight == 0 ? -1 : text.indexOf( escRight, i + 1 );
+
+			String replacement = null;
+
+			if ( idxEnd > i + 1 ) {
+				replacement = resolver.resolve( text.substring( i + 1, idxEnd ) );
+			}
+
+			if ( replacement != null ) {
+				sb.append( text, copied, i ).append( replacement );
+
+				i = idxEnd + 1;
+				copied = i;
+			}
+			else {
+				i++;
+			}
+		}
+
+		if ( copied == 0 ) {
+			// Nothing was replaced:
+			return text;
+		}
+
+		sb.append( text, copied, len );
+
+		return sb.toString();
+	}
+}
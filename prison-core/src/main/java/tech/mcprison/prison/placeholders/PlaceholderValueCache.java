@@ -0,0 +1,159 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>This caches the translated values of the player placeholders, for each player
+ * and each placeholder identifier.  Scoreboard and tab plugins may request the same
+ * placeholders for every online player multiple times per second, and some of the
+ * placeholders are expensive to calculate, such as the player's balance, which goes
+ * through the economy plugin, or the rankup cost bars.
+ * </p>
+ *
+ * <p>Each value is only kept for the time to live, which is set in ticks with the
+ * config.yml setting <pre>placeholder.cache-ttl-ticks</pre>.  A value of zero
+ * disables the cache.  A player's values are invalidated right away when they rankup,
+ * or when their balance is changed through prison.  When a mine resets, all of the
+ * values of the mine placeholders are invalidated.
+ * </p>
+ *
+ * <p>This is safe to use from any thread.
+ * </p>
+ *
+ */
+public class PlaceholderValueCache {
+
+	public static final String CONFIG_TTL_TICKS = "placeholder.cache-ttl-ticks";
+	public static final int TTL_TICKS_DEFAULT = 20;
+
+	public static final long MILLIS_PER_TICK = 50;
+
+	private final Map<UUID, Map<String, CachedValue>> playerValues;
+
+	private final LongSupplier clock;
+
+	private volatile long ttlMillis;
+
+	private static class CachedValue {
+		private final String value;
+		private final long expires;
+		private final boolean mines;
+
+		public CachedValue( String value, long expires, boolean mines ) {
+			super();
+
+			this.value = value;
+			this.expires = expires;
+			this.mines = mines;
+		}
+	}
+
+	public PlaceholderValueCache() {
+		this( TTL_TICKS_DEFAULT, System::currentTimeMillis );
+	}
+
+	/**
+	 * @param ttlTicks The time to live in ticks.
+	 * @param clock The time in milliseconds.
+	 */
+	public PlaceholderValueCache( int ttlTicks, LongSupplier clock ) {
+		super();
+
+		this.playerValues = new ConcurrentHashMap<>();
+		this.clock = clock;
+
+		setTtlTicks( ttlTicks );
+	}
+
+	/**
+	 * @param playerUuid
+	 * @param identifier
+	 * @return The cached value, or null if it is not cached or has expired.
+	 */
+	public String get( UUID playerUuid, String identifier ) {
+		String results = null;
+
+		if ( isEnabled() && playerUuid != null && identifier != null ) {
+
+			Map<String, CachedValue> values = playerValues.get( playerUuid );
+			CachedValue cached = values == null ? null : values.get( identifier );
+
+			if ( cached != null ) {
+
+				if ( cached.expires > clock.getAsLong() ) {
+					results = cached.value;
+				}
+				else {
+					values.remove( identifier, cached );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Caches the value.  Null values are not cached.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @param identifier
+	 * @param value
+	 * @param mines If true, then the value is based upon a mine and will be
+	 * 				invalidated when a mine is reset.
+	 */
+	public void put( UUID playerUuid, String identifier, String value, boolean mines ) {
+
+		if ( isEnabled() && playerUuid != null && identifier != null && value != null ) {
+
+			Map<String, CachedValue> values =
+					playerValues.computeIfAbsent( playerUuid, uuid -> new ConcurrentHashMap<>() );
+
+			values.put( identifier, new CachedValue( value, clock.getAsLong() + ttlMillis, mines ) );
+		}
+	}
+
+	/**
+	 * <p>Removes all of the player's values.  This should be used when the player
+	 * ranks up, when their balance is changed, and when they leave the server.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 */
+	public void invalidatePlayer( UUID playerUuid ) {
+		if ( playerUuid != null ) {
+			playerValues.remove( playerUuid );
+		}
+	}
+
+	/**
+	 * <p>Removes the values of all of the mine placeholders, for all players.
+	 * This should be used when a mine is reset.
+	 * </p>
+	 */
+	public void invalidateMines() {
+		for ( Map<String, CachedValue> values : playerValues.values() ) {
+			values.values().removeIf( cached -> cached.mines );
+		}
+	}
+
+	public void invalidateAll() {
+		playerValues.clear();
+	}
+
+	public boolean isEnabled() {
+		return ttlMillis > 0;
+	}
+
+	public long getTtlTicks() {
+		return ttlMillis / MILLIS_PER_TICK;
+	}
+	public void setTtlTicks( int ttlTicks ) {
+		this.ttlMillis = Math.max( 0, ttlTicks ) * MILLIS_PER_TICK;
+
+		invalidateAll();
+	}
+}
@@ -0,0 +1,164 @@
+package tech.mcprison.prison.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.scoreboard.ScoreboardManager;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>Shows a sidebar to each player, keeping the last lines that were rendered
+ * for them in a SidebarLines so only the lines that changed are sent.
+ * </p>
+ *
+ * <p>The updates are not applied when <code>update()</code> is called.  They are
+ * queued, and all of the viewers are updated together by one task on the next
+ * tick.  If a player's sidebar is updated more than once within the same tick,
+ * then only the last one is rendered.  So <code>update()</code> can be called
+ * from any thread, but the scoreboards are only changed on the server thread.
+ * </p>
+ *
+ */
+public class ScoreboardRenderer {
+
+	private final ScoreboardManager scoreboardManager;
+	private final int maxPartLength;
+
+	private final Map<UUID, SidebarLines> sidebars;
+	private final Map<UUID, PendingUpdate> pending;
+
+	private final AtomicBoolean flushScheduled;
+
+	private class PendingUpdate {
+		private final Player player;
+		private final String title;
+		private final List<String> lines;
+
+		private PendingUpdate( Player player, String title, List<String> lines ) {
+			this.player = player;
+			this.title = title;
+			this.lines = lines;
+		}
+	}
+
+	public ScoreboardRenderer( ScoreboardManager scoreboardManager, int maxPartLength ) {
+		super();
+
+		this.scoreboardManager = scoreboardManager;
+		this.maxPartLength = maxPartLength;
+
+		this.sidebars = new ConcurrentHashMap<>();
+		this.pending = new ConcurrentHashMap<>();
+
+		this.flushScheduled = new AtomicBoolean( false );
+	}
+
+	public ScoreboardRenderer( ScoreboardManager scoreboardManager ) {
+		this( scoreboardManager, SidebarLines.LEGACY_PART_LENGTH );
+	}
+
+	/**
+	 * <p>Queues the player's sidebar to be rendered on the next tick.
+	 * </p>
+	 *
+	 * @param player
+	 * @param title
+	 * @param lines The lines from the top of the sidebar down.  These are copied.
+	 */
+	public void update( Player player, String title, List<String> lines ) {
+		pending.put( player.getUUID(), new PendingUpdate( player, title, new ArrayList<>( lines ) ) );
+
+		if ( flushScheduled.compareAndSet( false, true ) ) {
+			scheduleFlush();
+		}
+	}
+
+	protected void scheduleFlush() {
+		PrisonTaskSubmitter.runTaskLater( this::flush, 0 );
+	}
+
+	/**
+	 * <p>Renders all of the queued updates.  This must be ran on the server thread.
+	 * </p>
+	 *
+	 * @return The number of changes that were made to all of the scoreboards.
+	 */
+	public int flush() {
+		int changes = 0;
+
+		// Cleared first so an update that is queued while this is running
+		// schedules the next flush:
+		flushScheduled.set( false );
+
+		Iterator<Map.Entry<UUID, PendingUpdate>> iterator = pending.entrySet().iterator();
+
+		while ( iterator.hasNext() ) {
+			Map.Entry<UUID, PendingUpdate> entry = iterator.next();
+			iterator.remove();
+
+			PendingUpdate update = entry.getValue();
+
+			try {
+				changes += render( entry.getKey(), update );
+			}
+			catch ( Exception e ) {
+				Output.get().logError( "ScoreboardRenderer: Failed to update the sidebar for " +
+						update.player.getName() + ": " + e.getMessage(), e );
+			}
+		}
+
+		return changes;
+	}
+
+	private int render( UUID uuid, PendingUpdate update ) {
+		SidebarLines sidebar = sidebars.get( uuid );
+		boolean isNew = sidebar == null;
+
+		if ( isNew ) {
+			sidebar = new SidebarLines( scoreboardManager.getNewScoreboard(), maxPartLength );
+			sidebars.put( uuid, sidebar );
+		}
+
+		int changes = sidebar.render( update.title, update.lines );
+
+		// The scoreboard is shown after its first render, so the player never
+		// sees it empty:
+		if ( isNew ) {
+			update.player.setScoreboard( sidebar.getScoreboard() );
+		}
+
+		return changes;
+	}
+
+	/**
+	 * <p>Forgets the player's sidebar, such as when they log out.  The next update
+	 * creates a new scoreboard for them.
+	 * </p>
+	 *
+	 * @param uuid
+	 */
+	public void remove( UUID uuid ) {
+		pending.remove( uuid );
+		sidebars.remove( uuid );
+	}
+
+	public void clear() {
+		pending.clear();
+		sidebars.clear();
+	}
+
+	public SidebarLines getSidebar( UUID uuid ) {
+		return sidebars.get( uuid );
+	}
+
+	public int getPendingCount() {
+		return pending.size();
+	}
+}
@@ -0,0 +1,219 @@
+package tech.mcprison.prison.scoreboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.mcprison.prison.internal.scoreboard.DisplaySlot;
+import tech.mcprison.prison.internal.scoreboard.Objective;
+import tech.mcprison.prison.internal.scoreboard.Scoreboard;
+import tech.mcprison.prison.internal.scoreboard.Team;
+import tech.mcprison.prison.util.ChatColor;
+
+/**
+ * <p>One viewer's sidebar, which remembers what was last shown so the next
+ * render only changes the lines that are different.
+ * </p>
+ *
+ * <p>Each line has a fixed, invisible entry and a fixed score, and its text is
+ * shown through the prefix and suffix of a team that holds that entry.  So a
+ * changed line is updated by setting the team's prefix or suffix, without
+ * removing and adding scores, which is what makes a sidebar flicker.  Lines are
+ * only added or removed when the number of lines changes.
+ * </p>
+ *
+ */
+public class SidebarLines {
+
+	/**
+	 * The sidebar cannot show more than 15 lines.
+	 */
+	public static final int MAX_LINES = 15;
+
+	/**
+	 * The limit for the prefix and the suffix before Minecraft 1.13.
+	 */
+	public static final int LEGACY_PART_LENGTH = 16;
+
+	public static final String OBJECTIVE_NAME = "prisonSidebar";
+	public static final String TEAM_NAME_PREFIX = "prisonLine";
+
+	private static final int MAX_TITLE_LENGTH = 32;
+
+	private final Scoreboard scoreboard;
+	private final Objective objective;
+	private final int maxPartLength;
+
+	private String title;
+
+	private final List<String> lines;
+	private final List<Team> teams;
+	private final List<String[]> parts;
+
+	private int changes = 0;
+
+	public SidebarLines( Scoreboard scoreboard, int maxPartLength ) {
+		super();
+
+		this.scoreboard = scoreboard;
+		this.maxPartLength = maxPartLength;
+
+		this.lines = new ArrayList<>();
+		this.teams = new ArrayList<>();
+		this.parts = new ArrayList<>();
+
+		this.objective = scoreboard.registerNewObjective( OBJECTIVE_NAME, "dummy" );
+		this.objective.setDisplaySlot( DisplaySlot.SIDEBAR );
+	}
+
+	public SidebarLines( Scoreboard scoreboard ) {
+		this( scoreboard, LEGACY_PART_LENGTH );
+	}
+
+	/**
+	 * <p>Shows the title and lines, changing only what is different from the
+	 * last render.  Lines past the 15th are ignored.
+	 * </p>
+	 *
+	 * @param title
+	 * @param newLines
+	 * @return The number of changes that were made to the scoreboard.
+	 */
+	public int render( String title, List<String> newLines ) {
+		changes = 0;
+
+		String newTitle = title == null ? "" :
+				title.length() > MAX_TITLE_LENGTH ? title.substring( 0, MAX_TITLE_LENGTH ) : title;
+
+		if ( !newTitle.equals( this.title ) ) {
+			objective.setDisplayName( newTitle );
+			this.title = newTitle;
+			changes++;
+		}
+
+		int size = Math.min( newLines.size(), MAX_LINES );
+
+		for ( int i = 0; i < size; i++ ) {
+			String line = newLines.get( i ) == null ? "" : newLines.get( i );
+
+			if ( i >= lines.size() ) {
+				addLine( i, line );
+			}
+			else if ( !line.equals( lines.get( i ) ) ) {
+				setLine( i, line );
+			}
+		}
+
+		for ( int i = lines.size() - 1; i >= size; i-- ) {
+			removeLine( i );
+		}
+
+		return changes;
+	}
+
+	private void addLine( int index, String line ) {
+		String entry = getEntry( index );
+
+		Team team = scoreboard.registerNewTeam( TEAM_NAME_PREFIX + index );
+		team.addEntry( entry );
+		changes += 2;
+
+		teams.add( team );
+		parts.add( new String[] { "", "" } );
+		lines.add( line );
+
+		setLine( index, line );
+
+		// The scores never change, so the line's position does not depend on
+		// how many lines there are:
+		objective.getScore( entry ).setScore( MAX_LINES - index );
+		changes++;
+	}
+
+	private void setLine( int index, String line ) {
+		String[] split = split( line, maxPartLength );
+		String[] applied = parts.get( index );
+		Team team = teams.get( index );
+
+		if ( !split[0].equals( applied[0] ) ) {
+			team.setPrefix( split[0] );
+			changes++;
+		}
+		if ( !split[1].equals( applied[1] ) ) {
+			team.setSuffix( split[1] );
+			changes++;
+		}
+
+		parts.set( index, split );
+		lines.set( index, line );
+	}
+
+	private void removeLine( int index ) {
+		scoreboard.resetScores( getEntry( index ) );
+		teams.remove( index ).unregister();
+		changes += 2;
+
+		parts.remove( index );
+		lines.remove( index );
+	}
+
+	/**
+	 * <p>The entry is made from color codes, so it is not visible, and is
+	 * different for each line.
+	 * </p>
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected static String getEntry( int index ) {
+		return ChatColor.values()[index].toString() + ChatColor.RESET.toString();
+	}
+
+	/**
+	 * <p>Splits the text between the prefix and the suffix.  A color code is not
+	 * split in half, and the suffix starts with the colors that were in effect
+	 * at the end of the prefix.  Text that does not fit in both is cut off.
+	 * </p>
+	 *
+	 * @param text
+	 * @param maxLength The limit for the prefix, and for the suffix.
+	 * @return The prefix and the suffix.
+	 */
+	protected static String[] split( String text, int maxLength ) {
+		if ( text.length() <= maxLength ) {
+			return new String[] { text, "" };
+		}
+
+		int cut = maxLength;
+		if ( text.charAt( cut - 1 ) == ChatColor.COLOR_CHAR ) {
+			cut--;
+		}
+
+		String prefix = text.substring( 0, cut );
+		String suffix = ChatColor.getLastColors( prefix ) + text.substring( cut );
+
+		if ( suffix.length() > maxLength ) {
+			suffix = suffix.substring( 0, maxLength );
+
+			if ( suffix.charAt( maxLength - 1 ) == ChatColor.COLOR_CHAR ) {
+				suffix = suffix.substring( 0, maxLength - 1 );
+			}
+		}
+
+		return new String[] { prefix, suffix };
+	}
+
+	public Scoreboard getScoreboard() {
+		return scoreboard;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return The lines that were last rendered.
+	 */
+	public List<String> getLines() {
+		return new ArrayList<>( lines );
+	}
+}
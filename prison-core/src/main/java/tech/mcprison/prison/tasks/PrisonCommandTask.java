@@ -187,31 +187,23 @@ public class PrisonCommandTask {
 	public void submitCommandTask( Player player, String command, 
 			TaskMode taskMode ) {
 		
-		if ( command.contains( "{inline}" ) ) {
-			taskMode = TaskMode.inline;
-			command = command.replace( "{inline}", "" );
-		}
-		
-		if ( command.contains( "{inlinePlayer}" ) ) {
-			taskMode = TaskMode.inlinePlayer;
-			command = command.replace( "{inlinePlayer}", "" );
-		}
-		
-		if ( command.contains( "{sync}" ) ) {
-			taskMode = TaskMode.sync;
-			command = command.replace( "{sync}", "" );
-		}
+		taskMode = getTaskMode( command, taskMode );
 		
-		if ( command.contains( "{syncPlayer}" ) ) {
-			taskMode = TaskMode.syncPlayer;
-			command = command.replace( "{syncPlayer}", "" );
-		}
-		
-		String commandTranslated = translateCommand( player, command );
+		List<String> tasks = translateTasks( player, command );
 		
-		// Split multiple commands in to a List of individual tasks:
-		List<String> tasks = new ArrayList<>( 
-				Arrays.asList( commandTranslated.split( ";" ) ));
+		submitTasks( player, tasks, taskMode );
+	}
+	
+	/**
+	 * <p>Submits the tasks, which have already been translated, as one dispatch 
+	 * task.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param tasks
+	 * @param taskMode
+	 */
+	protected void submitTasks( Player player, List<String> tasks, TaskMode taskMode ) {
 		
 		if ( tasks.size() > 0 ) {
 			
@@ -249,6 +241,49 @@ public class PrisonCommandTask {
 	}
 	
 	
+	/**
+	 * <p>Identifies the task mode if the command contains one of the task mode
+	 * placeholders.  If more than one is used, then the last one in the order of 
+	 * inline, inlinePlayer, sync, and syncPlayer is used.
+	 * </p>
+	 * 
+	 * @param command
+	 * @param taskMode The default task mode.
+	 * @return
+	 */
+	protected static TaskMode getTaskMode( String command, TaskMode taskMode ) {
+		TaskMode results = taskMode;
+		
+		for ( TaskMode mode : TaskMode.values() ) {
+			if ( command.contains( "{" + mode.name() + "}" ) ) {
+				results = mode;
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Removes the task mode placeholders, applies all of the other placeholders,
+	 * and then splits the command in to the individual tasks.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param command
+	 * @return
+	 */
+	protected List<String> translateTasks( Player player, String command ) {
+		
+		for ( TaskMode mode : TaskMode.values() ) {
+			command = command.replace( "{" + mode.name() + "}", "" );
+		}
+		
+		String commandTranslated = translateCommand( player, command );
+		
+		// Split multiple commands in to a List of individual tasks:
+		return new ArrayList<>( Arrays.asList( commandTranslated.split( ";" ) ));
+	}
+	
 	private String translateCommand( Player player, String command ) {
 		
 		String formatted = command
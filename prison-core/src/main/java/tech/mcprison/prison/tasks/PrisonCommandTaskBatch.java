@@ -0,0 +1,81 @@
+package tech.mcprison.prison.tasks;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>Collects the commands from multiple PrisonCommandTasks so they can be
+ * submitted together, with only one dispatch task for each task mode, instead of
+ * one for each command.  This is used when a player ranks up multiple ranks at
+ * once, where each rank may have a few rank commands.
+ * </p>
+ *
+ * <p>Each command is translated with the custom placeholders of the
+ * PrisonCommandTask that it is added with.  The commands keep their order within
+ * each task mode.  The inline commands are ran when submitted, before the
+ * sync commands, which is the same as when they are submitted individually.
+ * </p>
+ *
+ */
+public class PrisonCommandTaskBatch
+	extends PrisonCommandTask {
+
+	private final Map<TaskMode, List<String>> tasksByMode;
+
+	public PrisonCommandTaskBatch( String errorMessagePrefix ) {
+		super( errorMessagePrefix );
+
+		this.tasksByMode = new EnumMap<>( TaskMode.class );
+	}
+
+	/**
+	 * <p>Translates the command with the task's custom placeholders, and adds it
+	 * to the batch.
+	 * </p>
+	 *
+	 * @param cmdTask The task with the custom placeholders for this command.
+	 * @param player
+	 * @param command
+	 */
+	public void addCommand( PrisonCommandTask cmdTask, Player player, String command ) {
+
+		TaskMode taskMode = getTaskMode( command, TaskMode.sync );
+
+		List<String> tasks = tasksByMode.get( taskMode );
+		if ( tasks == null ) {
+			tasks = new ArrayList<>();
+			tasksByMode.put( taskMode, tasks );
+		}
+
+		tasks.addAll( cmdTask.translateTasks( player, command ) );
+	}
+
+	public int getCommandCount() {
+		int count = 0;
+
+		for ( List<String> tasks : tasksByMode.values() ) {
+			count += tasks.size();
+		}
+
+		return count;
+	}
+
+	/**
+	 * <p>Submits all of the commands, with one dispatch task for each task mode.
+	 * </p>
+	 *
+	 * @param player
+	 */
+	public void submit( Player player ) {
+
+		for ( Map.Entry<TaskMode, List<String>> entry : tasksByMode.entrySet() ) {
+			submitTasks( player, entry.getValue(), entry.getKey() );
+		}
+
+		tasksByMode.clear();
+	}
+}
@@ -19,7 +19,10 @@
 package tech.mcprison.prison.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -1065,6 +1068,54 @@ public enum BlockType {
     private final MaterialVersion materialVersion;
     
     private final List<String> altNames;
+    
+    /**
+     * <p>The lookups used to scan all of the values() for each call, which was
+     * slow since there are so many BlockTypes.  These indexes are built once
+     * when the class is loaded, and they cannot be changed after that.  When
+     * more than one BlockType matches a key, the first one in the enum is kept 
+     * so the results are the same as the scans.  The String keys are all 
+     * from indexKey() so they are not case sensitive.
+     * </p>
+     * 
+     * <p>There is no separate index for getXMaterialName() since it is just the
+     * lower case name, so BLOCKS_BY_NAME covers it.
+     * </p>
+     */
+    private static final Map<Long, BlockType> BLOCKS_BY_LEGACY_ID_DATA;
+    private static final Map<String, BlockType> BLOCKS_BY_NAME;
+    private static final Map<String, BlockType> BLOCKS_BY_ID;
+    private static final Map<String, BlockType> BLOCKS_BY_ALT_NAME;
+    
+    static {
+    	Map<Long, BlockType> byLegacyIdData = new HashMap<>();
+    	Map<String, BlockType> byName = new HashMap<>();
+    	Map<String, BlockType> byId = new HashMap<>();
+    	Map<String, BlockType> byAltName = new HashMap<>();
+    	
+    	for ( BlockType block : values() ) {
+    		byLegacyIdData.putIfAbsent( legacyIdDataKey( block.getLegacyId(), block.getData() ), block );
+    		
+    		byName.putIfAbsent( indexKey( block.name() ), block );
+    		
+    		// getBlockById() matches on the id, the name, or the id without 
+    		// the minecraft: prefix, so all three go in the same index:
+    		byId.putIfAbsent( indexKey( block.getId() ), block );
+    		byId.putIfAbsent( indexKey( block.name() ), block );
+    		if ( block.getId().regionMatches( true, 0, "minecraft:", 0, 10 ) ) {
+    			byId.putIfAbsent( indexKey( block.getId().substring( 10 ) ), block );
+    		}
+    		
+    		for ( String altName : block.getXMaterialAltNames() ) {
+    			byAltName.putIfAbsent( indexKey( altName ), block );
+    		}
+    	}
+    	
+    	BLOCKS_BY_LEGACY_ID_DATA = Collections.unmodifiableMap( byLegacyIdData );
+    	BLOCKS_BY_NAME = Collections.unmodifiableMap( byName );
+    	BLOCKS_BY_ID = Collections.unmodifiableMap( byId );
+    	BLOCKS_BY_ALT_NAME = Collections.unmodifiableMap( byAltName );
+    }
 
     BlockType(int legacyId, String id, int data, MaterialType materialType) {
     	this.legacyId = legacyId;
@@ -1157,14 +1208,28 @@ public enum BlockType {
     }
 
     public static BlockType getBlock(int legacyId, short data) {
-        for (BlockType block : values()) {
-            if (block.getLegacyId() == legacyId) {
-                if (block.getData() == data) {
-                    return block;
-                }
-            }
-        }
-        return null;
+        return BLOCKS_BY_LEGACY_ID_DATA.get( legacyIdDataKey( legacyId, data ) );
+    }
+    
+    private static Long legacyIdDataKey( int legacyId, short data ) {
+    	return (((long) legacyId) << 16) | (data & 0xFFFF);
+    }
+    
+    /**
+     * <p>Folds the case of each character the same way that 
+     * String.equalsIgnoreCase() compares them, so a lookup in the 
+     * indexes matches the same Strings that equalsIgnoreCase() did.
+     * </p>
+     * 
+     * @param key
+     * @return
+     */
+    private static String indexKey( String key ) {
+    	char[] chars = key.toCharArray();
+    	for ( int i = 0; i < chars.length; i++ ) {
+    		chars[i] = Character.toLowerCase( Character.toUpperCase( chars[i] ) );
+    	}
+    	return new String( chars );
     }
     
     /**
@@ -1197,12 +1262,15 @@ public enum BlockType {
     }
 
     private static BlockType getBlockById(String id) {
-        for (BlockType block : values()) {
-            if (block.getId().equalsIgnoreCase(id) || block.name().equalsIgnoreCase(id) ||
-            		block.getId().equalsIgnoreCase( "minecraft:" + id )) {
-                return block;
-            }
-        }
+    	if ( id == null ) {
+    		return null;
+    	}
+    	
+    	BlockType blockType = BLOCKS_BY_ID.get( indexKey( id ) );
+    	if ( blockType != null ) {
+    		return blockType;
+    	}
+    	
         boolean isInt = false;
         try {
             Integer.parseInt(id.replaceAll(":", ""));
@@ -1232,36 +1300,15 @@ public enum BlockType {
     }
 
     private static BlockType getBlockByName(String name) {
-        for (BlockType block : values()) {
-            if (block.name().equalsIgnoreCase(name)) {
-                return block;
-            }
-        }
-        return null;
+        return name == null ? null : BLOCKS_BY_NAME.get( indexKey( name ) );
     }
     
     private static BlockType getBlockByXMaterialName(String name) {
-    	for (BlockType block : values()) {
-    		if (block.getXMaterialAltNames().size() > 0 ) {
-    			for ( String altName : block.getXMaterialAltNames() ) {
-					
-    				if ( altName.equalsIgnoreCase(name)) {
-    					return block;
-    				}
-				}
-    		}
-    			
-    	}
-    	return null;
+    	return name == null ? null : BLOCKS_BY_ALT_NAME.get( indexKey( name ) );
     }
 
     public static BlockType getBlockWithData(int id, short data) {
-        for (BlockType block : values()) {
-            if (block.getLegacyId() == id && block.getData() == data) {
-                return block;
-            }
-        }
-        return null;
+        return getBlock( id, data );
     }
 
     public static boolean isDoor(BlockType block) {
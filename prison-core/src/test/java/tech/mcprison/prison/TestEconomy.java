@@ -0,0 +1,103 @@
+package tech.mcprison.prison;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import tech.mcprison.prison.integration.EconomyIntegration;
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>An in-memory economy for testing.  Like most economy plugins, a withdrawal
+ * that is larger than the balance fails.  It counts the calls so the tests
+ * can check how many times the economy was used.
+ * </p>
+ *
+ */
+public class TestEconomy
+		extends EconomyIntegration {
+
+	private final Map<UUID, Double> balances = new HashMap<>();
+
+	private int reads = 0;
+	private int writes = 0;
+	private int failedWrites = 0;
+
+	private boolean failWithdrawals = false;
+
+	public TestEconomy() {
+		super( "TestEconomy", "TestEconomy" );
+	}
+
+	@Override
+	public boolean hasIntegrated() {
+		return true;
+	}
+
+	@Override
+	public double getBalance( Player player ) {
+		reads++;
+		return balances.getOrDefault( player.getUUID(), 0d );
+	}
+
+	@Override
+	public void setBalance( Player player, double amount ) {
+		writes++;
+		balances.put( player.getUUID(), amount );
+	}
+
+	@Override
+	public void addBalance( Player player, double amount ) {
+		writes++;
+		balances.put( player.getUUID(), balances.getOrDefault( player.getUUID(), 0d ) + amount );
+	}
+
+	@Override
+	public void removeBalance( Player player, double amount ) {
+		writes++;
+
+		double balance = balances.getOrDefault( player.getUUID(), 0d );
+		if ( amount > balance || failWithdrawals ) {
+			failedWrites++;
+		}
+		else {
+			balances.put( player.getUUID(), balance - amount );
+		}
+	}
+
+	@Override
+	public boolean canAfford( Player player, double amount ) {
+		return getBalance( player ) >= amount;
+	}
+
+	/**
+	 * Changes the balance like another plugin would, without going through prison.
+	 */
+	public void setBalanceExternally( Player player, double amount ) {
+		balances.put( player.getUUID(), amount );
+	}
+
+	/**
+	 * Makes every withdrawal fail without changing the balance, like an economy
+	 * plugin that rejects the transaction.
+	 */
+	public void setFailWithdrawals( boolean failWithdrawals ) {
+		this.failWithdrawals = failWithdrawals;
+	}
+
+	public double getStoredBalance( Player player ) {
+		return balances.getOrDefault( player.getUUID(), 0d );
+	}
+
+	public int getReads() {
+		return reads;
+	}
+
+	public int getWrites() {
+		return writes;
+	}
+
+	public int getFailedWrites() {
+		return failedWrites;
+	}
+}
@@ -0,0 +1,150 @@
+package tech.mcprison.prison.autofeatures;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+public class AutoFeaturesSnapshotTest
+{
+
+	private void assertSameAsConfig( Map<String, ValueNode> conf, AutoFeaturesSnapshot snapshot ) {
+
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			if ( af.isSection() ) {
+				continue;
+			}
+
+			assertEquals( af.getKey(), af.getBoolean( conf ), snapshot.isBoolean( af ) );
+			assertEquals( af.getKey(), af.getMessage( conf ), snapshot.getMessage( af ) );
+			if ( af.getValue() == null || af.getIntValue() != null ) {
+				assertEquals( af.getKey(), af.getInteger( conf ), snapshot.getInteger( af ) );
+			}
+			assertEquals( af.getKey(), af.getStringList( conf ), snapshot.getStringList( af ) );
+		}
+	}
+
+	@Test
+	public void testDefaultValues()
+	{
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		assertSameAsConfig( conf, snapshot );
+
+		assertTrue( snapshot.isBoolean( AutoFeatures.isAutoManagerEnabled ) );
+		assertFalse( snapshot.isBoolean( AutoFeatures.smeltCobblestone ) );
+		assertEquals( "prison.automanager.pickup", snapshot.getMessage( AutoFeatures.permissionAutoPickup ) );
+	}
+
+	@Test
+	public void testChangedValues()
+	{
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+
+		conf.put( AutoFeatures.isAutoManagerEnabled.getKey(), BooleanNode.FALSE );
+		conf.put( AutoFeatures.smeltCobblestone.getKey(), BooleanNode.TRUE );
+		conf.put( AutoFeatures.lorePickupValue.getKey(), TextNode.valueOf( "&dPickup" ) );
+		conf.put( AutoFeatures.fortuneMultiplierMax.getKey(), IntegerNode.valueOf( 25 ) );
+		conf.put( AutoFeatures.pickupBlockNameList.getKey(),
+				StringListNode.valueOf( Arrays.asList( "stone", "cobblestone" ) ) );
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		assertSameAsConfig( conf, snapshot );
+
+		assertFalse( snapshot.isBoolean( AutoFeatures.isAutoManagerEnabled ) );
+		assertTrue( snapshot.isBoolean( AutoFeatures.smeltCobblestone ) );
+		assertEquals( "&dPickup", snapshot.getMessage( AutoFeatures.lorePickupValue ) );
+		assertEquals( 25, snapshot.getInteger( AutoFeatures.fortuneMultiplierMax ) );
+		assertEquals( Arrays.asList( "stone", "cobblestone" ),
+				snapshot.getStringList( AutoFeatures.pickupBlockNameList ) );
+	}
+
+	@Test
+	public void testSnapshotIsNotChangedByConfig()
+	{
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		conf.put( AutoFeatures.isAutoManagerEnabled.getKey(), BooleanNode.FALSE );
+
+		assertTrue( snapshot.isBoolean( AutoFeatures.isAutoManagerEnabled ) );
+		assertFalse( AutoFeaturesSnapshot.build( conf ).isBoolean( AutoFeatures.isAutoManagerEnabled ) );
+	}
+
+	@Test
+	public void testStringListIsCopied()
+	{
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+
+		List<String> blockNames = new ArrayList<>( Arrays.asList( "stone", "cobblestone" ) );
+		conf.put( AutoFeatures.pickupBlockNameList.getKey(), StringListNode.valueOf( blockNames ) );
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+		List<String> results = snapshot.getStringList( AutoFeatures.pickupBlockNameList );
+
+		// Changing the config's list does not change the snapshot:
+		blockNames.add( "dirt" );
+		assertEquals( Arrays.asList( "stone", "cobblestone" ), results );
+
+		try {
+			results.add( "dirt" );
+			fail( "The snapshot's list was changed." );
+		}
+		catch ( UnsupportedOperationException expected ) {
+		}
+	}
+
+	@Test
+	public void testCachedIsRebuiltWithNewSnapshot()
+	{
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		Object key = new Object();
+		List<Boolean> built = new ArrayList<>();
+
+		Boolean cached = snapshot.getCached( key, s -> {
+			built.add( s.isBoolean( AutoFeatures.isAutoManagerEnabled ) );
+			return built.get( built.size() - 1 );
+		});
+
+		// The same snapshot does not build it again:
+		assertSame( cached, snapshot.getCached( key, s -> Boolean.FALSE ) );
+		assertEquals( 1, built.size() );
+		assertTrue( cached );
+
+		// A reload builds a new snapshot, which builds it from the new settings:
+		conf.put( AutoFeatures.isAutoManagerEnabled.getKey(), BooleanNode.FALSE );
+		AutoFeaturesSnapshot reloaded = AutoFeaturesSnapshot.build( conf );
+
+		assertFalse( reloaded.getCached( key, s -> s.isBoolean( AutoFeatures.isAutoManagerEnabled ) ) );
+		assertTrue( snapshot.getCached( key, s -> Boolean.FALSE ) );
+	}
+}
@@ -0,0 +1,15 @@
+package tech.mcprison.prison.file;
+
+import java.io.File;
+
+import tech.mcprison.prison.store.Storage;
+import tech.mcprison.prison.store.StorageContract;
+
+public class FileStorageContractTest
+		extends StorageContract
+{
+	@Override
+	protected Storage openStorage( File dir ) {
+		return new FileStorage( dir );
+	}
+}
@@ -0,0 +1,86 @@
+package tech.mcprison.prison.file;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tech.mcprison.prison.store.Document;
+
+public class JsonFileIOTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Document getPlayer( String name, int blockCount ) {
+		Document document = new Document();
+		document.put( "name", name );
+		document.put( "balance", 1234.5 );
+
+		Map<String, Object> blocks = new LinkedHashMap<>();
+		for ( int i = 0; i < blockCount; i++ ) {
+			blocks.put( "block_" + i, (double) i );
+		}
+		document.put( "blocksMined", blocks );
+
+		List<String> ranks = new ArrayList<>();
+		ranks.add( "default:A" );
+		ranks.add( "prestiges:P1 \"quoted\" <b>&amp;" );
+		document.put( "ranks", ranks );
+
+		return document;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		File dir = folder.newFolder( "players" );
+		FileCollection collection = new FileCollection( dir );
+
+		Document player = getPlayer( "player_1", 5000 );
+		collection.save( player );
+
+		Optional<Document> loaded = collection.get( "player_1" );
+
+		assertTrue( loaded.isPresent() );
+		assertEquals( player, loaded.get() );
+
+		// Saving again replaces the file and leaves no temp files behind:
+		player.put( "balance", 99.0 );
+		collection.save( player );
+
+		assertEquals( 99.0, (Double) collection.get( "player_1" ).get().get( "balance" ), 0.0001 );
+		assertEquals( 1, dir.listFiles().length );
+	}
+
+	@Test
+	public void testMissingFile() throws IOException
+	{
+		FileCollection collection = new FileCollection( folder.newFolder( "players" ) );
+
+		assertFalse( collection.get( "missing" ).isPresent() );
+	}
+
+	@Test
+	public void testCorruptFile() throws IOException
+	{
+		File file = folder.newFile( "config.json" );
+		Files.write( file.toPath(), "{ \"name\": \"test\", ".getBytes( StandardCharsets.UTF_8 ) );
+
+		JsonFileIO jsonFileIO = new JsonFileIO( null, null );
+		Document defaults = new Document();
+
+		assertSame( defaults, jsonFileIO.readJsonFile( file, defaults ) );
+	}
+}
@@ -0,0 +1,94 @@
+package tech.mcprison.prison.file;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tech.mcprison.prison.store.Document;
+
+public class ParallelCollectionLoaderTest
+{
+	private static final int PLAYER_COUNT = 3000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private FileCollection getPlayers( File dir ) {
+		FileCollection collection = new FileCollection( dir );
+		Random random = new Random( 42 );
+
+		for ( int i = 0; i < PLAYER_COUNT; i++ ) {
+			Document document = new Document();
+			document.put( "uid", new UUID( random.nextLong(), random.nextLong() ).toString() );
+			document.put( "name", "player_" + i );
+
+			Map<String, Object> balances = new LinkedHashMap<>();
+			balances.put( "default", random.nextDouble() * 10000 );
+			document.put( "balances", balances );
+
+			collection.save( "uid_" + i, document );
+		}
+
+		return collection;
+	}
+
+	@Test
+	public void testEqualsSequential() throws IOException
+	{
+		FileCollection collection = getPlayers( folder.newFolder( "players" ) );
+
+		List<Document> sequential = collection.getAll();
+
+		ParallelCollectionLoader loader = new ParallelCollectionLoader( 4 );
+		List<Document> parallel = loader.loadAll( collection );
+
+		assertEquals( PLAYER_COUNT, sequential.size() );
+		assertEquals( sequential, parallel );
+		assertEquals( 0, loader.getFailures() );
+
+		// Loading again gives the same results in the same order:
+		assertEquals( parallel, new ParallelCollectionLoader( 3 ).loadAll( collection ) );
+	}
+
+	@Test
+	public void testFailuresAreSkipped() throws IOException
+	{
+		File dir = folder.newFolder( "players" );
+		getPlayers( dir );
+
+		FileCollection failing = new FileCollection( dir ) {
+			@Override
+			public Optional<Document> get( String key ) {
+				if ( key.endsWith( "7" ) ) {
+					throw new IllegalStateException( "Unable to read " + key );
+				}
+				return super.get( key );
+			}
+		};
+
+		ParallelCollectionLoader loader = new ParallelCollectionLoader( 4 );
+		List<Document> parallel = loader.loadAll( failing );
+
+		List<Document> expected = new ArrayList<>();
+		for ( String key : failing.getKeys() ) {
+			if ( !key.endsWith( "7" ) ) {
+				expected.add( failing.get( key ).get() );
+			}
+		}
+
+		assertEquals( PLAYER_COUNT / 10, loader.getFailures() );
+		assertEquals( expected, parallel );
+	}
+}
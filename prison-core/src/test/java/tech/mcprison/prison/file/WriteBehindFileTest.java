@@ -0,0 +1,143 @@
+package tech.mcprison.prison.file;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriteBehindFileTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Holds the async writes until the test runs them, in any order.
+	 */
+	private static class QueuedExecutor
+			implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		@Override
+		public void execute( Runnable task ) {
+			tasks.add( task );
+		}
+	}
+
+	private String read( File file ) throws IOException {
+		return new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 );
+	}
+
+	@Test
+	public void testWriteLater() throws IOException
+	{
+		File file = new File( folder.getRoot(), "data.yml" );
+		QueuedExecutor executor = new QueuedExecutor();
+		WriteBehindFile writer = new WriteBehindFile( file, executor );
+
+		writer.writeLater( "first" );
+
+		// Nothing is written until the async task runs:
+		assertTrue( writer.hasPendingWrites() );
+		assertFalse( file.exists() );
+
+		executor.tasks.get( 0 ).run();
+
+		assertFalse( writer.hasPendingWrites() );
+		assertEquals( "first", read( file ) );
+		assertFalse( new File( folder.getRoot(), "data.yml.tmp" ).exists() );
+	}
+
+	@Test
+	public void testOlderWritesAreCoalesced() throws IOException
+	{
+		File file = new File( folder.getRoot(), "data.yml" );
+		QueuedExecutor executor = new QueuedExecutor();
+		WriteBehindFile writer = new WriteBehindFile( file, executor );
+
+		writer.writeLater( "1" );
+		writer.writeLater( "2" );
+		writer.writeLater( "3" );
+		assertEquals( 3, writer.getPendingWrites() );
+
+		// The newest finishes first, so the older ones are skipped:
+		executor.tasks.get( 2 ).run();
+		executor.tasks.get( 0 ).run();
+		executor.tasks.get( 1 ).run();
+
+		assertEquals( "3", read( file ) );
+		assertEquals( 2, writer.getSkippedWrites() );
+		assertEquals( 0, writer.getPendingWrites() );
+	}
+
+	@Test
+	public void testWriteNowReplacesPendingWrites() throws IOException
+	{
+		File file = new File( folder.getRoot(), "data.yml" );
+		QueuedExecutor executor = new QueuedExecutor();
+		WriteBehindFile writer = new WriteBehindFile( file, executor );
+
+		writer.writeLater( "async" );
+		writer.writeNow( "shutdown" );
+
+		assertEquals( "shutdown", read( file ) );
+
+		// The async write is older, so it does not replace it:
+		executor.tasks.get( 0 ).run();
+
+		assertEquals( "shutdown", read( file ) );
+		assertEquals( 1, writer.getSkippedWrites() );
+	}
+
+	@Test
+	public void testFailedWriteIsNotPending() throws IOException
+	{
+		File file = new File( new File( folder.getRoot(), "missing" ), "data.yml" );
+		QueuedExecutor executor = new QueuedExecutor();
+		WriteBehindFile writer = new WriteBehindFile( file, executor );
+
+		writer.writeLater( "data" );
+		executor.tasks.get( 0 ).run();
+
+		assertFalse( writer.hasPendingWrites() );
+		assertFalse( file.exists() );
+
+		try {
+			writer.writeNow( "data" );
+			fail( "The directory does not exist." );
+		}
+		catch ( IOException expected ) {
+		}
+	}
+
+	@Test
+	public void testConcurrentWrites() throws Exception
+	{
+		File file = new File( folder.getRoot(), "data.yml" );
+		ExecutorService pool = Executors.newFixedThreadPool( 4 );
+		WriteBehindFile writer = new WriteBehindFile( file, pool );
+
+		for ( int i = 1; i <= 200; i++ ) {
+			writer.writeLater( Integer.toString( i ) );
+		}
+
+		pool.shutdown();
+		assertTrue( pool.awaitTermination( 30, TimeUnit.SECONDS ) );
+
+		// Whatever order they finished in, the last one requested is kept:
+		assertEquals( "200", read( file ) );
+		assertFalse( writer.hasPendingWrites() );
+	}
+}
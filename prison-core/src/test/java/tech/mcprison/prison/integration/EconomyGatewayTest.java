@@ -0,0 +1,244 @@
+package tech.mcprison.prison.integration;
+
+import static org.junit.Assert.*;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestEconomy;
+import tech.mcprison.prison.TestPlayer;
+
+public class EconomyGatewayTest
+{
+	private static final double DELTA = 0.0001;
+
+	private static class GatewayPlayer
+			extends TestPlayer {
+
+		private final UUID uuid = UUID.randomUUID();
+
+		@Override
+		public UUID getUUID() {
+			return uuid;
+		}
+	}
+
+	private EconomyGateway getGateway( TestEconomy economy, long cacheMillis ) {
+		return new EconomyGateway( economy, null, cacheMillis, true, false );
+	}
+
+	@Test
+	public void testNetting()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		// Many sales within one tick:
+		for ( int i = 0; i < 50; i++ ) {
+			gateway.addBalance( player, 10 );
+		}
+
+		// The queued deposits are included in the balance:
+		assertEquals( 600, gateway.getBalance( player ), DELTA );
+		assertEquals( 0, economy.getWrites() );
+		assertEquals( 100, economy.getStoredBalance( player ), DELTA );
+		assertEquals( 1, gateway.getPendingCount() );
+
+		gateway.flush();
+
+		// Only one deposit was made for the net of all of them:
+		assertEquals( 1, economy.getWrites() );
+		assertEquals( 50, gateway.getNettedWrites() );
+		assertEquals( 600, economy.getStoredBalance( player ), DELTA );
+		assertEquals( 600, gateway.getBalance( player ), DELTA );
+		assertEquals( 0, gateway.getPendingCount() );
+	}
+
+	@Test
+	public void testWithdrawalIsWrittenRightAway()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 60 );
+
+		// The queued deposit is written before the withdrawal, so the player
+		// can afford it, and nothing is left queued:
+		gateway.addBalance( player, 100 );
+		assertTrue( gateway.removeBalance( player, 150 ) );
+
+		assertEquals( 2, economy.getWrites() );
+		assertEquals( 0, economy.getFailedWrites() );
+		assertEquals( 10, economy.getStoredBalance( player ), DELTA );
+		assertEquals( 0, gateway.getPendingCount() );
+		assertEquals( 10, gateway.getBalance( player ), DELTA );
+	}
+
+	@Test
+	public void testWithdrawalUsesLatestBalance()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		assertTrue( gateway.canAfford( player, 50 ) );
+
+		// Another plugin takes the money, so the cached balance is stale:
+		economy.setBalanceExternally( player, 10 );
+		assertTrue( gateway.canAfford( player, 50 ) );
+
+		assertEquals( 10, gateway.getLatestBalance( player ), DELTA );
+		assertFalse( gateway.removeBalance( player, 50 ) );
+
+		// The economy plugin was never asked to withdraw:
+		assertEquals( 0, economy.getWrites() );
+		assertEquals( 10, economy.getStoredBalance( player ), DELTA );
+	}
+
+	@Test
+	public void testWithdrawalFails()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		economy.setFailWithdrawals( true );
+		assertFalse( gateway.removeBalance( player, 50 ) );
+		assertEquals( 100, economy.getStoredBalance( player ), DELTA );
+
+		economy.setFailWithdrawals( false );
+		assertTrue( gateway.removeBalance( player, 50 ) );
+		assertEquals( 50, economy.getStoredBalance( player ), DELTA );
+	}
+
+	@Test
+	public void testWithdrawalThrows()
+	{
+		TestEconomy economy = new TestEconomy() {
+			@Override
+			public void removeBalance( tech.mcprison.prison.internal.Player player, double amount ) {
+				throw new IllegalStateException( "The economy is not available." );
+			}
+		};
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		assertFalse( gateway.removeBalance( player, 50 ) );
+		assertEquals( 100, economy.getStoredBalance( player ), DELTA );
+	}
+
+	@Test
+	public void testSetBalance()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		// The set is written right away, and replaces the deposits before it:
+		gateway.addBalance( player, 1000 );
+		gateway.setBalance( player, 50 );
+
+		assertEquals( 1, economy.getWrites() );
+		assertEquals( 50, economy.getStoredBalance( player ), DELTA );
+		assertEquals( 0, gateway.getPendingCount() );
+
+		// The deposits after it are queued:
+		gateway.addBalance( player, 5 );
+		assertEquals( 55, gateway.getBalance( player ), DELTA );
+
+		gateway.flush();
+
+		assertEquals( 2, economy.getWrites() );
+		assertEquals( 55, economy.getStoredBalance( player ), DELTA );
+	}
+
+	@Test
+	public void testBalanceCache()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		for ( int i = 0; i < 20; i++ ) {
+			assertEquals( 100, gateway.getBalance( player ), DELTA );
+		}
+		assertEquals( 1, economy.getReads() );
+
+		// Another plugin changes the balance, which is not seen until the cache
+		// is invalidated:
+		economy.setBalanceExternally( player, 200 );
+		assertEquals( 100, gateway.getBalance( player ), DELTA );
+
+		gateway.invalidate( player );
+		assertEquals( 200, gateway.getBalance( player ), DELTA );
+		assertEquals( 2, economy.getReads() );
+
+		// Prison's own writes invalidate the cache when they are written:
+		gateway.addBalance( player, 1 );
+		assertEquals( 201, gateway.getBalance( player ), DELTA );
+		assertEquals( 2, economy.getReads() );
+
+		economy.setBalanceExternally( player, 500 );
+		gateway.flush();
+
+		assertEquals( 501, gateway.getBalance( player ), DELTA );
+		assertEquals( 3, economy.getReads() );
+	}
+
+	@Test
+	public void testNoCacheOrQueue()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = new EconomyGateway( economy, null, 0, false, false );
+
+		GatewayPlayer player = new GatewayPlayer();
+		economy.setBalanceExternally( player, 100 );
+
+		gateway.getBalance( player );
+		gateway.getBalance( player );
+		assertEquals( 2, economy.getReads() );
+
+		gateway.addBalance( player, 10 );
+		gateway.addBalance( player, 10 );
+		assertEquals( 2, economy.getWrites() );
+		assertEquals( 120, economy.getStoredBalance( player ), DELTA );
+		assertEquals( 0, gateway.getPendingCount() );
+	}
+
+	@Test
+	public void testPlayersAreSeparate()
+	{
+		TestEconomy economy = new TestEconomy();
+		EconomyGateway gateway = getGateway( economy, 60000 );
+
+		GatewayPlayer player1 = new GatewayPlayer();
+		GatewayPlayer player2 = new GatewayPlayer();
+
+		gateway.addBalance( player1, 10 );
+		gateway.addBalance( player2, 20 );
+		gateway.addBalance( player1, 10 );
+
+		assertEquals( 2, gateway.getPendingCount() );
+
+		gateway.flush();
+
+		assertEquals( 2, economy.getWrites() );
+		assertEquals( 20, economy.getStoredBalance( player1 ), DELTA );
+		assertEquals( 20, economy.getStoredBalance( player2 ), DELTA );
+	}
+}
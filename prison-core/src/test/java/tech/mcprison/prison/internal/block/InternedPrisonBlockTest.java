@@ -0,0 +1,122 @@
+package tech.mcprison.prison.internal.block;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.util.Location;
+
+public class InternedPrisonBlockTest
+{
+
+	private PrisonBlockTypes getPrisonBlockTypes() {
+		List<PrisonBlock> blocks = new ArrayList<>();
+		blocks.add( new PrisonBlock( "stone" ) );
+		blocks.add( new PrisonBlock( PrisonBlockType.minecraft, "coal_ore", 25.0, 1000 ) );
+
+		PrisonBlockTypes prisonBlockTypes = new PrisonBlockTypes();
+		prisonBlockTypes.addBlockTypes( blocks );
+
+		return prisonBlockTypes;
+	}
+
+	@Test
+	public void testInternedBlockIsShared()
+	{
+		PrisonBlockTypes prisonBlockTypes = getPrisonBlockTypes();
+
+		InternedPrisonBlock stone = prisonBlockTypes.getInternedBlock( "stone",
+								prisonBlockTypes::getBlockTypesByName );
+
+		assertNotNull( stone );
+		assertEquals( "stone", stone.getBlockName() );
+		assertSame( stone, prisonBlockTypes.getInternedBlockType( "stone" ) );
+
+		// The factory is only used the first time:
+		assertSame( stone, prisonBlockTypes.getInternedBlock( "stone", name -> {
+					fail( "The block was already interned." );
+					return null;
+				}));
+
+		// Invalid block names are not interned:
+		assertNull( prisonBlockTypes.getInternedBlockType( "unknown" ) );
+	}
+
+	@Test
+	public void testInternedBlockHasNoStats()
+	{
+		PrisonBlockTypes prisonBlockTypes = getPrisonBlockTypes();
+
+		InternedPrisonBlock coal = prisonBlockTypes.getInternedBlockType( "coal_ore" );
+
+		assertEquals( PrisonBlockType.minecraft, coal.getBlockType() );
+		assertEquals( 0, coal.getChance(), 0.0001 );
+		assertEquals( 0, coal.getBlockCountTotal() );
+		assertNull( coal.getLocation() );
+	}
+
+	@Test
+	public void testInternedBlockCannotBeChanged()
+	{
+		InternedPrisonBlock stone = new InternedPrisonBlock( new PrisonBlock( "stone" ) );
+
+		Runnable[] changes = {
+				() -> stone.setBlockName( "dirt" ),
+				() -> stone.setBlockType( PrisonBlockType.CustomItems ),
+				() -> stone.setLocation( new Location( new TestWorld( "mine" ), 1, 2, 3 ) ),
+				() -> stone.setChance( 10 ),
+				() -> stone.setBlockCountTotal( 5 ),
+				() -> stone.setBlockCountSession( 5 ),
+				() -> stone.setResetBlockCount( 5 ),
+				() -> stone.setValid( false ),
+				() -> stone.incrementMiningBlockCount(),
+				() -> stone.incrementResetBlockCount(),
+				() -> stone.addStats( new PrisonBlock( "stone" ) ),
+				() -> stone.transferStats( new PrisonBlock( "stone" ) ),
+				() -> stone.parseFromSaveFileFormatStats( "stone-10.0-5" ),
+		};
+
+		for ( Runnable change : changes ) {
+			try {
+				change.run();
+				fail( "The interned block was changed." );
+			}
+			catch ( UnsupportedOperationException expected ) {
+			}
+		}
+
+		assertEquals( "stone", stone.getBlockName() );
+		assertNull( stone.getLocation() );
+		assertEquals( 0, stone.getBlockCountTotal() );
+	}
+
+	@Test
+	public void testCopiesCanBeChanged()
+	{
+		InternedPrisonBlock stone = new InternedPrisonBlock( new PrisonBlock( "stone" ) );
+		Location location = new Location( new TestWorld( "mine" ), 1, 2, 3 );
+
+		PrisonBlock placed = stone.withLocation( location );
+
+		assertFalse( placed instanceof InternedPrisonBlock );
+		assertEquals( "stone", placed.getBlockName() );
+		assertEquals( location, placed.getLocation() );
+
+		placed.incrementMiningBlockCount();
+		assertEquals( 1, placed.getBlockCountTotal() );
+
+		PrisonBlock clone = stone.clone();
+		clone.setLocation( location );
+		clone.setChance( 50 );
+
+		assertFalse( clone instanceof InternedPrisonBlock );
+		assertNull( stone.getLocation() );
+		assertEquals( 0, stone.getChance(), 0.0001 );
+		assertEquals( stone, clone );
+	}
+}
@@ -0,0 +1,20 @@
+package tech.mcprison.prison.journal;
+
+import java.io.File;
+
+import tech.mcprison.prison.store.Storage;
+import tech.mcprison.prison.store.StorageContract;
+
+public class JournalStorageContractTest
+		extends StorageContract
+{
+	@Override
+	protected Storage openStorage( File dir ) {
+		return new JournalStorage( dir );
+	}
+
+	@Override
+	protected void closeStorage( Storage storage ) {
+		((JournalStorage) storage).close();
+	}
+}
@@ -0,0 +1,332 @@
+package tech.mcprison.prison.journal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tech.mcprison.prison.file.FileStorage;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Database;
+import tech.mcprison.prison.store.Document;
+
+public class JournalStorageTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Document getDocument( String name, double balance ) {
+		Document document = new Document();
+		document.put( "name", name );
+		document.put( "balance", balance );
+		return document;
+	}
+
+	private Collection getCollection( JournalStorage storage, String db, String collection ) {
+		return storage.getDatabase( db ).get().getCollection( collection ).get();
+	}
+
+	@Test
+	public void testSaveAndReopen() throws IOException
+	{
+		File dir = folder.newFolder( "journal" );
+
+		JournalStorage storage = new JournalStorage( dir );
+		assertTrue( storage.isNewStorage() );
+
+		Collection players = getCollection( storage, "ranks", "players" );
+		players.save( getDocument( "p1", 10.5 ) );
+		players.save( "p2", getDocument( "p2", 20 ) );
+		players.save( getDocument( "p1", 11.5 ) );
+
+		assertFalse( players.get( "missing" ).isPresent() );
+		assertEquals( 11.5, (Double) players.get( "p1" ).get().get( "balance" ), 0.0001 );
+
+		assertTrue( players.delete( "p2" ) );
+		assertFalse( players.delete( "p2" ) );
+		storage.close();
+
+		JournalStorage reopened = new JournalStorage( dir );
+		assertFalse( reopened.isNewStorage() );
+
+		Collection reloaded = getCollection( reopened, "ranks", "players" );
+		List<Document> all = reloaded.getAll();
+
+		assertEquals( 1, all.size() );
+		assertEquals( "p1", all.get( 0 ).get( "name" ) );
+		assertEquals( 11.5, (Double) all.get( 0 ).get( "balance" ), 0.0001 );
+		reopened.close();
+	}
+
+	@Test
+	public void testCollectionsAndDatabases() throws IOException
+	{
+		File dir = folder.newFolder( "journal" );
+		JournalStorage storage = new JournalStorage( dir );
+
+		Database db = storage.getDatabase( "mines" ).get();
+		assertFalse( storage.createDatabase( "mines" ) );
+
+		assertTrue( db.createCollection( "mines" ) );
+		assertFalse( db.createCollection( "mines" ) );
+		db.getCollection( "mines" ).get().save( getDocument( "a", 1 ) );
+
+		assertTrue( db.deleteCollection( "mines" ) );
+		assertTrue( db.getCollections().isEmpty() );
+
+		assertTrue( storage.deleteDatabase( "mines" ) );
+		assertTrue( storage.getDatabases().isEmpty() );
+		storage.close();
+
+		// The deleted database is not opened again:
+		JournalStorage reopened = new JournalStorage( dir );
+		assertTrue( reopened.getDatabases().isEmpty() );
+		reopened.close();
+	}
+
+	@Test
+	public void testTransaction() throws IOException
+	{
+		File file = new File( folder.getRoot(), "test.journal" );
+		JournalDatabase db = new JournalDatabase( "test", file );
+
+		assertTrue( db.beginTransaction()
+				.put( "players", "p1", getDocument( "p1", 1 ) )
+				.put( "ladders", "default", getDocument( "default", 0 ) )
+				.commit() );
+
+		assertEquals( 2, db.getCollections().size() );
+		assertTrue( db.contains( "players", "p1" ) );
+		assertTrue( db.contains( "ladders", "default" ) );
+		db.close();
+	}
+
+	@Test
+	public void testTornWriteIsTruncated() throws IOException
+	{
+		File file = new File( folder.getRoot(), "test.journal" );
+
+		JournalDatabase db = new JournalDatabase( "test", file );
+		db.beginTransaction().put( "players", "p1", getDocument( "p1", 1 ) ).commit();
+		long goodSize = db.getJournal().getSize();
+
+		db.beginTransaction()
+				.put( "players", "p2", getDocument( "p2", 2 ) )
+				.put( "players", "p3", getDocument( "p3", 3 ) )
+				.commit();
+		db.close();
+
+		// Simulate a crash part way through writing the second transaction:
+		try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) ) {
+			raf.setLength( raf.length() - 5 );
+		}
+
+		JournalDatabase reopened = new JournalDatabase( "test", file );
+
+		assertEquals( goodSize, reopened.getJournal().getSize() );
+		assertEquals( goodSize, file.length() );
+		assertTrue( reopened.contains( "players", "p1" ) );
+		assertFalse( reopened.contains( "players", "p2" ) );
+		assertFalse( reopened.contains( "players", "p3" ) );
+
+		// It can be written to again after the truncation:
+		assertTrue( reopened.beginTransaction().put( "players", "p4", getDocument( "p4", 4 ) ).commit() );
+		reopened.close();
+
+		JournalDatabase again = new JournalDatabase( "test", file );
+		assertEquals( 2, again.getKeys( "players" ).size() );
+		again.close();
+	}
+
+	@Test
+	public void testCompaction() throws IOException
+	{
+		File file = new File( folder.getRoot(), "test.journal" );
+		JournalDatabase db = new JournalDatabase( "test", file );
+
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0; i < 1000; i++ ) {
+			sb.append( 'x' );
+		}
+
+		// Rewrite the same few documents many times so most of the file is old values:
+		for ( int i = 0; i < 3000; i++ ) {
+			Document document = getDocument( "p" + (i % 10), i );
+			document.put( "padding", sb.toString() );
+			db.beginTransaction().put( "players", "p" + (i % 10), document ).commit();
+		}
+
+		assertTrue( file.length() < JournalFile.COMPACT_MIN_BYTES * 2 );
+		assertEquals( 10, db.getKeys( "players" ).size() );
+		assertEquals( 2999.0, (Double) db.read( "players", "p9" ).get().get( "balance" ), 0.0001 );
+		db.close();
+
+		JournalDatabase reopened = new JournalDatabase( "test", file );
+		assertEquals( 10, reopened.getKeys( "players" ).size() );
+		assertEquals( 2990.0, (Double) reopened.read( "players", "p0" ).get().get( "balance" ), 0.0001 );
+		reopened.close();
+	}
+
+	@Test
+	public void testMigration() throws IOException
+	{
+		File dataDir = folder.newFolder( "Prison" );
+
+		FileStorage source = new FileStorage( dataDir );
+		source.createDatabase( "ranks" );
+		Database ranks = source.getDatabase( "ranks" ).get();
+		ranks.createCollection( "players" );
+
+		Collection players = ranks.getCollection( "players" ).get();
+		for ( int i = 0; i < 1200; i++ ) {
+			players.save( "player_" + i, getDocument( "player_" + i, i ) );
+		}
+
+		JournalStorage target = new JournalStorage( new File( dataDir, JournalStorage.DIRECTORY_NAME ) );
+
+		JournalMigrator migrator = new JournalMigrator();
+		migrator.migrate( new FileStorage( dataDir ), target );
+
+		assertEquals( 1, migrator.getDatabases() );
+		assertEquals( 1, migrator.getCollections() );
+		assertEquals( 1200, migrator.getDocuments() );
+		assertEquals( 0, migrator.getFailures() );
+
+		Optional<Document> document = getCollection( target, "ranks", "players" ).get( "player_42" );
+		assertTrue( document.isPresent() );
+		assertEquals( 42.0, (Double) document.get().get( "balance" ), 0.0001 );
+		target.close();
+	}
+
+	private File getJsonPlayers( int count ) throws IOException {
+		File dataDir = folder.newFolder( "Prison" );
+
+		FileStorage source = new FileStorage( dataDir );
+		source.createDatabase( "ranks" );
+		Database ranks = source.getDatabase( "ranks" ).get();
+		ranks.createCollection( "players" );
+
+		Collection players = ranks.getCollection( "players" ).get();
+		for ( int i = 0; i < count; i++ ) {
+			players.save( "player_" + i, getDocument( "player_" + i, i ) );
+		}
+
+		return dataDir;
+	}
+
+	@Test
+	public void testMigrationStatus() throws IOException
+	{
+		File dataDir = getJsonPlayers( 10 );
+		File journalDir = new File( dataDir, JournalStorage.DIRECTORY_NAME );
+
+		JournalStorage target = new JournalStorage( journalDir );
+		assertEquals( JournalStorage.MigrationStatus.none, target.getMigrationStatus() );
+
+		JournalMigrator.migrateIfNeeded( dataDir, target );
+
+		assertEquals( JournalStorage.MigrationStatus.complete, target.getMigrationStatus() );
+		assertEquals( 10, getCollection( target, "ranks", "players" ).getAll().size() );
+		target.close();
+
+		// Once it is complete, the json files are not copied again:
+		new FileStorage( dataDir ).getDatabase( "ranks" ).get().getCollection( "players" ).get()
+				.save( "player_99", getDocument( "player_99", 99 ) );
+
+		JournalStorage reopened = new JournalStorage( journalDir );
+		JournalMigrator.migrateIfNeeded( dataDir, reopened );
+
+		assertFalse( getCollection( reopened, "ranks", "players" ).get( "player_99" ).isPresent() );
+		reopened.close();
+
+		// A journal that was migrated before the status was saved is complete:
+		assertTrue( new File( journalDir, JournalStorage.MIGRATION_STATUS_FILE ).delete() );
+
+		JournalStorage legacy = new JournalStorage( journalDir );
+		assertEquals( JournalStorage.MigrationStatus.complete, legacy.getMigrationStatus() );
+		legacy.close();
+	}
+
+	@Test
+	public void testMigrationIsResumed() throws IOException
+	{
+		File dataDir = getJsonPlayers( 1200 );
+		File journalDir = new File( dataDir, JournalStorage.DIRECTORY_NAME );
+
+		// The server stopped after the first batch was saved, and then a player
+		// was saved with a newer balance:
+		JournalStorage partial = new JournalStorage( journalDir );
+		partial.setMigrationStatus( JournalStorage.MigrationStatus.started );
+
+		Collection players = getCollection( partial, "ranks", "players" );
+		for ( int i = 0; i < JournalMigrator.BATCH_SIZE; i++ ) {
+			players.save( "player_" + i, getDocument( "player_" + i, i ) );
+		}
+		players.save( "player_1", getDocument( "player_1", 1000 ) );
+		partial.close();
+
+		JournalStorage target = new JournalStorage( journalDir );
+		assertFalse( target.isNewStorage() );
+		assertEquals( JournalStorage.MigrationStatus.started, target.getMigrationStatus() );
+
+		JournalMigrator.migrateIfNeeded( dataDir, target );
+
+		assertEquals( JournalStorage.MigrationStatus.complete, target.getMigrationStatus() );
+
+		Collection migrated = getCollection( target, "ranks", "players" );
+		assertEquals( 1200, migrated.getAll().size() );
+		assertEquals( 1199.0, (Double) migrated.get( "player_1199" ).get().get( "balance" ), 0.0001 );
+
+		// The newer balance is kept:
+		assertEquals( 1000.0, (Double) migrated.get( "player_1" ).get().get( "balance" ), 0.0001 );
+		target.close();
+	}
+
+	@Test
+	public void testConcurrentDelete() throws Exception
+	{
+		File dir = folder.newFolder( "journal" );
+		JournalStorage storage = new JournalStorage( dir );
+		Collection players = getCollection( storage, "ranks", "players" );
+
+		for ( int i = 0; i < 50; i++ ) {
+			players.save( getDocument( "p" + i, i ) );
+		}
+
+		// Many threads delete the same documents, and each one is only
+		// deleted once:
+		ExecutorService pool = Executors.newFixedThreadPool( 8 );
+		AtomicInteger deleted = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for ( int t = 0; t < 8; t++ ) {
+			futures.add( pool.submit( () -> {
+				for ( int i = 0; i < 50; i++ ) {
+					if ( players.delete( "p" + i ) ) {
+						deleted.incrementAndGet();
+					}
+				}
+			}));
+		}
+		for ( Future<?> future : futures ) {
+			future.get();
+		}
+		pool.shutdown();
+
+		assertEquals( 50, deleted.get() );
+		assertTrue( players.getAll().isEmpty() );
+		storage.close();
+	}
+}
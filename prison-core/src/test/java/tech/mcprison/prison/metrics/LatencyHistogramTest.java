@@ -0,0 +1,225 @@
+package tech.mcprison.prison.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+	private static final long US = 1_000L;
+	private static final long MS = 1_000_000L;
+
+	@Test
+	public void testBucketIndex()
+	{
+		long[] limits = LatencyHistogram.getBucketLimitsNanos();
+
+		assertEquals( 1 * US, limits[0] );
+		assertEquals( 10 * 1000 * MS, limits[limits.length - 1] );
+
+		assertEquals( 0, LatencyHistogram.getBucketIndex( 0 ) );
+		assertEquals( 0, LatencyHistogram.getBucketIndex( 1 * US ) );
+		assertEquals( 1, LatencyHistogram.getBucketIndex( 1 * US + 1 ) );
+		assertEquals( 1, LatencyHistogram.getBucketIndex( 1500 ) );
+
+		// The bucket's limit is inclusive:
+		for ( int i = 0; i < limits.length; i++ ) {
+			assertEquals( i, LatencyHistogram.getBucketIndex( limits[i] ) );
+			assertEquals( i + 1, LatencyHistogram.getBucketIndex( limits[i] + 1 ) );
+		}
+
+		// Longer than the last limit goes in the overflow bucket:
+		assertEquals( limits.length, LatencyHistogram.getBucketIndex( Long.MAX_VALUE ) );
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals( 0, histogram.getCount() );
+		assertEquals( 0, histogram.getMeanNanos() );
+		assertArrayEquals( new long[] { 0, 0, 0 }, histogram.getPercentilesNanos( 50, 95, 99 ) );
+	}
+
+	@Test
+	public void testCountsTotalAndMax()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		histogram.record( 2 * MS );
+		histogram.record( 4 * MS );
+		histogram.record( -5 );
+
+		assertEquals( 3, histogram.getCount() );
+		assertEquals( 6 * MS, histogram.getTotalNanos() );
+		assertEquals( 4 * MS, histogram.getMaxNanos() );
+		assertEquals( 2 * MS, histogram.getMeanNanos() );
+
+		long[] counts = histogram.getBucketCounts();
+		assertEquals( 1, counts[0] );
+		assertEquals( 1, counts[LatencyHistogram.getBucketIndex( 2 * MS )] );
+		assertEquals( 1, counts[LatencyHistogram.getBucketIndex( 4 * MS )] );
+	}
+
+	@Test
+	public void testSingleValue()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record( 1200 * US );
+
+		// All percentiles are limited to the only value that was recorded:
+		for ( long value : histogram.getPercentilesNanos( 0, 50, 99, 100 ) ) {
+			assertTrue( value > 1000 * US );
+			assertTrue( value <= 1200 * US );
+		}
+	}
+
+	@Test
+	public void testPercentilesAreWithinOneBucket()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		// 1 ms to 100 ms, evenly:
+		for ( int i = 1; i <= 1000; i++ ) {
+			histogram.record( i * 100 * US );
+		}
+
+		long[] percentiles = histogram.getPercentilesNanos( 50, 95, 99, 100 );
+
+		assertWithinBucket( 50 * MS, percentiles[0] );
+		assertWithinBucket( 95 * MS, percentiles[1] );
+		assertWithinBucket( 99 * MS, percentiles[2] );
+		assertEquals( 100 * MS, percentiles[3] );
+
+		assertTrue( percentiles[0] <= percentiles[1] );
+		assertTrue( percentiles[1] <= percentiles[2] );
+		assertTrue( percentiles[2] <= percentiles[3] );
+	}
+
+	@Test
+	public void testSkewed()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		// 98% fast, 2% slow:
+		for ( int i = 0; i < 980; i++ ) {
+			histogram.record( 20 * US );
+		}
+		for ( int i = 0; i < 20; i++ ) {
+			histogram.record( 250 * MS );
+		}
+
+		assertWithinBucket( 20 * US, histogram.getPercentileNanos( 50 ) );
+		assertWithinBucket( 20 * US, histogram.getPercentileNanos( 95 ) );
+		assertWithinBucket( 250 * MS, histogram.getPercentileNanos( 99 ) );
+		assertEquals( 250 * MS, histogram.getMaxNanos() );
+	}
+
+	@Test
+	public void testOverflow()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		histogram.record( 1 * MS );
+		histogram.record( 60_000 * MS );
+
+		// Past the last bucket, the max is the only estimate:
+		assertEquals( 60_000 * MS, histogram.getPercentileNanos( 99 ) );
+		assertWithinBucket( 1 * MS, histogram.getPercentileNanos( 50 ) );
+	}
+
+	@Test
+	public void testReset()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		histogram.record( 5 * MS );
+		histogram.reset();
+
+		assertEquals( 0, histogram.getCount() );
+		assertEquals( 0, histogram.getTotalNanos() );
+		assertEquals( 0, histogram.getMaxNanos() );
+		assertEquals( 0, histogram.getPercentileNanos( 99 ) );
+	}
+
+	@Test
+	public void testConcurrentRecords() throws InterruptedException
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		Thread[] threads = new Thread[4];
+		for ( int t = 0; t < threads.length; t++ ) {
+			final int offset = t;
+			threads[t] = new Thread( () -> {
+				for ( int i = 0; i < 10_000; i++ ) {
+					histogram.record( (i % 100 + offset) * US );
+				}
+			});
+			threads[t].start();
+		}
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( 40_000, histogram.getCount() );
+		assertEquals( 102 * US, histogram.getMaxNanos() );
+	}
+
+	@Test
+	public void testDisabledTimers()
+	{
+		PrisonMetrics metrics = new PrisonMetrics();
+
+		MetricTimer timer = metrics.getTimer( "test" );
+		KeyedMetricTimer keyed = metrics.getKeyedTimer( "keyed" );
+		MetricCounter counter = metrics.getCounter( "counter" );
+
+		// Disabled, so the clock is not read and nothing is recorded:
+		long start = timer.start();
+		assertEquals( 0, start );
+		timer.stop( start );
+		keyed.stop( "mine", keyed.start() );
+		counter.increment();
+
+		assertEquals( 0, timer.getCount() );
+		assertEquals( 0, keyed.getCount() );
+		assertEquals( 0, counter.getCount() );
+
+		metrics.setEnabled( true );
+
+		timer.stop( timer.start() );
+		keyed.record( "a", 5 * MS );
+		keyed.record( "b", 1 * MS );
+		keyed.record( "b", 1 * MS );
+		keyed.record( null, 1 * MS );
+		counter.add( 3 );
+
+		assertEquals( 1, timer.getCount() );
+		assertEquals( 4, keyed.getCount() );
+		assertEquals( 3, counter.getCount() );
+
+		// The worst mine has the most total time:
+		assertEquals( "a", keyed.getWorst( 5 ).get( 0 ).getKey() );
+		assertEquals( 2, keyed.getWorst( 5 ).size() );
+		assertEquals( 1, keyed.getWorst( 1 ).size() );
+
+		// Disabling keeps what was recorded, and enabling starts over:
+		metrics.setEnabled( false );
+		assertEquals( 4, keyed.getCount() );
+
+		metrics.setEnabled( true );
+		assertEquals( 0, keyed.getCount() );
+		assertTrue( keyed.getWorst( 5 ).isEmpty() );
+	}
+
+	private void assertWithinBucket( long expected, long actual ) {
+		int index = LatencyHistogram.getBucketIndex( expected );
+		long[] limits = LatencyHistogram.getBucketLimitsNanos();
+
+		long lower = index == 0 ? 0 : limits[index - 1];
+		long upper = limits[index];
+
+		assertTrue( "expected " + expected + " but was " + actual, actual >= lower && actual <= upper );
+	}
+}
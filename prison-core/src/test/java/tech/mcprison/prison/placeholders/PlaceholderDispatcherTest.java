@@ -0,0 +1,145 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholderDispatcherTest
+{
+
+	/**
+	 * Returns the key's data as the value, and counts the translations.
+	 */
+	private class TestManager
+		implements ManagerPlaceholders {
+
+		private final boolean needsPlayer;
+		private List<PlaceHolderKey> keys = new ArrayList<>();
+		private int translations = 0;
+
+		public TestManager( boolean needsPlayer, PlaceHolderKey... placeHolderKeys ) {
+			super();
+
+			this.needsPlayer = needsPlayer;
+			for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
+				keys.add( placeHolderKey );
+			}
+		}
+
+		@Override
+		public List<PlaceHolderKey> getTranslatedPlaceHolderKeys() {
+			return keys;
+		}
+
+		@Override
+		public PlaceholderRegistry getPlaceholderRegistry() {
+			return PlaceholderRegistry.build( this );
+		}
+
+		@Override
+		public void reloadPlaceholders() {
+			keys = new ArrayList<>( keys );
+		}
+
+		@Override
+		public String getTranslatedPlaceHolder( UUID playerUuid, String playerName,
+						PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+			translations++;
+
+			String results = needsPlayer && playerUuid == null ? null : placeHolderKey.getData();
+
+			if ( results != null && attribute != null ) {
+				results = attribute.format( results );
+			}
+
+			return results;
+		}
+	}
+
+	private TestManager players = new TestManager( true,
+			new PlaceHolderKey( "prison_rank", PrisonPlaceHolders.prison_rank, "A" ) );
+
+	private TestManager mines = new TestManager( false,
+			new PlaceHolderKey( "prison_mbm_a", PrisonPlaceHolders.prison_mbm_minename, "10" ),
+			new PlaceHolderKey( "prison_mbm_b", PrisonPlaceHolders.prison_mbm_minename, null ) );
+
+	private TestManager ranks = new TestManager( false,
+			new PlaceHolderKey( "prison_rank", PrisonPlaceHolders.prison_rank, "R" ) );
+
+	private PlaceholderDispatcher getDispatcher() {
+		return new PlaceholderDispatcher( new PlaceholderManager(), players, mines, ranks );
+	}
+
+	@Test
+	public void testTranslate()
+	{
+		PlaceholderDispatcher dispatcher = getDispatcher();
+		UUID uuid = UUID.randomUUID();
+
+		assertEquals( "A", dispatcher.translate( uuid, "player", "prison_rank" ) );
+		assertEquals( "A", dispatcher.translate( uuid, "player", "rank" ) );
+		assertEquals( "10", dispatcher.translate( uuid, "player", "PRISON_MBM_A" ) );
+		assertEquals( "10.0", dispatcher.translate( uuid, "player", "prison_mbm_a::nFormat:0.0" ) );
+
+		assertNull( dispatcher.translate( uuid, "player", "prison_mbm_b" ) );
+		assertNull( dispatcher.translate( uuid, "player", "prison_unknown" ) );
+		assertNull( dispatcher.translate( uuid, "player", null ) );
+
+		// Without a player, the rank placeholder with the same key is used:
+		assertEquals( "R", dispatcher.translate( null, null, "prison_rank" ) );
+		assertEquals( "10", dispatcher.translate( null, null, "prison_mbm_a" ) );
+	}
+
+	@Test
+	public void testTranslateText()
+	{
+		PlaceholderDispatcher dispatcher = getDispatcher();
+		UUID uuid = UUID.randomUUID();
+
+		assertEquals( "Rank A, 10 blocks, [] {unknown} 100%",
+				dispatcher.translateText( uuid, "player",
+						"Rank {prison_rank}, %prison_mbm_a% blocks, [{prison_mbm_b}] {unknown} 100%" ) );
+
+		assertEquals( "Rank R", dispatcher.translateText( null, null, "Rank {prison_rank}" ) );
+
+		// The prefix is required within text:
+		assertEquals( "Rank {rank}", dispatcher.translateText( uuid, "player", "Rank {rank}" ) );
+		assertNull( dispatcher.translateText( uuid, "player", null ) );
+	}
+
+	@Test
+	public void testValueCache()
+	{
+		PlaceholderDispatcher dispatcher = getDispatcher();
+		UUID uuid = UUID.randomUUID();
+
+		dispatcher.translate( uuid, "player", "prison_rank" );
+		dispatcher.translateText( uuid, "player", "{prison_rank} {prison_mbm_a}" );
+		dispatcher.translate( uuid, "player", "prison_mbm_a" );
+
+		assertEquals( 1, players.translations );
+		assertEquals( 1, mines.translations );
+
+		// The rank placeholders, and the placeholders without a player, are not cached:
+		dispatcher.translate( null, null, "prison_rank" );
+		dispatcher.translate( null, null, "prison_rank" );
+
+		assertEquals( 2, ranks.translations );
+	}
+
+	@Test
+	public void testIsCurrent()
+	{
+		PlaceholderDispatcher dispatcher = getDispatcher();
+		assertTrue( dispatcher.isCurrent() );
+
+		mines.reloadPlaceholders();
+		assertFalse( dispatcher.isCurrent() );
+	}
+}
@@ -0,0 +1,108 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholderIdentifierTest
+{
+
+	@Test
+	public void testParse()
+	{
+		PlaceholderManager pman = new PlaceholderManager();
+
+		PlaceholderIdentifier identifier =
+				pman.getPlaceholderIdentifier( "prison_rank::nFormat:#,##0.0:1:kmg" );
+
+		assertEquals( "prison_rank", identifier.getPlaceholder() );
+		assertTrue( identifier.getAttribute() instanceof PlaceholderAttributeNumberFormat );
+		assertEquals( "1.5 k", identifier.getAttribute().format( "1500" ) );
+
+		assertEquals( "prison_rank", pman.extractPlaceholderString( "prison_rank::nFormat:#,##0.0:1:kmg" ) );
+
+		identifier = pman.getPlaceholderIdentifier( "prison_rank" );
+		assertEquals( "prison_rank", identifier.getPlaceholder() );
+		assertNull( identifier.getAttribute() );
+
+		assertNull( pman.getPlaceholderIdentifier( null ) );
+		assertNull( pman.extractPlaceholderString( null ) );
+		assertNull( pman.extractPlaceholderExtractAttribute( null ) );
+	}
+
+	@Test
+	public void testCache()
+	{
+		PlaceholderManager pman = new PlaceholderManager();
+		pman.setProgressBarConfig( new PlaceholderProgressBarConfig( 20, "&2", "#", "&4", "=" ) );
+
+		String text = "prison_rank::text:test";
+		PlaceholderIdentifier identifier = pman.getPlaceholderIdentifier( text );
+
+		assertSame( identifier, pman.getPlaceholderIdentifier( text ) );
+		assertSame( identifier.getAttribute(), pman.extractPlaceholderExtractAttribute( text ) );
+
+		// Debug identifiers are parsed every time:
+		String debug = "prison_rank::text:test:debug";
+		assertNotSame( pman.getPlaceholderIdentifier( debug ), pman.getPlaceholderIdentifier( debug ) );
+
+		// Changing the bar config clears the cache:
+		String bar = "prison_rankup_cost_percent::bar:20";
+		PlaceholderIdentifier barIdentifier = pman.getPlaceholderIdentifier( bar );
+		assertSame( barIdentifier, pman.getPlaceholderIdentifier( bar ) );
+
+		pman.setProgressBarConfig( new PlaceholderProgressBarConfig( 10, "&2", "#", "&4", "=" ) );
+
+		assertNotSame( barIdentifier, pman.getPlaceholderIdentifier( bar ) );
+		assertNotSame( identifier, pman.getPlaceholderIdentifier( text ) );
+	}
+
+	@Test
+	public void testOnlyRegisteredPlaceholdersAreCached()
+	{
+		PlaceholderManager pman = new PlaceholderManager();
+
+		List<PlaceHolderKey> keys = new ArrayList<>();
+		keys.add( new PlaceHolderKey( "prison_rank", PrisonPlaceHolders.prison_rank ) );
+
+		PlaceholderRegistry registry = PlaceholderRegistry.build( new ManagerPlaceholders() {
+			@Override
+			public List<PlaceHolderKey> getTranslatedPlaceHolderKeys() {
+				return keys;
+			}
+			@Override
+			public PlaceholderRegistry getPlaceholderRegistry() {
+				return PlaceholderRegistry.build( this );
+			}
+			@Override
+			public void reloadPlaceholders() {
+			}
+			@Override
+			public String getTranslatedPlaceHolder( UUID playerUuid, String playerName,
+							PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+				return null;
+			}
+		});
+
+		// Text within chat messages is not parsed or cached:
+		for ( int i = 0; i < PlaceholderManager.IDENTIFIER_CACHE_SIZE * 2; i++ ) {
+			assertNull( pman.getPlaceholderIdentifier( "junk" + i + "::nFormat:0.00", registry ) );
+		}
+		assertNull( pman.getPlaceholderIdentifier( null, registry ) );
+		assertEquals( 0, pman.getPlaceholderIdentifierCacheSize() );
+
+		String text = "PRISON_RANK::nFormat:#,##0.0:1:kmg";
+		PlaceholderIdentifier identifier = pman.getPlaceholderIdentifier( text, registry );
+
+		assertEquals( "PRISON_RANK", identifier.getPlaceholder() );
+		assertTrue( identifier.getAttribute() instanceof PlaceholderAttributeNumberFormat );
+		assertSame( identifier, pman.getPlaceholderIdentifier( text ) );
+		assertEquals( 1, pman.getPlaceholderIdentifierCacheSize() );
+	}
+}
@@ -0,0 +1,111 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholderRegistryTest
+{
+
+	private class TestManager
+		implements ManagerPlaceholders {
+
+		private List<PlaceHolderKey> keys = new ArrayList<>();
+
+		@Override
+		public List<PlaceHolderKey> getTranslatedPlaceHolderKeys() {
+			return keys;
+		}
+
+		@Override
+		public PlaceholderRegistry getPlaceholderRegistry() {
+			return PlaceholderRegistry.build( this );
+		}
+
+		@Override
+		public void reloadPlaceholders() {
+			keys = new ArrayList<>( keys );
+		}
+
+		@Override
+		public String getTranslatedPlaceHolder( UUID playerUuid, String playerName,
+						PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+			return placeHolderKey.getKey();
+		}
+	}
+
+	@Test
+	public void testLookup()
+	{
+		TestManager players = new TestManager();
+		players.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( PrisonPlaceHolders.prison_rank.name(), PrisonPlaceHolders.prison_rank ) );
+		players.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( PrisonPlaceHolders.prison_r.name(), PrisonPlaceHolders.prison_r ) );
+
+		TestManager mines = new TestManager();
+		mines.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( "prison_mines_blocks_mined_a",
+						PrisonPlaceHolders.prison_mines_blocks_mined_minename, "a" ) );
+		mines.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( "prison_mbm_a", PrisonPlaceHolders.prison_mbm_minename, "a" ) );
+
+		PlaceholderRegistry registry = PlaceholderRegistry.build( players, null, mines );
+
+		assertEquals( 4, registry.size() );
+
+		assertEquals( PrisonPlaceHolders.prison_rank,
+				registry.getPlaceHolderKey( "prison_rank" ).getPlaceholder() );
+		assertEquals( PrisonPlaceHolders.prison_rank,
+				registry.getPlaceHolderKey( "PRISON_Rank" ).getPlaceholder() );
+		assertSame( players, registry.getEntry( "prison_r" ).getManager() );
+
+		assertSame( mines, registry.getEntry( "prison_mbm_a" ).getManager() );
+		assertEquals( "a", registry.getPlaceHolderKey( "prison_mbm_A" ).getData() );
+
+		assertNull( registry.getEntry( "prison_mbm_b" ) );
+		assertNull( registry.getEntry( "prison_ran" ) );
+		assertNull( registry.getEntry( null ) );
+	}
+
+	@Test
+	public void testFirstManagerWins()
+	{
+		TestManager first = new TestManager();
+		first.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( "prison_mbm_a", PrisonPlaceHolders.prison_mbm_minename, "first" ) );
+
+		TestManager second = new TestManager();
+		second.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( "PRISON_MBM_A", PrisonPlaceHolders.prison_mbm_minename, "second" ) );
+
+		PlaceholderRegistry registry = PlaceholderRegistry.build( first, second );
+
+		assertEquals( 1, registry.size() );
+		assertSame( first, registry.getEntry( "prison_mbm_a" ).getManager() );
+		assertEquals( "first", registry.getPlaceHolderKey( "prison_mbm_a" ).getData() );
+	}
+
+	@Test
+	public void testIsCurrent()
+	{
+		TestManager mines = new TestManager();
+		mines.getTranslatedPlaceHolderKeys().add(
+				new PlaceHolderKey( "prison_mbm_a", PrisonPlaceHolders.prison_mbm_minename, "a" ) );
+
+		PlaceholderRegistry registry = PlaceholderRegistry.build( mines );
+		assertTrue( registry.isCurrent() );
+
+		mines.reloadPlaceholders();
+		assertFalse( registry.isCurrent() );
+
+		assertTrue( PlaceholderRegistry.build( mines ).isCurrent() );
+		assertTrue( PlaceholderRegistry.EMPTY.isCurrent() );
+	}
+}
@@ -0,0 +1,68 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PlaceholderTextTokenizerTest
+{
+
+	private String resolve( String identifier ) {
+		String results = null;
+
+		if ( identifier.toLowerCase().startsWith( "prison_rank" ) ) {
+			results = "A";
+		}
+		else if ( identifier.toLowerCase().startsWith( "prison_mbm_a" ) ) {
+			results = "";
+		}
+
+		return results;
+	}
+
+	@Test
+	public void testTranslate()
+	{
+		assertEquals( "Rank A!", PlaceholderTextTokenizer.translate( "Rank {prison_rank}!", this::resolve ) );
+		assertEquals( "Rank A!", PlaceholderTextTokenizer.translate( "Rank %prison_rank%!", this::resolve ) );
+		assertEquals( "A A A", PlaceholderTextTokenizer.translate(
+						"{prison_rank} {PRISON_RANK} {prison_rank::nFormat:0}", this::resolve ) );
+
+		assertEquals( "[]", PlaceholderTextTokenizer.translate( "[{prison_mbm_a}]", this::resolve ) );
+		assertEquals( "{unknown} A", PlaceholderTextTokenizer.translate( "{unknown} {prison_rank}", this::resolve ) );
+	}
+
+	@Test
+	public void testNonPlaceholders()
+	{
+		assertNull( PlaceholderTextTokenizer.translate( null, this::resolve ) );
+
+		String text = "No placeholders here.";
+		assertSame( text, PlaceholderTextTokenizer.translate( text, this::resolve ) );
+
+		text = "{} %% { %";
+		assertSame( text, PlaceholderTextTokenizer.translate( text, this::resolve ) );
+
+		assertEquals( "100% A", PlaceholderTextTokenizer.translate( "100% %prison_rank%", this::resolve ) );
+		assertEquals( "{a A}", PlaceholderTextTokenizer.translate( "{a {prison_rank}}", this::resolve ) );
+		assertEquals( "{prison_rank", PlaceholderTextTokenizer.translate( "{prison_rank", this::resolve ) );
+	}
+
+	@Test
+	public void testSingleLookupPerSpan()
+	{
+		List<String> identifiers = new ArrayList<>();
+
+		PlaceholderTextTokenizer.translate( "Hi {prison_rank}, {prison_mbm_a}.", identifier -> {
+			identifiers.add( identifier );
+			return resolve( identifier );
+		});
+
+		assertEquals( 2, identifiers.size() );
+		assertEquals( "prison_rank", identifiers.get( 0 ) );
+		assertEquals( "prison_mbm_a", identifiers.get( 1 ) );
+	}
+}
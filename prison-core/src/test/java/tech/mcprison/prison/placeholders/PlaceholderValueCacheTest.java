@@ -0,0 +1,81 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.*;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class PlaceholderValueCacheTest
+{
+
+	private final AtomicLong time = new AtomicLong( 1000 );
+
+	private final UUID player1 = UUID.randomUUID();
+	private final UUID player2 = UUID.randomUUID();
+
+	@Test
+	public void testTtl()
+	{
+		PlaceholderValueCache cache = new PlaceholderValueCache( 10, time::get );
+
+		cache.put( player1, "prison_player_balance", "100", false );
+		assertEquals( "100", cache.get( player1, "prison_player_balance" ) );
+		assertNull( cache.get( player2, "prison_player_balance" ) );
+		assertNull( cache.get( player1, "prison_rank" ) );
+
+		// 10 ticks is 500 ms:
+		time.addAndGet( 499 );
+		assertEquals( "100", cache.get( player1, "prison_player_balance" ) );
+
+		time.addAndGet( 1 );
+		assertNull( cache.get( player1, "prison_player_balance" ) );
+
+		cache.put( player1, "prison_rank", null, false );
+		assertNull( cache.get( player1, "prison_rank" ) );
+		cache.put( null, "prison_rank", "A", false );
+		assertNull( cache.get( null, "prison_rank" ) );
+	}
+
+	@Test
+	public void testInvalidate()
+	{
+		PlaceholderValueCache cache = new PlaceholderValueCache( 10, time::get );
+
+		cache.put( player1, "prison_rank", "A", false );
+		cache.put( player1, "prison_player_mine_name", "a", true );
+		cache.put( player2, "prison_rank", "B", false );
+		cache.put( player2, "prison_player_mine_name", "b", true );
+
+		cache.invalidateMines();
+		assertEquals( "A", cache.get( player1, "prison_rank" ) );
+		assertEquals( "B", cache.get( player2, "prison_rank" ) );
+		assertNull( cache.get( player1, "prison_player_mine_name" ) );
+		assertNull( cache.get( player2, "prison_player_mine_name" ) );
+
+		cache.invalidatePlayer( player1 );
+		assertNull( cache.get( player1, "prison_rank" ) );
+		assertEquals( "B", cache.get( player2, "prison_rank" ) );
+
+		cache.invalidateAll();
+		assertNull( cache.get( player2, "prison_rank" ) );
+	}
+
+	@Test
+	public void testDisabled()
+	{
+		PlaceholderValueCache cache = new PlaceholderValueCache( 0, time::get );
+		assertFalse( cache.isEnabled() );
+
+		cache.put( player1, "prison_rank", "A", false );
+		assertNull( cache.get( player1, "prison_rank" ) );
+
+		cache.setTtlTicks( 20 );
+		assertTrue( cache.isEnabled() );
+		assertEquals( 20, cache.getTtlTicks() );
+
+		cache.put( player1, "prison_rank", "A", false );
+		assertEquals( "A", cache.get( player1, "prison_rank" ) );
+	}
+}
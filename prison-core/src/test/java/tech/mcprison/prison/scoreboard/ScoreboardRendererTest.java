@@ -0,0 +1,424 @@
+package tech.mcprison.prison.scoreboard;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.internal.scoreboard.DisplaySlot;
+import tech.mcprison.prison.internal.scoreboard.Objective;
+import tech.mcprison.prison.internal.scoreboard.Score;
+import tech.mcprison.prison.internal.scoreboard.Scoreboard;
+import tech.mcprison.prison.internal.scoreboard.ScoreboardManager;
+import tech.mcprison.prison.internal.scoreboard.Team;
+import tech.mcprison.prison.util.ChatColor;
+
+public class ScoreboardRendererTest
+{
+
+	@Test
+	public void testFirstRender()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		sidebar.render( "Prison", Arrays.asList( "Rank: A", "Balance: 100" ) );
+
+		assertEquals( "Prison", scoreboard.objective.displayName );
+		assertEquals( 2, scoreboard.teams.size() );
+		assertEquals( "Rank: A", scoreboard.getText( 0 ) );
+		assertEquals( "Balance: 100", scoreboard.getText( 1 ) );
+
+		// The first line has the highest score:
+		assertEquals( SidebarLines.MAX_LINES, scoreboard.getScore( 0 ) );
+		assertEquals( SidebarLines.MAX_LINES - 1, scoreboard.getScore( 1 ) );
+	}
+
+	@Test
+	public void testUnchangedRender()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		List<String> lines = Arrays.asList( "Rank: A", "Balance: 100", "Mine: a" );
+
+		sidebar.render( "Prison", lines );
+		scoreboard.mutations = 0;
+
+		assertEquals( 0, sidebar.render( "Prison", new ArrayList<>( lines ) ) );
+		assertEquals( 0, scoreboard.mutations );
+	}
+
+	@Test
+	public void testOneLineChanged()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		sidebar.render( "Prison", Arrays.asList( "Rank: A", "Balance: 100", "Mine: a" ) );
+		scoreboard.mutations = 0;
+
+		sidebar.render( "Prison", Arrays.asList( "Rank: A", "Balance: 250", "Mine: a" ) );
+
+		// Only the prefix of the one team:
+		assertEquals( 1, scoreboard.mutations );
+		assertEquals( "Balance: 250", scoreboard.getText( 1 ) );
+		assertEquals( SidebarLines.MAX_LINES - 1, scoreboard.getScore( 1 ) );
+	}
+
+	@Test
+	public void testLongLineChanged()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		sidebar.render( "Prison", Arrays.asList( "Blocks mined: 1000000" ) );
+		scoreboard.mutations = 0;
+
+		// The prefix is the same, so only the suffix changes:
+		sidebar.render( "Prison", Arrays.asList( "Blocks mined: 1000001" ) );
+
+		assertEquals( 1, scoreboard.mutations );
+		assertEquals( "Blocks mined: 1000001", scoreboard.getText( 0 ) );
+	}
+
+	@Test
+	public void testLinesAddedAndRemoved()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		sidebar.render( "Prison", Arrays.asList( "a", "b", "c" ) );
+		scoreboard.mutations = 0;
+
+		sidebar.render( "Prison", Arrays.asList( "a", "b" ) );
+
+		// The score is reset and the team is unregistered:
+		assertEquals( 2, scoreboard.mutations );
+		assertEquals( 2, scoreboard.teams.size() );
+		assertFalse( scoreboard.objective.scores.containsKey( SidebarLines.getEntry( 2 ) ) );
+		assertEquals( Arrays.asList( "a", "b" ), sidebar.getLines() );
+
+		scoreboard.mutations = 0;
+		sidebar.render( "Prison", Arrays.asList( "a", "b", "d" ) );
+
+		// Team, entry, prefix, and score:
+		assertEquals( 4, scoreboard.mutations );
+		assertEquals( "d", scoreboard.getText( 2 ) );
+		assertEquals( SidebarLines.MAX_LINES - 2, scoreboard.getScore( 2 ) );
+
+		// The other lines keep their scores:
+		assertEquals( SidebarLines.MAX_LINES, scoreboard.getScore( 0 ) );
+	}
+
+	@Test
+	public void testTitleChanged()
+	{
+		FakeScoreboard scoreboard = new FakeScoreboard();
+		SidebarLines sidebar = new SidebarLines( scoreboard );
+
+		sidebar.render( "Prison", Arrays.asList( "a" ) );
+		scoreboard.mutations = 0;
+
+		sidebar.render( "Mines", Arrays.asList( "a" ) );
+
+		assertEquals( 1, scoreboard.mutations );
+		assertEquals( "Mines", scoreboard.objective.displayName );
+	}
+
+	@Test
+	public void testSplit()
+	{
+		String[] parts = SidebarLines.split( "short", 16 );
+		assertEquals( "short", parts[0] );
+		assertEquals( "", parts[1] );
+
+		// The color code is not split, and the suffix keeps the color:
+		String text = "&aBalance: &e1234567".replace( '&', ChatColor.COLOR_CHAR );
+		parts = SidebarLines.split( text.substring( 0, 15 ) + ChatColor.COLOR_CHAR + "b123", 16 );
+		assertEquals( 15, parts[0].length() );
+		assertEquals( ChatColor.YELLOW.toString() + ChatColor.AQUA + "123", parts[1] );
+
+		parts = SidebarLines.split( text, 16 );
+		assertEquals( text.substring( 0, 16 ), parts[0] );
+		assertEquals( ChatColor.YELLOW.toString() + "4567", parts[1] );
+
+		// Text that does not fit is cut off:
+		parts = SidebarLines.split( "0123456789012345678901234567890123456789", 16 );
+		assertEquals( 16, parts[1].length() );
+	}
+
+	@Test
+	public void testRendererBatchesUpdates()
+	{
+		FakeScoreboardManager manager = new FakeScoreboardManager();
+		FakeRenderer renderer = new FakeRenderer( manager );
+
+		ViewerPlayer player1 = new ViewerPlayer();
+		ViewerPlayer player2 = new ViewerPlayer();
+
+		renderer.update( player1, "Prison", Arrays.asList( "Balance: 1" ) );
+		renderer.update( player1, "Prison", Arrays.asList( "Balance: 2" ) );
+		renderer.update( player2, "Prison", Arrays.asList( "Balance: 5" ) );
+
+		// One flush for the tick, and nothing is rendered until then:
+		assertEquals( 1, renderer.scheduled );
+		assertEquals( 2, renderer.getPendingCount() );
+		assertEquals( 0, manager.created.size() );
+
+		renderer.flush();
+
+		assertEquals( 0, renderer.getPendingCount() );
+		assertEquals( 2, manager.created.size() );
+		assertNotNull( player1.scoreboard );
+
+		// Only the last update for the tick is shown:
+		assertEquals( "Balance: 2",
+				((FakeScoreboard) player1.scoreboard).getText( 0 ) );
+
+		renderer.update( player1, "Prison", Arrays.asList( "Balance: 2" ) );
+		renderer.update( player2, "Prison", Arrays.asList( "Balance: 6" ) );
+
+		assertEquals( 2, renderer.scheduled );
+		assertEquals( 1, renderer.flush() );
+
+		// The same scoreboards are reused:
+		assertEquals( 2, manager.created.size() );
+
+		renderer.remove( player1.getUUID() );
+		assertNull( renderer.getSidebar( player1.getUUID() ) );
+	}
+
+	private static class FakeRenderer
+		extends ScoreboardRenderer
+	{
+		private int scheduled = 0;
+
+		private FakeRenderer( ScoreboardManager manager ) {
+			super( manager );
+		}
+
+		@Override
+		protected void scheduleFlush() {
+			scheduled++;
+		}
+	}
+
+	private static class ViewerPlayer
+		extends TestPlayer
+	{
+		private final UUID uuid = UUID.randomUUID();
+		private Scoreboard scoreboard;
+
+		@Override
+		public UUID getUUID() {
+			return uuid;
+		}
+
+		@Override
+		public void setScoreboard( Scoreboard scoreboard ) {
+			this.scoreboard = scoreboard;
+		}
+	}
+
+	private static class FakeScoreboardManager
+		implements ScoreboardManager
+	{
+		private final List<FakeScoreboard> created = new ArrayList<>();
+
+		@Override
+		public Scoreboard getNewScoreboard() {
+			FakeScoreboard results = new FakeScoreboard();
+			created.add( results );
+			return results;
+		}
+
+		@Override
+		public Scoreboard getMainScoreboard() {
+			return null;
+		}
+	}
+
+	/**
+	 * Counts every change that would be sent to the player.
+	 */
+	private static class FakeScoreboard
+		implements Scoreboard
+	{
+		private int mutations = 0;
+
+		private FakeObjective objective;
+		private final Map<String, FakeTeam> teams = new HashMap<>();
+
+		private String getText( int line ) {
+			FakeTeam team = teams.get( SidebarLines.TEAM_NAME_PREFIX + line );
+			assertTrue( team.entries.contains( SidebarLines.getEntry( line ) ) );
+			return team.prefix + team.suffix;
+		}
+
+		private int getScore( int line ) {
+			return objective.scores.get( SidebarLines.getEntry( line ) ).score;
+		}
+
+		@Override
+		public Objective getObjective( DisplaySlot slot ) {
+			return objective;
+		}
+
+		@Override
+		public Objective registerNewObjective( String name, String dummy ) {
+			objective = new FakeObjective( this );
+			mutations++;
+			return objective;
+		}
+
+		@Override
+		public void resetScores( String name ) {
+			objective.scores.remove( name );
+			mutations++;
+		}
+
+		@Override
+		public Team registerNewTeam( String name ) {
+			assertFalse( teams.containsKey( name ) );
+
+			FakeTeam team = new FakeTeam( this, name );
+			teams.put( name, team );
+			mutations++;
+			return team;
+		}
+
+		@Override
+		public List<Team> getTeams() {
+			return new ArrayList<>( teams.values() );
+		}
+	}
+
+	private static class FakeObjective
+		implements Objective
+	{
+		private final FakeScoreboard scoreboard;
+		private final Map<String, FakeScore> scores = new HashMap<>();
+
+		private DisplaySlot displaySlot;
+		private String displayName;
+
+		private FakeObjective( FakeScoreboard scoreboard ) {
+			this.scoreboard = scoreboard;
+		}
+
+		@Override
+		public DisplaySlot getDisplaySlot() {
+			return displaySlot;
+		}
+
+		@Override
+		public void setDisplaySlot( DisplaySlot displaySlot ) {
+			this.displaySlot = displaySlot;
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		@Override
+		public void setDisplayName( String displayName ) {
+			this.displayName = displayName;
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public Score getScore( String entry ) {
+			return scores.computeIfAbsent( entry, e -> new FakeScore( scoreboard ) );
+		}
+	}
+
+	private static class FakeScore
+		implements Score
+	{
+		private final FakeScoreboard scoreboard;
+		private int score;
+
+		private FakeScore( FakeScoreboard scoreboard ) {
+			this.scoreboard = scoreboard;
+		}
+
+		@Override
+		public int getScore() {
+			return score;
+		}
+
+		@Override
+		public void setScore( int score ) {
+			this.score = score;
+			scoreboard.mutations++;
+		}
+	}
+
+	private static class FakeTeam
+		implements Team
+	{
+		private final FakeScoreboard scoreboard;
+		private final String name;
+		private final List<String> entries = new ArrayList<>();
+
+		private String prefix = "";
+		private String suffix = "";
+
+		private FakeTeam( FakeScoreboard scoreboard, String name ) {
+			this.scoreboard = scoreboard;
+			this.name = name;
+		}
+
+		@Override
+		public void unregister() {
+			scoreboard.teams.remove( name );
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public String getPrefix() {
+			return prefix;
+		}
+
+		@Override
+		public void setPrefix( String prefix ) {
+			assertTrue( prefix.length() <= SidebarLines.LEGACY_PART_LENGTH );
+			this.prefix = prefix;
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public String getSuffix() {
+			return suffix;
+		}
+
+		@Override
+		public void setSuffix( String suffix ) {
+			assertTrue( suffix.length() <= SidebarLines.LEGACY_PART_LENGTH );
+			this.suffix = suffix;
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public void addEntry( String player ) {
+			entries.add( player );
+			scoreboard.mutations++;
+		}
+
+		@Override
+		public void removeEntry( String player ) {
+			entries.remove( player );
+			scoreboard.mutations++;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package tech.mcprison.prison.store;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>The behavior that prison expects from every Storage backend.  Each backend
+ * has a test that extends this and opens its own Storage, so they are all held
+ * to the same contract.
+ * </p>
+ *
+ */
+public abstract class StorageContract
+{
+	private static final double DELTA = 0.0001;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Opens the storage in the directory.  It is called again with the same
+	 * directory to check that the data was saved.
+	 */
+	protected abstract Storage openStorage( File dir );
+
+	/**
+	 * Releases the storage before it is opened again.
+	 */
+	protected void closeStorage( Storage storage ) {
+	}
+
+	private Document getDocument( String name, double balance ) {
+		Document document = new Document();
+		document.put( "name", name );
+		document.put( "balance", balance );
+		return document;
+	}
+
+	private double getBalance( Document document ) {
+		return ((Number) document.get( "balance" )).doubleValue();
+	}
+
+	private Collection getCollection( Storage storage, String db, String collection ) {
+		return storage.getDatabase( db ).get().getCollection( collection ).get();
+	}
+
+	private Set<String> getNames( List<Document> documents ) {
+		Set<String> results = new HashSet<>();
+		for ( Document document : documents ) {
+			results.add( (String) document.get( "name" ) );
+		}
+		return results;
+	}
+
+	@Test
+	public void testConnected() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+
+		assertTrue( storage.isConnected() );
+		closeStorage( storage );
+	}
+
+	@Test
+	public void testSaveAndGet() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+		Collection players = getCollection( storage, "ranks", "players" );
+
+		players.save( getDocument( "p1", 10 ) );
+		players.save( "p2", getDocument( "p2", 20 ) );
+
+		assertEquals( 10, getBalance( players.get( "p1" ).get() ), DELTA );
+		assertEquals( 20, getBalance( players.get( "p2" ).get() ), DELTA );
+		assertFalse( players.get( "missing" ).isPresent() );
+
+		// Saving with the same key replaces the document:
+		players.save( getDocument( "p1", 15 ) );
+
+		assertEquals( 15, getBalance( players.get( "p1" ).get() ), DELTA );
+		assertEquals( 2, players.getAll().size() );
+
+		closeStorage( storage );
+	}
+
+	@Test
+	public void testGetAll() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+		Collection mines = getCollection( storage, "mines", "mines" );
+
+		assertTrue( mines.getAll().isEmpty() );
+
+		for ( int i = 0; i < 25; i++ ) {
+			mines.save( getDocument( "mine" + i, i ) );
+		}
+
+		List<Document> all = mines.getAll();
+		assertEquals( 25, all.size() );
+		assertTrue( getNames( all ).contains( "mine0" ) );
+		assertTrue( getNames( all ).contains( "mine24" ) );
+
+		closeStorage( storage );
+	}
+
+	@Test
+	public void testDelete() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+		Collection players = getCollection( storage, "ranks", "players" );
+
+		players.save( getDocument( "p1", 1 ) );
+		players.save( getDocument( "p2", 2 ) );
+
+		assertTrue( players.delete( "p1" ) );
+		assertFalse( players.delete( "p1" ) );
+		assertFalse( players.delete( "missing" ) );
+
+		assertFalse( players.get( "p1" ).isPresent() );
+		assertEquals( new HashSet<>( Arrays.asList( "p2" ) ), getNames( players.getAll() ) );
+
+		// A deleted document can be saved again:
+		players.save( getDocument( "p1", 3 ) );
+		assertEquals( 3, getBalance( players.get( "p1" ).get() ), DELTA );
+
+		closeStorage( storage );
+	}
+
+	@Test
+	public void testReopen() throws IOException
+	{
+		File dir = folder.newFolder( "storage" );
+
+		Storage storage = openStorage( dir );
+		Collection players = getCollection( storage, "ranks", "players" );
+		players.save( getDocument( "p1", 10 ) );
+		players.save( getDocument( "p2", 20 ) );
+		players.save( getDocument( "p1", 11 ) );
+		players.delete( "p2" );
+		getCollection( storage, "mines", "mines" ).save( getDocument( "a", 1 ) );
+		closeStorage( storage );
+
+		Storage reopened = openStorage( dir );
+		Collection reloaded = getCollection( reopened, "ranks", "players" );
+
+		assertEquals( 1, reloaded.getAll().size() );
+		assertEquals( 11, getBalance( reloaded.get( "p1" ).get() ), DELTA );
+		assertFalse( reloaded.get( "p2" ).isPresent() );
+		assertTrue( getCollection( reopened, "mines", "mines" ).get( "a" ).isPresent() );
+
+		closeStorage( reopened );
+	}
+
+	@Test
+	public void testCollections() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+		Database db = storage.getDatabase( "ranks" ).get();
+
+		assertTrue( db.createCollection( "ladders" ) );
+		assertFalse( db.createCollection( "ladders" ) );
+
+		// Getting a collection creates it:
+		Optional<Collection> ranks = db.getCollection( "ranks" );
+		assertTrue( ranks.isPresent() );
+		assertEquals( "ranks", ranks.get().getName() );
+
+		Set<String> names = new HashSet<>();
+		for ( Collection collection : db.getCollections() ) {
+			names.add( collection.getName() );
+		}
+		assertTrue( names.contains( "ladders" ) );
+		assertTrue( names.contains( "ranks" ) );
+
+		assertTrue( db.deleteCollection( "ladders" ) );
+		assertFalse( db.deleteCollection( "ladders" ) );
+
+		for ( Collection collection : db.getCollections() ) {
+			assertNotEquals( "ladders", collection.getName() );
+		}
+
+		closeStorage( storage );
+	}
+
+	@Test
+	public void testDatabases() throws IOException
+	{
+		Storage storage = openStorage( folder.newFolder( "storage" ) );
+
+		assertTrue( storage.createDatabase( "ranks" ) );
+		assertFalse( storage.createDatabase( "ranks" ) );
+
+		// Getting a database creates it:
+		Optional<Database> mines = storage.getDatabase( "mines" );
+		assertTrue( mines.isPresent() );
+		assertEquals( "mines", mines.get().getName() );
+
+		Set<String> names = new HashSet<>();
+		for ( Database db : storage.getDatabases() ) {
+			names.add( db.getName() );
+		}
+		assertTrue( names.contains( "ranks" ) );
+		assertTrue( names.contains( "mines" ) );
+
+		assertTrue( storage.deleteDatabase( "ranks" ) );
+		assertFalse( storage.deleteDatabase( "ranks" ) );
+
+		for ( Database db : storage.getDatabases() ) {
+			assertNotEquals( "ranks", db.getName() );
+		}
+
+		closeStorage( storage );
+	}
+}
@@ -0,0 +1,55 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.tasks.PrisonCommandTask.CustomPlaceholders;
+import tech.mcprison.prison.tasks.PrisonCommandTask.TaskMode;
+
+public class PrisonCommandTaskBatchTest
+{
+
+	@Test
+	public void testGetTaskMode()
+	{
+		assertEquals( TaskMode.sync, PrisonCommandTask.getTaskMode( "say hi", TaskMode.sync ) );
+		assertEquals( TaskMode.inline, PrisonCommandTask.getTaskMode( "{inline}say hi", TaskMode.sync ) );
+		assertEquals( TaskMode.inlinePlayer, PrisonCommandTask.getTaskMode( "say hi{inlinePlayer}", TaskMode.sync ) );
+		assertEquals( TaskMode.syncPlayer, PrisonCommandTask.getTaskMode( "{syncPlayer}say hi", TaskMode.inline ) );
+
+		// The same as before, syncPlayer is used over inline:
+		assertEquals( TaskMode.syncPlayer, PrisonCommandTask.getTaskMode( "{inline}{syncPlayer}say hi", TaskMode.sync ) );
+	}
+
+	@Test
+	public void testTranslateTasks()
+	{
+		PrisonCommandTask cmdTask = new PrisonCommandTask( "test" );
+		cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRank, "B" );
+
+		List<String> tasks = cmdTask.translateTasks( null, "{inline}say {targetRank};say two" );
+
+		assertEquals( 2, tasks.size() );
+		assertEquals( "say B", tasks.get( 0 ) );
+		assertEquals( "say two", tasks.get( 1 ) );
+	}
+
+	@Test
+	public void testAddCommands()
+	{
+		PrisonCommandTaskBatch batch = new PrisonCommandTaskBatch( "test" );
+
+		for ( String rank : new String[] { "B", "C", "D" } ) {
+			PrisonCommandTask cmdTask = new PrisonCommandTask( "test" );
+			cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRank, rank );
+
+			batch.addCommand( cmdTask, null, "say {targetRank};give {targetRank}" );
+			batch.addCommand( cmdTask, null, "{inline}log {targetRank}" );
+		}
+
+		assertEquals( 9, batch.getCommandCount() );
+	}
+}
@@ -0,0 +1,141 @@
+package tech.mcprison.prison.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BlockTypeTest
+{
+
+	/**
+	 * The linear scans that BlockType used before the indexes were added.
+	 */
+	private static BlockType scanGetBlock( int legacyId, short data ) {
+		for (BlockType block : BlockType.values()) {
+			if (block.getLegacyId() == legacyId) {
+				if (block.getData() == data) {
+					return block;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static BlockType scanGetBlock( String key ) {
+		BlockType blockType = scanGetBlockByName( key );
+		if ( blockType == null ) {
+			blockType = scanGetBlockById( key );
+		}
+		if ( blockType == null ) {
+			blockType = scanGetBlockByXMaterialName( key );
+		}
+		return blockType;
+	}
+
+	private static BlockType scanGetBlockById( String id ) {
+		for (BlockType block : BlockType.values()) {
+			if (block.getId().equalsIgnoreCase(id) || block.name().equalsIgnoreCase(id) ||
+					block.getId().equalsIgnoreCase( "minecraft:" + id )) {
+				return block;
+			}
+		}
+		boolean isInt = false;
+		try {
+			Integer.parseInt(id.replaceAll(":", ""));
+			isInt = true;
+		} catch (Exception e) {
+			isInt = false;
+		}
+		if (isInt) {
+			if (!id.contains(":")) {
+				return scanGetBlock(Integer.parseInt(id), (short) 0);
+			}
+			return scanGetBlock(Integer.parseInt(id.split(":")[0]),
+				Short.parseShort(id.split(":")[1]));
+		}
+		return null;
+	}
+
+	private static BlockType scanGetBlockByName( String name ) {
+		for (BlockType block : BlockType.values()) {
+			if (block.name().equalsIgnoreCase(name)) {
+				return block;
+			}
+		}
+		return null;
+	}
+
+	private static BlockType scanGetBlockByXMaterialName( String name ) {
+		for (BlockType block : BlockType.values()) {
+			for ( String altName : block.getXMaterialAltNames() ) {
+				if ( altName.equalsIgnoreCase(name)) {
+					return block;
+				}
+			}
+		}
+		return null;
+	}
+
+	private List<String> getKeys( BlockType block ) {
+		List<String> keys = new ArrayList<>();
+
+		keys.add( block.name() );
+		keys.add( block.name().toLowerCase() );
+		keys.add( block.getId() );
+		keys.add( block.getId().toUpperCase() );
+		keys.add( block.getId().replace( "minecraft:", "" ) );
+		keys.add( block.getXMaterialName() );
+		keys.add( block.getXMaterialNameLegacy() );
+		keys.add( block.getLegacyId() + ":" + block.getData() );
+		keys.add( Integer.toString( block.getLegacyId() ) );
+
+		for ( String altName : block.getXMaterialAltNames() ) {
+			keys.add( altName );
+			keys.add( altName.toLowerCase() );
+		}
+
+		return keys;
+	}
+
+	@Test
+	public void testIndexParity()
+	{
+		for ( BlockType block : BlockType.values() ) {
+
+			assertEquals( block.name(),
+					scanGetBlock( block.getLegacyId(), block.getData() ),
+					BlockType.getBlock( block.getLegacyId(), block.getData() ) );
+			assertEquals( block.name(),
+					scanGetBlock( block.getLegacyId(), block.getData() ),
+					BlockType.getBlockWithData( block.getLegacyId(), block.getData() ) );
+			assertEquals( block.name(),
+					scanGetBlock( block.getLegacyId(), (short) 0 ),
+					BlockType.getBlock( block.getLegacyId() ) );
+
+			for ( String key : getKeys( block ) ) {
+				assertEquals( key, scanGetBlock( key ), BlockType.getBlock( key ) );
+			}
+
+			// The name always finds its own BlockType:
+			assertSame( block, BlockType.getBlock( block.name() ) );
+		}
+	}
+
+	@Test
+	public void testNoMatch()
+	{
+		String[] keys = { "", "not_a_block", "minecraft:", "minecraft:not_a_block",
+				"99999", "99999:3", "1:999", "-5", ":" };
+
+		for ( String key : keys ) {
+			assertEquals( key, scanGetBlock( key ), BlockType.getBlock( key ) );
+		}
+
+		assertNull( BlockType.getBlock( null ) );
+		assertNull( BlockType.getBlock( 99999, (short) 0 ) );
+		assertNull( BlockType.getBlock( Integer.MAX_VALUE, (short) -1 ) );
+	}
+}
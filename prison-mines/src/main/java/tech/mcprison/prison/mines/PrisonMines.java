@@ -151,6 +151,8 @@ public class PrisonMines extends Module {
     @Override
 	public void disable() {
     	
+    	getMineManager().cancelStatsSnapshotTask();
+    	
     	// Shutdown the mines by saving any unsaved block stats:
     	getMineManager().saveMinesIfUnsavedBlockCounts();
     }
@@ -13,6 +13,9 @@ import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+import tech.mcprison.prison.metrics.KeyedMetricTimer;
+import tech.mcprison.prison.metrics.MetricCounter;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.MineScheduler.MineJob;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetActions;
@@ -87,6 +90,19 @@ public abstract class MineReset
 	
 	public static final long MINE_RESET__AIR_COUNT_BASE_DELAY = 30000L; // 30 seconds
 	
+	
+	/**
+	 * <p>The server thread's time for each whole reset, and for each page of the 
+	 * async resets, for the /prison perf report.
+	 * </p>
+	 */
+	private static final KeyedMetricTimer METRICS_RESET_TIMER = 
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_MINE_RESET );
+	private static final KeyedMetricTimer METRICS_RESET_PAGE_TIMER = 
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_MINE_RESET_PAGE );
+	private static final MetricCounter METRICS_RESET_BLOCKS = 
+			PrisonMetrics.get().getCounter( PrisonMetrics.COUNTER_MINE_RESET_BLOCKS );
+	
 
 	private List<MineTargetPrisonBlock> mineTargetPrisonBlocks;
 	private TreeMap<MineTargetBlockKey, MineTargetPrisonBlock> mineTargetPrisonBlocksMap;
@@ -125,6 +141,8 @@ public abstract class MineReset
 	private List<Long> statsMineSweeperTaskMs;
 	private boolean mineSweeperSubmitted = false;
 	
+	private transient volatile MineStatsSnapshot statsSnapshot;
+	
 	public MineReset() {
 		super();
 		
@@ -159,6 +177,102 @@ public abstract class MineReset
     	}
     }
     
+    /**
+     * <p>This is called once the mine has been fully reset, for both the
+     * synchronous and the asynchronous resets.
+     * </p>
+     */
+    private void resetCompleted() {
+    	
+    	updateStatsSnapshot();
+    	
+    	// The players' cached mine placeholders are no longer valid:
+    	Prison.get().getPlaceholderManager().getValueCache().invalidateMines();
+    }
+    
+    /**
+     * <p>The current stats of the mine that are used by the placeholders.  
+     * See MineStatsSnapshot.
+     * </p>
+     * 
+     * @return
+     */
+    public MineStatsSnapshot getStatsSnapshot() {
+    	MineStatsSnapshot results = statsSnapshot;
+    	
+    	if ( results == null ) {
+    		results = updateStatsSnapshot();
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Refreshes the stats snapshot and counts the players that are in the mine.
+     * This must be ran on the server thread, since it reads the players' locations.
+     * </p>
+     * 
+     * @return
+     */
+    public MineStatsSnapshot refreshStatsSnapshot() {
+    	MineStatsSnapshot results = MineStatsSnapshot.of( this, getPlayerCount() );
+    	
+    	statsSnapshot = results;
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Refreshes the stats snapshot, but keeps the player count of the prior
+     * snapshot, so this can be ran on any thread.
+     * </p>
+     * 
+     * @return
+     */
+    public MineStatsSnapshot updateStatsSnapshot() {
+    	MineStatsSnapshot results = MineStatsSnapshot.of( this, statsSnapshot );
+    	
+    	statsSnapshot = results;
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Refreshes the stats snapshot, but without counting the players,
+     * once another percent of the mine's blocks have been broken.
+     * </p>
+     * 
+     * @param blockBreakCount
+     */
+    private void checkStatsSnapshot( int blockBreakCount ) {
+    	MineStatsSnapshot snapshot = statsSnapshot;
+    	
+    	if ( snapshot != null && 
+    			Math.abs( blockBreakCount - snapshot.getBlockBreakCount() ) >= 
+    							snapshot.getBlockBreakThreshold() ) {
+    		
+    		statsSnapshot = MineStatsSnapshot.of( this, snapshot );
+    	}
+    }
+    
+    @Override
+    public int incrementBlockBreakCount() {
+    	int results = super.incrementBlockBreakCount();
+    	
+    	checkStatsSnapshot( results );
+    	
+    	return results;
+    }
+    
+    @Override
+    public int addBlockBreakCount( int blockCount ) {
+    	int results = super.addBlockBreakCount( blockCount );
+    	
+    	checkStatsSnapshot( results );
+    	
+    	return results;
+    }
+    
     /**
      * <p>Optimized the mine reset to focus on itself.  Also set the Y plane to refresh at the top and work its
      * way down.  That way if the play is teleported to the top, it will appear like the whole mine has reset
@@ -173,14 +287,19 @@ public abstract class MineReset
     protected void resetSynchonously() {
 
 		long start = System.currentTimeMillis();
+		long metricsStart = METRICS_RESET_TIMER.start();
 		
 		// The all-important event
 		MineResetEvent event = new MineResetEvent(this);
 		Prison.get().getEventBus().post(event);
 		if (!event.isCanceled()) {
 			resetSynchonouslyInternal();
+			
+			METRICS_RESET_BLOCKS.add( getBounds().getTotalBlockCount() );
 		}
 		
+		METRICS_RESET_TIMER.stop( getName(), metricsStart );
+		
 		long stop = System.currentTimeMillis();
 		setStatsResetTimeMS( stop - start );
 		
@@ -263,6 +382,7 @@ public abstract class MineReset
 			
 			
 			incrementResetCount();
+			resetCompleted();
 			
 			if ( !getCurrentJob().getResetActions().contains( MineResetActions.NO_COMMANDS )) {
 				
@@ -665,6 +785,11 @@ public abstract class MineReset
         		setResetPage( 0 );
         		
         		incrementResetCount();
+        		resetCompleted();
+        		
+        		// The server thread's time for all of the pages, which is only 
+        		// measured in milliseconds:
+        		METRICS_RESET_TIMER.record( getName(), getStatsResetTimeMS() * 1_000_000L );
         		
         		if ( !getCurrentJob().getResetActions().contains( MineResetActions.NO_COMMANDS )) {
         			
@@ -806,6 +931,7 @@ public abstract class MineReset
 			
 			
 			long start = System.currentTimeMillis();
+			long metricsStart = METRICS_RESET_PAGE_TIMER.start();
 			
 //			boolean isFillMode = PrisonMines.getInstance().getConfig().fillMode;
 			
@@ -873,6 +999,9 @@ public abstract class MineReset
 			setStatsResetPages( getStatsResetPages() + 1 );
 			setStatsResetPageBlocks( getStatsResetPageBlocks() + blocksPlaced );
 			setStatsResetPageMs( getStatsResetPageMs() + time  );
+			
+			METRICS_RESET_PAGE_TIMER.stop( getName(), metricsStart );
+			METRICS_RESET_BLOCKS.add( blocksPlaced );
 		}
 
     }
@@ -0,0 +1,194 @@
+package tech.mcprison.prison.mines.data;
+
+import java.text.DecimalFormat;
+
+import tech.mcprison.prison.placeholders.PlaceholdersUtil;
+
+/**
+ * <p>An immutable snapshot of a mine's stats that are used by the mine placeholders.
+ * Before, every placeholder request recalculated these values, created new
+ * DecimalFormats, and counted the players in the mine by checking the location of
+ * every player in the world.
+ * </p>
+ *
+ * <p>The snapshots are refreshed by the MineStatsSnapshotTask on a fixed cadence,
+ * when the mine is reset, and when another percent of the mine's blocks have been
+ * broken.  Since a snapshot is never changed, it is safe to read from any thread.
+ * </p>
+ *
+ * <p>The players are only counted by the MineStatsSnapshotTask, which runs on the
+ * server thread since it has to read the players' locations.  The other refreshes
+ * can happen on any thread, so they keep the player count of the prior snapshot.
+ * </p>
+ *
+ * <p>The time remaining until the next reset changes constantly, so the snapshot
+ * keeps the target reset time and calculates the remaining time when it is read.
+ * </p>
+ *
+ */
+public class MineStatsSnapshot {
+
+	private static final ThreadLocal<DecimalFormat> REMAINING_TIME_FORMAT =
+					ThreadLocal.withInitial( () -> new DecimalFormat("#,##0.00") );
+
+	private final long timestamp;
+
+	private final int totalBlockCount;
+	private final int blockBreakCount;
+	private final int remainingBlockCount;
+	private final double percentRemaining;
+
+	private final int resetTime;
+	private final long targetResetTime;
+	private final int resetCount;
+	private final long totalBlocksMined;
+	private final int playerCount;
+
+	private final String totalBlockCountFormatted;
+	private final String remainingBlockCountFormatted;
+	private final String percentRemainingFormatted;
+	private final String resetTimeFormatted;
+	private final String resetTimeFormattedTime;
+	private final String resetCountFormatted;
+	private final String totalBlocksMinedFormatted;
+	private final String playerCountFormatted;
+
+	private MineStatsSnapshot( MineReset mine, int playerCount ) {
+		super();
+
+		DecimalFormat dFmt = new DecimalFormat("#,##0.00");
+		DecimalFormat iFmt = new DecimalFormat("#,##0");
+
+		this.timestamp = System.currentTimeMillis();
+
+		boolean hasBounds = !mine.isVirtual() && mine.getBounds() != null;
+
+		this.totalBlockCount = hasBounds ? mine.getBounds().getTotalBlockCount() : 0;
+		this.blockBreakCount = mine.getBlockBreakCount();
+		this.remainingBlockCount = hasBounds ? mine.getRemainingBlockCount() : 0;
+		this.percentRemaining = hasBounds ? mine.getPercentRemainingBlockCount() : 0d;
+
+		this.resetTime = mine.getResetTime();
+		this.targetResetTime = mine.getTargetResetTime();
+		this.resetCount = mine.getResetCount();
+		this.totalBlocksMined = mine.getTotalBlocksMined();
+		this.playerCount = playerCount;
+
+		this.totalBlockCountFormatted = iFmt.format( totalBlockCount );
+		this.remainingBlockCountFormatted = iFmt.format( remainingBlockCount );
+		this.percentRemainingFormatted = dFmt.format( percentRemaining );
+		this.resetTimeFormatted = iFmt.format( resetTime );
+		this.resetTimeFormattedTime = PlaceholdersUtil.formattedTime( resetTime );
+		this.resetCountFormatted = iFmt.format( resetCount );
+		this.totalBlocksMinedFormatted = iFmt.format( totalBlocksMined );
+		this.playerCountFormatted = iFmt.format( playerCount );
+	}
+
+	/**
+	 * <p>Takes a new snapshot of the mine with the number of players that were
+	 * counted in the mine.
+	 * </p>
+	 *
+	 * @param mine
+	 * @param playerCount
+	 * @return
+	 */
+	public static MineStatsSnapshot of( MineReset mine, int playerCount ) {
+		return new MineStatsSnapshot( mine, playerCount );
+	}
+
+	/**
+	 * <p>Takes a new snapshot of the mine, but reuses the player count from the
+	 * prior snapshot.  This is used when blocks are broken and when the mine is
+	 * reset, since that may not be on the server thread and should not have to
+	 * check the location of all of the players.  If there is no prior snapshot,
+	 * then the player count is zero until the players are counted.
+	 * </p>
+	 *
+	 * @param mine
+	 * @param prior
+	 * @return
+	 */
+	public static MineStatsSnapshot of( MineReset mine, MineStatsSnapshot prior ) {
+		return new MineStatsSnapshot( mine, prior == null ? 0 : prior.getPlayerCount() );
+	}
+
+	/**
+	 * <p>The number of blocks that must be broken before the snapshot is refreshed,
+	 * which is one percent of the mine.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int getBlockBreakThreshold() {
+		return Math.max( 1, totalBlockCount / 100 );
+	}
+
+	public double getRemainingTimeSec() {
+		// NOTE: timeleft can vary based upon server loads:
+		return targetResetTime <= 0 ? 0d :
+					(targetResetTime - System.currentTimeMillis()) / 1000d;
+	}
+
+	public String getRemainingTimeSecFormatted() {
+		return REMAINING_TIME_FORMAT.get().format( getRemainingTimeSec() );
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public int getTotalBlockCount() {
+		return totalBlockCount;
+	}
+	public int getBlockBreakCount() {
+		return blockBreakCount;
+	}
+	public int getRemainingBlockCount() {
+		return remainingBlockCount;
+	}
+	public double getPercentRemaining() {
+		return percentRemaining;
+	}
+
+	public int getResetTime() {
+		return resetTime;
+	}
+	public long getTargetResetTime() {
+		return targetResetTime;
+	}
+	public int getResetCount() {
+		return resetCount;
+	}
+	public long getTotalBlocksMined() {
+		return totalBlocksMined;
+	}
+	public int getPlayerCount() {
+		return playerCount;
+	}
+
+	public String getTotalBlockCountFormatted() {
+		return totalBlockCountFormatted;
+	}
+	public String getRemainingBlockCountFormatted() {
+		return remainingBlockCountFormatted;
+	}
+	public String getPercentRemainingFormatted() {
+		return percentRemainingFormatted;
+	}
+	public String getResetTimeFormatted() {
+		return resetTimeFormatted;
+	}
+	public String getResetTimeFormattedTime() {
+		return resetTimeFormattedTime;
+	}
+	public String getResetCountFormatted() {
+		return resetCountFormatted;
+	}
+	public String getTotalBlocksMinedFormatted() {
+		return totalBlocksMinedFormatted;
+	}
+	public String getPlayerCountFormatted() {
+		return playerCountFormatted;
+	}
+}
@@ -0,0 +1,52 @@
+package tech.mcprison.prison.mines.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.mcprison.prison.mines.managers.MineManager;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This task refreshes the MineStatsSnapshot of every mine on a fixed
+ * cadence, which keeps the player counts current without the placeholders
+ * having to count them.  It runs on the server thread since counting the
+ * players reads their locations, which is not safe from an async task.
+ * </p>
+ *
+ */
+public class MineStatsSnapshotTask
+		implements PrisonRunnable {
+
+	public static final long SNAPSHOT_INTERVAL_TICKS = 20;
+
+	private final MineManager mineManager;
+
+	public MineStatsSnapshotTask( MineManager mineManager ) {
+		super();
+
+		this.mineManager = mineManager;
+	}
+
+	public int submit() {
+		return PrisonTaskSubmitter.runTaskTimer( this,
+						SNAPSHOT_INTERVAL_TICKS, SNAPSHOT_INTERVAL_TICKS );
+	}
+
+	@Override
+	public void run() {
+
+		List<Mine> mines = new ArrayList<>( mineManager.getMines() );
+
+		for ( Mine mine : mines ) {
+			try {
+				mine.refreshStatsSnapshot();
+			}
+			catch ( Exception e ) {
+				Output.get().logError( "MineStatsSnapshotTask: Failure refreshing the stats of mine " +
+						mine.getName() + ": " + e.getMessage() );
+			}
+		}
+	}
+}
@@ -17,7 +17,6 @@
 
 package tech.mcprison.prison.mines.managers;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +27,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.file.ParallelCollectionLoader;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
@@ -35,6 +35,8 @@ import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetActions;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetType;
+import tech.mcprison.prison.mines.data.MineStatsSnapshot;
+import tech.mcprison.prison.mines.data.MineStatsSnapshotTask;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.ManagerPlaceholders;
@@ -43,6 +45,7 @@ import tech.mcprison.prison.placeholders.PlaceholderAttribute;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeNumberFormat;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeText;
 import tech.mcprison.prison.placeholders.PlaceholderManager;
+import tech.mcprison.prison.placeholders.PlaceholderRegistry;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceHolderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
@@ -68,11 +71,14 @@ public class MineManager
     private Collection coll;
 
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
+    private PlaceholderRegistry placeholderRegistry;
     
     private boolean mineStats = false;
     
     private List<String> mineResetCommands;
     private int mineResetCommandsCurrentTaskId = 0;
+    
+    private int statsSnapshotTaskId = 0;
     private List<MineResetActions> mineResetActions;
 
     private Pattern simpleNumberPattern = Pattern.compile("([0-9]+)");
@@ -242,6 +248,10 @@ public class MineManager
 
         loadMines(offsetTimingMs);
         
+        // Keep the mine stats that are used by the placeholders current:
+        cancelStatsSnapshotTask();
+        setStatsSnapshotTaskId( new MineStatsSnapshotTask( this ).submit() );
+        
 
         Output.get().logInfo( String.format("Loaded %d mines and submitted with a %d " +
         		"millisecond offset timing for auto resets.", 
@@ -337,7 +347,7 @@ public class MineManager
 
 
     private void loadMines( long offsetTimingMs ) {
-        List<Document> mineDocuments = coll.getAll();
+        List<Document> mineDocuments = new ParallelCollectionLoader().loadAll( coll );
 
         int offsetMs = 0;
         for (Document document : mineDocuments) {
@@ -566,6 +576,20 @@ public class MineManager
 		getMineResetActions().clear();
 	}
 	
+	/**
+	 * <p>Stops refreshing the mine stats that are used by the placeholders,
+	 * such as when the mines module is disabled.
+	 * </p>
+	 */
+	public void cancelStatsSnapshotTask() {
+		
+		if ( getStatsSnapshotTaskId() != 0 ) {
+			PrisonTaskSubmitter.cancelTask( getStatsSnapshotTaskId() );
+			
+			setStatsSnapshotTaskId( 0 );
+		}
+	}
+	
 	public List<String> getMineResetCommands() {
 		return mineResetCommands;
 	}
@@ -577,6 +601,13 @@ public class MineManager
 		this.mineResetCommandsCurrentTaskId = mineResetCommandsCurrentTaskId;
 	}
 
+	public int getStatsSnapshotTaskId() {
+		return statsSnapshotTaskId;
+	}
+	public void setStatsSnapshotTaskId( int statsSnapshotTaskId ) {
+		this.statsSnapshotTaskId = statsSnapshotTaskId;
+	}
+
 	public List<MineResetActions> getMineResetActions() {
 		return mineResetActions;
 	}
@@ -688,7 +719,6 @@ public class MineManager
 	
 	public String getTranslateMinesPlaceHolder( String identifier ) {
     	String results = null;
-    	List<PlaceHolderKey> placeHolderKeys = getTranslatedPlaceHolderKeys();
     	
 		if ( !identifier.startsWith( PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED )) {
 			identifier = PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED + identifier;
@@ -699,14 +729,10 @@ public class MineManager
 		String placeholder = pman.extractPlaceholderString( identifier );
 		//PlaceholderAttribute attribute = pman.extractPlaceholderExtractAttribute( identifier );
 		
-    	for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
-			if ( placeHolderKey.getKey().equalsIgnoreCase( placeholder )) {
-				
-				//Mine mine = getMine( placeHolderKey.getData() );
-				
-				results = getTranslateMinesPlaceHolder( placeHolderKey, identifier );
-				break;
-			}
+		PlaceHolderKey placeHolderKey = getPlaceholderRegistry().getPlaceHolderKey( placeholder );
+		if ( placeHolderKey != null ) {
+			
+			results = getTranslateMinesPlaceHolder( placeHolderKey, identifier );
 		}
     	
     	return results;
@@ -755,8 +781,8 @@ public class MineManager
 			}
 
 			if ( mine != null ) {
-				DecimalFormat dFmt = new DecimalFormat("#,##0.00");
-				DecimalFormat iFmt = new DecimalFormat("#,##0");
+				// The stats are read from the snapshot so they do not have to be recalculated:
+				MineStatsSnapshot stats = mine.getStatsSnapshot();
 				
 				switch ( placeHolderKey.getPlaceholder() ) {
 					case prison_mn_minename:
@@ -782,11 +808,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getResetTime() );
+	        					results = attributeNF.format( (long) stats.getResetTime() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( mine.getResetTime() );
+	        					results = stats.getResetTimeFormatted();
 	        				}
 						}
 						
@@ -801,12 +827,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getResetTime() );
+	        					results = attributeNF.format( (long) stats.getResetTime() );
 	        				}
 	        				else {
 	        					
-	        					double timeMif = mine.getResetTime();
-	        					results = PlaceholdersUtil.formattedTime( timeMif );
+	        					results = stats.getResetTimeFormattedTime();
 	        				}
 						}
 						break;
@@ -821,10 +846,10 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getRemainingTimeSec() );
+	        					results = attributeNF.format( (long) stats.getRemainingTimeSec() );
 	        				}
 	        				else {
-	        					results = dFmt.format( mine.getRemainingTimeSec() );
+	        					results = stats.getRemainingTimeSecFormatted();
 	        				}
 						}
 						break;
@@ -835,7 +860,7 @@ public class MineManager
 					case prison_mines_timeleft_bar_playermines:
 						// NOTE: timeleft can vary based upon server loads:
 						
-						results = getRemainingTimeBar( mine, attribute );
+						results = getRemainingTimeBar( stats, attribute );
 						break;
 						
 					case prison_mtlf_minename:
@@ -848,10 +873,10 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getRemainingTimeSec() );
+	        					results = attributeNF.format( (long) stats.getRemainingTimeSec() );
 	        				}
 	        				else {
-	        					double timeMtlf = mine.getRemainingTimeSec();
+	        					double timeMtlf = stats.getRemainingTimeSec();
 	        					results = PlaceholdersUtil.formattedTime( timeMtlf );
 	        				}
 						}
@@ -865,11 +890,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getBounds().getTotalBlockCount() );
+	        					results = attributeNF.format( (long) stats.getTotalBlockCount() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( mine.getBounds().getTotalBlockCount() );
+	        					results = stats.getTotalBlockCountFormatted();
 	        				}
 						}
 						
@@ -879,16 +904,15 @@ public class MineManager
 					case prison_mines_remaining_minename:
 					case prison_mr_pm:
 					case prison_mines_remaining_playermines:
-						int remainingBlocks = mine.getRemainingBlockCount();
 						{
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) remainingBlocks );
+	        					results = attributeNF.format( (long) stats.getRemainingBlockCount() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( remainingBlocks );
+	        					results = stats.getRemainingBlockCountFormatted();
 	        				}
 						}
 
@@ -898,11 +922,9 @@ public class MineManager
 					case prison_mines_remaining_bar_minename:
 					case prison_mrb_pm:
 					case prison_mines_remaining_bar_playermines:
-						int totalBlocks = mine.getBounds().getTotalBlockCount();
-						int blocksRemaining = mine.getRemainingBlockCount();
-						
 						results = Prison.get().getPlaceholderManager().
-									getProgressBar( ((double) blocksRemaining), ((double) totalBlocks), 
+									getProgressBar( ((double) stats.getRemainingBlockCount()), 
+											((double) stats.getTotalBlockCount()), 
 											false, attribute );
 						break;
 						
@@ -911,8 +933,7 @@ public class MineManager
 					case prison_mp_pm:
 					case prison_mines_percent_playermines:
 						// mine.refreshAirCount(); // async & delayed : Very high cost
-						double percentRemaining = mine.getPercentRemainingBlockCount();
-						results = dFmt.format( percentRemaining );
+						results = stats.getPercentRemainingFormatted();
 						break;
 						
 					case prison_mpc_minename:
@@ -923,11 +944,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getPlayerCount() );
+	        					results = attributeNF.format( (long) stats.getPlayerCount() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( mine.getPlayerCount() );
+	        					results = stats.getPlayerCountFormatted();
 	        				}
 						}
 						break;
@@ -940,11 +961,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( mine.getTotalBlocksMined() );
+	        					results = attributeNF.format( stats.getTotalBlocksMined() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( mine.getTotalBlocksMined() );
+	        					results = stats.getTotalBlocksMinedFormatted();
 	        				}
 						}
 						
@@ -958,11 +979,11 @@ public class MineManager
 	        				if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
 	        					PlaceholderAttributeNumberFormat attributeNF = 
 	        													(PlaceholderAttributeNumberFormat) attribute;
-	        					results = attributeNF.format( (long) mine.getResetCount() );
+	        					results = attributeNF.format( (long) stats.getResetCount() );
 	        				}
 	        				else {
 	        					
-	        					results = iFmt.format( mine.getResetCount() );
+	        					results = stats.getResetCountFormatted();
 	        				}
 						}
 					
@@ -1057,8 +1078,6 @@ public class MineManager
 
     	if ( playerUuid != null ) {
     		
-    		List<PlaceHolderKey> placeHolderKeys = getTranslatedPlaceHolderKeys();
-    		
     		if ( !identifier.startsWith( PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED )) {
     			identifier = PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED + identifier;
     		}
@@ -1069,11 +1088,9 @@ public class MineManager
     		String placeholder = pman.extractPlaceholderString( identifier );
     		PlaceholderAttribute attribute = pman.extractPlaceholderExtractAttribute( identifier );
     		
-    		for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
-    			if ( placeHolderKey.getKey().equalsIgnoreCase( placeholder )) {
-    				results = getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
-    				break;
-    			}
+    		PlaceHolderKey placeHolderKey = getPlaceholderRegistry().getPlaceHolderKey( placeholder );
+    		if ( placeHolderKey != null ) {
+    			results = getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
     		}
     	}
     	
@@ -1185,10 +1202,10 @@ public class MineManager
 	}
 
 
-	private String getRemainingTimeBar( Mine mine, PlaceholderAttribute attribute ) {
+	private String getRemainingTimeBar( MineStatsSnapshot stats, PlaceholderAttribute attribute ) {
 
-    	double timeRemaining = mine.getRemainingTimeSec();
-    	int time = mine.getResetTime();
+    	double timeRemaining = stats.getRemainingTimeSec();
+    	int time = stats.getResetTime();
     	
     	return Prison.get().getPlaceholderManager().
     					getProgressBar( timeRemaining, ((double) time), true, attribute );
@@ -1275,6 +1292,44 @@ public class MineManager
     }
     
     
+    /**
+     * <p>The hash index of the translated placeholder keys.  It is rebuilt 
+     * whenever the keys are regenerated.
+     * </p>
+     */
+    @Override
+    public PlaceholderRegistry getPlaceholderRegistry() {
+    	PlaceholderRegistry results = placeholderRegistry;
+    	
+    	if ( results == null || !results.isCurrent() ) {
+    		results = PlaceholderRegistry.build( this );
+    		placeholderRegistry = results;
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>If there is a player, then the player mines placeholders are tried 
+     * first, otherwise only the mines placeholders are translated.
+     * </p>
+     */
+    @Override
+    public String getTranslatedPlaceHolder( UUID playerUuid, String playerName, 
+    				PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+    	String results = null;
+    	
+    	if ( playerUuid != null ) {
+    		results = getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
+    	}
+    	
+    	if ( results == null ) {
+    		results = getTranslateMinesPlaceHolder( placeHolderKey, attribute );
+    	}
+    	
+    	return results;
+    }
+    
     @Override
     public void reloadPlaceholders() {
     	
@@ -0,0 +1,111 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.mines.managers.MineManager;
+
+public class MineStatsSnapshotTest
+{
+
+	/**
+	 * A mine that counts how many times its players were counted.
+	 */
+	private static class TestMine
+			extends Mine {
+
+		private int players = 0;
+		private int playerCounts = 0;
+
+		@Override
+		public int getPlayerCount() {
+			playerCounts++;
+			return players;
+		}
+	}
+
+	private TestMine getTestMine( String name ) {
+		TestMine mine = new TestMine();
+		mine.setName( name );
+		mine.setVirtual( true );
+		mine.setResetTime( 1200 );
+		return mine;
+	}
+
+	@Test
+	public void testSnapshotValues()
+	{
+		TestMine mine = getTestMine( "a" );
+		mine.setResetCount( 1234 );
+
+		MineStatsSnapshot stats = MineStatsSnapshot.of( mine, 1500 );
+
+		assertEquals( 1500, stats.getPlayerCount() );
+		assertEquals( "1,500", stats.getPlayerCountFormatted() );
+		assertEquals( 1200, stats.getResetTime() );
+		assertEquals( "1,200", stats.getResetTimeFormatted() );
+		assertEquals( "1,234", stats.getResetCountFormatted() );
+
+		// A virtual mine has no blocks:
+		assertEquals( 0, stats.getTotalBlockCount() );
+		assertEquals( 1, stats.getBlockBreakThreshold() );
+	}
+
+	@Test
+	public void testPlayerCountIsKept()
+	{
+		TestMine mine = getTestMine( "a" );
+		mine.players = 7;
+
+		// Without a prior snapshot, the players are not counted:
+		assertEquals( 0, MineStatsSnapshot.of( mine, (MineStatsSnapshot) null ).getPlayerCount() );
+
+		MineStatsSnapshot prior = MineStatsSnapshot.of( mine, 3 );
+		assertEquals( 3, MineStatsSnapshot.of( mine, prior ).getPlayerCount() );
+
+		assertEquals( 0, mine.playerCounts );
+	}
+
+	@Test
+	public void testOnlyRefreshCountsPlayers()
+	{
+		TestMine mine = getTestMine( "a" );
+		mine.players = 4;
+
+		// The placeholders and resets may be on any thread, so they do not count the players:
+		assertEquals( 0, mine.getStatsSnapshot().getPlayerCount() );
+		assertEquals( 0, mine.updateStatsSnapshot().getPlayerCount() );
+		assertEquals( 0, mine.playerCounts );
+
+		assertEquals( 4, mine.refreshStatsSnapshot().getPlayerCount() );
+		assertEquals( 1, mine.playerCounts );
+
+		// Later updates keep the count:
+		mine.players = 9;
+		assertEquals( 4, mine.updateStatsSnapshot().getPlayerCount() );
+		assertEquals( 4, mine.getStatsSnapshot().getPlayerCount() );
+		assertEquals( 1, mine.playerCounts );
+	}
+
+	@Test
+	public void testTaskRefreshesAllMines()
+	{
+		MineManager mineManager = new MineManager();
+
+		TestMine a = getTestMine( "a" );
+		a.players = 2;
+		TestMine b = getTestMine( "b" );
+		b.players = 5;
+
+		mineManager.getMines().add( a );
+		mineManager.getMines().add( b );
+
+		new MineStatsSnapshotTask( mineManager ).run();
+
+		assertEquals( 2, a.getStatsSnapshot().getPlayerCount() );
+		assertEquals( 5, b.getStatsSnapshot().getPlayerCount() );
+		assertEquals( 1, a.playerCounts );
+		assertEquals( 1, b.playerCounts );
+	}
+}
@@ -156,7 +156,7 @@ public class PrisonRanks
         // Load up the players
 
 
-        playerManager = new PlayerManager(initCollection("players"));
+        playerManager = new PlayerManager(initCollection("players"), initCollection("playerIndex"));
         try {
             playerManager.loadPlayers();
         } 
@@ -226,6 +226,12 @@ public class PrisonRanks
      */
     @Override 
     public void disable() {
+    	
+    	// Write the player files that are still queued, and the player index, which
+    	// is only a cache of the player files:
+    	if ( playerManager != null ) {
+    		playerManager.shutdown();
+    	}
     }
     
 
@@ -347,8 +353,8 @@ public class PrisonRanks
     }
     
     public int getPlayersCount() {
-    	int playersCount = getPlayerManager() == null || getPlayerManager().getPlayers() == null ? 0 : 
-    		getPlayerManager().getPlayers().size();
+    	int playersCount = getPlayerManager() == null || getPlayerManager().getPlayerIndex() == null ? 0 : 
+    		getPlayerManager().getPlayerIndex().size();
     	return playersCount;
     }
     
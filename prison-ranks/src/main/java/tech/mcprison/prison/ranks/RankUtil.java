@@ -20,7 +20,10 @@ package tech.mcprison.prison.ranks;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import tech.mcprison.prison.Prison;
@@ -32,7 +35,9 @@ import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
 import tech.mcprison.prison.ranks.data.RankPlayer;
 import tech.mcprison.prison.ranks.events.RankUpEvent;
+import tech.mcprison.prison.ranks.events.RankUpMaxEvent;
 import tech.mcprison.prison.tasks.PrisonCommandTask;
+import tech.mcprison.prison.tasks.PrisonCommandTaskBatch;
 import tech.mcprison.prison.tasks.PrisonCommandTask.CustomPlaceholders;
 
 /**
@@ -49,7 +54,8 @@ public class RankUtil
 		promote,
 		demote,
 		setrank,
-		firstJoin;
+		firstJoin,
+		rankupMax;
 	}
 	
 	public enum RankupModes {
@@ -151,6 +157,9 @@ public class RankUtil
 		
 		rankup_successful, 
 		demote_successful, 
+		
+		rankupMax_ranks_calculated,
+		rankupMax_commands_batched,
 
 		failure_exception_caught_check_server_logs, 
 		successfully_saved_player_rank_data
@@ -189,6 +198,24 @@ public class RankUtil
     					playerName, null, PromoteForceCharge.charge_player );
     }
     
+    /**
+     * <p>Ranks up the player to the highest rank on the ladder that they can afford,
+     * in one transaction.  The balance is checked once for each currency, and the 
+     * player is only charged once for each currency and saved once.  The rank 
+     * commands for all of the ranks are submitted together.
+     * </p>
+     * 
+     * @param player
+     * @param rankPlayer
+     * @param ladderName
+     * @param playerName
+     * @return
+     */
+    public RankupResults rankupPlayerMax(Player player, RankPlayer rankPlayer, String ladderName, String playerName) {
+    	return rankupPlayer(RankupCommands.rankupMax, player, rankPlayer, ladderName, null, 
+    			playerName, null, PromoteForceCharge.charge_player );
+    }
+    
     public RankupResults promotePlayer(Player player, RankPlayer rankPlayer, String ladderName, 
     										String playerName, String executorName, PromoteForceCharge pForceCharge) {
     	return rankupPlayer(RankupCommands.promote, player, rankPlayer, ladderName, null, 
@@ -234,6 +261,7 @@ public class RankUtil
     	
     	switch ( command ) {
 			case rankup:
+			case rankupMax:
 				results.addTransaction(RankupTransactions.tring_to_rankup);
 				break;
 				
@@ -293,8 +321,14 @@ public class RankUtil
     	
 
     	try {
-    		rankupPlayerInternal(results, command, player, rankPlayer, ladderName, 
-    				rankName, playerName, executorName, pForceCharge );
+    		if ( command == RankupCommands.rankupMax ) {
+    			rankupPlayerMaxInternal(results, player, rankPlayer, ladderName, 
+    					rankName, playerName, executorName );
+    		}
+    		else {
+    			rankupPlayerInternal(results, command, player, rankPlayer, ladderName, 
+    					rankName, playerName, executorName, pForceCharge );
+    		}
     	} catch (Exception e ) {
     		results.addTransaction( RankupTransactions.failure_exception_caught_check_server_logs );
     		
@@ -427,19 +461,23 @@ public class RankUtil
 				}
         	}
         	
+        	// The balance is read from the economy plugin, and not the cache, since
+        	// the player will be charged with it:
+        	double balanceInitial = rankPlayer.getLatestBalance( targetRank.getCurrency() );
+        	
         	results.addTransaction( RankupTransactions.player_balance_initial );
-        	results.setBalanceInitial( rankPlayer.getBalance( targetRank.getCurrency() ) );
+        	results.setBalanceInitial( balanceInitial );
         	results.setCurrency( targetRank.getCurrency() );
         	
         	if ( pForceCharge == PromoteForceCharge.charge_player) {
-        		if ( rankPlayer.getBalance(targetRank.getCurrency()) < nextRankCost ) {
+        		if ( balanceInitial < nextRankCost ||
+        				!rankPlayer.removeBalance( targetRank.getCurrency(), nextRankCost ) ) {
         			results.addTransaction( RankupStatus.RANKUP_CANT_AFFORD, 
         					RankupTransactions.player_cannot_afford );
         			return;
         		}
         		
         		results.addTransaction( RankupTransactions.player_balance_decreased );
-        		rankPlayer.removeBalance( targetRank.getCurrency(), nextRankCost );
         	} else 
         		if ( pForceCharge == PromoteForceCharge.refund_player) {
         			
@@ -484,22 +522,9 @@ public class RankUtil
         		
 				PrisonCommandTask cmdTask = new PrisonCommandTask( command.name() );
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceInitial, Double.toString( results.getBalanceInitial()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceFinal, Double.toString( results.getBalanceFinal()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.currency, results.getCurrency() );
-				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.rankupCost, Double.toString( results.getTargetRank().getCost() ) );
-				
-				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.ladder, results.getLadderName() );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.rank,
-									(results.getOriginalRank() == null ? "none" : results.getOriginalRank().getName()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.rankTag, 
-									(results.getOriginalRank() == null ? "none" : results.getOriginalRank().getTag()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRank, 
-									(results.getTargetRank() == null ? "none" : results.getTargetRank().getName()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRankTag, 
-									(results.getTargetRank() == null ? "none" : results.getTargetRank().getTag()) );
+				addRankupCommandPlaceholders( cmdTask, results.getBalanceInitial(), results.getBalanceFinal(), 
+						results.getCurrency(), results.getLadderName(), 
+						results.getOriginalRank(), results.getTargetRank() );
 				
 				if ( command == RankupCommands.firstJoin && cmd.contains( "{firstJoin}" ) ) {
 					cmd = cmd.replace( "{firstJoin}", "" );
@@ -544,6 +569,231 @@ public class RankUtil
 
 
 
+    /**
+     * <p>Ranks up the player as many ranks as they can afford.  Before, /rankupmax
+     * would rankup one rank at a time, and each rankup would get the player's 
+     * balance and charge the player through the economy, save the player's file,
+     * and submit the rank commands.
+     * </p>
+     * 
+     * <p>The target rank is calculated in one pass, using one balance request for 
+     * each currency. A RankUpEvent is fired for each rank, so listeners can still
+     * cancel a specific rank, which stops the rankup at the rank before it.  Then 
+     * the player is charged once per currency, they are saved once, and the rank 
+     * commands for all of the ranks are submitted with one dispatch.  Finally, the 
+     * RankUpMaxEvent is fired with a summary of the rankup.
+     * </p>
+     * 
+     */
+    private void rankupPlayerMaxInternal( RankupResults results, Player prisonPlayer, 
+    		RankPlayer rankPlayer, String ladderName, String rankName, 
+    		String playerName, String executorName ) {
+    	
+    	RankLadder ladder = PrisonRanks.getInstance().getLadderManager().getLadder(ladderName);
+    	if( ladder == null ) {
+    		results.addTransaction( RankupStatus.RANKUP_FAILURE_COULD_NOT_LOAD_LADDER, RankupTransactions.failed_ladder );
+    		return;
+    	}
+    	
+    	Rank originalRank = rankPlayer.getRank(ladder.getName());
+    	
+    	if ( originalRank == null ) {
+    		// The player will be assigned the lowest rank, so use a normal rankup:
+    		rankupPlayerInternal( results, RankupCommands.rankup, prisonPlayer, rankPlayer, ladderName, 
+    				rankName, playerName, executorName, PromoteForceCharge.charge_player );
+    		return;
+    	}
+    	
+    	results.addTransaction( RankupTransactions.orginal_rank );
+    	results.setOriginalRank( originalRank );
+    	
+    	
+    	// The player's balance for each currency, with the default currency as "":
+    	Map<String, Double> balances = new HashMap<>();
+    	Map<String, Double> costs = new LinkedHashMap<>();
+    	List<Rank> ranks = new ArrayList<>();
+    	
+    	Rank currentRank = originalRank;
+    	Rank nextRank = originalRank.getRankNext();
+    	
+    	RankupStatus stopStatus = RankupStatus.RANKUP_HIGHEST;
+    	RankupTransactions stopTransaction = RankupTransactions.no_higher_rank_found;
+    	
+    	while ( nextRank != null ) {
+    		
+    		String currency = nextRank.getCurrency();
+    		String currencyKey = currency == null ? "" : currency;
+    		double cost = nextRank.getCost();
+    		
+    		if ( currency != null && 
+    				PrisonAPI.getIntegrationManager().getEconomyForCurrency( currency ) == null ) {
+    			stopStatus = RankupStatus.RANKUP_FAILURE_CURRENCY_IS_NOT_SUPPORTED;
+    			stopTransaction = RankupTransactions.specified_currency_not_found;
+    			break;
+    		}
+    		
+    		Double balance = balances.get( currencyKey );
+    		if ( balance == null ) {
+    			balance = rankPlayer.getLatestBalance( currency );
+    			balances.put( currencyKey, balance );
+    		}
+    		
+    		double spent = costs.containsKey( currencyKey ) ? costs.get( currencyKey ) : 0d;
+    		
+    		if ( balance - spent < cost ) {
+    			stopStatus = RankupStatus.RANKUP_CANT_AFFORD;
+    			stopTransaction = RankupTransactions.player_cannot_afford;
+    			break;
+    		}
+    		
+    		// Fire the rankup event for each rank to see if it should be canceled:
+    		RankUpEvent rankupEvent = new RankUpEvent(rankPlayer, currentRank, nextRank, cost, 
+    				RankupCommands.rankup, PromoteForceCharge.charge_player );
+    		Prison.get().getEventBus().post(rankupEvent);
+    		
+    		if ( rankupEvent.isCanceled() ) {
+    			stopStatus = RankupStatus.RANKUP_EVENT_CANCELED;
+    			stopTransaction = RankupTransactions.failed_rankup_event_canceled_outside_of_prison;
+    			break;
+    		}
+    		
+    		costs.put( currencyKey, spent + cost );
+    		ranks.add( nextRank );
+    		
+    		currentRank = nextRank;
+    		nextRank = nextRank.getRankNext();
+    	}
+    	
+    	if ( ranks.isEmpty() ) {
+    		// Could not rankup at all, so report it the same as a single rankup:
+    		if ( nextRank != null ) {
+    			String currencyKey = nextRank.getCurrency() == null ? "" : nextRank.getCurrency();
+    			
+    			results.setTargetRank( nextRank );
+    			results.setCurrency( nextRank.getCurrency() );
+    			results.setBalanceInitial( balances.containsKey( currencyKey ) ? balances.get( currencyKey ) : 0 );
+    		}
+    		
+    		results.addTransaction( stopStatus, stopTransaction );
+    		return;
+    	}
+    	
+    	Rank targetRank = currentRank;
+    	String targetCurrencyKey = targetRank.getCurrency() == null ? "" : targetRank.getCurrency();
+    	
+    	results.addTransaction( RankupTransactions.rankupMax_ranks_calculated );
+    	results.setTargetRank( targetRank );
+    	results.setCurrency( targetRank.getCurrency() );
+    	
+    	results.addTransaction( RankupTransactions.player_balance_initial );
+    	results.setBalanceInitial( balances.get( targetCurrencyKey ) );
+    	
+    	// Charge the player once for each currency.  If a charge fails, then the
+    	// currencies that were already charged are refunded:
+    	Map<String, Double> charged = new LinkedHashMap<>();
+    	
+    	for ( Map.Entry<String, Double> cost : costs.entrySet() ) {
+    		if ( cost.getValue() > 0 ) {
+    			String currency = cost.getKey().isEmpty() ? null : cost.getKey();
+    			
+    			if ( !rankPlayer.removeBalance( currency, cost.getValue() ) ) {
+    				
+    				for ( Map.Entry<String, Double> refund : charged.entrySet() ) {
+    					rankPlayer.addBalance( refund.getKey(), refund.getValue() );
+    				}
+    				
+    				results.addTransaction( RankupStatus.RANKUP_CANT_AFFORD, 
+    						RankupTransactions.player_cannot_afford );
+    				return;
+    			}
+    			
+    			charged.put( currency, cost.getValue() );
+    		}
+    	}
+    	results.addTransaction( RankupTransactions.player_balance_decreased );
+    	
+    	results.addTransaction( RankupTransactions.player_balance_final );
+    	results.setBalanceFinal( balances.get( targetCurrencyKey ) - costs.get( targetCurrencyKey ) );
+    	
+    	rankPlayer.addRank( targetRank );
+    	
+    	if ( !savePlayerRank( results, rankPlayer ) ) {
+    		return;
+    	}
+    	
+    	
+    	// Run the rank commands for all of the ranks with one dispatch:
+    	results.addTransaction( RankupTransactions.rankupCommandsStart );
+    	
+    	PrisonCommandTaskBatch batch = new PrisonCommandTaskBatch( RankupCommands.rankupMax.name() );
+    	
+    	Map<String, Double> stepBalances = new HashMap<>( balances );
+    	Rank stepOriginalRank = originalRank;
+    	int available = 0;
+    	
+    	for ( Rank rank : ranks ) {
+    		String currencyKey = rank.getCurrency() == null ? "" : rank.getCurrency();
+    		
+    		double stepBalanceInitial = stepBalances.get( currencyKey );
+    		double stepBalanceFinal = stepBalanceInitial - rank.getCost();
+    		stepBalances.put( currencyKey, stepBalanceFinal );
+    		
+    		List<String> rankupCommands = new ArrayList<>();
+    		rankupCommands.addAll( ladder.getRankUpCommands() );
+    		rankupCommands.addAll( rank.getRankUpCommands() );
+    		
+    		available += rank.getRankUpCommands().size();
+    		
+    		PrisonCommandTask cmdTask = new PrisonCommandTask( RankupCommands.rankup.name() );
+    		
+    		addRankupCommandPlaceholders( cmdTask, stepBalanceInitial, stepBalanceFinal, 
+    				rank.getCurrency(), results.getLadderName(), stepOriginalRank, rank );
+    		
+    		for ( String cmd : rankupCommands ) {
+    			if ( cmd != null && !cmd.contains( "{firstJoin}" ) ) {
+    				batch.addCommand( cmdTask, prisonPlayer, cmd );
+    			}
+    		}
+    		
+    		stepOriginalRank = rank;
+    	}
+    	
+    	results.setRankupCommandsAvailable( available );
+    	results.setRankupCommandsExecuted( batch.getCommandCount() );
+    	
+    	batch.submit( prisonPlayer );
+    	
+    	results.addTransaction( RankupTransactions.rankupMax_commands_batched );
+    	results.addTransaction( RankupTransactions.rankupCommandsCompleted );
+    	
+    	Prison.get().getEventBus().post( 
+    			new RankUpMaxEvent( rankPlayer, originalRank, targetRank, ranks, costs ) );
+    	
+    	results.addTransaction( RankupStatus.RANKUP_SUCCESS, RankupTransactions.rankup_successful );
+    }
+    
+    private void addRankupCommandPlaceholders( PrisonCommandTask cmdTask, 
+    		double balanceInitial, double balanceFinal, String currency, String ladderName, 
+    		Rank originalRank, Rank targetRank ) {
+    	
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceInitial, Double.toString( balanceInitial ) );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceFinal, Double.toString( balanceFinal ) );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.currency, currency );
+    	
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.rankupCost, Double.toString( targetRank.getCost() ) );
+    	
+    	
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.ladder, ladderName );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.rank,
+    			(originalRank == null ? "none" : originalRank.getName()) );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.rankTag, 
+    			(originalRank == null ? "none" : originalRank.getTag()) );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRank, 
+    			(targetRank == null ? "none" : targetRank.getName()) );
+    	cmdTask.addCustomPlaceholder( CustomPlaceholders.targetRankTag, 
+    			(targetRank == null ? "none" : targetRank.getTag()) );
+    }
+
 	private boolean savePlayerRank( RankupResults results, RankPlayer rankPlayer ) {
 		boolean success = false;
 		try {
@@ -174,15 +174,28 @@ public class RankUpCommand
 
         if (rankPlayer != null ) {
         	
-        	// Performs the actual rankup here:
-        	RankupResults results = new RankUtil().rankupPlayer(player, rankPlayer, ladder, sender.getName());
+        	RankupResults results;
         	
-        	processResults( sender, player.getName(), results, null, ladder, currency );
-
-        	// If the last rankup attempt was successful and they are trying to rankup as many times as possible: 
-        	if (results.getStatus() == RankupStatus.RANKUP_SUCCESS && mode == RankupModes.MAX_RANKS && 
-        									!ladder.equals("prestiges")) {
-        		rankUpPrivate( sender, ladder, mode, permission );
+        	if ( mode == RankupModes.MAX_RANKS && !ladder.equals("prestiges") && pRank != null ) {
+        		
+        		// Rankup as many ranks as possible in one transaction:
+        		results = new RankUtil().rankupPlayerMax(player, rankPlayer, ladder, sender.getName());
+        		
+        		processResults( sender, player.getName(), results, null, ladder, currency );
+        	}
+        	else {
+        		
+        		// Performs the actual rankup here:
+        		results = new RankUtil().rankupPlayer(player, rankPlayer, ladder, sender.getName());
+        		
+        		processResults( sender, player.getName(), results, null, ladder, currency );
+        		
+        		// If the player did not have a rank on the ladder, then they were just given the 
+        		// first rank, so try to rankup as many times as possible from there: 
+        		if (results.getStatus() == RankupStatus.RANKUP_SUCCESS && mode == RankupModes.MAX_RANKS && 
+        				!ladder.equals("prestiges")) {
+        			rankUpPrivate( sender, ladder, mode, permission );
+        		}
         	}
         	if (results.getStatus() == RankupStatus.RANKUP_SUCCESS){
         		rankupWithSuccess = true;
@@ -378,7 +391,7 @@ public class RankUpCommand
     	if ( "*all*".equalsIgnoreCase( playerName )) {
     		PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
     		
-    		for ( RankPlayer player : pm.getPlayers() ) {
+    		for ( RankPlayer player : pm.getAllPlayers() ) {
     			
     			Player targetPlayer = getPlayer( null, player.getName() );
     			if ( targetPlayer != null ) {
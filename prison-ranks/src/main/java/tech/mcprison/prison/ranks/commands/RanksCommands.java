@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
@@ -37,6 +36,9 @@ import tech.mcprison.prison.ranks.data.RankPlayerName;
 import tech.mcprison.prison.ranks.managers.LadderManager;
 import tech.mcprison.prison.ranks.managers.PlayerManager;
 import tech.mcprison.prison.ranks.managers.RankManager.RanksByLadderOptions;
+import tech.mcprison.prison.ranks.top.Leaderboard;
+import tech.mcprison.prison.ranks.top.LeaderboardEntry;
+import tech.mcprison.prison.ranks.top.RankPlayerLeaderboards;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -689,11 +691,8 @@ public class RanksCommands
         
         display.addText( ranksInfoCurrencyMsg( (rank.getCurrency() == null ? "&cdefault" : rank.getCurrency()) ));
         
-        List<RankPlayer> players =
-        		PrisonRanks.getInstance().getPlayerManager().getPlayers().stream()
-        		.filter(rankPlayer -> rankPlayer.getLadderRanks().values().contains(rank))
-        		.collect(Collectors.toList());
-        display.addText( ranksInfoPlayersWithRankMsg( players.size() ));
+        int players = PrisonRanks.getInstance().getPlayerManager().getPlayerCount( rank );
+        display.addText( ranksInfoPlayersWithRankMsg( players ));
 
         if (sender.hasPermission("ranks.admin")) {
             // This is admin-exclusive content
@@ -1121,6 +1120,56 @@ public class RanksCommands
     	
     }
     
+    
+    @Command(identifier = "ranks top", description = "Shows the top players by rank or by balance. " +
+    		"The rank leaderboard is sorted by the prestiges ladder, then the default ladder, " +
+    		"and then by balance.", 
+    		onlyPlayers = false )
+    public void rankTop(CommandSender sender,
+    			@Arg(name = "leaderboard", def = "rank", description = "Leaderboard [rank, balance]") String leaderboardName,
+    			@Arg(name = "page", def = "1", description = "Page number") int page ){
+    	
+    	PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
+    	Leaderboard leaderboard = pm.getLeaderboards().getLeaderboard( leaderboardName );
+    	
+    	if ( leaderboard == null ) {
+    		ranksTopInvalidLeaderboardMsg( sender, leaderboardName );
+    		return;
+    	}
+    	
+    	int pageSize = 10;
+    	page = Math.max( 1, page );
+    	
+    	ChatDisplay display = new ChatDisplay( ranksTopHeaderMsg( leaderboard.getName() ) );
+    	
+    	List<LeaderboardEntry> entries = leaderboard.getPage( page, pageSize );
+    	
+    	if ( entries.isEmpty() ) {
+    		display.addText( ranksTopEmptyMsg() );
+    	}
+    	
+    	DecimalFormat dFmt = new DecimalFormat("#,##0.00");
+    	boolean byBalance = RankPlayerLeaderboards.BALANCE.equalsIgnoreCase( leaderboard.getName() );
+    	
+    	int position = (page - 1) * pageSize;
+    	for ( LeaderboardEntry entry : entries ) {
+    		String value = byBalance ? dFmt.format( entry.getBalance() ) : entry.getRankTags();
+    		
+    		display.addText( ranksTopEntryMsg( ++position, entry.getName(), value ) );
+    	}
+    	
+    	if ( sender.isPlayer() ) {
+    		Player player = getPlayer( sender );
+    		int playerPosition = player == null ? -1 : leaderboard.getPosition( player.getUUID() );
+    		
+    		if ( playerPosition > 0 ) {
+    			display.addText( ranksTopPositionMsg( playerPosition, leaderboard.size() ) );
+    		}
+    	}
+    	
+    	display.send( sender );
+    }
+    
 
     
 //    /**
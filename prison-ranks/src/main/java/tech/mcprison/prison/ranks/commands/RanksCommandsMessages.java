@@ -598,4 +598,42 @@ public class RanksCommandsMessages
 	}
 
 	
+	protected void ranksTopInvalidLeaderboardMsg( CommandSender sender, String leaderboard ) {
+		PrisonRanks.getInstance().getRanksMessages()
+				.getLocalizable( "ranks_rankCommands__top_invalid_leaderboard" )
+				.withReplacements( 
+						leaderboard )
+				.sendTo( sender, LogLevel.ERROR );
+	}
+	
+	protected String ranksTopHeaderMsg( String leaderboard ) {
+		return PrisonRanks.getInstance().getRanksMessages()
+				.getLocalizable( "ranks_rankCommands__top_header" )
+				.withReplacements( 
+						leaderboard )
+				.localize();
+	}
+	
+	protected String ranksTopEmptyMsg() {
+		return PrisonRanks.getInstance().getRanksMessages()
+				.getLocalizable( "ranks_rankCommands__top_empty" )
+				.localize();
+	}
+	
+	protected String ranksTopEntryMsg( int position, String playerName, String value ) {
+		return PrisonRanks.getInstance().getRanksMessages()
+				.getLocalizable( "ranks_rankCommands__top_entry" )
+				.withReplacements( 
+						Integer.toString( position ), playerName, value )
+				.localize();
+	}
+	
+	protected String ranksTopPositionMsg( int position, int size ) {
+		return PrisonRanks.getInstance().getRanksMessages()
+				.getLocalizable( "ranks_rankCommands__top_position" )
+				.withReplacements( 
+						Integer.toString( position ), Integer.toString( size ) )
+				.localize();
+	}
+
 }
@@ -29,14 +29,14 @@ import com.google.gson.internal.LinkedTreeMap;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
-import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
-import tech.mcprison.prison.integration.EconomyIntegration;
+import tech.mcprison.prison.integration.EconomyGateway;
 import tech.mcprison.prison.internal.ItemStack;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.inventory.Inventory;
 import tech.mcprison.prison.internal.scoreboard.Scoreboard;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.placeholders.PlaceholderManager;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.RankUtil;
 import tech.mcprison.prison.ranks.top.RankPlayerBalance;
@@ -155,15 +155,22 @@ public class RankPlayer
         
     }
 
+    /**
+     * <p>The document is a snapshot of the player, since it may be saved by 
+     * the PlayerSaveQueue on another thread while this player is being changed.
+     * </p>
+     * 
+     * @return
+     */
     public Document toDocument() {
         Document ret = new Document();
         ret.put("uid", this.uid);
-        ret.put("ranks", this.ranksRefs);
+        ret.put("ranks", new HashMap<>( this.ranksRefs ));
 //        ret.put("prestige", this.prestige);
         
-        ret.put("names", this.names);
+        ret.put("names", new ArrayList<>( getNames() ));
 
-        ret.put("blocksMined", this.blocksMined);
+        ret.put("blocksMined", this.blocksMined == null ? null : new HashMap<>( this.blocksMined ));
         return ret;
     }
 
@@ -258,10 +265,24 @@ public class RankPlayer
      * @return "player_" plus the least significant bits of the UID
      */
     public String filename()
+    {
+    	return filename( uid );
+    }
+    
+    public static String filename( UUID uid )
     {
     	return "player_" + uid.getLeastSignificantBits();
     }
     
+    /**
+     * <p>The rank ids by ladder name, which is what is saved in the player's file.
+     * This is used by the RankPlayerIndex and must not be changed.
+     * </p>
+     */
+    Map<String, Integer> getRanksRefs() {
+    	return ranksRefs;
+    }
+    
     
     /**
      * Add a rank to this player.
@@ -289,6 +310,9 @@ public class RankPlayer
 
         ranksRefs.put(ladderName, rank.getId());
         ladderRanks.put( rank.getLadder(), rank );
+        
+        invalidatePlaceholderCache();
+        updateLeaderboards();
     }
 
     /**
@@ -304,6 +328,9 @@ public class RankPlayer
     		ladderRanks.remove( rank.getLadder() );
     		
     		ranksRefs.remove( rank.getLadder().getName() );
+    		
+    		invalidatePlaceholderCache();
+    		updateLeaderboards();
     	}
         
 //        // When we loop through, we have to store our ladder name outside the loop to
@@ -704,6 +731,22 @@ public class RankPlayer
     	RankPlayerBalance balance = getCachedRankPlayerBalance( currency, false );
 
     	balance.addBalance( amount );
+    	
+    	invalidatePlaceholderCache();
+    	updateLeaderboards();
+    }
+    
+    /**
+     * <p>The player's cached placeholder values are no longer valid when their
+     * ranks or balances are changed.
+     * </p>
+     */
+    private void invalidatePlaceholderCache() {
+    	PlaceholderManager pman = Prison.get().getPlaceholderManager();
+    	
+    	if ( pman != null ) {
+    		pman.getValueCache().invalidatePlayer( getUUID() );
+    	}
     }
     
     private void setCachedRankPlayerBalance( String currency, double amount ) {
@@ -711,6 +754,21 @@ public class RankPlayer
     	RankPlayerBalance balance = getCachedRankPlayerBalance( currency, false );
 
     	balance.setBalance( amount );
+    	
+    	updateLeaderboards();
+    }
+    
+    /**
+     * <p>Moves the player on the leaderboards when their ranks or cached 
+     * balances are changed.
+     * </p>
+     */
+    private void updateLeaderboards() {
+    	PrisonRanks prisonRanks = PrisonRanks.getInstance();
+    	
+    	if ( prisonRanks != null && prisonRanks.getPlayerManager() != null ) {
+    		prisonRanks.getPlayerManager().getLeaderboards().update( this );
+    	}
     }
     
     
@@ -766,7 +824,7 @@ public class RankPlayer
 	public double getBalance() {
 		double results = 0;
 		
-		EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+		EconomyGateway economy = PrisonAPI.getIntegrationManager().getEconomyGateway();
 		
 		if ( economy != null ) {
 			
@@ -778,7 +836,7 @@ public class RankPlayer
 	}
 	
 	public void addBalance( double amount ) {
-		EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+		EconomyGateway economy = PrisonAPI.getIntegrationManager().getEconomyGateway();
 
 		if ( economy != null ) {
 			economy.addBalance( this, amount );
@@ -786,21 +844,38 @@ public class RankPlayer
 		}
 	}
 	
-	public void removeBalance( double amount ) {
-		EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+	/**
+	 * <p>Charges the player right away, using their latest balance from the
+	 * economy plugin.
+	 * </p>
+	 * 
+	 * @param amount
+	 * @return True if the amount was taken, false if the player could not afford
+	 * 			it or the economy plugin failed.
+	 */
+	public boolean removeBalance( double amount ) {
+		boolean results = false;
+		
+		EconomyGateway economy = PrisonAPI.getIntegrationManager().getEconomyGateway();
 		
 		if ( economy != null ) {
-			economy.removeBalance( this, amount );
-			addCachedRankPlayerBalance( null, -1 * amount );
+			results = economy.removeBalance( this, amount );
+			
+			if ( results ) {
+				addCachedRankPlayerBalance( null, -1 * amount );
+			}
 		}
+		
+		return results;
 	}
 	
 	public void setBalance( double amount ) {
-		EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+		EconomyGateway economy = PrisonAPI.getIntegrationManager().getEconomyGateway();
 		
 		if ( economy != null ) {
 			economy.setBalance( this, amount );
 			setCachedRankPlayerBalance( null, amount );
+			invalidatePlaceholderCache();
 		}
 	}
 	
@@ -814,11 +889,11 @@ public class RankPlayer
 		}
 		else {
 			
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency( currency );
+			EconomyGateway currencyEcon = PrisonAPI.getIntegrationManager()
+					.getEconomyGateway( currency );
 			if ( currencyEcon != null ) {
 				
-				results = currencyEcon.getBalance( this, currency );
+				results = currencyEcon.getBalance( this );
 				setCachedRankPlayerBalance( currency, results );
 			}
 		}
@@ -826,6 +901,32 @@ public class RankPlayer
 		return results;
 	}
 	
+	/**
+	 * <p>Reads the player's balance from the economy plugin, skipping the cached
+	 * balance, after their queued deposits are written.  This is used to check if
+	 * the player can afford a rankup.
+	 * </p>
+	 * 
+	 * @param currency The currency, or null for the default currency.
+	 * @return The player's balance.
+	 */
+	public double getLatestBalance( String currency ) {
+		double results = 0;
+		
+		boolean defaultCurrency = currency == null || currency.trim().isEmpty();
+		
+		EconomyGateway economy = defaultCurrency ? 
+				PrisonAPI.getIntegrationManager().getEconomyGateway() :
+				PrisonAPI.getIntegrationManager().getEconomyGateway( currency );
+		
+		if ( economy != null ) {
+			results = economy.getLatestBalance( this );
+			setCachedRankPlayerBalance( defaultCurrency ? null : currency, results );
+		}
+		
+		return results;
+	}
+	
 	public void addBalance( String currency, double amount ) {
 
 		if ( currency == null || currency.trim().isEmpty() || "default".equalsIgnoreCase( currency ) ) {
@@ -838,31 +939,37 @@ public class RankPlayer
 //					Double.toString( amount ), Double.toString( pre ), Double.toString( post ));
 		}
 		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
+			EconomyGateway currencyEcon = PrisonAPI.getIntegrationManager()
+					.getEconomyGateway( currency );
 			
 			if ( currencyEcon != null ) {
-				currencyEcon.addBalance( this, amount, currency );
+				currencyEcon.addBalance( this, amount );
 				addCachedRankPlayerBalance( currency, amount );
 			}
 		}
 	}
 	
-	public void removeBalance( String currency, double amount ) {
+	public boolean removeBalance( String currency, double amount ) {
+		boolean results = false;
 		
 		if ( currency == null || currency.trim().isEmpty() ) {
 			// No currency specified, so use the default currency:
-			removeBalance( amount );
+			results = removeBalance( amount );
 		}
 		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
+			EconomyGateway currencyEcon = PrisonAPI.getIntegrationManager()
+					.getEconomyGateway( currency );
 			
 			if ( currencyEcon != null ) {
-				currencyEcon.removeBalance( this, amount, currency );
-				addCachedRankPlayerBalance( currency, -1 * amount );
+				results = currencyEcon.removeBalance( this, amount );
+				
+				if ( results ) {
+					addCachedRankPlayerBalance( currency, -1 * amount );
+				}
 			}
 		}
+		
+		return results;
 	}
 	
 	public void setBalance( String currency, double amount ) {
@@ -873,12 +980,13 @@ public class RankPlayer
 		}
 		else {
 			
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
+			EconomyGateway currencyEcon = PrisonAPI.getIntegrationManager()
+					.getEconomyGateway( currency );
 			
 			if ( currencyEcon != null ) {
-				currencyEcon.setBalance( this, amount, currency );
+				currencyEcon.setBalance( this, amount );
 				setCachedRankPlayerBalance( currency, amount );
+				invalidatePlaceholderCache();
 			}
 		}
 	}
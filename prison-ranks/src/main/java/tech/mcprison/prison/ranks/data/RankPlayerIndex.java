@@ -0,0 +1,208 @@
+package tech.mcprison.prison.ranks.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.internal.LinkedTreeMap;
+
+import tech.mcprison.prison.ranks.RankUtil;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>A lightweight index of all of the players that are known to prison, which
+ * only has their uuid, their current name, and their ranks.  When the players
+ * are loaded lazily, most of the RankPlayers are not in memory, so this index
+ * is used to find a player by name, and to count the players that have a rank,
+ * without having to read all of the player files.
+ * </p>
+ *
+ * <p>The index is saved as a single document so it can be read quickly at
+ * startup.  It is updated every time a player is loaded or saved.
+ * </p>
+ *
+ */
+public class RankPlayerIndex {
+
+	public static final String DOCUMENT_NAME = "player_index";
+
+	private final Map<UUID, Entry> entries;
+	private final Map<String, UUID> uuidsByName;
+
+	private volatile boolean dirty = false;
+
+	public static class Entry {
+		private final UUID uuid;
+		private final String name;
+		private final Map<String, Integer> ranks; // <Ladder Name, Rank ID>
+
+		public Entry( UUID uuid, String name, Map<String, Integer> ranks ) {
+			super();
+
+			this.uuid = uuid;
+			this.name = name;
+			this.ranks = Collections.unmodifiableMap( new HashMap<>( ranks ) );
+		}
+
+		public UUID getUuid() {
+			return uuid;
+		}
+		public String getName() {
+			return name;
+		}
+		public Map<String, Integer> getRanks() {
+			return ranks;
+		}
+
+		public boolean hasRank( Rank rank ) {
+			Integer rankId = rank.getLadder() == null ? null :
+								ranks.get( rank.getLadder().getName() );
+
+			return rankId != null && rankId.intValue() == rank.getId();
+		}
+	}
+
+	public RankPlayerIndex() {
+		super();
+
+		this.entries = new ConcurrentHashMap<>();
+		this.uuidsByName = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * <p>Adds or replaces the player's entry.  The index is only marked as dirty
+	 * if their name or ranks have changed.
+	 * </p>
+	 *
+	 * @param rankPlayer
+	 */
+	public void update( RankPlayer rankPlayer ) {
+
+		if ( rankPlayer != null && rankPlayer.getUUID() != null ) {
+			update( new Entry( rankPlayer.getUUID(), rankPlayer.getDisplayName(),
+										rankPlayer.getRanksRefs() ) );
+		}
+	}
+
+	private void update( Entry entry ) {
+
+		Entry prior = entries.put( entry.getUuid(), entry );
+
+		if ( prior != null && prior.getName() != null &&
+				!prior.getName().equalsIgnoreCase( entry.getName() ) ) {
+			uuidsByName.remove( nameKey( prior.getName() ), prior.getUuid() );
+		}
+
+		if ( entry.getName() != null ) {
+			uuidsByName.put( nameKey( entry.getName() ), entry.getUuid() );
+		}
+
+		if ( prior == null ||
+				prior.getName() == null && entry.getName() != null ||
+				prior.getName() != null && !prior.getName().equals( entry.getName() ) ||
+				!prior.getRanks().equals( entry.getRanks() ) ) {
+			dirty = true;
+		}
+	}
+
+	public Entry get( UUID uuid ) {
+		return uuid == null ? null : entries.get( uuid );
+	}
+
+	/**
+	 * @param playerName The player's current name, in any case.
+	 * @return The player's uuid, or null if the name is not known.
+	 */
+	public UUID findUuid( String playerName ) {
+		return playerName == null ? null : uuidsByName.get( nameKey( playerName ) );
+	}
+
+	public Collection<Entry> getEntries() {
+		return Collections.unmodifiableCollection( entries.values() );
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public int getPlayerCount( Rank rank ) {
+		int count = 0;
+
+		if ( rank != null ) {
+			for ( Entry entry : entries.values() ) {
+				if ( entry.hasRank( rank ) ) {
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+	public void setDirty( boolean dirty ) {
+		this.dirty = dirty;
+	}
+
+	private static String nameKey( String playerName ) {
+		return playerName.toLowerCase( Locale.ROOT );
+	}
+
+	public Document toDocument() {
+		List<Map<String, Object>> players = new ArrayList<>();
+
+		for ( Entry entry : entries.values() ) {
+			Map<String, Object> player = new HashMap<>();
+			player.put( "uid", entry.getUuid().toString() );
+			player.put( "name", entry.getName() );
+			player.put( "ranks", entry.getRanks() );
+
+			players.add( player );
+		}
+
+		Document document = new Document();
+		document.put( "players", players );
+
+		return document;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	public static RankPlayerIndex fromDocument( Document document ) {
+		RankPlayerIndex index = new RankPlayerIndex();
+
+		Object playersObject = document.get( "players" );
+
+		if ( playersObject != null ) {
+
+			for ( Object playerObject : (List<Object>) playersObject ) {
+				LinkedTreeMap<String, Object> player = (LinkedTreeMap<String, Object>) playerObject;
+
+				LinkedTreeMap<String, Object> ranksLocal =
+								(LinkedTreeMap<String, Object>) player.get( "ranks" );
+
+				Map<String, Integer> ranks = new HashMap<>();
+				if ( ranksLocal != null ) {
+					for ( String key : ranksLocal.keySet() ) {
+						ranks.put( key, RankUtil.doubleToInt( ranksLocal.get( key ) ) );
+					}
+				}
+
+				UUID uuid = UUID.fromString( (String) player.get( "uid" ) );
+
+				index.update( new Entry( uuid, (String) player.get( "name" ), ranks ) );
+			}
+		}
+
+		index.setDirty( false );
+
+		return index;
+	}
+}
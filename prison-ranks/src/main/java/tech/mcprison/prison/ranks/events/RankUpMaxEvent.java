@@ -0,0 +1,65 @@
+package tech.mcprison.prison.ranks.events;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.ranks.data.Rank;
+import tech.mcprison.prison.ranks.data.RankPlayer;
+
+/**
+ * <p>A summary event that fires after a player has ranked up multiple ranks at
+ * once with /rankupmax.  A RankUpEvent is still fired for each rank before the
+ * rankup happens, and if one of them is canceled, then the player stops at the
+ * rank before it.  This event is fired after the ranks have been paid for and
+ * the player has been saved, so it cannot be canceled.
+ * </p>
+ */
+public class RankUpMaxEvent {
+
+    private RankPlayer player;
+    private Rank oldRank;
+    private Rank newRank;
+
+    private List<Rank> ranks;
+    private Map<String, Double> costs;
+
+    public RankUpMaxEvent(RankPlayer player, Rank oldRank, Rank newRank,
+    		List<Rank> ranks, Map<String, Double> costs ) {
+
+        this.player = player;
+        this.oldRank = oldRank;
+        this.newRank = newRank;
+
+        this.ranks = Collections.unmodifiableList( ranks );
+        this.costs = Collections.unmodifiableMap( costs );
+    }
+
+    public RankPlayer getPlayer() {
+        return player;
+    }
+
+    public Rank getOldRank() {
+        return oldRank;
+    }
+
+    public Rank getNewRank() {
+        return newRank;
+    }
+
+    /**
+     * @return All of the ranks that the player ranked up through, in order,
+     * 			ending with the new rank.
+     */
+    public List<Rank> getRanks() {
+		return ranks;
+	}
+
+    /**
+     * @return The total that was charged for each currency.  The default currency
+     * 			is an empty String.
+     */
+	public Map<String, Double> getCosts() {
+		return costs;
+	}
+}
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import tech.mcprison.prison.file.ParallelCollectionLoader;
+import tech.mcprison.prison.localization.Localizable;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.data.Rank;
@@ -90,7 +92,7 @@ public class LadderManager
      * @throws IOException If the folder could not be found, or if a file could not be read or does not exist.
      */
     public void loadLadders() throws IOException {
-        List<Document> documents = collection.getAll();
+        List<Document> documents = new ParallelCollectionLoader().loadAll( collection );
         documents.forEach(document -> loadedLadders.add(new RankLadder(document, prisonRanks)));
         
         for ( RankLadder ladder : loadedLadders ) {
@@ -179,6 +181,7 @@ public class LadderManager
 
         // ... add it to the list...
         loadedLadders.add(newLadder);
+        updateLeaderboardLadders();
 
         // ...and return it.
         return newLadder;
@@ -216,16 +219,35 @@ public class LadderManager
 
         // Remove the players from the ladder
         List<RankPlayer> playersWithLadder =
-            PrisonRanks.getInstance().getPlayerManager().getPlayers()
+            PrisonRanks.getInstance().getPlayerManager().getAllPlayers()
             	.stream()
                 .filter(rankPlayer -> rankPlayer.hasLadder(ladder.getName()))
                 .collect(Collectors.toList());
         for (RankPlayer player : playersWithLadder) {
             player.removeLadder(ladder.getName());
+            
+            // Save the player, even if it is not in memory, so the ladder is removed
+            // from its file and from the player index:
+            try {
+                PrisonRanks.getInstance().getPlayerManager().savePlayer(player);
+            } catch (IOException e) {
+            	Localizable localManagerLog = PrisonRanks.getInstance().getRanksMessages()
+            			.getLocalizable( "ranks_rankManager__cannot_save_player_file" );
+            	
+            	Output.get().logError( localManagerLog.localize() );
+            }
         }
 
         // Remove it from the list...
         loadedLadders.remove(ladder);
+        
+        // ... move the rank leaderboard to the remaining ladders, and update the 
+        // rank tags of the players that were on it...
+        if ( updateLeaderboardLadders() ) {
+        	for (RankPlayer player : playersWithLadder) {
+        		PrisonRanks.getInstance().getPlayerManager().getLeaderboards().update( player );
+        	}
+        }
 
         // ... and remove the ladder's save files.
         collection.delete("ladder_" + ladder.getId());
@@ -233,6 +255,27 @@ public class LadderManager
         return true;
     }
 
+    /**
+     * <p>The rank leaderboard sorts the players by their rank on each ladder, so it
+     * is given the ladders again whenever one is added or removed.  The ladders are 
+     * loaded before the players, so the PlayerManager may not exist yet.
+     * </p>
+     * 
+     * @return True if the leaderboards were updated.
+     */
+    private boolean updateLeaderboardLadders() {
+    	boolean results = false;
+    	
+    	if ( PrisonRanks.getInstance() != null && 
+    			PrisonRanks.getInstance().getPlayerManager() != null ) {
+    		
+    		PrisonRanks.getInstance().getPlayerManager().getLeaderboards().setLadders( loadedLadders );
+    		results = true;
+    	}
+    	
+    	return results;
+    }
+
     /**
      * Returns the ladder with the specified name.
      *
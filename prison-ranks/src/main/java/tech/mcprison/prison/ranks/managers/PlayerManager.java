@@ -21,20 +21,24 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.google.common.eventbus.Subscribe;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
-import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
-import tech.mcprison.prison.integration.EconomyIntegration;
+import tech.mcprison.prison.file.ParallelCollectionLoader;
+import tech.mcprison.prison.integration.EconomyGateway;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.events.player.PlayerJoinEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.ManagerPlaceholders;
 import tech.mcprison.prison.placeholders.PlaceHolderKey;
@@ -42,6 +46,7 @@ import tech.mcprison.prison.placeholders.PlaceholderAttribute;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeNumberFormat;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeText;
 import tech.mcprison.prison.placeholders.PlaceholderManager;
+import tech.mcprison.prison.placeholders.PlaceholderRegistry;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceHolderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderResults;
@@ -52,13 +57,26 @@ import tech.mcprison.prison.ranks.RankupResults;
 import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
 import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.data.RankPlayerIndex;
 import tech.mcprison.prison.ranks.events.FirstJoinEvent;
+import tech.mcprison.prison.ranks.top.Leaderboard;
+import tech.mcprison.prison.ranks.top.LeaderboardEntry;
+import tech.mcprison.prison.ranks.top.RankPlayerLeaderboards;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
 /**
- * Manages all the players in the records.
+ * <p>Manages all the players in the records.
+ * </p>
+ * 
+ * <p>By default all of the player files are loaded at startup and are kept in
+ * memory.  If the config.yml setting <pre>player-cache.lazy-load</pre> is 
+ * enabled, then only the online players, and the most recently used offline 
+ * players, are kept in memory.  All other players are loaded from their files
+ * when they are needed.  The RankPlayerIndex is used to find the players that
+ * are not in memory, and for the rank player counts.
+ * </p>
  *
  * @author Faizaan A. Datoo
  */
@@ -67,22 +85,80 @@ public class PlayerManager
 	implements ManagerPlaceholders {
 
 
+    public static final String CONFIG_LAZY_LOAD = "player-cache.lazy-load";
+    public static final String CONFIG_MAX_OFFLINE_PLAYERS = "player-cache.max-offline-players";
+    public static final int MAX_OFFLINE_PLAYERS_DEFAULT = 1000;
+    
+    public static final long PLAYER_INDEX_SAVE_INTERVAL_TICKS = 20 * 60 * 5;
+    
     private Collection collection;
+    private Collection indexCollection;
+    
+    private PlayerSaveQueue saveQueue;
+    
     private List<RankPlayer> players;
-    private TreeMap<String, RankPlayer> playersByName;
     
-//    private List<RankPlayer> playersByTop;
-
+    private Map<UUID, RankPlayer> playersByUuid;
+    private Map<String, RankPlayer> playersByName;
+    
+    private RankPlayerIndex playerIndex;
+    
+    private RankPlayerLeaderboards leaderboards;
+    
+    private boolean lazyLoad = false;
+    private int maxOfflinePlayers = MAX_OFFLINE_PLAYERS_DEFAULT;
+    
+    private Set<UUID> onlinePlayers;
+    private LinkedHashMap<UUID, RankPlayer> offlinePlayers;
+    
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
+    private PlaceholderRegistry placeholderRegistry;
     
     private transient Set<String> playerErrors;
 
     public PlayerManager(Collection collection) {
+    	this( collection, null );
+    }
+    
+    /**
+     * @param collection The player files.
+     * @param indexCollection Where the RankPlayerIndex is saved.  If null, then the
+     * 			index is not saved and the players cannot be lazy loaded.
+     */
+    public PlayerManager(Collection collection, Collection indexCollection) {
     	super("PlayerMangager");
     	
         this.collection = collection;
-        this.players = new ArrayList<>();
-        this.playersByName = new TreeMap<>();
+        this.indexCollection = indexCollection;
+        
+        this.saveQueue = new PlayerSaveQueue( collection );
+        
+        this.players = new CopyOnWriteArrayList<>();
+        this.playersByUuid = new ConcurrentHashMap<>();
+        this.playersByName = new ConcurrentHashMap<>();
+        
+        this.playerIndex = new RankPlayerIndex();
+        this.leaderboards = new RankPlayerLeaderboards( 
+        		PrisonRanks.getInstance() == null || PrisonRanks.getInstance().getLadderManager() == null ?
+        				new ArrayList<>() : PrisonRanks.getInstance().getLadderManager().getLadders() );
+        
+        this.onlinePlayers = ConcurrentHashMap.newKeySet();
+        
+        // An LRU of the offline players that are in memory.  It is only used
+        // when lazy loading the players:
+        this.offlinePlayers = new LinkedHashMap<UUID, RankPlayer>( 16, 0.75f, true ) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+        	protected boolean removeEldestEntry( Map.Entry<UUID, RankPlayer> eldest ) {
+        		boolean remove = size() > maxOfflinePlayers;
+        		
+        		if ( remove ) {
+        			unloadPlayer( eldest.getValue() );
+        		}
+        		return remove;
+        	}
+        };
         
         this.playerErrors = new HashSet<>();
 
@@ -104,29 +180,253 @@ public class PlayerManager
         RankPlayer rankPlayer = new RankPlayer(document);
         
         players.add( rankPlayer );
-        
-        // add by uuid:
-        playersByName.put( rankPlayer.getUUID().toString(), rankPlayer );
-        
-        // add by name:
-        if ( rankPlayer.getNames().size() > 0 ) {
-        	playersByName.put( rankPlayer.getDisplayName(), rankPlayer );
-        	
-        }
+        indexPlayer( rankPlayer );
     }
 
     /**
-     * Loads every player in the specified playerFolder.
+     * <p>Loads every player in the specified playerFolder.  If the players are lazy
+     * loaded, then only the RankPlayerIndex is loaded, and the players will be 
+     * loaded when they are needed.
+     * </p>
      *
      * @throws IOException If one of the files could not be read, or if the playerFolder does not exist.
      */
     public void loadPlayers() throws IOException {
-        List<Document> players = collection.getAll();
-        players.forEach(document -> this.players.add(new RankPlayer(document)));
+    	
+    	if ( indexCollection != null && Prison.get().getPlatform() != null ) {
+    		this.lazyLoad = Prison.get().getPlatform().getConfigBooleanFalse( CONFIG_LAZY_LOAD );
+    		this.maxOfflinePlayers = Math.max( 0, Prison.get().getPlatform().getConfigInt( 
+    						CONFIG_MAX_OFFLINE_PLAYERS, MAX_OFFLINE_PLAYERS_DEFAULT ) );
+    	}
+    	
+    	if ( isLazyLoad() && loadPlayerIndex() ) {
+    		// The players will be loaded when they are needed, but they are all
+    		// on the leaderboards:
+    		for ( RankPlayerIndex.Entry entry : getPlayerIndex().getEntries() ) {
+    			getLeaderboards().addIfAbsent( entry );
+    		}
+    	}
+    	else if ( isLazyLoad() ) {
+    		
+    		// There is no index yet, so read all of the players once to build it:
+    		for ( Document document : new ParallelCollectionLoader().loadAll( collection ) ) {
+    			RankPlayer rankPlayer = new RankPlayer(document);
+    			
+    			getPlayerIndex().update( rankPlayer );
+    			getLeaderboards().update( rankPlayer );
+    		}
+    	}
+    	else {
+    		List<RankPlayer> loaded = new ArrayList<>();
+    		
+    		// The files are read in parallel, but the players are added on this thread:
+    		List<Document> players = new ParallelCollectionLoader().loadAll( collection );
+    		players.forEach(document -> {
+    			RankPlayer rankPlayer = new RankPlayer(document);
+    			
+    			loaded.add( rankPlayer );
+    			indexPlayer( rankPlayer );
+    		});
+    		
+    		this.players.addAll( loaded );
+    	}
+    	
+    	savePlayerIndex();
+    	
+    	// Player files will now be saved on the save queue's thread:
+    	getSaveQueue().start();
+    	
+    	if ( indexCollection != null ) {
+    		PrisonTaskSubmitter.runTaskTimerAsync( () -> savePlayerIndex(), 
+    				PLAYER_INDEX_SAVE_INTERVAL_TICKS, PLAYER_INDEX_SAVE_INTERVAL_TICKS );
+    	}
+    }
+    
+    /**
+     * @return True if the index was found.
+     */
+    private boolean loadPlayerIndex() {
+    	boolean results = false;
+    	
+    	// Using getAll() since get() logs an error if the file does not exist:
+    	for ( Document document : indexCollection.getAll() ) {
+    		if ( document.containsKey( "players" ) ) {
+    			
+    			this.playerIndex = RankPlayerIndex.fromDocument( document );
+    			results = true;
+    			break;
+    		}
+    	}
+    	return results;
+    }
+    
+    /**
+     * <p>Saves the RankPlayerIndex if it has been changed.
+     * </p>
+     */
+    public void savePlayerIndex() {
+    	
+    	if ( indexCollection != null && getPlayerIndex().isDirty() ) {
+    		
+    		// Clear dirty first, so changes during the save will be saved next time:
+    		getPlayerIndex().setDirty( false );
+    		
+    		try {
+    			indexCollection.save( RankPlayerIndex.DOCUMENT_NAME, getPlayerIndex().toDocument() );
+    		}
+    		catch ( Exception e ) {
+    			getPlayerIndex().setDirty( true );
+    			
+    			Output.get().logError( "PlayerManager: Failed to save the player index: " + 
+    						e.getMessage() );
+    		}
+    	}
+    }
+    
+    /**
+     * <p>Loads a player that is not in memory.  This is only used when lazy loading
+     * the players, and only players that are in the RankPlayerIndex are loaded.  
+     * If they are not online, then they are added to the offline player LRU, which
+     * may unload the least recently used offline player.
+     * </p>
+     * 
+     * @param uid
+     * @return The player, or null if they are not known.
+     */
+    private RankPlayer loadOfflinePlayer( UUID uid ) {
+    	RankPlayer results = null;
+    	
+    	if ( uid != null && getPlayerIndex().get( uid ) != null ) {
+    		
+    		synchronized ( getPlayersByUuid() ) {
+    			
+    			// Another thread may have loaded them:
+    			results = getPlayersByUuid().get( uid );
+    			
+    			if ( results == null ) {
+    				results = readPlayer( uid );
+    				
+    				if ( results != null ) {
+    					players.add( results );
+    					indexPlayer( results );
+    					
+    					if ( !onlinePlayers.contains( uid ) ) {
+    						synchronized ( offlinePlayers ) {
+    							offlinePlayers.put( uid, results );
+    						}
+    					}
+    				}
+    			}
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    private RankPlayer readPlayer( UUID uid ) {
+    	RankPlayer results = null;
+    	
+    	String filename = RankPlayer.filename( uid );
+    	
+    	// If the player was unloaded before their last save was written, then use 
+    	// that save instead of the older file:
+    	Document document = getSaveQueue().getUnsaved( filename )
+    				.orElseGet( () -> collection.get( filename ).orElse( null ) );
+    	
+    	if ( document != null && document.get( "uid" ) != null ) {
+    		results = new RankPlayer( document );
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Removes an offline player from memory.  Their file has already been saved
+     * when they were changed.
+     * </p>
+     * 
+     * @param rankPlayer
+     */
+    private void unloadPlayer( RankPlayer rankPlayer ) {
+    	
+    	players.remove( rankPlayer );
+    	playersByUuid.remove( rankPlayer.getUUID(), rankPlayer );
+    	
+    	String nameKey = nameKey( rankPlayer.getDisplayName() );
+    	if ( nameKey != null ) {
+    		playersByName.remove( nameKey, rankPlayer );
+    	}
+    }
+    
+    /**
+     * <p>Gets a player that is in memory.  If they are an offline player that is 
+     * in the LRU, then this marks them as recently used.
+     * </p>
+     * 
+     * @param uid
+     * @return
+     */
+    private RankPlayer getResidentPlayer( UUID uid ) {
+    	RankPlayer results = getPlayersByUuid().get( uid );
+    	
+    	if ( results != null && isLazyLoad() && !onlinePlayers.contains( uid ) ) {
+    		synchronized ( offlinePlayers ) {
+    			offlinePlayers.get( uid );
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Adds the player to the uuid index, and to the name index under their
+     * current name in lower case.  If another player once used the same name, 
+     * then the name will now find this player.
+     * </p>
+     * 
+     * @param rankPlayer
+     */
+    private void indexPlayer( RankPlayer rankPlayer ) {
+    	
+    	if ( rankPlayer.getUUID() != null ) {
+    		playersByUuid.put( rankPlayer.getUUID(), rankPlayer );
+    	}
+    	
+    	String nameKey = nameKey( rankPlayer.getDisplayName() );
+    	if ( nameKey != null ) {
+    		playersByName.put( nameKey, rankPlayer );
+    	}
+    	
+    	getPlayerIndex().update( rankPlayer );
+    	getLeaderboards().update( rankPlayer );
+    }
+    
+    /**
+     * <p>When a player changes their name, the old name is removed from the name
+     * index, as long as it still refers to this player, and the new name is added.
+     * </p>
+     * 
+     * @param rankPlayer
+     * @param oldName
+     */
+    private void reindexPlayerName( RankPlayer rankPlayer, String oldName ) {
+    	
+    	String oldKey = nameKey( oldName );
+    	if ( oldKey != null ) {
+    		playersByName.remove( oldKey, rankPlayer );
+    	}
+    	
+    	indexPlayer( rankPlayer );
+    }
+    
+    private String nameKey( String playerName ) {
+    	return playerName == null || playerName.trim().length() == 0 ? null :
+    				playerName.toLowerCase( Locale.ROOT );
     }
 
     /**
-     * Saves a {@link RankPlayer} to disk.
+     * Saves a {@link RankPlayer} to disk.  The file is written by the 
+     * {@link PlayerSaveQueue} on a background thread.
      *
      * @param player     The {@link RankPlayer} to save.
      * @param playerFile The key to save as.
@@ -134,8 +434,10 @@ public class PlayerManager
      * @see #savePlayer(RankPlayer) To save with the default conventional filename.
      */
     public void savePlayer(RankPlayer player, String playerFile) throws IOException {
-        collection.save(playerFile, player.toDocument());
+        getSaveQueue().enqueue( playerFile, player.toDocument() );
 //        collection.insert(playerFile, player.toDocument());
+        
+        getPlayerIndex().update( player );
     }
 
     public void savePlayer(RankPlayer player) throws IOException {
@@ -168,17 +470,105 @@ public class PlayerManager
 //				Output.get().logError(errorMessage, e);
 			}
         }
+        
+        savePlayerIndex();
     }
 
     /*
      * Getters & Setters
      */
 
+    /**
+     * <p>The players that are in memory.  When the players are lazy loaded, this 
+     * is only the online players and the recently used offline players. 
+     * Use getPlayerIndex() to get all of the players that are known to prison.
+     * </p>
+     * 
+     * @return
+     */
     public List<RankPlayer> getPlayers() {
         return players;
     }
+    
+    /**
+     * <p>Gets every player that is known to prison.  When the players are lazy
+     * loaded, the players that are not in memory are read from their files, but
+     * they are not kept in memory.  That can be slow with a large number of players,
+     * so this should only be used for admin tasks, such as removing a rank, which 
+     * must change all of the players.
+     * </p>
+     * 
+     * @return
+     */
+    public List<RankPlayer> getAllPlayers() {
+    	List<RankPlayer> results = new ArrayList<>( players );
+    	
+    	if ( isLazyLoad() ) {
+    		
+    		for ( RankPlayerIndex.Entry entry : getPlayerIndex().getEntries() ) {
+    			
+    			if ( !getPlayersByUuid().containsKey( entry.getUuid() ) ) {
+    				RankPlayer rankPlayer = readPlayer( entry.getUuid() );
+    				
+    				if ( rankPlayer != null ) {
+    					results.add( rankPlayer );
+    				}
+    			}
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * @param rank
+     * @return The number of players that have the rank, including the players 
+     * 			that are not in memory.
+     */
+    public int getPlayerCount( Rank rank ) {
+    	return getPlayerIndex().getPlayerCount( rank );
+    }
+    
+    /**
+     * <p>Writes the queued player files and the player index when the server is
+     * shutting down.  This will only wait a limited amount of time for the files to 
+     * be written.
+     * </p>
+     */
+    public void shutdown() {
+    	
+    	getSaveQueue().shutdown( PlayerSaveQueue.SHUTDOWN_WAIT_MILLIS );
+    	
+    	savePlayerIndex();
+    }
+    
+    public PlayerSaveQueue getSaveQueue() {
+    	return saveQueue;
+    }
+    
+    public RankPlayerIndex getPlayerIndex() {
+    	return playerIndex;
+    }
+    
+    public RankPlayerLeaderboards getLeaderboards() {
+    	return leaderboards;
+    }
+    
+    public boolean isLazyLoad() {
+    	return lazyLoad;
+    }
+
+    public Map<UUID, RankPlayer> getPlayersByUuid() {
+		return playersByUuid;
+	}
 
-    public TreeMap<String, RankPlayer> getPlayersByName() {
+    /**
+     * <p>The players by their current name, in lower case.
+     * </p>
+     * 
+     * @return
+     */
+	public Map<String, RankPlayer> getPlayersByName() {
 		return playersByName;
 	}
 
@@ -198,26 +588,45 @@ public class PlayerManager
     	RankPlayer results = null;
     	boolean dirty = false;
     	
-    	if ( playerName != null && getPlayersByName().containsKey( playerName ) ) {
-    		results = getPlayersByName().get( playerName );
+    	if ( uid != null ) {
+    		results = getResidentPlayer( uid );
+    		
+    		if ( results == null && isLazyLoad() ) {
+    			results = loadOfflinePlayer( uid );
+    		}
+    		
+    		if ( results != null ) {
+    			
+    			// This checks to see if they have a new name, if so, then adds it to the history:
+    			// But the UID must match:
+    			String oldName = results.getDisplayName();
+    			dirty = results.checkName( playerName );
+    			
+    			if ( dirty ) {
+    				reindexPlayerName( results, oldName );
+    			}
+    		}
     	}
-    	
-    	if ( results == null ) {
+    	else {
+    		String nameKey = nameKey( playerName );
+    		RankPlayer rankPlayer = nameKey == null ? null : getPlayersByName().get( nameKey );
+    		
+    		// The player's name may have been changed outside of the player manager,
+    		// so only use the index if it still matches their current name:
+    		if ( rankPlayer != null && 
+    				playerName.equalsIgnoreCase( rankPlayer.getDisplayName() ) ) {
+    			results = rankPlayer;
+    		}
     		
-    		for ( RankPlayer rankPlayer : players ) {
-    			if ( uid != null && rankPlayer.getUUID().equals(uid) || 
-    					uid == null && playerName != null && playerName.trim().length() > 0 &&
-    					rankPlayer.getDisplayName() != null &&
-    					rankPlayer.getDisplayName().equalsIgnoreCase( playerName ) ) {
+    		if ( results == null && isLazyLoad() ) {
+    			UUID indexUuid = getPlayerIndex().findUuid( playerName );
+    			
+    			if ( indexUuid != null ) {
+    				results = getResidentPlayer( indexUuid );
     				
-    				// This checks to see if they have a new name, if so, then adds it to the history:
-    				// But the UID must match:
-    				if ( uid != null && rankPlayer.getUUID().equals(uid) ) {
-    					dirty = rankPlayer.checkName( playerName );
+    				if ( results == null ) {
+    					results = loadOfflinePlayer( indexUuid );
     				}
-    				
-    				results = rankPlayer;
-    				break;
     			}
     		}
     	}
@@ -270,7 +679,8 @@ public class PlayerManager
     	if ( PrisonTaskSubmitter.isPrimaryThread() ) {
     		results = addPlayerSyncTask( uid, playerName );
     	}
-    	else if ( !getPlayersByName().containsKey( playerName )) {
+    	else if ( uid != null && !getPlayersByUuid().containsKey( uid ) && 
+    				getPlayerIndex().get( uid ) == null ) {
     		
     		// Submit the sync task to add player.  But since this is an 
     		// async thread, we can only return a null.  Future requests
@@ -290,21 +700,27 @@ public class PlayerManager
         
         if ( uid != null && playerName != null && 
         		playerName.trim().length() > 0 && !"CONSOLE".equalsIgnoreCase( playerName ) &&
-        		!getPlayersByName().containsKey( playerName )) {
+        		!getPlayersByUuid().containsKey( uid ) && getPlayerIndex().get( uid ) == null ) {
         	
-        	synchronized( getPlayersByName() ) {
+        	synchronized( getPlayersByUuid() ) {
         		
-        		// recheck to ensure that the player's name is not in the getPlayersByName()
+        		// recheck to ensure that the player's uuid is not in the getPlayersByUuid()
         		// collection... it could have been added since submitting the sync task:
         		
-        		if ( !getPlayersByName().containsKey( playerName ) ) {
+        		if ( !getPlayersByUuid().containsKey( uid ) && getPlayerIndex().get( uid ) == null ) {
         			
         			// We need to create a new player data file.
         			newPlayer = new RankPlayer( uid, playerName );
         			newPlayer.checkName( playerName );
         			
         			players.add(newPlayer);
-        			getPlayersByName().put( playerName, newPlayer );
+        			indexPlayer( newPlayer );
+        			
+        			if ( isLazyLoad() && !onlinePlayers.contains( uid ) ) {
+        				synchronized ( offlinePlayers ) {
+        					offlinePlayers.put( uid, newPlayer );
+        				}
+        			}
         			
         			try {
         				savePlayer(newPlayer);
@@ -348,11 +764,40 @@ public class PlayerManager
     	
     	Player player = event.getPlayer();
     	
+    	if ( isLazyLoad() ) {
+    		
+    		// Online players are always kept in memory:
+    		onlinePlayers.add( player.getUUID() );
+    		
+    		synchronized ( offlinePlayers ) {
+    			offlinePlayers.remove( player.getUUID() );
+    		}
+    	}
+    	
     	// Player is auto added if they do not exist when calling getPlayer so don't try to
     	// add them a second time.
         getPlayer(player.getUUID(), player.getName());
         
     }
+    
+    @Subscribe
+    public void onPlayerQuit(PlayerQuitEvent event) {
+    	
+    	// The player's cached placeholders are no longer needed:
+    	Prison.get().getPlaceholderManager().getValueCache()
+    				.invalidatePlayer( event.getPlayer().getUUID() );
+    	
+    	if ( isLazyLoad() && onlinePlayers.remove( event.getPlayer().getUUID() ) ) {
+    		
+    		RankPlayer rankPlayer = getPlayersByUuid().get( event.getPlayer().getUUID() );
+    		
+    		if ( rankPlayer != null ) {
+    			synchronized ( offlinePlayers ) {
+    				offlinePlayers.put( rankPlayer.getUUID(), rankPlayer );
+    			}
+    		}
+    	}
+    }
 
     
 
@@ -879,10 +1324,10 @@ public class PlayerManager
     	double playerBalance = 0;
         	
     	if ( rank != null && rank.getCurrency() != null ) {
-    		EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-    						.getEconomyForCurrency( rank.getCurrency() );
+    		EconomyGateway currencyEcon = PrisonAPI.getIntegrationManager()
+    						.getEconomyGateway( rank.getCurrency() );
     		if ( currencyEcon != null ) {
-        		playerBalance = currencyEcon.getBalance( player, rank.getCurrency() );
+        		playerBalance = currencyEcon.getBalance( player );
     		} else {
     			
     			String errorMessage = cannotLoadEconomyCurrency( player.getName(), rank.getCurrency() );
@@ -896,7 +1341,7 @@ public class PlayerManager
     		
     	} else {
     		
-    		EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+    		EconomyGateway economy = PrisonAPI.getIntegrationManager().getEconomyGateway();
 
     		if ( economy != null ) {
     			playerBalance = economy.getBalance( player );
@@ -989,8 +1434,6 @@ public class PlayerManager
 
     	if ( playerUuid != null && identifier != null ) {
     		
-    		List<PlaceHolderKey> placeHolderKeys = getTranslatedPlaceHolderKeys();
-    		
     		identifier = identifier.toLowerCase();
     		
     		if ( !identifier.startsWith( PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED )) {
@@ -1002,11 +1445,9 @@ public class PlayerManager
     		String placeholder = pman.extractPlaceholderString( identifier );
     		PlaceholderAttribute attribute = pman.extractPlaceholderExtractAttribute( identifier );
     		
-    		for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
-    			if ( placeHolderKey.getKey().equalsIgnoreCase( placeholder )) {
-    				results = getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
-    				break;
-    			}
+    		PlaceHolderKey placeHolderKey = getPlaceholderRegistry().getPlaceHolderKey( placeholder );
+    		if ( placeHolderKey != null ) {
+    			results = getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
     		}
     	}
     	
@@ -1017,8 +1458,6 @@ public class PlayerManager
     	
     	if ( playerUuid != null && placeholderResults.hasResults() ) {
     		
-    		List<PlaceHolderKey> placeHolderKeys = getTranslatedPlaceHolderKeys();
-    		
     		String identifier = placeholderResults.getIdentifier();
     		
     		if ( !identifier.startsWith( PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED )) {
@@ -1036,11 +1475,9 @@ public class PlayerManager
     		else {
     			// Need to hunt for the placeholder:
     			
-    			for ( PlaceHolderKey placeHolderKey : placeHolderKeys ) {
-    				if ( placeHolderKey.getKey().equalsIgnoreCase( placeholder )) {
-    					results = getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
-    					break;
-    				}
+    			PlaceHolderKey placeHolderKey = getPlaceholderRegistry().getPlaceHolderKey( placeholder );
+    			if ( placeHolderKey != null ) {
+    				results = getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
     			}
     		}
     		
@@ -1171,6 +1608,29 @@ public class PlayerManager
 						results = getPlayerSellallMultiplier( rankPlayer, attribute );
 						break;
 						
+					case prison_ptb:
+					case prison_player_top_balance:
+						results = getLeaderboardPosition( rankPlayer, 
+										getLeaderboards().getBalanceLeaderboard() );
+						break;
+						
+					case prison_ptr:
+					case prison_player_top_rank:
+						results = getLeaderboardPosition( rankPlayer, 
+										getLeaderboards().getRankLeaderboard() );
+						break;
+						
+					case prison_tbn_nnn:
+					case prison_top_balance_name_nnn:
+					case prison_trn_nnn:
+					case prison_top_rank_name_nnn:
+					case prison_tbv_nnn:
+					case prison_top_balance_value_nnn:
+					case prison_trv_nnn:
+					case prison_top_rank_value_nnn:
+						results = getLeaderboardPlaceholder( placeHolder, placeHolderKey.getData(), attribute );
+						break;
+						
 					default:
 						break;
 				}
@@ -1188,6 +1648,64 @@ public class PlayerManager
 
 
 
+    private String getLeaderboardPosition( RankPlayer rankPlayer, Leaderboard leaderboard ) {
+    	int position = leaderboard.getPosition( rankPlayer.getUUID() );
+    	
+    	return position < 1 ? "" : Integer.toString( position );
+    }
+    
+    /**
+     * <p>The name, or the value, of the player at a position on one of the 
+     * leaderboards.  The value of the balance leaderboard is their balance, and 
+     * the value of the rank leaderboard is their rank tags.
+     * </p>
+     * 
+     * @param placeHolder
+     * @param position The one based position on the leaderboard.
+     * @param attribute
+     * @return
+     */
+    private String getLeaderboardPlaceholder( PrisonPlaceHolders placeHolder, String position, 
+    							PlaceholderAttribute attribute ) {
+    	String results = "";
+    	
+    	boolean balance = placeHolder == PrisonPlaceHolders.prison_tbn_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_top_balance_name_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_tbv_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_top_balance_value_nnn;
+    	boolean name = placeHolder == PrisonPlaceHolders.prison_tbn_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_top_balance_name_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_trn_nnn ||
+    				placeHolder == PrisonPlaceHolders.prison_top_rank_name_nnn;
+    	
+    	Leaderboard leaderboard = balance ? getLeaderboards().getBalanceLeaderboard() : 
+    										getLeaderboards().getRankLeaderboard();
+    	
+    	LeaderboardEntry entry = leaderboard.getEntry( Integer.parseInt( position ) );
+    	
+    	if ( entry != null ) {
+    		
+    		if ( name ) {
+    			results = entry.getName();
+    		}
+    		else if ( !balance ) {
+    			results = entry.getRankTags();
+    		}
+    		else if ( attribute != null && attribute instanceof PlaceholderAttributeNumberFormat ) {
+    			PlaceholderAttributeNumberFormat attributeNF = 
+    					(PlaceholderAttributeNumberFormat) attribute;
+    			results = attributeNF.format( entry.getBalance() );
+    		}
+    		else {
+    			DecimalFormat dFmt = new DecimalFormat("#,##0");
+    			results = dFmt.format( entry.getBalance() );
+    		}
+    	}
+    	
+    	return results;
+    }
+
+
 	@Override
     public List<PlaceHolderKey> getTranslatedPlaceHolderKeys() {
     	if ( translatedPlaceHolderKeys == null ) {
@@ -1245,11 +1763,64 @@ public class PlayerManager
     			
     		}
     		
+    		
+    		// This generates the placeholders for each position on the leaderboards:
+    		placeHolders = PrisonPlaceHolders.getTypes( PlaceHolderFlags.TOP );
+    		
+    		int positions = Prison.get().getPlatform() == null ? 
+    				RankPlayerLeaderboards.PLACEHOLDER_POSITIONS_DEFAULT :
+    				Prison.get().getPlatform().getConfigInt( 
+    						RankPlayerLeaderboards.CONFIG_PLACEHOLDER_POSITIONS, 
+    						RankPlayerLeaderboards.PLACEHOLDER_POSITIONS_DEFAULT );
+    		
+    		for ( int position = 1; position <= positions; position++ ) {
+    			for ( PrisonPlaceHolders ph : placeHolders ) {
+    				String key = ph.name().replace( 
+    						PlaceholderManager.PRISON_PLACEHOLDER_POSITION_SUFFIX, "_" + position );
+    				
+    				PlaceHolderKey placeholder = new PlaceHolderKey(key, ph, Integer.toString( position ) );
+    				if ( ph.getAlias() != null ) {
+    					String aliasName = ph.getAlias().name().replace( 
+    							PlaceholderManager.PRISON_PLACEHOLDER_POSITION_SUFFIX, "_" + position );
+    					placeholder.setAliasName( aliasName );
+    				}
+    				translatedPlaceHolderKeys.add( placeholder );
+    			}
+    		}
+    		
     	}
     	
     	return translatedPlaceHolderKeys;
     }
     
+    /**
+     * <p>The hash index of the translated placeholder keys.  It is rebuilt 
+     * whenever the keys are regenerated.
+     * </p>
+     */
+    @Override
+    public PlaceholderRegistry getPlaceholderRegistry() {
+    	PlaceholderRegistry results = placeholderRegistry;
+    	
+    	if ( results == null || !results.isCurrent() ) {
+    		results = PlaceholderRegistry.build( this );
+    		placeholderRegistry = results;
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>The player placeholders need a player, so this returns null if there is
+     * no player.
+     * </p>
+     */
+    @Override
+    public String getTranslatedPlaceHolder( UUID playerUuid, String playerName, 
+    				PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+    	return getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, attribute );
+    }
+    
     @Override
     public void reloadPlaceholders() {
     	
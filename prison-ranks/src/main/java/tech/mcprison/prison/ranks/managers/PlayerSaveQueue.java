@@ -0,0 +1,269 @@
+package tech.mcprison.prison.ranks.managers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.gson.Gson;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>A write-behind queue for saving the player files.  Saving a player used to
+ * serialize the player to json and write the file on the calling thread, which
+ * is usually the server's main thread.  During events with a lot of rankups,
+ * the disk I/O caused noticeable tick spikes.
+ * </p>
+ *
+ * <p>The caller takes a snapshot of the player with RankPlayer.toDocument(), and
+ * the snapshot is serialized and written by a single background thread.  If a
+ * player is saved again before their prior save was written, then only the
+ * newest snapshot is written.  The files are written in the order that they
+ * were first queued.
+ * </p>
+ *
+ * <p>A player that is read while their save is still queued is read from the
+ * snapshot with getUnsaved(), so the reader never waits for the disk and never
+ * sees an older file.
+ * </p>
+ *
+ * <p>When the server shuts down, shutdown() will wait for the queue to be written,
+ * but only for a limited amount of time so the server is not prevented from
+ * stopping if the disk is not responding.
+ * </p>
+ *
+ */
+public class PlayerSaveQueue
+	implements Runnable {
+
+	public static final long SHUTDOWN_WAIT_MILLIS = 10000;
+
+	private final Collection collection;
+
+	private final LinkedHashMap<String, Document> pending;
+	private String saving = null;
+	private Document savingDocument = null;
+
+	private final Gson gson;
+
+	private Thread thread;
+	private volatile boolean running = false;
+
+	private long savedCount = 0;
+	private long coalescedCount = 0;
+
+	public PlayerSaveQueue( Collection collection ) {
+		super();
+
+		this.collection = collection;
+		this.pending = new LinkedHashMap<>();
+
+		this.gson = new Gson();
+	}
+
+	public synchronized void start() {
+		if ( !running ) {
+			running = true;
+
+			thread = new Thread( this, "Prison-PlayerSaveQueue" );
+			thread.setDaemon( true );
+			thread.start();
+		}
+	}
+
+	/**
+	 * <p>Queues the player's file to be saved.  If it is already queued, then the
+	 * prior snapshot is replaced.  If the queue is not running, then the file is
+	 * saved on the calling thread.
+	 * </p>
+	 *
+	 * @param filename
+	 * @param document A snapshot of the player that will not be changed.
+	 */
+	public void enqueue( String filename, Document document ) {
+
+		synchronized ( this ) {
+			if ( running ) {
+				if ( pending.put( filename, document ) != null ) {
+					coalescedCount++;
+				}
+
+				notifyAll();
+				return;
+			}
+		}
+
+		save( filename, document );
+	}
+
+	@Override
+	public void run() {
+
+		while ( true ) {
+			String filename;
+			Document document;
+
+			synchronized ( this ) {
+				saving = null;
+				savingDocument = null;
+				notifyAll();
+
+				while ( running && pending.isEmpty() ) {
+					try {
+						wait();
+					}
+					catch ( InterruptedException e ) {
+						// Ignore, running will be checked
+					}
+				}
+
+				if ( pending.isEmpty() ) {
+					// No longer running, and everything has been saved:
+					break;
+				}
+
+				Iterator<Map.Entry<String, Document>> iterator = pending.entrySet().iterator();
+				Map.Entry<String, Document> entry = iterator.next();
+				iterator.remove();
+
+				filename = entry.getKey();
+				document = entry.getValue();
+				saving = filename;
+				savingDocument = document;
+			}
+
+			save( filename, document );
+		}
+	}
+
+	private void save( String filename, Document document ) {
+		try {
+			collection.save( filename, document );
+
+			synchronized ( this ) {
+				savedCount++;
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "PlayerSaveQueue: Failed to save player file " +
+						filename + ": " + e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * <p>Gets the newest snapshot of the file that has not been written yet, if
+	 * it is queued or is being written.  This does not wait for the write.
+	 * </p>
+	 *
+	 * <p>The snapshot is converted to json and back, so the document that is
+	 * returned is the same as if it had been read from the file, and the queued
+	 * snapshot is not shared with the caller.
+	 * </p>
+	 *
+	 * @param filename
+	 * @return The unsaved snapshot, or empty if the file is up to date.
+	 */
+	public Optional<Document> getUnsaved( String filename ) {
+		Document document;
+
+		synchronized ( this ) {
+			document = pending.get( filename );
+
+			if ( document == null && filename.equals( saving ) ) {
+				document = savingDocument;
+			}
+		}
+
+		return document == null ? Optional.empty() :
+					Optional.of( gson.fromJson( gson.toJson( document ), Document.class ) );
+	}
+
+	/**
+	 * <p>Waits for all of the queued files to be written.
+	 * </p>
+	 *
+	 * @param timeoutMillis
+	 * @return True if everything has been saved.
+	 */
+	public synchronized boolean flush( long timeoutMillis ) {
+		long end = System.currentTimeMillis() + timeoutMillis;
+
+		while ( !pending.isEmpty() || saving != null ) {
+			long wait = end - System.currentTimeMillis();
+
+			if ( wait <= 0 || !thread.isAlive() ) {
+				return false;
+			}
+
+			try {
+				wait( wait );
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * <p>Stops the queue after the queued files have been written, waiting no
+	 * longer than the timeout.  Any saves after this are written on the calling
+	 * thread.
+	 * </p>
+	 *
+	 * @param timeoutMillis
+	 * @return True if everything has been saved.
+	 */
+	public boolean shutdown( long timeoutMillis ) {
+		boolean results = true;
+
+		synchronized ( this ) {
+			if ( !running ) {
+				return true;
+			}
+
+			running = false;
+			notifyAll();
+		}
+
+		try {
+			thread.join( timeoutMillis );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized ( this ) {
+			if ( !pending.isEmpty() || saving != null ) {
+				results = false;
+
+				Output.get().logError( "PlayerSaveQueue: Timed out waiting for the player files " +
+						"to be saved.  Files not saved: " +
+						( pending.size() + ( saving == null ? 0 : 1 )) );
+			}
+		}
+
+		return results;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	public synchronized long getSavedCount() {
+		return savedCount;
+	}
+
+	public synchronized long getCoalescedCount() {
+		return coalescedCount;
+	}
+}
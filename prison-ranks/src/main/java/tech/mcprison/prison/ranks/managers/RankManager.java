@@ -23,10 +23,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.file.ParallelCollectionLoader;
 import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.localization.Localizable;
@@ -38,6 +39,7 @@ import tech.mcprison.prison.placeholders.PlaceholderAttribute;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeNumberFormat;
 import tech.mcprison.prison.placeholders.PlaceholderAttributeText;
 import tech.mcprison.prison.placeholders.PlaceholderManager;
+import tech.mcprison.prison.placeholders.PlaceholderRegistry;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceHolderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
@@ -48,7 +50,7 @@ import tech.mcprison.prison.ranks.commands.RankUpCommand;
 import tech.mcprison.prison.ranks.commands.RanksCommands;
 import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
-import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.data.RankPlayerIndex;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
 
@@ -76,6 +78,7 @@ public class RankManager
     private LadderCommands ladderCommands;
 
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
+    private PlaceholderRegistry placeholderRegistry;
     
     public enum RanksByLadderOptions {
     	playersOnly("players"),
@@ -172,7 +175,7 @@ public class RankManager
      * @throws IOException If the folder could not be found, or if a file could not be read or does not exist.
      */
     public void loadRanks() throws IOException {
-        List<Document> ranks = collection.getAll();
+        List<Document> ranks = new ParallelCollectionLoader().loadAll( collection );
         
         for ( Document rankDocument : ranks ) {
         	Rank rank = new Rank( rankDocument );
@@ -331,7 +334,7 @@ public class RankManager
         						.getLaddersWithRank(rank.getId())) {
         	
             // Move each player in this ladder to the new rank
-            PrisonRanks.getInstance().getPlayerManager().getPlayers().forEach(rankPlayer -> {
+            PrisonRanks.getInstance().getPlayerManager().getAllPlayers().forEach(rankPlayer -> {
             	Rank curRank = rankPlayer.getRank(ladder.getName());
                 if ( curRank != null && rank.equals( curRank ) ) {
                     rankPlayer.removeRank(curRank);
@@ -502,11 +505,7 @@ public class RankManager
     	for (Rank rank : ranks ) {
     		
     		// Get the players per rank!!
-			List<RankPlayer> playersList =
-                    playerManager.getPlayers().stream()
-                        .filter(rankPlayer -> rankPlayer.getLadderRanks().values().contains(rank))
-                        .collect(Collectors.toList());
-    		int players = playersList.size();
+    		int players = playerManager.getPlayerCount( rank );
     		
     		if ( option == RanksByLadderOptions.allRanks || 
     					option == RanksByLadderOptions.full || players > 0 ) {
@@ -524,9 +523,9 @@ public class RankManager
     				if ( option == RanksByLadderOptions.full ) {
     					sb.append( "[" );
     					
-    					for ( RankPlayer rankPlayer : playersList )
+    					for ( RankPlayerIndex.Entry rankPlayer : playerManager.getPlayerIndex().getEntries() )
 						{
-    						if ( rankPlayer.getName() != null ) {
+    						if ( rankPlayer.getName() != null && rankPlayer.hasRank( rank ) ) {
     							
     							sb.append( rankPlayer.getName() ).append( " " );
     						}
@@ -710,12 +709,9 @@ public class RankManager
 					
 				case prison_rank__player_count_rankname:
 				case prison_r_pc_rankname:
-					List<RankPlayer> players =
-					PrisonRanks.getInstance().getPlayerManager().getPlayers().stream()
-					.filter(rPlayer -> rPlayer.getLadderRanks().values().contains(rank))
-					.collect(Collectors.toList());
+					int players = PrisonRanks.getInstance().getPlayerManager().getPlayerCount( rank );
 					
-					results = Integer.toString( players.size() );
+					results = Integer.toString( players );
 					break;
 					
 				case prison_rank__linked_mines_rankname:
@@ -783,6 +779,31 @@ public class RankManager
     	return translatedPlaceHolderKeys;
     }
     
+    /**
+     * <p>The hash index of the translated placeholder keys.  It is rebuilt 
+     * whenever the keys are regenerated.
+     * </p>
+     */
+    @Override
+    public PlaceholderRegistry getPlaceholderRegistry() {
+    	PlaceholderRegistry results = placeholderRegistry;
+    	
+    	if ( results == null || !results.isCurrent() ) {
+    		results = PlaceholderRegistry.build( this );
+    		placeholderRegistry = results;
+    	}
+    	
+    	return results;
+    }
+    
+    @Override
+    public String getTranslatedPlaceHolder( UUID playerUuid, String playerName, 
+    				PlaceHolderKey placeHolderKey, PlaceholderAttribute attribute ) {
+    	Rank rank = getRank( placeHolderKey.getData() );
+    	
+    	return getTranslateRanksPlaceHolder( placeHolderKey, rank, attribute );
+    }
+    
     @Override
     public void reloadPlaceholders() {
     	
@@ -0,0 +1,116 @@
+package tech.mcprison.prison.ranks.top;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * <p>One ranking of the players, that is kept sorted as the players change, so
+ * the top players and the position of a player can be found without sorting
+ * all of the players.  Each player has one entry, and when it is updated the
+ * old entry is removed from the tree before the new one is added.
+ * </p>
+ *
+ * <p>The positions are one based, so the first player is at position 1.
+ * </p>
+ *
+ */
+public class Leaderboard {
+
+	private final String name;
+
+	private final OrderStatisticTree<LeaderboardEntry> tree;
+	private final Map<UUID, LeaderboardEntry> entries;
+
+	public Leaderboard( String name, Comparator<LeaderboardEntry> comparator ) {
+		super();
+
+		this.name = name;
+
+		this.tree = new OrderStatisticTree<>( comparator );
+		this.entries = new HashMap<>();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * <p>Adds the player, or moves them to their new position.
+	 * </p>
+	 *
+	 * @param entry
+	 */
+	public synchronized void update( LeaderboardEntry entry ) {
+		LeaderboardEntry old = entries.put( entry.getUuid(), entry );
+
+		if ( old != null ) {
+			tree.remove( old );
+		}
+
+		tree.add( entry );
+	}
+
+	public synchronized void remove( UUID uuid ) {
+		LeaderboardEntry old = entries.remove( uuid );
+
+		if ( old != null ) {
+			tree.remove( old );
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		tree.clear();
+	}
+
+	/**
+	 * @return A copy of the entries, in no particular order.
+	 */
+	public synchronized List<LeaderboardEntry> getEntries() {
+		return new ArrayList<>( entries.values() );
+	}
+
+	public synchronized LeaderboardEntry getEntry( UUID uuid ) {
+		return entries.get( uuid );
+	}
+
+	/**
+	 * @param position One based.
+	 * @return The entry at that position, or null if there is no one there.
+	 */
+	public synchronized LeaderboardEntry getEntry( int position ) {
+		return tree.get( position - 1 );
+	}
+
+	/**
+	 * @param uuid
+	 * @return The one based position of the player, or -1 if they are not on
+	 * 			the leaderboard.
+	 */
+	public synchronized int getPosition( UUID uuid ) {
+		LeaderboardEntry entry = entries.get( uuid );
+
+		return entry == null ? -1 : tree.indexOf( entry ) + 1;
+	}
+
+	public List<LeaderboardEntry> getTop( int count ) {
+		return getPage( 1, count );
+	}
+
+	/**
+	 * @param page One based.
+	 * @param pageSize
+	 * @return The entries on the page, in order.
+	 */
+	public synchronized List<LeaderboardEntry> getPage( int page, int pageSize ) {
+		return tree.getRange( (Math.max( 1, page ) - 1) * pageSize, pageSize );
+	}
+
+	public synchronized int size() {
+		return tree.size();
+	}
+}
@@ -0,0 +1,126 @@
+package tech.mcprison.prison.ranks.top;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * <p>A snapshot of a player's ranks and balance that is stored in the leaderboards.
+ * It cannot be changed, since it is a key in the OrderStatisticTree.  When the
+ * player ranks up, or their balance changes, a new entry replaces it.
+ * </p>
+ *
+ */
+public class LeaderboardEntry {
+
+	/**
+	 * <p>Higher balances first, then by name, then by UUID so no two players are equal.
+	 * </p>
+	 */
+	public static final Comparator<LeaderboardEntry> BY_BALANCE = ( e1, e2 ) -> {
+		int results = Double.compare( e2.getBalance(), e1.getBalance() );
+
+		return results != 0 ? results : compareNames( e1, e2 );
+	};
+
+	/**
+	 * <p>Higher ranks first, with the first ladder being the most important, then
+	 * higher balances, then by name, then by UUID.
+	 * </p>
+	 */
+	public static final Comparator<LeaderboardEntry> BY_RANK = ( e1, e2 ) -> {
+		int results = 0;
+
+		int length = Math.max( e1.ladderPositions.length, e2.ladderPositions.length );
+		for ( int i = 0; results == 0 && i < length; i++ ) {
+			results = Integer.compare( e2.getLadderPosition( i ), e1.getLadderPosition( i ) );
+		}
+
+		return results != 0 ? results : BY_BALANCE.compare( e1, e2 );
+	};
+
+	private final UUID uuid;
+	private final String name;
+
+	private final int[] ladderPositions;
+	private final String rankTags;
+
+	private final double balance;
+
+	/**
+	 * @param uuid
+	 * @param name
+	 * @param ladderPositions The position of the player's rank on each of the ladders
+	 * 			in the order of RankPlayerLeaderboards.getLadders(), or -1 if they do not
+	 * 			have a rank on that ladder.
+	 * @param rankTags The tags of the player's ranks, used for display only.
+	 * @param balance
+	 */
+	public LeaderboardEntry( UUID uuid, String name, int[] ladderPositions,
+					String rankTags, double balance ) {
+		super();
+
+		this.uuid = uuid;
+		this.name = name == null ? "" : name;
+
+		this.ladderPositions = ladderPositions.clone();
+		this.rankTags = rankTags == null ? "" : rankTags;
+
+		this.balance = balance;
+	}
+
+	private static int compareNames( LeaderboardEntry e1, LeaderboardEntry e2 ) {
+		int results = e1.getName().compareToIgnoreCase( e2.getName() );
+
+		return results != 0 ? results : e1.getUuid().compareTo( e2.getUuid() );
+	}
+
+	/**
+	 * @return A new entry with a different balance.
+	 */
+	public LeaderboardEntry withBalance( double balance ) {
+		return new LeaderboardEntry( uuid, name, ladderPositions, rankTags, balance );
+	}
+
+	/**
+	 * @return A new entry with the positions on a different list of ladders.
+	 */
+	public LeaderboardEntry withLadderPositions( int[] ladderPositions ) {
+		return new LeaderboardEntry( uuid, name, ladderPositions, rankTags, balance );
+	}
+
+	public UUID getUuid() {
+		return uuid;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getLadderPosition( int index ) {
+		return index < ladderPositions.length ? ladderPositions[index] : -1;
+	}
+
+	public String getRankTags() {
+		return rankTags;
+	}
+
+	public double getBalance() {
+		return balance;
+	}
+
+	/**
+	 * @return True if this would be sorted the same as the other entry on every leaderboard.
+	 */
+	public boolean isSameScore( LeaderboardEntry other ) {
+		return other != null && uuid.equals( other.uuid ) && name.equals( other.name ) &&
+				Double.compare( balance, other.balance ) == 0 &&
+				Arrays.equals( ladderPositions, other.ladderPositions ) &&
+				rankTags.equals( other.rankTags );
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + Arrays.toString( ladderPositions ) + " " + balance;
+	}
+}
@@ -0,0 +1,276 @@
+package tech.mcprison.prison.ranks.top;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>A sorted collection that can also find an element by its index, and the
+ * index of an element, in O(log n).  It is a treap, which is a binary search
+ * tree where each node also has a random priority that keeps the tree balanced,
+ * and each node keeps the size of its subtree so the index can be counted on
+ * the way down the tree.
+ * </p>
+ *
+ * <p>The elements must be unique according to the comparator, so the comparator
+ * should end with a tie breaker, such as the player's UUID.  This is not
+ * thread safe.
+ * </p>
+ *
+ * @param <T>
+ */
+public class OrderStatisticTree<T> {
+
+	private final Comparator<? super T> comparator;
+	private final Random random;
+
+	private Node<T> root;
+
+	private static class Node<T> {
+		private final T value;
+		private final int priority;
+
+		private Node<T> left;
+		private Node<T> right;
+		private int size;
+
+		private Node( T value, int priority ) {
+			super();
+
+			this.value = value;
+			this.priority = priority;
+			this.size = 1;
+		}
+
+		private void updateSize() {
+			size = 1 + size( left ) + size( right );
+		}
+	}
+
+	public OrderStatisticTree( Comparator<? super T> comparator ) {
+		super();
+
+		this.comparator = comparator;
+		this.random = new Random();
+	}
+
+	private static int size( Node<?> node ) {
+		return node == null ? 0 : node.size;
+	}
+
+	public int size() {
+		return size( root );
+	}
+
+	public void clear() {
+		root = null;
+	}
+
+	/**
+	 * @param value
+	 * @return False if an equal value is already in the tree.
+	 */
+	public boolean add( T value ) {
+		int sizeBefore = size();
+
+		root = add( root, value );
+
+		return size() > sizeBefore;
+	}
+
+	private Node<T> add( Node<T> node, T value ) {
+		if ( node == null ) {
+			return new Node<>( value, random.nextInt() );
+		}
+
+		int compare = comparator.compare( value, node.value );
+
+		if ( compare < 0 ) {
+			node.left = add( node.left, value );
+
+			if ( node.left.priority > node.priority ) {
+				node = rotateRight( node );
+			}
+		}
+		else if ( compare > 0 ) {
+			node.right = add( node.right, value );
+
+			if ( node.right.priority > node.priority ) {
+				node = rotateLeft( node );
+			}
+		}
+
+		node.updateSize();
+		return node;
+	}
+
+	/**
+	 * @param value
+	 * @return False if the value was not in the tree.
+	 */
+	public boolean remove( T value ) {
+		int sizeBefore = size();
+
+		root = remove( root, value );
+
+		return size() < sizeBefore;
+	}
+
+	private Node<T> remove( Node<T> node, T value ) {
+		if ( node == null ) {
+			return null;
+		}
+
+		int compare = comparator.compare( value, node.value );
+
+		if ( compare < 0 ) {
+			node.left = remove( node.left, value );
+		}
+		else if ( compare > 0 ) {
+			node.right = remove( node.right, value );
+		}
+		else {
+			return merge( node.left, node.right );
+		}
+
+		node.updateSize();
+		return node;
+	}
+
+	/**
+	 * Joins two subtrees where all of the values in the left are less than the right.
+	 */
+	private Node<T> merge( Node<T> left, Node<T> right ) {
+		if ( left == null ) {
+			return right;
+		}
+		if ( right == null ) {
+			return left;
+		}
+
+		if ( left.priority > right.priority ) {
+			left.right = merge( left.right, right );
+			left.updateSize();
+			return left;
+		}
+		else {
+			right.left = merge( left, right.left );
+			right.updateSize();
+			return right;
+		}
+	}
+
+	private Node<T> rotateRight( Node<T> node ) {
+		Node<T> left = node.left;
+
+		node.left = left.right;
+		left.right = node;
+
+		node.updateSize();
+		left.updateSize();
+
+		return left;
+	}
+
+	private Node<T> rotateLeft( Node<T> node ) {
+		Node<T> right = node.right;
+
+		node.right = right.left;
+		right.left = node;
+
+		node.updateSize();
+		right.updateSize();
+
+		return right;
+	}
+
+	/**
+	 * @param index Zero based.
+	 * @return The value at the index, or null if the index is out of range.
+	 */
+	public T get( int index ) {
+		if ( index < 0 || index >= size() ) {
+			return null;
+		}
+
+		Node<T> node = root;
+		while ( node != null ) {
+			int leftSize = size( node.left );
+
+			if ( index < leftSize ) {
+				node = node.left;
+			}
+			else if ( index > leftSize ) {
+				index -= leftSize + 1;
+				node = node.right;
+			}
+			else {
+				return node.value;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param value
+	 * @return The zero based index of the value, or -1 if it is not in the tree.
+	 */
+	public int indexOf( T value ) {
+		int index = 0;
+
+		Node<T> node = root;
+		while ( node != null ) {
+			int compare = comparator.compare( value, node.value );
+
+			if ( compare < 0 ) {
+				node = node.left;
+			}
+			else if ( compare > 0 ) {
+				index += size( node.left ) + 1;
+				node = node.right;
+			}
+			else {
+				return index + size( node.left );
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @param fromIndex Zero based.
+	 * @param count
+	 * @return The values in order starting at the index.
+	 */
+	public List<T> getRange( int fromIndex, int count ) {
+		List<T> results = new ArrayList<>();
+
+		if ( fromIndex >= 0 && count > 0 ) {
+			getRange( root, fromIndex, fromIndex + count, 0, results );
+		}
+
+		return results;
+	}
+
+	private void getRange( Node<T> node, int fromIndex, int toIndex, int offset, List<T> results ) {
+		if ( node == null ) {
+			return;
+		}
+
+		int index = offset + size( node.left );
+
+		if ( fromIndex < index ) {
+			getRange( node.left, fromIndex, toIndex, offset, results );
+		}
+
+		if ( index >= fromIndex && index < toIndex ) {
+			results.add( node.value );
+		}
+
+		if ( toIndex > index + 1 ) {
+			getRange( node.right, fromIndex, toIndex, index + 1, results );
+		}
+	}
+}
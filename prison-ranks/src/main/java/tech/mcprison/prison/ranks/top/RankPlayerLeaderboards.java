@@ -0,0 +1,285 @@
+package tech.mcprison.prison.ranks.top;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import tech.mcprison.prison.ranks.PrisonRanks;
+import tech.mcprison.prison.ranks.data.Rank;
+import tech.mcprison.prison.ranks.data.RankLadder;
+import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.data.RankPlayerIndex;
+
+/**
+ * <p>The top players by balance, and by rank.  The leaderboards are updated as
+ * the players change, when they rankup or prestige, and when their cached
+ * balance in RankPlayerBalance is changed or refreshed, so the top players and
+ * a player's position are found in O(log n) instead of sorting all of the
+ * players.
+ * </p>
+ *
+ * <p>The rank leaderboard sorts the players by their rank on each of the
+ * LadderManager's ladders, with the prestiges ladder first, then the default
+ * ladder, then the other ladders in the order they were created, and then by
+ * their balance in the default currency.  The LadderManager sets the ladders
+ * again when a ladder is added or removed.  The
+ * entries are snapshots, so the players stay on the leaderboards when they are
+ * unloaded from memory.  A player's balance is only known after it has been
+ * read from the economy while they are loaded, so until then they are ranked
+ * with a balance of zero.
+ * </p>
+ *
+ */
+public class RankPlayerLeaderboards {
+
+	public static final String BALANCE = "balance";
+	public static final String RANK = "rank";
+
+	public static final String LADDER_PRESTIGES = "prestiges";
+	public static final String LADDER_DEFAULT = "default";
+
+	public static final String CONFIG_PLACEHOLDER_POSITIONS = "leaderboard.placeholder-positions";
+	public static final int PLACEHOLDER_POSITIONS_DEFAULT = 10;
+
+	private final Leaderboard balanceLeaderboard;
+	private final Leaderboard rankLeaderboard;
+
+	/**
+	 * The names of the ladders that are used for the rank leaderboard, with the
+	 * most important first.
+	 */
+	private String[] ladders;
+
+	/**
+	 * @param rankLadders The ladders for the rank leaderboard, in any order.
+	 */
+	public RankPlayerLeaderboards( List<RankLadder> rankLadders ) {
+		super();
+
+		this.balanceLeaderboard = new Leaderboard( BALANCE, LeaderboardEntry.BY_BALANCE );
+		this.rankLeaderboard = new Leaderboard( RANK, LeaderboardEntry.BY_RANK );
+
+		this.ladders = getLadderNames( rankLadders );
+	}
+
+	/**
+	 * <p>Orders the ladders with the prestiges ladder first, then the default
+	 * ladder, and then the other ladders by their id.
+	 * </p>
+	 *
+	 * @param rankLadders
+	 * @return The names of the ladders, with the most important first.
+	 */
+	private static String[] getLadderNames( List<RankLadder> rankLadders ) {
+		List<RankLadder> sorted = new ArrayList<>();
+
+		for ( RankLadder rankLadder : rankLadders ) {
+			if ( rankLadder != null && rankLadder.getName() != null ) {
+				sorted.add( rankLadder );
+			}
+		}
+
+		sorted.sort( Comparator.comparingInt( RankPlayerLeaderboards::getLadderPriority )
+								.thenComparingInt( RankLadder::getId ) );
+
+		String[] results = new String[sorted.size()];
+		for ( int i = 0; i < results.length; i++ ) {
+			results[i] = sorted.get( i ).getName();
+		}
+
+		return results;
+	}
+
+	private static int getLadderPriority( RankLadder rankLadder ) {
+		return LADDER_PRESTIGES.equalsIgnoreCase( rankLadder.getName() ) ? 0 :
+				LADDER_DEFAULT.equalsIgnoreCase( rankLadder.getName() ) ? 1 : 2;
+	}
+
+	private static int indexOf( String[] ladderNames, String ladderName ) {
+		int results = -1;
+
+		for ( int i = 0; results == -1 && i < ladderNames.length; i++ ) {
+			if ( ladderNames[i].equalsIgnoreCase( ladderName ) ) {
+				results = i;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * @return The names of the ladders that are used for the rank leaderboard,
+	 * 			with the most important first.
+	 */
+	public synchronized List<String> getLadders() {
+		return Arrays.asList( ladders.clone() );
+	}
+
+	/**
+	 * <p>Changes the ladders that are used for the rank leaderboard.  The ladder
+	 * positions of the players that are on the leaderboards are moved to the new
+	 * order of the ladders, and the positions on a ladder that was removed are
+	 * dropped.  The rank tags are not changed, so the players that had a rank on
+	 * a removed ladder must be updated too.
+	 * </p>
+	 *
+	 * @param rankLadders The ladders for the rank leaderboard, in any order.
+	 */
+	public synchronized void setLadders( List<RankLadder> rankLadders ) {
+		String[] oldLadders = ladders;
+		String[] newLadders = getLadderNames( rankLadders );
+
+		if ( Arrays.equals( oldLadders, newLadders ) ) {
+			return;
+		}
+
+		ladders = newLadders;
+
+		for ( LeaderboardEntry entry : rankLeaderboard.getEntries() ) {
+			int[] positions = new int[newLadders.length];
+
+			for ( int i = 0; i < newLadders.length; i++ ) {
+				int oldIndex = indexOf( oldLadders, newLadders[i] );
+
+				positions[i] = oldIndex == -1 ? -1 : entry.getLadderPosition( oldIndex );
+			}
+
+			update( entry, entry.withLadderPositions( positions ) );
+		}
+	}
+
+	/**
+	 * @param name Either "balance" or "rank".
+	 * @return The leaderboard, or null if the name is not valid.
+	 */
+	public Leaderboard getLeaderboard( String name ) {
+		Leaderboard results = null;
+
+		if ( BALANCE.equalsIgnoreCase( name ) ) {
+			results = balanceLeaderboard;
+		}
+		else if ( RANK.equalsIgnoreCase( name ) ) {
+			results = rankLeaderboard;
+		}
+
+		return results;
+	}
+
+	public Leaderboard getBalanceLeaderboard() {
+		return balanceLeaderboard;
+	}
+
+	public Leaderboard getRankLeaderboard() {
+		return rankLeaderboard;
+	}
+
+	/**
+	 * <p>Moves the player to their new positions on the leaderboards.  If nothing
+	 * that they are sorted by has changed, then the leaderboards are not changed.
+	 * </p>
+	 *
+	 * @param rankPlayer
+	 */
+	public synchronized void update( RankPlayer rankPlayer ) {
+		if ( rankPlayer == null || rankPlayer.getUUID() == null ) {
+			return;
+		}
+
+		LeaderboardEntry old = rankLeaderboard.getEntry( rankPlayer.getUUID() );
+
+		RankPlayerBalance balance = rankPlayer.getPlayerBalances().get(
+												RankPlayerBalance.DEFAULT_CURRENCY );
+		double amount = balance != null ? balance.getBalance() :
+							old != null ? old.getBalance() : 0;
+
+		Map<RankLadder, Rank> ladderRanks = rankPlayer.getLadderRanks();
+
+		int[] positions = new int[ladders.length];
+		StringBuilder rankTags = new StringBuilder();
+
+		for ( int i = 0; i < ladders.length; i++ ) {
+			positions[i] = -1;
+
+			for ( Map.Entry<RankLadder, Rank> ladderRank : ladderRanks.entrySet() ) {
+				if ( ladderRank.getKey().getName().equalsIgnoreCase( ladders[i] ) ) {
+					positions[i] = ladderRank.getKey().getPositionOfRank( ladderRank.getValue() );
+
+					appendTag( rankTags, ladderRank.getValue() );
+				}
+			}
+		}
+
+		update( old, new LeaderboardEntry( rankPlayer.getUUID(), rankPlayer.getDisplayName(),
+				positions, rankTags.toString(), amount ) );
+	}
+
+	/**
+	 * <p>Adds a player that is not loaded, from the RankPlayerIndex.  If the player
+	 * is already on the leaderboards then they are not changed.
+	 * </p>
+	 *
+	 * @param indexEntry
+	 */
+	public synchronized void addIfAbsent( RankPlayerIndex.Entry indexEntry ) {
+		if ( indexEntry == null || indexEntry.getUuid() == null ||
+				rankLeaderboard.getEntry( indexEntry.getUuid() ) != null ) {
+			return;
+		}
+
+		PrisonRanks prisonRanks = PrisonRanks.getInstance();
+
+		int[] positions = new int[ladders.length];
+		StringBuilder rankTags = new StringBuilder();
+
+		for ( int i = 0; i < ladders.length; i++ ) {
+			positions[i] = -1;
+
+			Integer rankId = indexEntry.getRanks().get( ladders[i] );
+			RankLadder ladder = prisonRanks.getLadderManager().getLadder( ladders[i] );
+
+			if ( rankId != null && ladder != null ) {
+				Rank rank = prisonRanks.getRankManager().getRank( rankId );
+
+				if ( rank != null ) {
+					positions[i] = ladder.getPositionOfRank( rank );
+
+					appendTag( rankTags, rank );
+				}
+			}
+		}
+
+		update( null, new LeaderboardEntry( indexEntry.getUuid(), indexEntry.getName(),
+				positions, rankTags.toString(), 0 ) );
+	}
+
+	private void appendTag( StringBuilder rankTags, Rank rank ) {
+		String tag = rank.getTag() != null ? rank.getTag() : rank.getName();
+
+		if ( rankTags.length() > 0 ) {
+			rankTags.append( " " );
+		}
+		rankTags.append( tag );
+	}
+
+	private void update( LeaderboardEntry old, LeaderboardEntry entry ) {
+		if ( entry.isSameScore( old ) ) {
+			return;
+		}
+
+		balanceLeaderboard.update( entry );
+		rankLeaderboard.update( entry );
+	}
+
+	public synchronized void remove( UUID uuid ) {
+		balanceLeaderboard.remove( uuid );
+		rankLeaderboard.remove( uuid );
+	}
+
+	public synchronized void clear() {
+		balanceLeaderboard.clear();
+		rankLeaderboard.clear();
+	}
+}
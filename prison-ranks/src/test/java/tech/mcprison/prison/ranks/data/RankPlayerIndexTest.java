@@ -0,0 +1,94 @@
+package tech.mcprison.prison.ranks.data;
+
+import static org.junit.Assert.*;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import tech.mcprison.prison.store.Document;
+
+public class RankPlayerIndexTest
+{
+
+	private Rank getRank( RankLadder ladder, int id, String name ) {
+		Rank rank = new Rank( id, id, name, name, 0 );
+		rank.setLadder( ladder );
+		return rank;
+	}
+
+	@Test
+	public void testUpdateAndFind()
+	{
+		RankLadder ladder = new RankLadder( 1, "default" );
+		Rank rankA = getRank( ladder, 1, "A" );
+		Rank rankB = getRank( ladder, 2, "B" );
+
+		RankPlayer p1 = new RankPlayer( UUID.randomUUID() );
+		p1.getNames().add( new RankPlayerName( "Steve", 1L ) );
+		p1.addRank( rankA );
+
+		RankPlayer p2 = new RankPlayer( UUID.randomUUID() );
+		p2.getNames().add( new RankPlayerName( "Alex", 1L ) );
+		p2.addRank( rankB );
+
+		RankPlayerIndex index = new RankPlayerIndex();
+		index.update( p1 );
+		index.update( p2 );
+
+		assertEquals( 2, index.size() );
+		assertTrue( index.isDirty() );
+
+		assertEquals( p1.getUUID(), index.findUuid( "steve" ) );
+		assertEquals( p2.getUUID(), index.findUuid( "ALEX" ) );
+		assertNull( index.findUuid( "Notch" ) );
+
+		assertEquals( 1, index.getPlayerCount( rankA ) );
+		assertEquals( 1, index.getPlayerCount( rankB ) );
+
+		// No changes, so it should not become dirty:
+		index.setDirty( false );
+		index.update( p1 );
+		assertFalse( index.isDirty() );
+
+		// Rankup and a name change:
+		p1.addRank( rankB );
+		p1.checkName( "Steve2" );
+		index.update( p1 );
+
+		assertTrue( index.isDirty() );
+		assertEquals( 0, index.getPlayerCount( rankA ) );
+		assertEquals( 2, index.getPlayerCount( rankB ) );
+		assertNull( index.findUuid( "steve" ) );
+		assertEquals( p1.getUUID(), index.findUuid( "steve2" ) );
+	}
+
+	@Test
+	public void testDocument()
+	{
+		RankLadder ladder = new RankLadder( 1, "default" );
+		Rank rankA = getRank( ladder, 1, "A" );
+
+		RankPlayer p1 = new RankPlayer( UUID.randomUUID() );
+		p1.getNames().add( new RankPlayerName( "Steve", 1L ) );
+		p1.addRank( rankA );
+
+		RankPlayerIndex index = new RankPlayerIndex();
+		index.update( p1 );
+
+		// Round trip through json, the same as the FileCollection:
+		Gson gson = new Gson();
+		Document document = gson.fromJson( gson.toJson( index.toDocument() ), Document.class );
+
+		RankPlayerIndex loaded = RankPlayerIndex.fromDocument( document );
+
+		assertFalse( loaded.isDirty() );
+		assertEquals( 1, loaded.size() );
+		assertEquals( p1.getUUID(), loaded.findUuid( "STEVE" ) );
+		assertEquals( "Steve", loaded.get( p1.getUUID() ).getName() );
+		assertEquals( Integer.valueOf( 1 ), loaded.get( p1.getUUID() ).getRanks().get( "default" ) );
+		assertEquals( 1, loaded.getPlayerCount( rankA ) );
+	}
+}
@@ -0,0 +1,209 @@
+package tech.mcprison.prison.ranks.managers;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.data.RankPlayerName;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+public class PlayerSaveQueueTest
+{
+
+	/**
+	 * A collection that records the saves, and blocks the first save until
+	 * it is released.
+	 */
+	private static class TestCollection
+			implements Collection {
+
+		private final List<String> saves = Collections.synchronizedList( new ArrayList<>() );
+
+		private final CountDownLatch firstSaveStarted = new CountDownLatch( 1 );
+		private final CountDownLatch release = new CountDownLatch( 1 );
+
+		@Override
+		public String getName() {
+			return "test";
+		}
+
+		@Override
+		public List<Document> getAll() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public Optional<Document> get( String key ) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void save( Document document ) {
+		}
+
+		@Override
+		public void save( String filename, Document document ) {
+			firstSaveStarted.countDown();
+
+			try {
+				release.await( 5, TimeUnit.SECONDS );
+			}
+			catch ( InterruptedException e ) {
+			}
+
+			saves.add( filename + "=" + document.get( "value" ) );
+		}
+
+		@Override
+		public boolean delete( String name ) {
+			return false;
+		}
+	}
+
+	private Document getDocument( int value ) {
+		Document document = new Document();
+		document.put( "value", value );
+		return document;
+	}
+
+	@Test
+	public void testCoalescing() throws InterruptedException
+	{
+		TestCollection collection = new TestCollection();
+
+		PlayerSaveQueue queue = new PlayerSaveQueue( collection );
+		queue.start();
+
+		// The first save will block in the collection:
+		queue.enqueue( "player_a", getDocument( 1 ) );
+		assertTrue( collection.firstSaveStarted.await( 5, TimeUnit.SECONDS ) );
+
+		for ( int i = 0; i < 100; i++ ) {
+			queue.enqueue( "player_b", getDocument( i ) );
+		}
+		queue.enqueue( "player_a", getDocument( 2 ) );
+		queue.enqueue( "player_c", getDocument( 3 ) );
+		queue.enqueue( "player_a", getDocument( 4 ) );
+
+		assertEquals( 3, queue.getPendingCount() );
+		assertEquals( 100, queue.getCoalescedCount() );
+
+		collection.release.countDown();
+
+		assertTrue( queue.flush( 5000 ) );
+		assertFalse( queue.getUnsaved( "player_a" ).isPresent() );
+
+		// Only the newest snapshots are written, in the order they were first queued:
+		assertEquals( 4, collection.saves.size() );
+		assertEquals( "player_a=1", collection.saves.get( 0 ) );
+		assertEquals( "player_b=99", collection.saves.get( 1 ) );
+		assertEquals( "player_a=4", collection.saves.get( 2 ) );
+		assertEquals( "player_c=3", collection.saves.get( 3 ) );
+
+		assertTrue( queue.shutdown( 5000 ) );
+		assertFalse( queue.isRunning() );
+	}
+
+	@Test
+	public void testShutdown()
+	{
+		TestCollection collection = new TestCollection();
+		collection.release.countDown();
+
+		PlayerSaveQueue queue = new PlayerSaveQueue( collection );
+		queue.start();
+
+		for ( int i = 0; i < 50; i++ ) {
+			queue.enqueue( "player_" + i, getDocument( i ) );
+		}
+
+		assertTrue( queue.shutdown( 5000 ) );
+		assertEquals( 50, collection.saves.size() );
+		assertEquals( 0, queue.getPendingCount() );
+
+		// After the shutdown, saves are written on the calling thread:
+		queue.enqueue( "player_x", getDocument( 1 ) );
+		assertEquals( 51, collection.saves.size() );
+		assertEquals( "player_x=1", collection.saves.get( 50 ) );
+	}
+
+	@Test
+	public void testGetUnsaved() throws InterruptedException
+	{
+		TestCollection collection = new TestCollection();
+
+		PlayerSaveQueue queue = new PlayerSaveQueue( collection );
+		queue.start();
+
+		assertFalse( queue.getUnsaved( "player_a" ).isPresent() );
+
+		// The first save will block in the collection:
+		queue.enqueue( "player_a", getDocument( 1 ) );
+		assertTrue( collection.firstSaveStarted.await( 5, TimeUnit.SECONDS ) );
+
+		// The file that is being written is still unsaved:
+		assertEquals( 1, ((Number) queue.getUnsaved( "player_a" ).get().get( "value" )).intValue() );
+
+		// The newest queued snapshot replaces it:
+		queue.enqueue( "player_a", getDocument( 2 ) );
+		queue.enqueue( "player_b", getDocument( 3 ) );
+		assertEquals( 2, ((Number) queue.getUnsaved( "player_a" ).get().get( "value" )).intValue() );
+		assertEquals( 3, ((Number) queue.getUnsaved( "player_b" ).get().get( "value" )).intValue() );
+
+		// The caller gets a copy, so the queued snapshot is not changed:
+		queue.getUnsaved( "player_a" ).get().put( "value", 99 );
+		assertEquals( 2, ((Number) queue.getUnsaved( "player_a" ).get().get( "value" )).intValue() );
+
+		collection.release.countDown();
+
+		assertTrue( queue.shutdown( 5000 ) );
+		assertFalse( queue.getUnsaved( "player_a" ).isPresent() );
+		assertEquals( "player_a=2", collection.saves.get( 1 ) );
+	}
+
+	@Test
+	public void testUnsavedPlayerCanBeRead() throws InterruptedException
+	{
+		TestCollection collection = new TestCollection();
+
+		PlayerSaveQueue queue = new PlayerSaveQueue( collection );
+		queue.start();
+
+		// Block the queue so the player stays unsaved:
+		queue.enqueue( "blocker", getDocument( 0 ) );
+		assertTrue( collection.firstSaveStarted.await( 5, TimeUnit.SECONDS ) );
+
+		UUID uid = UUID.randomUUID();
+		RankPlayer player = new RankPlayer( uid );
+		player.getNames().add( new RankPlayerName( "Steve", 1234L ) );
+
+		HashMap<String, Integer> ranks = new HashMap<>();
+		ranks.put( "default", 3 );
+		ranks.put( "prestiges", 1 );
+		player.setRanks( ranks );
+
+		String filename = RankPlayer.filename( uid );
+		queue.enqueue( filename, player.toDocument() );
+
+		// The snapshot reads the same as the file would:
+		RankPlayer unsaved = new RankPlayer( queue.getUnsaved( filename ).get() );
+
+		assertEquals( uid, unsaved.getUUID() );
+		assertEquals( "Steve", unsaved.getDisplayName() );
+		assertEquals( 1234L, unsaved.getNames().get( 0 ).getDate() );
+
+		collection.release.countDown();
+		assertTrue( queue.shutdown( 5000 ) );
+	}
+}
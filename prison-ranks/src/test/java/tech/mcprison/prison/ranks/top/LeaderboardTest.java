@@ -0,0 +1,251 @@
+package tech.mcprison.prison.ranks.top;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.ranks.data.Rank;
+import tech.mcprison.prison.ranks.data.RankLadder;
+import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.data.RankPlayerName;
+
+public class LeaderboardTest
+{
+
+	private LeaderboardEntry randomEntry( Random random, UUID uuid ) {
+		int[] positions = { random.nextInt( 4 ) - 1, random.nextInt( 6 ) - 1 };
+
+		// Few distinct balances and names so there are many ties:
+		double balance = random.nextInt( 5 ) * 100.0;
+		String name = "player" + random.nextInt( 20 );
+
+		return new LeaderboardEntry( uuid, name, positions, "", balance );
+	}
+
+	/**
+	 * The leaderboard is checked against sorting all of the entries after every change.
+	 */
+	private void checkAgainstSort( Random random, Comparator<LeaderboardEntry> comparator )
+	{
+		Leaderboard leaderboard = new Leaderboard( "test", comparator );
+		Map<UUID, LeaderboardEntry> entries = new HashMap<>();
+
+		List<UUID> uuids = new ArrayList<>();
+		for ( int i = 0; i < 60; i++ ) {
+			uuids.add( UUID.randomUUID() );
+		}
+
+		for ( int operation = 0; operation < 2000; operation++ ) {
+			UUID uuid = uuids.get( random.nextInt( uuids.size() ) );
+
+			if ( random.nextInt( 5 ) == 0 ) {
+				leaderboard.remove( uuid );
+				entries.remove( uuid );
+			}
+			else {
+				LeaderboardEntry entry = randomEntry( random, uuid );
+				leaderboard.update( entry );
+				entries.put( uuid, entry );
+			}
+
+			List<LeaderboardEntry> sorted = new ArrayList<>( entries.values() );
+			sorted.sort( comparator );
+
+			assertEquals( sorted.size(), leaderboard.size() );
+
+			int count = random.nextInt( 15 );
+			assertEquals( sorted.subList( 0, Math.min( count, sorted.size() ) ),
+					leaderboard.getTop( count ) );
+
+			int page = 1 + random.nextInt( 5 );
+			int from = Math.min( (page - 1) * 10, sorted.size() );
+			assertEquals( sorted.subList( from, Math.min( from + 10, sorted.size() ) ),
+					leaderboard.getPage( page, 10 ) );
+
+			for ( UUID check : uuids ) {
+				LeaderboardEntry entry = entries.get( check );
+				int expected = entry == null ? -1 : sorted.indexOf( entry ) + 1;
+
+				assertEquals( expected, leaderboard.getPosition( check ) );
+			}
+
+			for ( int position = 0; position <= sorted.size() + 1; position++ ) {
+				LeaderboardEntry expected = position < 1 || position > sorted.size() ?
+						null : sorted.get( position - 1 );
+
+				assertSame( expected, leaderboard.getEntry( position ) );
+			}
+		}
+	}
+
+	@Test
+	public void testBalanceAgainstSort()
+	{
+		checkAgainstSort( new Random( 1 ), LeaderboardEntry.BY_BALANCE );
+	}
+
+	@Test
+	public void testRankAgainstSort()
+	{
+		checkAgainstSort( new Random( 2 ), LeaderboardEntry.BY_RANK );
+	}
+
+	@Test
+	public void testTreeAgainstSort()
+	{
+		Random random = new Random( 3 );
+
+		OrderStatisticTree<Integer> tree = new OrderStatisticTree<>( Integer::compare );
+		List<Integer> sorted = new ArrayList<>();
+
+		for ( int operation = 0; operation < 5000; operation++ ) {
+			Integer value = random.nextInt( 500 );
+
+			if ( random.nextBoolean() ) {
+				assertEquals( !sorted.contains( value ), tree.add( value ) );
+				if ( !sorted.contains( value ) ) {
+					sorted.add( value );
+				}
+			}
+			else {
+				assertEquals( sorted.contains( value ), tree.remove( value ) );
+				sorted.remove( value );
+			}
+
+			sorted.sort( null );
+
+			assertEquals( sorted.size(), tree.size() );
+			assertEquals( sorted.indexOf( value ), tree.indexOf( value ) );
+
+			if ( !sorted.isEmpty() ) {
+				int index = random.nextInt( sorted.size() );
+				assertEquals( sorted.get( index ), tree.get( index ) );
+			}
+		}
+
+		assertEquals( sorted, tree.getRange( 0, sorted.size() ) );
+		assertNull( tree.get( -1 ) );
+		assertNull( tree.get( sorted.size() ) );
+	}
+
+	private RankPlayer getRankPlayer( String name, double balance ) {
+		RankPlayer rankPlayer = new RankPlayer( UUID.randomUUID() );
+		rankPlayer.getNames().add( new RankPlayerName( name, 1L ) );
+		rankPlayer.getPlayerBalances().put( RankPlayerBalance.DEFAULT_CURRENCY,
+				new RankPlayerBalance( RankPlayerBalance.DEFAULT_CURRENCY, balance ) );
+		return rankPlayer;
+	}
+
+	private Rank getRank( RankLadder ladder, int id, String name ) {
+		Rank rank = new Rank( id, id, name, name, 0 );
+		ladder.addRank( rank );
+		return rank;
+	}
+
+	@Test
+	public void testRankPlayers()
+	{
+		RankLadder defaultLadder = new RankLadder( 1, "default" );
+		Rank rankA = getRank( defaultLadder, 1, "A" );
+		Rank rankB = getRank( defaultLadder, 2, "B" );
+
+		RankLadder prestiges = new RankLadder( 2, "prestiges" );
+		Rank rankP1 = getRank( prestiges, 3, "P1" );
+
+		RankPlayer steve = getRankPlayer( "Steve", 500 );
+		steve.addRank( rankA );
+
+		RankPlayer alex = getRankPlayer( "Alex", 100 );
+		alex.addRank( rankB );
+
+		RankPlayerLeaderboards leaderboards = new RankPlayerLeaderboards(
+				Arrays.asList( defaultLadder, prestiges ) );
+		leaderboards.update( steve );
+		leaderboards.update( alex );
+
+		Leaderboard byRank = leaderboards.getRankLeaderboard();
+		Leaderboard byBalance = leaderboards.getBalanceLeaderboard();
+
+		assertEquals( 1, byRank.getPosition( alex.getUUID() ) );
+		assertEquals( 2, byRank.getPosition( steve.getUUID() ) );
+		assertEquals( 1, byBalance.getPosition( steve.getUUID() ) );
+		assertEquals( "B", byRank.getEntry( 1 ).getRankTags() );
+
+		// A prestige is higher than any rank on the default ladder:
+		steve.addRank( rankP1 );
+		leaderboards.update( steve );
+
+		assertEquals( 1, byRank.getPosition( steve.getUUID() ) );
+		assertEquals( "P1 A", byRank.getEntry( 1 ).getRankTags() );
+
+		// A balance refresh moves them on the balance leaderboard:
+		alex.getPlayerBalances().get( RankPlayerBalance.DEFAULT_CURRENCY ).setBalance( 1000 );
+		leaderboards.update( alex );
+
+		assertEquals( 1, byBalance.getPosition( alex.getUUID() ) );
+		assertEquals( 1000, byBalance.getEntry( 1 ).getBalance(), 0.0001 );
+
+		leaderboards.remove( steve.getUUID() );
+		assertEquals( -1, byRank.getPosition( steve.getUUID() ) );
+		assertEquals( 1, byBalance.size() );
+	}
+
+	@Test
+	public void testLaddersChanged()
+	{
+		RankLadder defaultLadder = new RankLadder( 1, "default" );
+		Rank rankA = getRank( defaultLadder, 1, "A" );
+		Rank rankB = getRank( defaultLadder, 2, "B" );
+
+		RankLadder prestiges = new RankLadder( 2, "prestiges" );
+		Rank rankP1 = getRank( prestiges, 3, "P1" );
+
+		RankLadder donors = new RankLadder( 3, "donors" );
+		Rank rankD1 = getRank( donors, 4, "D1" );
+		getRank( donors, 5, "D2" );
+
+		RankPlayer steve = getRankPlayer( "Steve", 500 );
+		steve.addRank( rankA );
+		steve.addRank( rankP1 );
+
+		RankPlayer alex = getRankPlayer( "Alex", 100 );
+		alex.addRank( rankB );
+		alex.addRank( rankD1 );
+
+		RankPlayerLeaderboards leaderboards = new RankPlayerLeaderboards(
+				Arrays.asList( defaultLadder, prestiges ) );
+		leaderboards.update( steve );
+		leaderboards.update( alex );
+
+		Leaderboard byRank = leaderboards.getRankLeaderboard();
+
+		assertEquals( Arrays.asList( "prestiges", "default" ), leaderboards.getLadders() );
+		assertEquals( 1, byRank.getPosition( steve.getUUID() ) );
+
+		// An added ladder is after the prestiges and default ladders:
+		leaderboards.setLadders( Arrays.asList( donors, defaultLadder, prestiges ) );
+		leaderboards.update( alex );
+
+		assertEquals( Arrays.asList( "prestiges", "default", "donors" ), leaderboards.getLadders() );
+		assertEquals( 0, byRank.getEntry( alex.getUUID() ).getLadderPosition( 2 ) );
+		assertEquals( 1, byRank.getPosition( steve.getUUID() ) );
+
+		// Without the prestiges ladder, the default ladder is the most important:
+		leaderboards.setLadders( Arrays.asList( defaultLadder, donors ) );
+
+		assertEquals( Arrays.asList( "default", "donors" ), leaderboards.getLadders() );
+		assertEquals( 1, byRank.getPosition( alex.getUUID() ) );
+		assertEquals( 2, byRank.getPosition( steve.getUUID() ) );
+		assertEquals( 0, byRank.getEntry( alex.getUUID() ).getLadderPosition( 1 ) );
+		assertEquals( 2, leaderboards.getBalanceLeaderboard().size() );
+	}
+}
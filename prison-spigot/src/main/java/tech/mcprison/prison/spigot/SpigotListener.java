@@ -31,6 +31,7 @@ import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerKickEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
@@ -43,6 +44,7 @@ import tech.mcprison.prison.internal.events.player.PlayerChatEvent;
 import tech.mcprison.prison.internal.events.player.PlayerPickUpItemEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.world.PrisonWorldLoadEvent;
+import tech.mcprison.prison.spigot.block.ToolLoreCache;
 import tech.mcprison.prison.spigot.compat.Compatibility;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
@@ -81,11 +83,21 @@ public class SpigotListener implements Listener {
     }
 
     @EventHandler public void onPlayerQuit(PlayerQuitEvent e) {
+    	// Write the pending lore counters to the player's tool before they are gone:
+    	ToolLoreCache.getInstance().flush( e.getPlayer() );
+    	
+    	Prison.get().getScoreboardRenderer().remove( e.getPlayer().getUniqueId() );
+    	
         Prison.get().getEventBus().post(
             new tech.mcprison.prison.internal.events.player.PlayerQuitEvent(
                 new SpigotPlayer(e.getPlayer())));
     }
 
+    @EventHandler public void onPlayerItemHeld(PlayerItemHeldEvent e) {
+    	// The player is switching tools, so write the lore counters to the old tool:
+    	ToolLoreCache.getInstance().flush( e.getPlayer() );
+    }
+
     @EventHandler public void onPlayerKicked(PlayerKickEvent e) {
         Prison.get().getEventBus().post(
             new tech.mcprison.prison.internal.events.player.PlayerKickEvent(
@@ -69,6 +69,8 @@ import tech.mcprison.prison.internal.block.PrisonBlockTypes;
 import tech.mcprison.prison.internal.platform.Capability;
 import tech.mcprison.prison.internal.platform.Platform;
 import tech.mcprison.prison.internal.scoreboard.ScoreboardManager;
+import tech.mcprison.prison.journal.JournalMigrator;
+import tech.mcprison.prison.journal.JournalStorage;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.features.MineLinerBuilder.LinerPatterns;
@@ -154,14 +156,29 @@ public class SpigotPlatform
     }
 
     private Storage initStorage() {
-        String confStorage = plugin.getConfig().getString("storage", "file");
-        Storage storage = new FileStorage(plugin.getDataDirectory());
+        String confStorage = plugin.getConfig().getString("storageType", 
+        					plugin.getConfig().getString("storage", "json"));
+        Storage storage = null;
         
-        if (!confStorage.equalsIgnoreCase("file")) {
-            Output.get().logError("Unknown file storage type in configuration \"" + confStorage
-                + "\". Using file storage.");
-            Output.get().logWarn(
-                "Note: In this version of Prison 3, 'file' is the only supported type of storage. We're working to bring other storage types soon.");
+        if ( JournalStorage.STORAGE_TYPE.equalsIgnoreCase( confStorage ) ) {
+        	JournalStorage journalStorage = new JournalStorage( 
+        			new File( plugin.getDataDirectory(), JournalStorage.DIRECTORY_NAME ) );
+        	
+        	// The first time the journal is used, copy the json files in to it, or finish
+        	// copying them if the last migration did not finish:
+        	JournalMigrator.migrateIfNeeded( plugin.getDataDirectory(), journalStorage );
+        	
+        	storage = journalStorage;
+        }
+        else {
+        	storage = new FileStorage(plugin.getDataDirectory());
+        	
+        	if (!confStorage.equalsIgnoreCase("json") && !confStorage.equalsIgnoreCase("file")) {
+        		Output.get().logError("Unknown file storage type in configuration \"" + confStorage
+        				+ "\". Using json file storage.");
+        		Output.get().logWarn(
+        				"Note: The valid storage types are 'json' and 'journal'.");
+        	}
         }
         
         return storage;
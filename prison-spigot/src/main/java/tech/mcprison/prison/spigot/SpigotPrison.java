@@ -45,6 +45,7 @@ import tech.mcprison.prison.PrisonCommand;
 import tech.mcprison.prison.alerts.Alerts;
 import tech.mcprison.prison.integration.Integration;
 import tech.mcprison.prison.internal.block.PrisonBlockTypes;
+import tech.mcprison.prison.journal.JournalStorage;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.managers.MineManager;
@@ -59,7 +60,9 @@ import tech.mcprison.prison.ranks.managers.RankManager;
 import tech.mcprison.prison.spigot.autofeatures.AutoManager;
 import tech.mcprison.prison.spigot.autofeatures.AutoManagerFeatures;
 import tech.mcprison.prison.spigot.backpacks.BackpacksListeners;
+import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
 import tech.mcprison.prison.spigot.block.OnBlockBreakEventListener;
+import tech.mcprison.prison.spigot.block.ToolLoreCache;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotBackpackCommands;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotGUICommands;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotMinesCommands;
@@ -296,6 +299,18 @@ public class SpigotPrison extends JavaPlugin {
 
     @Override
     public void onDisable() {
+    	
+    	// Write all cached backpacks before the scheduler is shut down:
+    	if (isBackPacksEnabled) {
+    		BackpacksUtil.shutdown();
+    	}
+    	
+    	// Write the pending tool lore counters:
+    	ToolLoreCache.getInstance().flushAll();
+    	
+    	// Write the queued balance changes while the economy plugin is still enabled:
+    	PrisonAPI.getIntegrationManager().flushEconomyGateways();
+    	
     	if (this.scheduler != null ) {
     		this.scheduler.cancelAll();
     	}
@@ -303,6 +318,11 @@ public class SpigotPrison extends JavaPlugin {
     	Prison.get().getPlatform().unregisterAllCommands();
     	
     	Prison.get().deinit();
+    	
+    	// All of the modules have saved their data, so the journal files can be closed:
+    	if ( Prison.get().getPlatform().getStorage() instanceof JournalStorage ) {
+    		((JournalStorage) Prison.get().getPlatform().getStorage()).close();
+    	}
     }
 
     public FileConfiguration getGuiConfig() {
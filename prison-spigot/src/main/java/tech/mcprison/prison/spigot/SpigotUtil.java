@@ -1008,12 +1008,21 @@ public class SpigotUtil {
     }
     
   public static List<SpigotItemStack> getDrops(SpigotBlock block, SpigotItemStack tool) {
-	List<SpigotItemStack> ret = new ArrayList<>();
+	return getDrops( block, tool, new ArrayList<>() );
+}
+
+  /**
+   * <p>Adds the drops to the given list, which allows the caller to reuse the list.
+   * </p>
+   */
+  public static List<SpigotItemStack> getDrops(SpigotBlock block, SpigotItemStack tool, 
+		  			List<SpigotItemStack> results ) {
 	
-	block.getWrapper().getDrops( tool.getBukkitStack() )
-			.forEach(itemStack -> ret.add(SpigotUtil.bukkitItemStackToPrison(itemStack)));
+	for ( org.bukkit.inventory.ItemStack itemStack : block.getWrapper().getDrops( tool.getBukkitStack() ) ) {
+		results.add( SpigotUtil.bukkitItemStackToPrison( itemStack ) );
+	}
 	
-	return ret;
+	return results;
 }
     
   /*
@@ -0,0 +1,326 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import at.pcgamingfreaks.Minepacks.Bukkit.API.Backpack;
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.autofeatures.AutoFeaturesSnapshot;
+import tech.mcprison.prison.spigot.SpigotUtil;
+import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.spigot.integrations.IntegrationMinepacksPlugin;
+
+/**
+ * <p>This class converts all of the smeltable or blockable items that a player has,
+ * within their inventory, Prison's backpack, and their Minepacks backpack, in one
+ * pass.  All of the containers are scanned only once to tally up the source
+ * materials, and the matched slots are cleared.  Then the conversions are calculated
+ * from the recipe tables, and the results are added back to the player.
+ * </p>
+ *
+ * <p>Before this, each material was processed on its own through
+ * SpigotUtil.itemStackReplaceItems(), which removed and re-added the items from
+ * every container, for each of the 11 or 12 materials.
+ * </p>
+ *
+ * <p>The transformers only hold the enabled recipes, so they are cached in the
+ * AutoFeaturesSnapshot and are rebuilt when the auto features are reloaded.
+ * </p>
+ *
+ */
+public class AutoFeaturesInventoryTransformer {
+
+	public static final Map<XMaterial, Recipe> SMELT_RECIPES;
+	public static final Map<XMaterial, Recipe> BLOCK_RECIPES;
+
+	private static final String SMELT_KEY = "AutoFeaturesInventoryTransformer.smelt";
+	private static final String BLOCK_KEY = "AutoFeaturesInventoryTransformer.block";
+
+	static {
+		Map<XMaterial, Recipe> smelt = new EnumMap<>( XMaterial.class );
+
+		addRecipe( smelt, XMaterial.COBBLESTONE, XMaterial.STONE, 1, AutoFeatures.smeltCobblestone );
+		addRecipe( smelt, XMaterial.GOLD_ORE, XMaterial.GOLD_INGOT, 1, AutoFeatures.smeltGoldOre );
+		addRecipe( smelt, XMaterial.NETHER_GOLD_ORE, XMaterial.GOLD_INGOT, 1, AutoFeatures.smeltGoldOre );
+		addRecipe( smelt, XMaterial.IRON_ORE, XMaterial.IRON_INGOT, 1, AutoFeatures.smeltIronOre );
+		addRecipe( smelt, XMaterial.COAL_ORE, XMaterial.COAL, 1, AutoFeatures.smeltCoalOre );
+		addRecipe( smelt, XMaterial.DIAMOND_ORE, XMaterial.DIAMOND, 1, AutoFeatures.smeltDiamondlOre );
+		addRecipe( smelt, XMaterial.EMERALD_ORE, XMaterial.EMERALD, 1, AutoFeatures.smeltEmeraldOre );
+		addRecipe( smelt, XMaterial.LAPIS_ORE, XMaterial.LAPIS_LAZULI, 1, AutoFeatures.smeltLapisOre );
+		addRecipe( smelt, XMaterial.REDSTONE_ORE, XMaterial.REDSTONE, 1, AutoFeatures.smeltRedstoneOre );
+		addRecipe( smelt, XMaterial.NETHER_QUARTZ_ORE, XMaterial.QUARTZ, 1, AutoFeatures.smeltNetherQuartzOre );
+		addRecipe( smelt, XMaterial.ANCIENT_DEBRIS, XMaterial.NETHERITE_SCRAP, 1, AutoFeatures.smeltAncientDebris );
+		addRecipe( smelt, XMaterial.COPPER_ORE, XMaterial.COPPER_INGOT, 1, AutoFeatures.smeltCopperOre );
+
+		SMELT_RECIPES = Collections.unmodifiableMap( smelt );
+
+
+		Map<XMaterial, Recipe> block = new EnumMap<>( XMaterial.class );
+
+		addRecipe( block, XMaterial.GOLD_INGOT, XMaterial.GOLD_BLOCK, 9, AutoFeatures.autoBlockGoldBlock );
+		addRecipe( block, XMaterial.IRON_INGOT, XMaterial.IRON_BLOCK, 9, AutoFeatures.autoBlockIronBlock );
+		addRecipe( block, XMaterial.COAL, XMaterial.COAL_BLOCK, 9, AutoFeatures.autoBlockCoalBlock );
+		addRecipe( block, XMaterial.DIAMOND, XMaterial.DIAMOND_BLOCK, 9, AutoFeatures.autoBlockDiamondBlock );
+		addRecipe( block, XMaterial.REDSTONE, XMaterial.REDSTONE_BLOCK, 9, AutoFeatures.autoBlockRedstoneBlock );
+		addRecipe( block, XMaterial.EMERALD, XMaterial.EMERALD_BLOCK, 9, AutoFeatures.autoBlockEmeraldBlock );
+		addRecipe( block, XMaterial.QUARTZ, XMaterial.QUARTZ_BLOCK, 4, AutoFeatures.autoBlockQuartzBlock );
+		addRecipe( block, XMaterial.PRISMARINE_SHARD, XMaterial.PRISMARINE, 4, AutoFeatures.autoBlockPrismarineBlock );
+		addRecipe( block, XMaterial.SNOWBALL, XMaterial.SNOW_BLOCK, 4, AutoFeatures.autoBlockSnowBlock );
+		addRecipe( block, XMaterial.GLOWSTONE_DUST, XMaterial.GLOWSTONE, 4, AutoFeatures.autoBlockGlowstone );
+		addRecipe( block, XMaterial.LAPIS_LAZULI, XMaterial.LAPIS_BLOCK, 9, AutoFeatures.autoBlockLapisBlock );
+		addRecipe( block, XMaterial.COPPER_INGOT, XMaterial.COPPER_BLOCK, 9, AutoFeatures.autoBlockCopperBlock );
+
+		BLOCK_RECIPES = Collections.unmodifiableMap( block );
+	}
+
+	private static void addRecipe( Map<XMaterial, Recipe> recipes, XMaterial source, XMaterial target,
+					int ratio, AutoFeatures feature ) {
+		recipes.put( source, new Recipe( source, target, ratio, feature ) );
+	}
+
+
+	/**
+	 * <p>One conversion, where ratio number of source items are converted in to
+	 * one target item.  The feature is the auto features setting that enables it.
+	 * </p>
+	 */
+	public static class Recipe {
+		private final XMaterial source;
+		private final XMaterial target;
+		private final int ratio;
+		private final AutoFeatures feature;
+
+		public Recipe( XMaterial source, XMaterial target, int ratio, AutoFeatures feature ) {
+			super();
+
+			this.source = source;
+			this.target = target;
+			this.ratio = ratio;
+			this.feature = feature;
+		}
+
+		public XMaterial getSource() {
+			return source;
+		}
+		public XMaterial getTarget() {
+			return target;
+		}
+		public int getRatio() {
+			return ratio;
+		}
+		public AutoFeatures getFeature() {
+			return feature;
+		}
+	}
+
+
+	private final Map<XMaterial, Recipe> recipes;
+
+	/**
+	 * @param recipes The recipes that are enabled, keyed by their source material.
+	 */
+	public AutoFeaturesInventoryTransformer( Map<XMaterial, Recipe> recipes ) {
+		super();
+
+		this.recipes = Collections.unmodifiableMap( recipes );
+	}
+
+
+	/**
+	 * @param snapshot
+	 * @return The smelter for the snapshot's settings, which is built only once
+	 * 			for each snapshot.
+	 */
+	public static AutoFeaturesInventoryTransformer getSmelter( AutoFeaturesSnapshot snapshot ) {
+		return snapshot.getCached( SMELT_KEY, s -> new AutoFeaturesInventoryTransformer(
+					enabledRecipes( SMELT_RECIPES, s.isBoolean( AutoFeatures.smeltAllBlocks ), s ) ) );
+	}
+
+	/**
+	 * @param snapshot
+	 * @return The blocker for the snapshot's settings, which is built only once
+	 * 			for each snapshot.
+	 */
+	public static AutoFeaturesInventoryTransformer getBlocker( AutoFeaturesSnapshot snapshot ) {
+		return snapshot.getCached( BLOCK_KEY, s -> new AutoFeaturesInventoryTransformer(
+					enabledRecipes( BLOCK_RECIPES, s.isBoolean( AutoFeatures.autoBlockAllBlocks ), s ) ) );
+	}
+
+	public Map<XMaterial, Recipe> getRecipes() {
+		return recipes;
+	}
+
+
+	/**
+	 * <p>Converts all of the player's items that match the recipes. The tallied source
+	 * materials are removed from all containers in one scan, then the converted
+	 * targets and the left over sources are added back to the player.
+	 * </p>
+	 *
+	 * @param player
+	 * @return The items that would not fit in any of the player's containers.
+	 */
+	public HashMap<Integer, SpigotItemStack> transform( Player player ) {
+
+		HashMap<Integer, SpigotItemStack> overflow = new HashMap<>();
+
+		if ( player == null || recipes.isEmpty() ) {
+			return overflow;
+		}
+
+		Map<XMaterial, Integer> tally = new EnumMap<>( XMaterial.class );
+
+
+		// The player's inventory:
+		tallyAndRemove( player.getInventory(), tally );
+
+
+		// Prison's backpack:
+		Inventory prisonBackpack = null;
+		if ( BackpacksUtil.isEnabled() ) {
+
+			prisonBackpack = BackpacksUtil.get().getBackpack( player );
+			if ( tallyAndRemove( prisonBackpack, tally ) > 0 ) {
+				BackpacksUtil.get().setInventory( player, prisonBackpack );
+			}
+		}
+
+
+		// Minepacks backpack:
+		if ( IntegrationMinepacksPlugin.getInstance().isEnabled() ) {
+
+			Backpack bp = IntegrationMinepacksPlugin.getInstance().getMinepacks().getBackpackCachedOnly( player );
+			if ( bp != null && tallyAndRemove( bp.getInventory(), tally ) > 0 ) {
+				bp.setChanged();
+			}
+		}
+
+
+		// Apply the conversions then add the net results back to the player:
+		for ( Map.Entry<XMaterial, Integer> entry : convert( tally ).entrySet() ) {
+			addAll( player, entry.getKey(), entry.getValue().intValue(), overflow );
+		}
+
+		return overflow;
+	}
+
+
+	/**
+	 * <p>Applies the recipes to the tallied source materials.  Each source is
+	 * converted in to as many targets as its ratio allows, and the remainder is
+	 * kept as the source.
+	 * </p>
+	 *
+	 * @param tally The counts of the source materials.
+	 * @return The counts of the targets and the left over sources.
+	 */
+	Map<XMaterial, Integer> convert( Map<XMaterial, Integer> tally ) {
+		Map<XMaterial, Integer> results = new EnumMap<>( XMaterial.class );
+
+		for ( Map.Entry<XMaterial, Integer> entry : tally.entrySet() ) {
+
+			Recipe recipe = recipes.get( entry.getKey() );
+			int count = entry.getValue().intValue();
+
+			int targetCount = count / recipe.getRatio();
+			int sourceCount = count % recipe.getRatio();
+
+			if ( sourceCount > 0 ) {
+				results.merge( recipe.getSource(), sourceCount, Integer::sum );
+			}
+
+			if ( targetCount > 0 ) {
+				results.merge( recipe.getTarget(), targetCount, Integer::sum );
+			}
+		}
+
+		return results;
+	}
+
+
+	/**
+	 * <p>Scans the inventory once, adding up all of the items that have recipes,
+	 * and removes them from the inventory.
+	 * </p>
+	 *
+	 * @param inv
+	 * @param tally
+	 * @return The number of items that were removed.
+	 */
+	private int tallyAndRemove( Inventory inv, Map<XMaterial, Integer> tally ) {
+		int removed = 0;
+
+		if ( inv != null ) {
+
+			ItemStack[] contents = inv.getContents();
+
+			for ( int slot = 0; slot < contents.length; slot++ ) {
+				ItemStack is = contents[slot];
+
+				if ( is != null ) {
+
+					XMaterial xMat = null;
+					try {
+						xMat = XMaterial.matchXMaterial( is );
+					}
+					catch ( Exception e ) {
+						// Ignore: This exception is normal since enchanting plugins assign custom data values
+						//         which will cause a mis-mapping on pre v1.13 platforms.
+					}
+
+					if ( xMat != null && recipes.containsKey( xMat ) ) {
+
+						Integer count = tally.get( xMat );
+						tally.put( xMat, (count == null ? 0 : count.intValue()) + is.getAmount() );
+
+						removed += is.getAmount();
+						inv.setItem( slot, null );
+					}
+				}
+			}
+		}
+
+		return removed;
+	}
+
+	private void addAll( Player player, XMaterial xMat, int count,
+							HashMap<Integer, SpigotItemStack> overflow ) {
+
+		for ( SpigotItemStack sItemStack : SpigotUtil.itemStackAddAll( player, xMat, count ).values() ) {
+			overflow.put( Integer.valueOf( overflow.size() ), sItemStack );
+		}
+	}
+
+
+	/**
+	 * <p>Selects the recipes that are enabled.
+	 * </p>
+	 *
+	 * @param recipes All of the recipes
+	 * @param isAll If true, then all recipes are enabled
+	 * @param snapshot Used to check the settings of each recipe
+	 * @return
+	 */
+	public static Map<XMaterial, Recipe> enabledRecipes( Map<XMaterial, Recipe> recipes, boolean isAll,
+					AutoFeaturesSnapshot snapshot ) {
+
+		Map<XMaterial, Recipe> results = new EnumMap<>( XMaterial.class );
+
+		for ( Recipe recipe : recipes.values() ) {
+			if ( isAll || snapshot.isBoolean( recipe.getFeature() ) ) {
+				results.put( recipe.getSource(), recipe );
+			}
+		}
+
+		return results;
+	}
+}
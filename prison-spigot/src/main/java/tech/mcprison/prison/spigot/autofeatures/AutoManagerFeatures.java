@@ -1,16 +1,15 @@
 package tech.mcprison.prison.spigot.autofeatures;
 
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.bukkit.Bukkit;
-import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.Configuration;
@@ -27,6 +26,7 @@ import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
@@ -37,11 +37,12 @@ import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.block.OnBlockBreakEventCore;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.spigot.block.ToolLoreCache;
+import tech.mcprison.prison.spigot.autofeatures.FortuneDropTables.FortuneType;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotSellAllCommands;
 import tech.mcprison.prison.spigot.spiget.BluesSpigetSemVerComparator;
 import tech.mcprison.prison.util.BlockType;
-import tech.mcprison.prison.util.Text;
 
 /**
  * <p>This class controls the data and the basic functions for auto features.
@@ -58,9 +59,6 @@ public class AutoManagerFeatures
 		extends OnBlockBreakEventCore {
 
 
-	private Random random = new Random();
-
-
 	public AutoManagerFeatures() {
 		super();
 
@@ -272,13 +270,6 @@ public class AutoManagerFeatures
 //				source = autoFeatureSmelt( player, source );
 //			}
 //			
-//			// AutoBlock
-//			if ( (mine != null || mine == null && !isBoolean( AutoFeatures.autoBlockLimitToMines )) &&
-//					isAutoBlock ) {
-//				
-//				autoFeatureBlock( player, source );
-//			}
-//			
 //		}
 		
 		
@@ -372,64 +363,70 @@ public class AutoManagerFeatures
 		int count = 0;
 		if (autoPickup) {
 
-			// The following may not be the correct drops for all versions of spigot,
-			// plus there are some extra items, such as flint, that will never be dropped.
-			List<SpigotItemStack> drops = new ArrayList<>( SpigotUtil.getDrops(block, itemInHand) );
-
+			List<SpigotItemStack> drops = FortuneDropTables.acquireDropBuffer();
 			
-			if (drops != null && drops.size() > 0 ) {
+			try {
+				// The following may not be the correct drops for all versions of spigot,
+				// plus there are some extra items, such as flint, that will never be dropped.
+				SpigotUtil.getDrops( block, itemInHand, drops );
 
-				// Need better drop calculation that is not using the getDrops function.
-				short fortuneLevel = getFortune(itemInHand);
+				if ( drops.size() > 0 ) {
 
-				calculateSilkTouch( itemInHand, drops );
+					// Need better drop calculation that is not using the getDrops function.
+					short fortuneLevel = getFortune(itemInHand);
+
+					calculateSilkTouch( itemInHand, drops );
 				
-				// Adds in additional drop items: Add Flint with gravel drops:
-				calculateDropAdditions( itemInHand, drops );
+					// Adds in additional drop items: Add Flint with gravel drops:
+					calculateDropAdditions( itemInHand, drops );
 
 
-				// Add fortune to the items in the inventory
-				if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
+					// Add fortune to the items in the inventory
+					if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
 
-					for ( SpigotItemStack itemStack : drops ) {
+						for ( SpigotItemStack itemStack : drops ) {
 						
-						// calculateFortune directly modifies the quantity on the blocks ItemStack:
-						calculateFortune( itemStack, fortuneLevel );
+							// calculateFortune directly modifies the quantity on the blocks ItemStack:
+							calculateFortune( itemStack, fortuneLevel );
+						}
 					}
-				}
 
 				
-				// NOTE: This should be done after applying fortune, otherwise it will get misreadings.
-				// Merge drops so each item is only represented once before adding to the player's inventory
-				drops = mergeDrops( drops );
+					// NOTE: This should be done after applying fortune, otherwise it will get misreadings.
+					// Merge drops so each item is only represented once before adding to the player's inventory
+					drops = mergeDrops( drops );
 				
 				
-				// Smelt
-				if ( isAutoSmelt ) {
-					normalDropSmelt( drops );
-				}
+					// Smelt
+					if ( isAutoSmelt ) {
+						normalDropSmelt( drops );
+					}
 				
 				
-				// Block
-				if ( isAutoBlock ) {
-					normalDropBlock( drops );
-				}
+					// Block
+					if ( isAutoBlock ) {
+						normalDropBlock( drops );
+					}
 				
 
-				for ( SpigotItemStack itemStack : drops ) {
+					for ( SpigotItemStack itemStack : drops ) {
 					
-					count += itemStack.getAmount();
+						count += itemStack.getAmount();
 					
-					HashMap<Integer, SpigotItemStack> extras = SpigotUtil.addItemToPlayerInventory( player, itemStack );
+						HashMap<Integer, SpigotItemStack> extras = SpigotUtil.addItemToPlayerInventory( player, itemStack );
 					
-					dropExtra( extras, player );
-//					dropExtra( player.getInventory().addItem(itemStack), player, block );
+						dropExtra( extras, player );
+	//					dropExtra( player.getInventory().addItem(itemStack), player, block );
 					
-				}
+					}
 
-				autosellPerBlockBreak( player );
+					autosellPerBlockBreak( player );
 				
-//				autoPickupCleanup( player, itemInHand, count );
+	//				autoPickupCleanup( player, itemInHand, count );
+				}
+			}
+			finally {
+				FortuneDropTables.releaseDropBuffer( drops );
 			}
 		}
 		return count;
@@ -440,60 +437,67 @@ public class AutoManagerFeatures
 	public int calculateNormalDrop( SpigotItemStack itemInHand, SpigotBlock block ) {
 		int count = 0;
 
-		// The following may not be the correct drops for all versions of spigot,
-		// plus there are some extra items, such as flint, that will never be dropped.
-		List<SpigotItemStack> drops = new ArrayList<>( SpigotUtil.getDrops(block, itemInHand) );
+		List<SpigotItemStack> drops = FortuneDropTables.acquireDropBuffer();
+		
+		try {
+			// The following may not be the correct drops for all versions of spigot,
+			// plus there are some extra items, such as flint, that will never be dropped.
+			SpigotUtil.getDrops( block, itemInHand, drops );
 
 
-		if (drops != null && drops.size() > 0 ) {
+			if ( drops.size() > 0 ) {
 
-			// Need better drop calculation that is not using the getDrops function.
-			short fortuneLevel = getFortune(itemInHand);
+				// Need better drop calculation that is not using the getDrops function.
+				short fortuneLevel = getFortune(itemInHand);
 
-			calculateSilkTouch( itemInHand, drops );
+				calculateSilkTouch( itemInHand, drops );
 			
-			// Adds in additional drop items: Add Flint with gravel drops:
-			calculateDropAdditions( itemInHand, drops );
+				// Adds in additional drop items: Add Flint with gravel drops:
+				calculateDropAdditions( itemInHand, drops );
 
 			
-			if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
+				if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
 
-				// calculate fortune before smelting and blocking:
-				for ( SpigotItemStack itemStack : drops ) {
+					// calculate fortune before smelting and blocking:
+					for ( SpigotItemStack itemStack : drops ) {
 					
-					// calculateFortune directly modifies the quantity on the blocks ItemStack:
-					calculateFortune( itemStack, fortuneLevel );
+						// calculateFortune directly modifies the quantity on the blocks ItemStack:
+						calculateFortune( itemStack, fortuneLevel );
+					}
 				}
-			}
 			
 			
-			// Merge drops so each item is only represented once, but has counts.
-			drops = mergeDrops( drops );
+				// Merge drops so each item is only represented once, but has counts.
+				drops = mergeDrops( drops );
 			
 			
-			if ( isBoolean( AutoFeatures.normalDropSmelt ) ) {
+				if ( isBoolean( AutoFeatures.normalDropSmelt ) ) {
 				
-				normalDropSmelt( drops );
-			}
+					normalDropSmelt( drops );
+				}
 			
 			
-			if ( isBoolean( AutoFeatures.normalDropBlock ) ) {
+				if ( isBoolean( AutoFeatures.normalDropBlock ) ) {
 				
-				normalDropBlock( drops );
-			}
+					normalDropBlock( drops );
+				}
 			
 			
-			// Drop the items where the origional block was located:
-			for ( SpigotItemStack itemStack : drops ) {
+				// Drop the items where the origional block was located:
+				for ( SpigotItemStack itemStack : drops ) {
 
-				count += itemStack.getAmount();
+					count += itemStack.getAmount();
 				
-				dropAtBlock( itemStack, block );
-			}
+					dropAtBlock( itemStack, block );
+				}
 
 			
-			// Break the block and change it to air:
-			block.setPrisonBlock( PrisonBlock.AIR );;
+				// Break the block and change it to air:
+				block.setPrisonBlock( PrisonBlock.AIR );;
+			}
+		}
+		finally {
+			FortuneDropTables.releaseDropBuffer( drops );
 		}
 		
 		return count;
@@ -520,58 +524,47 @@ public class AutoManagerFeatures
 		}
 	}
 	
+	/**
+	 * <p>Smelts all of the enabled smeltable items that the player has, within their
+	 * inventory and their backpacks.  All of the containers are scanned only once.
+	 * </p>
+	 * 
+	 * @param player
+	 */
 	public void playerSmelt( SpigotPlayer player ) {
 		
-		List<XMaterial> smelts = new ArrayList<>();
-		
-		smelts.add( XMaterial.COBBLESTONE );
-		smelts.add( XMaterial.GOLD_ORE );
-		smelts.add( XMaterial.NETHER_GOLD_ORE );
-		smelts.add( XMaterial.IRON_ORE );
-		smelts.add( XMaterial.COAL_ORE );
-		smelts.add( XMaterial.DIAMOND_ORE );
-		smelts.add( XMaterial.EMERALD_ORE );
-		smelts.add( XMaterial.LAPIS_ORE );
-		smelts.add( XMaterial.REDSTONE_ORE );
-		smelts.add( XMaterial.NETHER_QUARTZ_ORE );
-		smelts.add( XMaterial.ANCIENT_DEBRIS );
-		smelts.add( XMaterial.COPPER_ORE );
-		
+		AutoFeaturesInventoryTransformer transformer = 
+				AutoFeaturesInventoryTransformer.getSmelter( getAutoFeaturesConfig().getSnapshot() );
 		
-		for ( XMaterial xMat : smelts ) {
-			autoFeatureSmelt( player.getWrapper(), xMat );
-		}
-
+		HashMap<Integer, SpigotItemStack> overflow = transformer.transform( player.getWrapper() );
+		dropExtra( overflow, player.getWrapper() );
 	}
 	
+	/**
+	 * <p>Blocks all of the enabled blockable items that the player has, within their
+	 * inventory and their backpacks.  All of the containers are scanned only once.
+	 * </p>
+	 * 
+	 * @param player
+	 */
 	public void playerBlock( SpigotPlayer player ) {
 		
-		List<XMaterial> blocks = new ArrayList<>();
-		
-		blocks.add( XMaterial.GOLD_INGOT );
-		blocks.add( XMaterial.IRON_INGOT );
-		blocks.add( XMaterial.COAL );
-		blocks.add( XMaterial.DIAMOND );
-		blocks.add( XMaterial.REDSTONE );
-		blocks.add( XMaterial.EMERALD );
-		blocks.add( XMaterial.QUARTZ );
-		blocks.add( XMaterial.PRISMARINE_SHARD );
-		blocks.add( XMaterial.SNOW_BLOCK );
-		blocks.add( XMaterial.GLOWSTONE_DUST );
-		blocks.add( XMaterial.LAPIS_LAZULI );
-		
-		
-		for ( XMaterial xMat : blocks ) {
-			autoFeatureBlock( player.getWrapper(), xMat );
-		}
+		AutoFeaturesInventoryTransformer transformer = 
+				AutoFeaturesInventoryTransformer.getBlocker( getAutoFeaturesConfig().getSnapshot() );
 		
+		HashMap<Integer, SpigotItemStack> overflow = transformer.transform( player.getWrapper() );
+		dropExtra( overflow, player.getWrapper() );
 	}
 	
+	private static final Comparator<SpigotItemStack> DROP_NAME_ORDER =
+			Comparator.comparing( SpigotItemStack::getName,
+					Comparator.nullsFirst( Comparator.naturalOrder() ) );
+	
 	/**
 	 * <p>The List of drops must have only one ItemStack per block type (name).
 	 * This function combines multiple occurrences together and adds up their 
 	 * counts to properly represent the total quantity in the original drops collection
-	 * that had duplicate entries.
+	 * that had duplicate entries.  The merged drops are sorted by name.
 	 * </p>
 	 * 
 	 * @param List of SpigotItemStack drops with duplicate entries
@@ -579,21 +572,35 @@ public class AutoManagerFeatures
 	 */
 	private List<SpigotItemStack> mergeDrops( List<SpigotItemStack> drops )
 	{
-		TreeMap<String,SpigotItemStack> results = new TreeMap<>();
-
-		for ( SpigotItemStack drop : drops ) {
+		// There are only a few drops, so merge them in place without creating a map:
+		int size = 0;
+		
+		for ( int i = 0; i < drops.size(); i++ ) {
+			SpigotItemStack drop = drops.get( i );
 			String key = drop.getName();
-			if ( !results.containsKey( key ) ) {
-				results.put( key, drop );
-			}
-			else {
-				SpigotItemStack sItemStack = results.get( key );
+			
+			boolean merged = false;
+			for ( int j = 0; j < size; j++ ) {
+				SpigotItemStack sItemStack = drops.get( j );
 				
-				sItemStack.setAmount( sItemStack.getAmount() + drop.getAmount() );
+				if ( key == null ? sItemStack.getName() == null : key.equals( sItemStack.getName() ) ) {
+					sItemStack.setAmount( sItemStack.getAmount() + drop.getAmount() );
+					merged = true;
+					break;
+				}
+			}
+			
+			if ( !merged ) {
+				drops.set( size++, drop );
 			}
 		}
 		
-		return new ArrayList<>( results.values() );
+		drops.subList( size, drops.size() ).clear();
+		
+		// Keep the drops sorted by name, as they were when they were merged with a TreeMap:
+		drops.sort( DROP_NAME_ORDER );
+		
+		return drops;
 	}
 
 
@@ -846,105 +853,18 @@ public class AutoManagerFeatures
 	 * @return Percent chance of Lore enablement.
 	 */
 	protected double doesItemHaveAutoFeatureLore( ItemLoreEnablers loreEnabler, Player player ) {
-		double results = 0.0;
 
 		ItemStack itemInHand = SpigotPrison.getInstance().getCompatibility().getItemInMainHand( player );
-		if ( itemInHand != null && itemInHand.getType() != Material.AIR &&
-				itemInHand.getItemMeta() != null ) { // (itemInHand.hasItemMeta()) { NOTE: hasItemMeta() always returns nulls
-			
-			ItemMeta meta = itemInHand.getItemMeta();
-			
-			if ( meta != null && meta.hasLore()) { 
-				for (String lore : meta.getLore()) {
-					if (lore.startsWith( loreEnabler.name())) {
-
-						// Lore detected so set default to 100%:
-						results = 100.0;
-						
-						String value = lore.replace( loreEnabler.name(), "" ).trim();
-
-						if (value.length() > 0) {
-							
-							// Content has been found after the lore's name. If it is a number, then
-							// use that to set the lore's percentage.  If it fails at parsing then use 100%.
-
-							try {
-								results = Double.parseDouble( value );
-							}
-							catch (NumberFormatException e) {
-
-								// Error: Default to 100%
-								// Do not generate log messages since there will be 1000's...
-								results = 100.0;
-							}
-
-							// Clean up the parsed number.  Less than zero is zero (disabled).
-							if ( results < 0.0 ) {
-								results = 0.0;
-							}
-
-							// Cannot exceed 100%
-							if ( results > 100.0 ) {
-								results = 100.0;
-							}
-						}
-					}
-				}
-			}
-		}
-
-		return results;
+		
+		return ToolLoreCache.getInstance().getToolLore( itemInHand ).getEnablerValue( loreEnabler.name() );
 	}
 
 	protected double getLoreValue( SpigotItemStack itemInHand, String loreValue ) {
 		double results = 0.0;
 
 		if ( itemInHand != null && !itemInHand.isAir() && loreValue != null && !loreValue.trim().isEmpty() ) {
-			List<String> lores = itemInHand.getLore();
 			
-			// Clean the loreValue we need to compare everything to.  It must have all color codes removed:
-			String loreValueCleaned = Text.stripColor( loreValue );
-			
-			for ( String lore : lores ) {
-				
-				// Remove the color codes so it can be cleanly compared with the loreValue:
-				String loreCleaned = Text.stripColor( lore );
-
-				if (loreCleaned.startsWith( loreValueCleaned )) {
-					
-					// Lore detected so set default to 100%:
-					results = 100.0;
-					
-					String value = loreCleaned.replace( loreValueCleaned, "" ).trim();
-					
-					if (value.length() > 0) {
-						
-						// Content has been found after the lore's name. If it is a number, then
-						// use that to set the lore's percentage.  If it fails at parsing then use 100%.
-						
-						try {
-							results = Double.parseDouble( value );
-						}
-						catch (NumberFormatException e) {
-							
-							// Error: Default to 100%
-							// Do not generate log messages since there will be 1000's...
-							results = 100.0;
-						}
-						
-						// Clean up the parsed number.  Less than zero is zero (disabled).
-						if ( results < 0.0 ) {
-							results = 0.0;
-						}
-						
-						// Cannot exceed 100%
-						if ( results > 100.0 ) {
-							results = 100.0;
-						}
-					}
-				}
-				
-			}
+			results = ToolLoreCache.getInstance().getToolLore( itemInHand ).getLoreValue( loreValue );
 		}
 
 		return results;
@@ -968,7 +888,7 @@ public class AutoManagerFeatures
 		int count = 0;
 
 		boolean isAll = isBoolean( AutoFeatures.pickupAllBlocks );
-		PrisonBlock prisonBlock = block.getPrisonBlock();
+		InternedPrisonBlock prisonBlock = block.getSharedPrisonBlock();
 		
 		// Use this is a block name list based upon the following:  blockType:blockName if not minecraft, or blockName
 		List<String> pickupBlockNameList =
@@ -1133,84 +1053,6 @@ public class AutoManagerFeatures
 		return results;
 	}
 
-	protected void autoFeatureBlock( Player p, XMaterial source  ) {
-
-		boolean isAll = isBoolean( AutoFeatures.smeltAllBlocks );
-
-		if ( source != null ) {
-			
-			// Any autoBlock target could be enabled, and could have multiples of 9, so perform the
-			// checks within each block type's function call.  So in one pass, could hit on more
-			// than one of these for multiple times too.
-			switch ( source )
-			{
-				case GOLD_INGOT:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockGoldBlock ), source, XMaterial.GOLD_BLOCK, p );
-					
-					break;
-					
-				case IRON_INGOT:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockIronBlock ), source, XMaterial.IRON_BLOCK, p );
-					
-					break;
-
-				case COAL:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockCoalBlock ), source, XMaterial.COAL_BLOCK, p );
-					
-					break;
-					
-				case DIAMOND:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockDiamondBlock ), source, XMaterial.DIAMOND_BLOCK, p );
-					
-					break;
-					
-				case REDSTONE:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockRedstoneBlock ), source,XMaterial.REDSTONE_BLOCK, p );
-					
-					break;
-					
-				case EMERALD:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockEmeraldBlock ), source, XMaterial.EMERALD_BLOCK, p );
-					
-					break;
-					
-				case QUARTZ:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockQuartzBlock ), source, XMaterial.QUARTZ_BLOCK, 4, p );
-					
-					break;
-					
-				case PRISMARINE_SHARD:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockPrismarineBlock ), source, XMaterial.PRISMARINE, 4, p );
-					
-					break;
-					
-				case SNOWBALL:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockSnowBlock ), source, XMaterial.SNOW_BLOCK, 4, p );
-					
-					break;
-					
-				case GLOWSTONE_DUST:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockGlowstone ), source, XMaterial.GLOWSTONE, 4, p );
-					
-					break;
-					
-				case LAPIS_LAZULI:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockLapisBlock ), source, XMaterial.LAPIS_BLOCK, p );
-					
-					break;
-					
-				case COPPER_INGOT:
-					autoBlock( isAll || isBoolean( AutoFeatures.autoBlockCopperBlock ), source, XMaterial.COPPER_BLOCK, p );
-					
-					break;
-					
-				default:
-					break;
-			}
-		}
-
-	}
-
 	
 	/**
 	 * <p>This processes the normal drop smelting if it's enabled.  Only the 
@@ -1493,45 +1335,13 @@ public class AutoManagerFeatures
 				// being ran.
 				BlockType block = blocks.getMaterial();
 				
-				// These need to be processed first due to special drop amounts for these items, and 
-				// in the next group there is the isCalculateAltFortuneOnAllBlocksEnabled setting that
+				// The additive blocks need to be processed first due to special drop amounts for 
+				// these items, since the isCalculateAltFortuneOnAllBlocksEnabled setting
 				// would override these values if it were to be processed first.
-				if ( block == BlockType.GLOWSTONE ||
-						block == BlockType.GLOWSTONE_DUST ||
-						block == BlockType.REDSTONE ||
-						block == BlockType.SEA_LANTERN ||
-						block == BlockType.GLOWING_REDSTONE_ORE ||
-						block == BlockType.REDSTONE_ORE ||
-						block == BlockType.PRISMARINE ||
-						
-						block == BlockType.BEETROOT_SEEDS ||
-						block == BlockType.CARROT ||
-						block == BlockType.MELON ||
-						block == BlockType.MELON_SEEDS ||
-						block == BlockType.NETHER_WART ||
-						block == BlockType.POTATO ||
-						block == BlockType.GRASS ||
-						block == BlockType.WHEAT ) {
-					multiplier = getRandom().nextInt( fortuneLevel );
-					
-					// limits slightly greater than standard:
-					if (block == BlockType.GLOWSTONE) {
-						// standard: 4
-						if (multiplier > 5) {
-							multiplier = 5;
-						}
-					} else if (block == BlockType.SEA_LANTERN) {
-						// standard: 5
-						if (multiplier > 6) {
-							multiplier = 6;
-						}
-					} else if (block == BlockType.MELON) {
-						// standard: 9
-						if (multiplier > 11) {
-							multiplier = 11;
-						}
-					}
-					
+				FortuneType fortuneType = FortuneDropTables.getFortuneType( block );
+				
+				if ( fortuneType == FortuneType.additive ) {
+					multiplier = FortuneDropTables.sampleAdditive( block, fortuneLevel, getRandom() );
 					
 					// If the adjustedfortuneMultipler is greater than the permitted max value then use the max value.
 					// A zero value for fortuneMultiplierMax indicates no max should be used.
@@ -1545,38 +1355,8 @@ public class AutoManagerFeatures
 
 				}
 				
-				else if ( 
-						isBoolean( AutoFeatures.isCalculateAltFortuneOnAllBlocksEnabled ) ||
-						
-						block == BlockType.COAL_ORE ||
-						block == BlockType.DIAMOND_ORE ||
-						block == BlockType.EMERALD_ORE ||
-						block == BlockType.IRON_ORE ||
-						block == BlockType.LAPIS_LAZULI_ORE ||
-						block == BlockType.LAPIS_ORE ||
-						block == BlockType.GOLD_ORE ||
-						block == BlockType.NETHER_GOLD_ORE ||
-						block == BlockType.NETHER_QUARTZ_ORE ||
-						
-						block == BlockType.BLOCK_OF_COAL ||
-						block == BlockType.COAL ||
-						block == BlockType.COAL_BLOCK ||
-						block == BlockType.DIAMOND ||
-						block == BlockType.DIAMOND_BLOCK ||
-						block == BlockType.EMERALD ||
-						block == BlockType.EMERALD_BLOCK ||
-						block == BlockType.GOLD_BLOCK ||
-						block == BlockType.IRON_BLOCK ||
-						block == BlockType.LAPIS_BLOCK ||
-						block == BlockType.LAPIS_LAZULI_BLOCK ||
-						block == BlockType.NETHER_WART_BLOCK ||
-						block == BlockType.NETHERITE_BLOCK ||
-						block == BlockType.PURPUR_BLOCK ||
-						block == BlockType.QUARTZ_BLOCK ||
-						block == BlockType.REDSTONE_BLOCK ||
-						block == BlockType.SLIME_BLOCK ||
-						block == BlockType.SNOW_BLOCK
-						) {
+				else if ( fortuneType == FortuneType.multiplier ||
+						isBoolean( AutoFeatures.isCalculateAltFortuneOnAllBlocksEnabled ) ) {
 					
 					multiplier = calculateFortuneMultiplier( fortuneLevel, multiplier );
 					
@@ -1755,115 +1535,9 @@ public class AutoManagerFeatures
 	 * @return
 	 */
 	private int calculateFortuneMultiplier(int fortuneLevel, int multiplier) {
-		int rnd = getRandom().nextInt( 100 );
-
-		switch (fortuneLevel) {
-			case 0:
-				break;
-			case 1:
-				if (rnd <= 33) {
-					multiplier = 2;
-				}
-				break;
-
-			case 2:
-				if (rnd <= 25) {
-					multiplier = 2;
-				}
-				else if (rnd <= 50) {
-					multiplier = 3;
-				}
-				break;
-
-			case 3:
-				if (rnd <= 20) {
-					multiplier = 2;
-				}
-				else if (rnd <= 40) {
-					multiplier = 3;
-				}
-				else if (rnd <= 60) {
-					multiplier = 4;
-				}
-				break;
-
-
-			case 4:
-				if (rnd <= 16) {
-					multiplier = 2;
-				}
-				else if (rnd <= 32) {
-					multiplier = 3;
-				}
-				else if (rnd <= 48) {
-					multiplier = 4;
-				}
-				else if (rnd <= 64) {
-					multiplier = 5;
-				}
-				break;
-
-			case 5:
-				// values of 5 or higher
-				if (rnd <= 14) {
-					multiplier = 2;
-				}
-				else if (rnd <= 28) {
-					multiplier = 3;
-				}
-				else if (rnd <= 42) {
-					multiplier = 4;
-				}
-				else if (rnd <= 56) {
-					multiplier = 5;
-				}
-				else if (rnd <= 70) {
-					// Only 8% not 16% chance
-					multiplier = 6;
-				}
-				break;
-				
-			default:
-				
-				// Fortune is over 5, so apply a special formula:
-				
-				// Take the fortune level and divide by 10 and then take the 
-				// floor value of that and use it as the threshold modifier.
-				
-				int thresholdModifier = Math.floorDiv( fortuneLevel, 10 );
-				
-				// Max thresholdModifier can only be 100.
-				if ( thresholdModifier > 100 ) {
-					thresholdModifier = 100;
-				}
-				
-				// Calculate the threshold to apply the multiplier, starting 
-				// with 80%, then add the thresholdModifier so the higher the
-				// fortune, then the greater the odds of engaging the the 
-				// multiplier, where a fortune of 200 will guarantee the 
-				// the multiplier will always be enabled.
-				
-				double threshold = 80.0d + thresholdModifier;
-				
-				// Use a random number that is a double:
-				double rndD = getRandom().nextDouble() * 100d;
-				
-				if ( rndD <= threshold ) {
-					// Passed the threshold, so calculate the multiplier.
-					
-					// The chancesPerUnit represents how to subdivide the 
-					// threshold in to number of fortuneLevels.
-					double chancesPerUnit = threshold / fortuneLevel;
-					
-					// Calculate how many units are in the rndD number:
-					double units = rndD / chancesPerUnit;
-					
-					// The multiplier is the floor of units. Do not round up.
-					multiplier = 1 + (int) Math.floor( units );
-					
-				}
-				
-		}
+		
+		// The distributions are precomputed within the FortuneDropTables:
+		multiplier = FortuneDropTables.sampleMultiplier( fortuneLevel, multiplier, getRandom() );
 		
 		
 		// If the adjustedfortuneMultipler is greater than the permitted max value then use the max value.
@@ -1924,17 +1598,19 @@ public class AutoManagerFeatures
 		
 		if ( isBoolean( AutoFeatures.isCalculateDropAdditionsEnabled ) ) {
 			
-			List<SpigotItemStack> adds = new ArrayList<SpigotItemStack>();
+			// The additions are appended to the drops, so only check the original drops:
+			int size = drops.size();
 			
-			for (SpigotItemStack itemStack : drops) {
+			for ( int i = 0; i < size; i++ ) {
 				
 				// If gravel and has the 10% chance whereas rnd is zero, which is 1 out of 10.
 				// But if has silk touch, then never drop flint.
-				adds.addAll( 
-						calculateDropAdditionsGravelFlint( itemInHand, itemStack, drops ) );
+				SpigotItemStack flint = calculateDropAdditionsGravelFlint( itemInHand, drops.get( i ) );
+				
+				if ( flint != null ) {
+					drops.add( flint );
+				}
 			}
-			
-			drops.addAll( adds );
 		}
 	}
 
@@ -1949,63 +1625,39 @@ public class AutoManagerFeatures
 	 * the flint drop. The other thing that is different from vanilla, is that if the player
 	 * will get a flint drop, they will still get the normal gravel drop.
 	 * </p>
+	 * 
+	 * <p>If fortune is enabled on the tool, then the drop odds are increased to:
+	 * 1 = 14%, 2 = 25%, 3+ = 100%
+	 * </p>
 	 *
 	 * @param itemInHand
 	 * @param itemStack
-	 * @param drops
+	 * @return The flint to add, or null if there is no flint.
 	 */
-	private List<SpigotItemStack> calculateDropAdditionsGravelFlint(SpigotItemStack itemInHand, 
-											SpigotItemStack itemStack,
-												   List<SpigotItemStack> drops ) {
-		List<SpigotItemStack> adds = new ArrayList<SpigotItemStack>();
+	private SpigotItemStack calculateDropAdditionsGravelFlint(SpigotItemStack itemInHand, 
+											SpigotItemStack itemStack ) {
+		SpigotItemStack results = null;
 		
 		if (itemStack.getMaterial() == BlockType.GRAVEL && !hasSilkTouch(itemInHand)) {
 
-			int quantity = 1;
-			int threshold = 10;
+			int quantity = FortuneDropTables.sampleFlint( getFortune(itemInHand), getRandom() );
 
-			// If fortune is enabled on the tool, then increase drop odds by:
-			//  1 = 14%, 2 = 25%, 3+ = 100%
-			int fortune = getFortune(itemInHand);
-			switch (fortune) {
-				case 0:
-					// No additional threshold when fortune is zero:
-					break;
-					
-				case 1:
-					threshold = 14;
-					break;
-					
-				case 2:
-					threshold = 25;
-					break;
-					
-				case 3:
-				default:
-					// if Fortune 3 or higher, default to 100% drop:
-					threshold = 100;
-					break;
-			}
-
-			// If zero, then 10% chance of 1 out of 10.
-			if (getRandom().nextInt(100) <= threshold) {
-
-				// If fortune is >= 3, then add one to the quantity drop, plus a
-				// random chance to add floor(fortune / 5).
-				if (fortune >= 3) {
-					quantity += 1 + getRandom().nextInt(Math.floorDiv( fortune, 5));
-				}
-
-//				ItemStack flintStack = new ItemStack(Material.FLINT, quantity);
-				SpigotItemStack flintStack = new SpigotItemStack( quantity, BlockType.FLINT);
-				adds.add(flintStack);
+			if ( quantity > 0 ) {
+				results = new SpigotItemStack( quantity, BlockType.FLINT);
 			}
 		}
-		return adds;
+		return results;
 	}
 
+	/**
+	 * <p>Uses the thread's own random number generator so block break events 
+	 * that are processed on different threads never contend over one Random.
+	 * </p>
+	 * 
+	 * @return
+	 */
 	public Random getRandom() {
-		return random;
+		return ThreadLocalRandom.current();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.util.BlockType;
+
+/**
+ * <p>These are the precomputed tables that are used by the AutoManagerFeatures
+ * to calculate fortune and the additional drops.  Before, these were decided on
+ * every block break by long chains of comparisons and switch statements.
+ * </p>
+ *
+ * <p>The blocks are classified once by their fortune type, and the fortune
+ * multipliers for the vanilla levels of 0 through 5 are stored as tables with
+ * 100 entries, so they can be sampled with one random number and an array
+ * lookup.  Higher fortune levels use a uniform distribution that is also
+ * sampled in constant time.
+ * </p>
+ *
+ * <p>These tables do not include any settings, such as fortuneMultiplierMax,
+ * so they never need to be rebuilt when the auto features are reloaded.
+ * </p>
+ *
+ * <p>Each thread also keeps one drop list that is reused for every block break,
+ * so a new list does not need to be created for each block.
+ * </p>
+ *
+ */
+public class FortuneDropTables {
+
+	public enum FortuneType {
+
+		/**
+		 * <p>A random 0 to fortuneLevel - 1 is added to the drop count.
+		 * </p>
+		 */
+		additive,
+
+		/**
+		 * <p>The drop count is multiplied by the fortune multiplier.
+		 * </p>
+		 */
+		multiplier,
+
+		/**
+		 * <p>No fortune unless isCalculateAltFortuneOnAllBlocksEnabled is enabled,
+		 * then it is treated as a multiplier.
+		 * </p>
+		 */
+		none;
+	}
+
+	private static final Map<BlockType, FortuneType> FORTUNE_TYPES;
+	private static final Map<BlockType, Integer> ADDITIVE_LIMITS;
+
+	/**
+	 * <p>Indexed by fortuneLevel then by a random number of 0 through 99.  A value
+	 * of zero indicates no multiplier was selected.
+	 * </p>
+	 */
+	private static final int[][] MULTIPLIER_TABLES;
+
+	/**
+	 * <p>The chance, out of 100, that gravel will drop flint, indexed by a
+	 * fortuneLevel of 0 through 3.
+	 * </p>
+	 */
+	private static final int[] FLINT_THRESHOLDS = { 10, 14, 25, 100 };
+
+	private static final ThreadLocal<List<SpigotItemStack>> dropBuffer =
+						ThreadLocal.withInitial( ArrayList::new );
+
+	static {
+		Map<BlockType, FortuneType> types = new EnumMap<>( BlockType.class );
+
+		BlockType[] additive = {
+				BlockType.GLOWSTONE, BlockType.GLOWSTONE_DUST, BlockType.REDSTONE,
+				BlockType.SEA_LANTERN, BlockType.GLOWING_REDSTONE_ORE, BlockType.REDSTONE_ORE,
+				BlockType.PRISMARINE,
+
+				BlockType.BEETROOT_SEEDS, BlockType.CARROT, BlockType.MELON,
+				BlockType.MELON_SEEDS, BlockType.NETHER_WART, BlockType.POTATO,
+				BlockType.GRASS, BlockType.WHEAT
+		};
+
+		BlockType[] multiplier = {
+				BlockType.COAL_ORE, BlockType.DIAMOND_ORE, BlockType.EMERALD_ORE,
+				BlockType.IRON_ORE, BlockType.LAPIS_LAZULI_ORE, BlockType.LAPIS_ORE,
+				BlockType.GOLD_ORE, BlockType.NETHER_GOLD_ORE, BlockType.NETHER_QUARTZ_ORE,
+
+				BlockType.BLOCK_OF_COAL, BlockType.COAL, BlockType.COAL_BLOCK,
+				BlockType.DIAMOND, BlockType.DIAMOND_BLOCK, BlockType.EMERALD,
+				BlockType.EMERALD_BLOCK, BlockType.GOLD_BLOCK, BlockType.IRON_BLOCK,
+				BlockType.LAPIS_BLOCK, BlockType.LAPIS_LAZULI_BLOCK, BlockType.NETHER_WART_BLOCK,
+				BlockType.NETHERITE_BLOCK, BlockType.PURPUR_BLOCK, BlockType.QUARTZ_BLOCK,
+				BlockType.REDSTONE_BLOCK, BlockType.SLIME_BLOCK, BlockType.SNOW_BLOCK
+		};
+
+		for ( BlockType block : multiplier ) {
+			types.put( block, FortuneType.multiplier );
+		}
+		// The additive blocks take priority:
+		for ( BlockType block : additive ) {
+			types.put( block, FortuneType.additive );
+		}
+
+		FORTUNE_TYPES = Collections.unmodifiableMap( types );
+
+
+		// Limits slightly greater than standard:
+		Map<BlockType, Integer> limits = new EnumMap<>( BlockType.class );
+		limits.put( BlockType.GLOWSTONE, 5 );		// standard: 4
+		limits.put( BlockType.SEA_LANTERN, 6 );		// standard: 5
+		limits.put( BlockType.MELON, 11 );			// standard: 9
+
+		ADDITIVE_LIMITS = Collections.unmodifiableMap( limits );
+
+
+		// The upper rnd value, inclusive, for each multiplier starting with 2:
+		int[][] ranges = {
+				{},
+				{ 33 },
+				{ 25, 50 },
+				{ 20, 40, 60 },
+				{ 16, 32, 48, 64 },
+				{ 14, 28, 42, 56, 70 }
+		};
+
+		MULTIPLIER_TABLES = new int[ranges.length][];
+
+		for ( int level = 0; level < ranges.length; level++ ) {
+			int[] table = new int[100];
+
+			for ( int rnd = 0; rnd < table.length; rnd++ ) {
+				for ( int i = 0; i < ranges[level].length; i++ ) {
+					if ( rnd <= ranges[level][i] ) {
+						table[rnd] = i + 2;
+						break;
+					}
+				}
+			}
+
+			MULTIPLIER_TABLES[level] = table;
+		}
+	}
+
+	private FortuneDropTables() {
+		super();
+	}
+
+
+	public static FortuneType getFortuneType( BlockType block ) {
+		FortuneType results = block == null ? null : FORTUNE_TYPES.get( block );
+		return results == null ? FortuneType.none : results;
+	}
+
+	/**
+	 * <p>The additive bonus for the additive blocks, which is a random
+	 * value of 0 through fortuneLevel - 1, limited for a few blocks.
+	 * </p>
+	 *
+	 * @param block
+	 * @param fortuneLevel Must be greater than zero.
+	 * @param random
+	 * @return
+	 */
+	public static int sampleAdditive( BlockType block, int fortuneLevel, Random random ) {
+		int results = random.nextInt( fortuneLevel );
+
+		Integer limit = ADDITIVE_LIMITS.get( block );
+		if ( limit != null && results > limit.intValue() ) {
+			results = limit.intValue();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Samples the fortune multiplier.  See AutoManagerFeatures.calculateFortuneMultiplier()
+	 * for the distributions.  If no multiplier is selected, then the given
+	 * multiplier is returned.
+	 * </p>
+	 *
+	 * @param fortuneLevel
+	 * @param multiplier
+	 * @param random
+	 * @return
+	 */
+	public static int sampleMultiplier( int fortuneLevel, int multiplier, Random random ) {
+		int results = multiplier;
+
+		if ( fortuneLevel < 0 ) {
+			// no fortune
+		}
+		else if ( fortuneLevel < MULTIPLIER_TABLES.length ) {
+
+			int value = MULTIPLIER_TABLES[fortuneLevel][random.nextInt( 100 )];
+			if ( value > 0 ) {
+				results = value;
+			}
+		}
+		else {
+
+			// The threshold starts at 80% and increases by 1% for every 10 fortune levels,
+			// where a fortune of 200 will always pass:
+			double threshold = 80.0d + Math.min( fortuneLevel / 10, 100 );
+
+			double rndD = random.nextDouble() * 100d;
+
+			if ( rndD <= threshold ) {
+				// The threshold is divided equally between the fortune levels, so the
+				// multiplier is uniformly distributed from 1 through fortuneLevel:
+				double chancesPerUnit = threshold / fortuneLevel;
+
+				results = 1 + (int) Math.floor( rndD / chancesPerUnit );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>The number of flint that gravel drops, or zero if there is no flint.
+	 * </p>
+	 *
+	 * @param fortuneLevel
+	 * @param random
+	 * @return
+	 */
+	public static int sampleFlint( int fortuneLevel, Random random ) {
+		int results = 0;
+
+		int threshold = FLINT_THRESHOLDS[ Math.max( 0, Math.min( fortuneLevel, FLINT_THRESHOLDS.length - 1 ) ) ];
+
+		if ( random.nextInt( 100 ) <= threshold ) {
+			results = 1;
+
+			// If fortune is >= 3, then add one to the quantity drop, plus a
+			// random chance to add floor(fortune / 5).
+			if ( fortuneLevel >= 3 ) {
+				int bonus = fortuneLevel / 5;
+
+				results += 1 + (bonus > 0 ? random.nextInt( bonus ) : 0);
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Takes the thread's drop list, which is empty.  The list is taken from the
+	 * thread while it is being used, so if a block break is ever processed while
+	 * another is still using the list, then a new list is used instead.
+	 * </p>
+	 *
+	 * @return
+	 */
+	static List<SpigotItemStack> acquireDropBuffer() {
+		List<SpigotItemStack> results = dropBuffer.get();
+
+		if ( results == null ) {
+			results = new ArrayList<>();
+		}
+		else {
+			dropBuffer.set( null );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Clears the drops and returns the list to the thread, so the next block
+	 * break will reuse it.
+	 * </p>
+	 *
+	 * @param drops
+	 */
+	static void releaseDropBuffer( List<SpigotItemStack> drops ) {
+		drops.clear();
+		dropBuffer.set( drops );
+	}
+}
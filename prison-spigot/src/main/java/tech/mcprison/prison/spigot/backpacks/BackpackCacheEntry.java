@@ -0,0 +1,54 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+/**
+ * <p>Holds the live Inventory of an online player's backpack so it does not
+ * have to be rebuilt from the backpacksData.yml file on every access.  The
+ * entry is marked dirty when the inventory is changed, and will be written
+ * back to the data file the next time the backpacks are flushed.
+ * </p>
+ *
+ * <p>The id is null for the player's default backpack.
+ * </p>
+ */
+public class BackpackCacheEntry {
+
+	private final Player owner;
+	private final String id;
+
+	private Inventory inventory;
+
+	private boolean dirty = false;
+
+	public BackpackCacheEntry( Player owner, String id, Inventory inventory ) {
+		super();
+
+		this.owner = owner;
+		this.id = id;
+		this.inventory = inventory;
+	}
+
+	public Player getOwner() {
+		return owner;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Inventory getInventory() {
+		return inventory;
+	}
+	public void setInventory( Inventory inventory ) {
+		this.inventory = inventory;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+	public void setDirty( boolean dirty ) {
+		this.dirty = dirty;
+	}
+}
@@ -0,0 +1,53 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This task runs on the server thread at a fixed interval and writes all
+ * dirty cached backpacks back to the backpacksData.yml file.  The inventories
+ * are serialized on the server thread, but the actual file write is
+ * performed asynchronously.
+ * </p>
+ */
+public class BackpacksFlushTask
+	implements PrisonRunnable
+{
+	private final BackpacksUtil backpacksUtil;
+
+	private int taskId = 0;
+
+	public BackpacksFlushTask( BackpacksUtil backpacksUtil ) {
+		super();
+
+		this.backpacksUtil = backpacksUtil;
+	}
+
+	/**
+	 * <p>Starts the timer.  If it was already started, then the old timer is
+	 * cancelled so there is never more than one.
+	 * </p>
+	 */
+	public void submit( long intervalInTicks ) {
+		cancel();
+
+		taskId = PrisonTaskSubmitter.runTaskTimer( this, intervalInTicks, intervalInTicks );
+	}
+
+	public void cancel() {
+		if ( taskId != 0 ) {
+			PrisonTaskSubmitter.cancelTask( taskId );
+			taskId = 0;
+		}
+	}
+
+	@Override
+	public void run() {
+
+		backpacksUtil.flushBackpacks( true );
+	}
+
+	public int getTaskId() {
+		return taskId;
+	}
+}
@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -22,6 +24,8 @@ import org.bukkit.inventory.meta.ItemMeta;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.file.WriteBehindFile;
+import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.compat.Compatibility;
@@ -43,6 +47,26 @@ public class BackpacksUtil {
     private final Compatibility compat = SpigotPrison.getInstance().getCompatibility();
     private final int backpackDefaultSize = Integer.parseInt(backpacksConfig.getString("Options.BackPack_Default_Size"));
 
+    // Live backpack inventories of online players, keyed by the player's UUID and the backpack ID:
+    private final Map<String, BackpackCacheEntry> liveBackpacks = new HashMap<>();
+
+    // Writes the backpacksData.yml file, on the server thread or the async writer:
+    private final WriteBehindFile backpacksDataWriter = new WriteBehindFile(backpacksFile);
+
+    private BackpacksFlushTask flushTask;
+
+    private BackpacksUtil() {
+        super();
+
+        long flushInterval = 100;
+        try {
+            flushInterval = Long.parseLong(backpacksConfig.getString("Options.BackPack_Cache_Flush_Interval_Ticks"));
+        } catch (NumberFormatException | NullPointerException ignored){}
+
+        flushTask = new BackpacksFlushTask(this);
+        flushTask.submit(Math.max(1, flushInterval));
+    }
+
     /**
      * Check if Backpacks's enabled.
      * */
@@ -54,10 +78,12 @@ public class BackpacksUtil {
     }
 
     /**
-     * Get Backpacks DATA config.
+     * Get Backpacks DATA config, with the changes to the cached backpacks that
+     * have not been saved yet. This does not write the file.
      * */
     public Configuration getBackpacksData(){
         updateCachedBackpack();
+        applyDirtyBackpacks();
         return backpacksDataConfig;
     }
 
@@ -77,10 +103,150 @@ public class BackpacksUtil {
     }
 
     public void updateCachedBackpack(){
+
+        // If there are flushed backpacks still waiting to be written, then the
+        // data in memory is newer than the file, so do not reload it.
+        if (backpacksDataWriter.hasPendingWrites()){
+            return;
+        }
+
         backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
         backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
     }
 
+    /**
+     * Save the backpacks data config to the file on the current thread.
+     * */
+    private void saveBackpacksData() throws IOException {
+        backpacksDataWriter.writeNow(backpacksDataConfig.saveToString());
+    }
+
+    /**
+     * Write the dirty cached backpacks to the backpacks data config, without
+     * saving it. They are still dirty, so the next flush saves them.
+     * */
+    private void applyDirtyBackpacks(){
+        List<BackpackCacheEntry> dirty = new ArrayList<>();
+        synchronized (liveBackpacks) {
+            for (BackpackCacheEntry entry : liveBackpacks.values()){
+                if (entry.isDirty()){
+                    dirty.add(entry);
+                }
+            }
+        }
+        for (BackpackCacheEntry entry : dirty){
+            writeInventory(entry.getOwner(), entry.getInventory(), entry.getId());
+        }
+    }
+
+    /**
+     * Write all dirty cached backpacks to the backpacks data config, then save it.
+     * The config is always serialized on the calling thread, which should be the
+     * server thread, but if async is true, then the file is written on its own thread.
+     *
+     * @param async - True to write the file asynchronously.
+     * */
+    public void flushBackpacks(boolean async){
+        List<BackpackCacheEntry> dirty = new ArrayList<>();
+        synchronized (liveBackpacks) {
+            for (BackpackCacheEntry entry : liveBackpacks.values()){
+                if (entry.isDirty()){
+                    entry.setDirty(false);
+                    dirty.add(entry);
+                }
+            }
+        }
+        writeBackpacks(dirty, async);
+    }
+
+    /**
+     * Write the player's dirty backpacks and remove them from the cache.
+     * Used when the player leaves the server.
+     *
+     * @param p - Player
+     * */
+    public void unloadBackpacks(Player p){
+        List<BackpackCacheEntry> dirty = new ArrayList<>();
+        synchronized (liveBackpacks) {
+            Iterator<BackpackCacheEntry> iterator = liveBackpacks.values().iterator();
+            while (iterator.hasNext()){
+                BackpackCacheEntry entry = iterator.next();
+                if (entry.getOwner().getUniqueId().equals(p.getUniqueId())){
+                    iterator.remove();
+                    if (entry.isDirty()){
+                        entry.setDirty(false);
+                        dirty.add(entry);
+                    }
+                }
+            }
+        }
+        writeBackpacks(dirty, true);
+    }
+
+    /**
+     * Write all dirty backpacks synchronously and stop the flush task.
+     * Called when the plugin is being disabled. The instance is dropped, so
+     * if prison is enabled again, a new one is created with one flush task.
+     * */
+    public static void shutdown(){
+        if (instance != null){
+            if (instance.flushTask != null){
+                instance.flushTask.cancel();
+                instance.flushTask = null;
+            }
+            instance.flushBackpacks(false);
+            instance = null;
+        }
+    }
+
+    private void writeBackpacks(List<BackpackCacheEntry> dirty, boolean async){
+        if (dirty.isEmpty()){
+            return;
+        }
+
+        for (BackpackCacheEntry entry : dirty){
+            writeInventory(entry.getOwner(), entry.getInventory(), entry.getId());
+        }
+
+        String data = backpacksDataConfig.saveToString();
+
+        if (async){
+            backpacksDataWriter.writeLater(data);
+        } else {
+            try {
+                backpacksDataWriter.writeNow(data);
+            } catch (IOException ex){
+                Output.get().logError("BackpacksUtil: Failed to save the backpacks data file " +
+                        backpacksFile.getAbsolutePath(), ex);
+            }
+        }
+    }
+
+    private String getCacheKey(UUID uuid, String id){
+        return id == null ? uuid.toString() : uuid.toString() + "-" + id;
+    }
+
+    private void removeFromCache(UUID uuid, String id){
+        synchronized (liveBackpacks) {
+            liveBackpacks.remove(getCacheKey(uuid, id));
+        }
+    }
+
+    /**
+     * Applies the dirty cached backpack to the data config, then removes it from the
+     * cache so it will be rebuilt with the current size on the next access.
+     * */
+    private void evictFromCache(UUID uuid, String id){
+        BackpackCacheEntry entry;
+        synchronized (liveBackpacks) {
+            entry = liveBackpacks.remove(getCacheKey(uuid, id));
+        }
+        if (entry != null && entry.isDirty()){
+            entry.setDirty(false);
+            writeInventory(entry.getOwner(), entry.getInventory(), entry.getId());
+        }
+    }
+
     /**
      * Check if player reached limit of own backpacks.
      *
@@ -709,7 +875,7 @@ public class BackpacksUtil {
 
         try{
             backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex){
             return false;
         }
@@ -723,7 +889,7 @@ public class BackpacksUtil {
 
         try {
             backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex) {
             return false;
         }
@@ -764,7 +930,7 @@ public class BackpacksUtil {
             try {
                 backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
                 backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
-                backpacksDataConfig.save(backpacksFile);
+                saveBackpacksData();
             } catch (IOException ex) {
                 ex.printStackTrace();
                 return;
@@ -785,12 +951,13 @@ public class BackpacksUtil {
     }
 
     private boolean resetBackpackMethod(Player p) {
+        removeFromCache(p.getUniqueId(), null);
         updateCachedBackpack();
 
         try {
             try {
                 backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
+                saveBackpacksData();
             } catch (NullPointerException ex){
                 return false;
             }
@@ -804,12 +971,13 @@ public class BackpacksUtil {
     }
 
     private boolean resetBackpackMethod(Player p, String id) {
+        removeFromCache(p.getUniqueId(), id);
         updateCachedBackpack();
 
         try {
             try {
                 backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
+                saveBackpacksData();
             } catch (NullPointerException ex){
                 return false;
             }
@@ -823,12 +991,13 @@ public class BackpacksUtil {
     }
 
     private boolean resetBackpackMethod(OfflinePlayer p) {
+        removeFromCache(p.getUniqueId(), null);
         updateCachedBackpack();
 
         try {
             try {
                 backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
+                saveBackpacksData();
             } catch (NullPointerException ex){
                 return false;
             }
@@ -842,12 +1011,13 @@ public class BackpacksUtil {
     }
 
     private boolean resetBackpackMethod(OfflinePlayer p, String id) {
+        removeFromCache(p.getUniqueId(), id);
         updateCachedBackpack();
 
         try {
             try {
                 backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
+                saveBackpacksData();
             } catch (NullPointerException ex){
                 return false;
             }
@@ -868,12 +1038,12 @@ public class BackpacksUtil {
             return;
         }
 
-        updateCachedBackpack();
+        evictFromCache(p.getUniqueId(), null);
 
         backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
 
         try {
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex){
             ex.printStackTrace();
         }
@@ -888,12 +1058,12 @@ public class BackpacksUtil {
             return;
         }
 
-        updateCachedBackpack();
+        evictFromCache(p.getUniqueId(), null);
 
         backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
 
         try {
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex){
             ex.printStackTrace();
         }
@@ -908,12 +1078,12 @@ public class BackpacksUtil {
             return;
         }
 
-        updateCachedBackpack();
+        evictFromCache(p.getUniqueId(), id);
 
         backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
 
         try {
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex){
             ex.printStackTrace();
         }
@@ -928,12 +1098,12 @@ public class BackpacksUtil {
             return;
         }
 
-        updateCachedBackpack();
+        evictFromCache(p.getUniqueId(), id);
 
         backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
 
         try {
-            backpacksDataConfig.save(backpacksFile);
+            saveBackpacksData();
         } catch (IOException ex){
             ex.printStackTrace();
         }
@@ -994,6 +1164,32 @@ public class BackpacksUtil {
     }
 
     private Inventory getBackpackOwn(Player p) {
+        return getLiveBackpack(p, null).getInventory();
+    }
+
+    private Inventory getBackpackOwn(Player p, String id) {
+        return getLiveBackpack(p, id).getInventory();
+    }
+
+    /**
+     * Get the cached backpack of an online player, if it's not cached yet, then
+     * it will be loaded from the backpacks data config.
+     * */
+    private BackpackCacheEntry getLiveBackpack(Player p, String id) {
+        String key = getCacheKey(p.getUniqueId(), id);
+
+        synchronized (liveBackpacks) {
+            BackpackCacheEntry entry = liveBackpacks.get(key);
+            if (entry == null) {
+                Inventory inv = id == null ? loadBackpackOwn(p) : loadBackpackOwn(p, id);
+                entry = new BackpackCacheEntry(p, id, inv);
+                liveBackpacks.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    private Inventory loadBackpackOwn(Player p) {
 
         updateCachedBackpack();
 
@@ -1022,7 +1218,7 @@ public class BackpacksUtil {
         return inv;
     }
 
-    private Inventory getBackpackOwn(Player p, String id) {
+    private Inventory loadBackpackOwn(Player p, String id) {
         updateCachedBackpack();
 
         int size = getBackpackSize(p, id);
@@ -1069,6 +1265,20 @@ public class BackpacksUtil {
     }
 
     private Inventory getBackpackCustom(Player p, Inventory inv) {
+        BackpackCacheEntry entry;
+        synchronized (liveBackpacks) {
+            entry = liveBackpacks.get(getCacheKey(p.getUniqueId(), null));
+        }
+        if (entry != null) {
+            ItemStack[] contents = entry.getInventory().getContents();
+            for (int slot = 0; slot < contents.length && slot < inv.getSize(); slot++) {
+                if (contents[slot] != null) {
+                    inv.setItem(slot, contents[slot]);
+                }
+            }
+            return inv;
+        }
+
         // Get the Items config section
         Set<String> slots;
         try {
@@ -1093,114 +1303,71 @@ public class BackpacksUtil {
     }
 
     private void saveInventory(Player p, Inventory inv) {
-        updateCachedBackpack();
-
-        // Set dimensions if null or error.
-        boolean needToSetNewDimensions = checkDimensionError(p);
-        boolean needToSetNewOwner = checkBackpackOwnerMissing(p);
-        boolean needToSetNewOwnerID = checkBackpackOwnerIDMissing(p);
-
-        if (inv.getContents() != null){
-
-            int backpackSize = getBackpackSize(p);
-            int slot = 0;
-
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-                return;
-            }
-
-            updateCachedBackpack();
-
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", backpackSize);
-
-            for (ItemStack item : inv.getContents()){
-                if (item != null){
+        saveInventory(p, inv, null);
+    }
 
-                    backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK", item);
+    private void saveInventory(Player p, Inventory inv, String id) {
+        BackpackCacheEntry entry = getLiveBackpack(p, id);
 
-                    slot++;
+        synchronized (liveBackpacks) {
+            Inventory cached = entry.getInventory();
+            if (cached != inv) {
+                if (inv.getContents() != null && cached.getSize() == inv.getSize()) {
+                    cached.setContents(inv.getContents());
+                } else {
+                    entry.setInventory(inv);
                 }
             }
-
-            oldDataVersionUpdater(p, false, true, true);
-
-            try {
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-            }
-        } else {
-            // If it's null just delete the whole stored inventory.
-            oldDataVersionUpdater(p, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId().toString() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-            }
+            entry.setDirty(true);
         }
-
-        updateCachedBackpack();
     }
 
-    private void saveInventory(Player p, Inventory inv, String id) {
-        updateCachedBackpack();
+    /**
+     * Write a backpack inventory to the backpacks data config, this does not save
+     * the config to the file.
+     *
+     * @param p - Player
+     * @param inv - Inventory
+     * @param id - String ID, or null for the default backpack
+     * */
+    private void writeInventory(Player p, Inventory inv, String id) {
+        String itemsPath = "Inventories." + p.getUniqueId() + (id == null ? ".Items" : ".Items-" + id);
 
         // Set dimensions if null or error.
-        boolean needToSetNewDimensions = checkDimensionError(p, id);
-        boolean needToSetNewOwner = checkBackpackOwnerMissing(p, id);
-        boolean needToSetNewOwnerID = checkBackpackOwnerIDMissing(p, id);
+        boolean needToSetNewDimensions = id == null ? checkDimensionError(p) : checkDimensionError(p, id);
+        boolean needToSetNewOwner = id == null ? checkBackpackOwnerMissing(p) : checkBackpackOwnerMissing(p, id);
+        boolean needToSetNewOwnerID = id == null ? checkBackpackOwnerIDMissing(p) : checkBackpackOwnerIDMissing(p, id);
 
         if (inv.getContents() != null){
 
-            int backpackSize = getBackpackSize(p, id);
             int slot = 0;
 
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-                return;
-            }
-
-            updateCachedBackpack();
-
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", backpackSize);
-
-            oldDataVersionUpdater(p, id, false, true, true);
+            backpacksDataConfig.set(itemsPath, null);
+            backpacksDataConfig.set(itemsPath + ".Size", inv.getSize());
 
             for (ItemStack item : inv.getContents()){
                 if (item != null){
 
-                    backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + "." + slot + ".ITEMSTACK", item);
+                    backpacksDataConfig.set(itemsPath + "." + slot + ".ITEMSTACK", item);
 
                     slot++;
                 }
             }
-            if (slot != 0){
-                try {
-                    backpacksDataConfig.save(backpacksFile);
-                } catch (IOException ex){
-                    ex.printStackTrace();
-                }
+
+            if (id == null) {
+                oldDataVersionUpdater(p, false, true, true);
+            } else {
+                oldDataVersionUpdater(p, id, false, true, true);
             }
         } else {
             // If it's null just delete the whole stored inventory.
-            oldDataVersionUpdater(p, id, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId().toString() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
+            if (id == null) {
+                oldDataVersionUpdater(p, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
+            } else {
+                oldDataVersionUpdater(p, id, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
             }
+            backpacksDataConfig.set(itemsPath, null);
         }
-
-        updateCachedBackpack();
     }
 
     private void oldDataVersionUpdater(Player p, boolean needToSetNewDimensions, boolean needToSetNewOwner, boolean needToSetNewOwnerID) {
@@ -1314,10 +1481,6 @@ public class BackpacksUtil {
     private List<String> getBackpacksIDsList(Player p) {
         List<String> backpacksIDs = new ArrayList<>();
 
-        // Items
-        //
-        updateCachedBackpack();
-
         // Items can be -> Items- or just Items in the config, the default and old backpacks will have Items only, newer will be like
         // Items-1 or anyway an ID, I'm just getting the ID with this which's what I need.
         try {
@@ -1332,6 +1495,15 @@ public class BackpacksUtil {
             }
         } catch (NullPointerException ignored){}
 
+        // Backpacks which have been created since the last flush are only in the cache:
+        synchronized (liveBackpacks) {
+            for (BackpackCacheEntry entry : liveBackpacks.values()) {
+                if (entry.isDirty() && entry.getOwner().getUniqueId().equals(p.getUniqueId()) && !backpacksIDs.contains(entry.getId())) {
+                    backpacksIDs.add(entry.getId());
+                }
+            }
+        }
+
         return backpacksIDs;
     }
 
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.TreeMap;
 
 import org.bukkit.Bukkit;
@@ -13,7 +14,6 @@ import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import com.vk2gpz.tokenenchant.event.TEBlockExplodeEvent;
 
@@ -23,6 +23,8 @@ import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.metrics.KeyedMetricTimer;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
@@ -41,7 +43,12 @@ import tech.mcprison.prison.util.Text;
 
 public class OnBlockBreakEventCore
 {
-
+	/**
+	 * The time that is spent handling each block break and explosion, for each mine.
+	 */
+	private static final KeyedMetricTimer METRICS_BLOCK_BREAK_TIMER = 
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_BLOCK_BREAK );
+	
 	private PrisonMines prisonMineManager;
 	private boolean mineModuleDisabled = false;
 	
@@ -55,7 +62,6 @@ public class OnBlockBreakEventCore
 	
 	private Boolean crazyEnchantEnabled;
 	
-	private Random random = new Random();
 	
 	
 	public OnBlockBreakEventCore() {
@@ -220,6 +226,9 @@ public class OnBlockBreakEventCore
 		OnBlockBreakExternalEvents.getInstance().registerAllExternalEvents();
 		
 		
+		long metricsStart = METRICS_BLOCK_BREAK_TIMER.start();
+		String metricsMine = null;
+		
 		String debugInfo = String.format( "### ** genericBlockEvent ** ### %s%s%s%s ",
 				(autoManager ? "autoManager " : ""),
 				(e.isCancelled() ? "CANCELED " : ""),
@@ -252,6 +261,7 @@ public class OnBlockBreakEventCore
     		}
     		
     		debugInfo += "mine=" + (mine == null ? "none" : mine.getName()) + " ";
+    		metricsMine = (mine == null ? null : mine.getName());
     		
 
     		if ( mine != null && BlockUtils.getInstance().isUnbreakable( block ) ) {
@@ -329,6 +339,8 @@ public class OnBlockBreakEventCore
     		
     	}
     	
+    	METRICS_BLOCK_BREAK_TIMER.stop( metricsMine, metricsStart );
+    	
     	Output.get().logDebug( DebugTarget.blockBreak, debugInfo );
 	}
 
@@ -352,6 +364,9 @@ public class OnBlockBreakEventCore
 		OnBlockBreakExternalEvents.getInstance().registerAllExternalEvents();
 		
 		
+		long metricsStart = METRICS_BLOCK_BREAK_TIMER.start();
+		String metricsMine = null;
+		
 		String debugInfo = String.format( "### ** genericBlockExplodeEvent(TEBlockExplodeEvent) ** ### %s%s%s%s ",
 				(autoManager ? "autoManager " : ""),
 				(e.isCancelled() ? "CANCELED " : ""),
@@ -390,6 +405,7 @@ public class OnBlockBreakEventCore
     		}
     		
     		debugInfo += "mine=" + (mine == null ? "none" : mine.getName()) + " ";
+    		metricsMine = (mine == null ? null : mine.getName());
     		
     		boolean isTEExplosiveEnabled = isBoolean( AutoFeatures.isProcessTokensEnchantExplosiveEvents );
     		
@@ -521,6 +537,8 @@ public class OnBlockBreakEventCore
     			
     	}
     	
+    	METRICS_BLOCK_BREAK_TIMER.stop( metricsMine, metricsStart );
+    	
     	Output.get().logDebug( DebugTarget.blockBreak, debugInfo );
 	}
 
@@ -577,6 +595,9 @@ public class OnBlockBreakEventCore
 		OnBlockBreakExternalEvents.getInstance().registerAllExternalEvents();
 				
 		
+		long metricsStart = METRICS_BLOCK_BREAK_TIMER.start();
+		String metricsMine = null;
+		
 		String debugInfo = String.format( "### ** genericBlockExplodeEvent(BlastUseEvent) ** ### %s%s%s%s ",
 				(autoManager ? "autoManager " : ""),
 				(e.isCancelled() ? "CANCELED " : ""),
@@ -650,6 +671,7 @@ public class OnBlockBreakEventCore
     		}
 
 			debugInfo += "mine=" + (mine == null ? "none" : mine.getName()) + " ";
+			metricsMine = (mine == null ? null : mine.getName());
 			
 			boolean isCEBlockExplodeEnabled = isBoolean( AutoFeatures.isProcessCrazyEnchantsBlockExplodeEvents );
     		
@@ -772,6 +794,8 @@ public class OnBlockBreakEventCore
 
 		}
     	
+    	METRICS_BLOCK_BREAK_TIMER.stop( metricsMine, metricsStart );
+    	
     	Output.get().logDebug( DebugTarget.blockBreak, debugInfo );
 
 	}
@@ -1014,7 +1038,7 @@ public class OnBlockBreakEventCore
 		if ( mine == null || targetBlock != null && !targetBlock.isAirBroke() ) {
 		
 			String targetBlockName =  mine == null ? 
-							spigotBlock.getPrisonBlock().getBlockName()
+							spigotBlock.getBlockName()
 								: targetBlock.getPrisonBlock().getBlockName();
 			
 			// Process mine block break events:
@@ -1041,7 +1065,7 @@ public class OnBlockBreakEventCore
 			
 			
 			// A block was broke... so record that event on the tool:	
-			itemLoreCounter( itemInHand, getMessage( AutoFeatures.loreBlockBreakCountName ), 1 );
+			itemLoreCounter( player, itemInHand, getMessage( AutoFeatures.loreBlockBreakCountName ), 1 );
 			
 			
 			if ( mine != null ) {
@@ -1166,46 +1190,10 @@ public class OnBlockBreakEventCore
 
 		if ( itemInHand != null && itemInHand.getBukkitStack().hasItemMeta() ) {
 
-			List<String> lore = new ArrayList<>();
-
-			itemLore = itemLore.trim() + " ";
-
 			itemLore = Text.translateAmpColorCodes( itemLore.trim() + " ");
 
-//			String prisonBlockBroken = itemLore.getLore();
-
-			ItemMeta meta = itemInHand.getBukkitStack().getItemMeta();
-
-			if (meta.hasLore()) {
-				lore = meta.getLore();
-
-				for (String s : lore) {
-					if (s.startsWith(itemLore)) {
-
-						// It has the durability resistance lore, so set the results to 100.
-						// If a value is set, then it will be replaced.
-						results = 100;
-
-						String val = s.replace(itemLore, "").trim();
-
-						try {
-							results += Integer.parseInt(val);
-						} catch (NumberFormatException e1) {
-							Output.get().logError("AutoManager: tool durability failure. lore= [" + s + "] val= [" + val + "] error: " + e1.getMessage());
-						}
-
-						break;
-					}
-				}
-			}
-
-			if ( results > 100d ) {
-				results = 100;
-			}
-			else if ( results < 0 ) {
-				results = 0;
-			}
-
+			results = ToolLoreCache.getInstance().getToolLore( itemInHand )
+							.getDurabilityResistance( itemLore );
 		}
 
 		return results;
@@ -1324,59 +1312,27 @@ public class OnBlockBreakEventCore
 	 * <p>This adds a lore counter to the tool if it is enabled.
 	 * </p>
 	 * 
+	 * <p>The counts are held in the ToolLoreCache and are written to the tool
+	 * after the number of blocks set by loreBlockBreakCountFlushInterval, or 
+	 * when the player switches tools or logs off.
+	 * </p>
+	 * 
+	 * @param player
 	 * @param itemInHand
 	 * @param itemLore
 	 * @param blocks
 	 */
-	protected void itemLoreCounter( SpigotItemStack itemInHand, String itemLore, int blocks) {
+	protected void itemLoreCounter( Player player, SpigotItemStack itemInHand, String itemLore, int blocks) {
 
 		// A block was broke... so record that event on the tool:	
 		if ( itemInHand != null && isBoolean( AutoFeatures.loreTrackBlockBreakCount ) ) {
 			
 			if (itemInHand.getBukkitStack().hasItemMeta()) {
 				
-				List<String> lore = new ArrayList<>();
-				itemLore = itemLore.trim() + " ";
 				itemLore = Text.translateAmpColorCodes( itemLore.trim() + " ");
-				ItemMeta meta = itemInHand.getBukkitStack().getItemMeta();
-				
-//			String prisonBlockBroken = itemLore.getLore();
-				
-				
-				if (meta.hasLore()) {
-					lore = meta.getLore();
-					boolean found = false;
-					
-					for( int i = 0; i < lore.size(); i++ ) {
-						if ( lore.get( i ).startsWith( itemLore ) ) {
-							String val = lore.get( i ).replace( itemLore, "" ).trim();
-							int count = blocks;
-							
-							try {
-								count += Integer.parseInt(val);
-							} catch (NumberFormatException e1) {
-								Output.get().logError("AutoManager: tool counter failure. lore= [" + lore.get(i) + "] val= [" + val + "] error: " + e1.getMessage());								}
-							
-							lore.set(i, itemLore + count);
-							found = true;
-							
-							break;
-						}
-					}
-					
-					if ( !found ) {
-						lore.add(itemLore + 1);
-					}
-					
-				} else {
-					lore.add(itemLore + 1);
-				}
-				
-				meta.setLore(lore);
-				itemInHand.getBukkitStack().setItemMeta(meta);
-				
-				// incrementCounterInName( itemInHand, meta );
 				
+				ToolLoreCache.getInstance().addLoreCount( player, itemInHand, itemLore, blocks, 
+								getInteger( AutoFeatures.loreBlockBreakCountFlushInterval ) );
 			}
 		}
 		
@@ -1578,7 +1534,7 @@ public class OnBlockBreakEventCore
 	}
 
 	public Random getRandom() {
-		return random;
+		return ThreadLocalRandom.current();
 	}
 
 	public Boolean isCrazyEnchantEnabled() {
@@ -31,6 +31,7 @@ import tech.mcprison.prison.internal.ItemStack;
 import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.BlockFace;
 import tech.mcprison.prison.internal.block.BlockState;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.output.Output;
@@ -65,7 +66,7 @@ public class SpigotBlock implements Block {
     public String toString() {
     	StringBuilder sb = new StringBuilder();
     	
-    	sb.append( getPrisonBlock().getBlockName() ).append( " " )
+    	sb.append( getBlockName() ).append( " " )
     			.append( getLocation().toCoordinates() );
     	
     	
@@ -73,7 +74,8 @@ public class SpigotBlock implements Block {
     }
 
     public String getBlockName() {
-    	return getPrisonBlock().getBlockName();
+    	InternedPrisonBlock prisonBlock = getSharedPrisonBlock();
+    	return prisonBlock == null ? null : prisonBlock.getBlockName();
     }
     
     @Override public Location getLocation() {
@@ -92,13 +94,75 @@ public class SpigotBlock implements Block {
 //        return SpigotUtil.materialToBlockType(bBlock.getType());
     }
 
+    /**
+     * <p>Gets the PrisonBlock with this block's location.  This is a new 
+     * PrisonBlock, so it is safe to change it.  If only the type of block is 
+     * needed, then use getSharedPrisonBlock() since it does not have to create 
+     * a new PrisonBlock and Location.
+     * </p>
+     */
     @Override
     public PrisonBlock getPrisonBlock() {
+    	PrisonBlock results = getCustomPrisonBlock();
+    	
+    	if ( results == null ) {
+    		
+    		InternedPrisonBlock interned = 
+    				SpigotPrison.getInstance().getCompatibility().getPrisonBlock( getWrapper() );
+    		
+    		// The interned block is shared, so this is a copy at this block's location:
+    		results = interned == null ? null : interned.withLocation( getLocation() );
+    	}
+    	
+    	else if ( results.getLocation() == null ) {
+    		
+    		Location location = getLocation();
+    		if ( location != null ) {
+    			results.setLocation( location );
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Gets the PrisonBlock that identifies this type of block, without the
+     * location.  For minecraft blocks, this is the InternedPrisonBlock that is 
+     * shared with all of the blocks of the same type.  Custom blocks are copied
+     * in to an InternedPrisonBlock, so the results can never be changed, no 
+     * matter what type of block it is.  The location is this SpigotBlock's 
+     * getLocation().  Use getPrisonBlock() for a PrisonBlock that can be changed.
+     * </p>
+     * 
+     * @return
+     */
+    public InternedPrisonBlock getSharedPrisonBlock() {
+    	InternedPrisonBlock results = null;
+    	
+    	PrisonBlock customBlock = getCustomPrisonBlock();
+    	
+    	if ( customBlock != null ) {
+    		results = new InternedPrisonBlock( customBlock );
+    	}
+    	else {
+    		results = SpigotPrison.getInstance().getCompatibility().getPrisonBlock( getWrapper() );
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Need to see if any PrisonBlockTypes exist in the mine where this block is 
+     * located.  The custom block integrations return a clone of the block.
+     * </p>
+     * 
+     * @return
+     */
+    private PrisonBlock getCustomPrisonBlock() {
     	PrisonBlock results = null;
     	
     	if ( getPrisonBlockTypes() != null ) {
     		
-    		// Need to see if any PrisonBlockTypes exist in the mine where this block is located.
     		for ( PrisonBlockType blockType : getPrisonBlockTypes() ) {
     			
     			results = getPrisonBlockFromCustomBlockIntegration( blockType );
@@ -108,18 +172,6 @@ public class SpigotBlock implements Block {
     			}
     		}
     	}
-
-    	if ( results == null ) {
-    		results = SpigotPrison.getInstance().getCompatibility().getPrisonBlock( getWrapper() );
-    	}
-
-    	if ( results.getLocation() == null && getLocation() != null ) {
-    		// Clone the block that was found in the mine.  This will allow us to 
-    		// set the location:
-    		results = new PrisonBlock( results );
-    		
-    		results.setLocation( getLocation() );
-    	}
     	
     	return results;
     }
@@ -0,0 +1,202 @@
+package tech.mcprison.prison.spigot.block;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.util.Text;
+
+/**
+ * <p>The parsed lore of one tool.  The lore lines are searched, the color codes
+ * are stripped, and the numbers are parsed, only the first time a value is asked
+ * for. The results are then remembered, so the next block break with the same tool
+ * does not have to do any of that work again.
+ * </p>
+ *
+ * <p>Instances are shared through the ToolLoreCache for all tools that have the
+ * exact same lore, so the lore list must never be changed.
+ * </p>
+ *
+ */
+public class ToolLore {
+
+	public static final ToolLore EMPTY = new ToolLore( new ArrayList<>() );
+
+	private final List<String> lore;
+
+	private final Map<String, Integer> durabilityResistance;
+	private final Map<String, Double> enablerValues;
+	private final Map<String, Double> loreValues;
+
+	public ToolLore( List<String> lore ) {
+		super();
+
+		this.lore = Collections.unmodifiableList( lore );
+
+		this.durabilityResistance = new HashMap<>();
+		this.enablerValues = new HashMap<>();
+		this.loreValues = new HashMap<>();
+	}
+
+	public List<String> getLore() {
+		return lore;
+	}
+
+	/**
+	 * <p>The durability resistance, where the itemLore must already have the
+	 * color codes translated and must include the trailing space.  If the lore
+	 * is found, then the results are 100 plus the value that follows the lore,
+	 * limited to the range of 0 through 100.
+	 * </p>
+	 *
+	 * @param itemLore
+	 * @return
+	 */
+	public synchronized int getDurabilityResistance( String itemLore ) {
+
+		Integer results = durabilityResistance.get( itemLore );
+
+		if ( results == null ) {
+			int value = 0;
+
+			for ( String s : lore ) {
+				if ( s.startsWith( itemLore ) ) {
+
+					// It has the durability resistance lore, so set the results to 100.
+					// If a value is set, then it will be replaced.
+					value = 100;
+
+					String val = s.replace( itemLore, "" ).trim();
+
+					try {
+						value += Integer.parseInt( val );
+					}
+					catch ( NumberFormatException e1 ) {
+						Output.get().logError( "AutoManager: tool durability failure. lore= [" + s + "] val= [" +
+									val + "] error: " + e1.getMessage() );
+					}
+
+					break;
+				}
+			}
+
+			if ( value > 100 ) {
+				value = 100;
+			}
+			else if ( value < 0 ) {
+				value = 0;
+			}
+
+			results = value;
+			durabilityResistance.put( itemLore, results );
+		}
+
+		return results.intValue();
+	}
+
+	/**
+	 * <p>The percent value of a lore that is compared without removing the
+	 * color codes, such as the ItemLoreEnablers.
+	 * </p>
+	 *
+	 * @param loreName
+	 * @return
+	 */
+	public synchronized double getEnablerValue( String loreName ) {
+
+		Double results = enablerValues.get( loreName );
+
+		if ( results == null ) {
+			double value = 0.0;
+
+			for ( String s : lore ) {
+				if ( s.startsWith( loreName ) ) {
+					value = parsePercent( s.replace( loreName, "" ).trim() );
+				}
+			}
+
+			results = value;
+			enablerValues.put( loreName, results );
+		}
+
+		return results.doubleValue();
+	}
+
+	/**
+	 * <p>The percent value of a lore, where the color codes are removed from
+	 * both the lore and the loreValue before they are compared.
+	 * </p>
+	 *
+	 * @param loreValue
+	 * @return
+	 */
+	public synchronized double getLoreValue( String loreValue ) {
+
+		Double results = loreValues.get( loreValue );
+
+		if ( results == null ) {
+			double value = 0.0;
+
+			// Clean the loreValue we need to compare everything to.  It must have all color codes removed:
+			String loreValueCleaned = Text.stripColor( loreValue );
+
+			for ( String s : lore ) {
+
+				// Remove the color codes so it can be cleanly compared with the loreValue:
+				String loreCleaned = Text.stripColor( s );
+
+				if ( loreCleaned.startsWith( loreValueCleaned ) ) {
+					value = parsePercent( loreCleaned.replace( loreValueCleaned, "" ).trim() );
+				}
+			}
+
+			results = value;
+			loreValues.put( loreValue, results );
+		}
+
+		return results.doubleValue();
+	}
+
+	/**
+	 * <p>No value is 100 percent, otherwise the value must be a number which
+	 * will be limited to the range of 0 through 100.  If the number cannot be
+	 * parsed, then it defaults to 100 percent.
+	 * </p>
+	 *
+	 * @param value
+	 * @return
+	 */
+	private double parsePercent( String value ) {
+
+		// Lore detected so set default to 100%:
+		double results = 100.0;
+
+		if ( value.length() > 0 ) {
+
+			try {
+				results = Double.parseDouble( value );
+			}
+			catch ( NumberFormatException e ) {
+
+				// Error: Default to 100%
+				// Do not generate log messages since there will be 1000's...
+				results = 100.0;
+			}
+
+			// Clean up the parsed number.  Less than zero is zero (disabled).
+			if ( results < 0.0 ) {
+				results = 0.0;
+			}
+
+			// Cannot exceed 100%
+			if ( results > 100.0 ) {
+				results = 100.0;
+			}
+		}
+
+		return results;
+	}
+}
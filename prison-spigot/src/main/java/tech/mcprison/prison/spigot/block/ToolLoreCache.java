@@ -0,0 +1,429 @@
+package tech.mcprison.prison.spigot.block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>This cache prevents the lore of the player's tool from being read, parsed, and
+ * rewritten on every block break.
+ * </p>
+ *
+ * <p>The parsed lore is kept in a small LRU cache that is keyed by the lore lines,
+ * so all tools with the same lore share the same ToolLore.
+ * </p>
+ *
+ * <p>The lore counters, such as the blocks mined, are accumulated in memory for
+ * each player and are only written back to the tool when the flush interval is
+ * reached, when the player switches tools, when they log off, or when the server
+ * shuts down.  Since the lore is not changed between the flushes, the parsed lore
+ * of the tool stays in the cache.
+ * </p>
+ *
+ * <p>The counts are tied to the inventory slot that held the tool, so two tools
+ * that look the same are still counted apart.  When the counts are written, the
+ * tool is found again within the player's inventory, since it may have been moved
+ * or replaced since the counts were started.
+ * </p>
+ *
+ * <p>All block break events run on the server thread, but the access is
+ * synchronized so it is safe if that ever changes.
+ * </p>
+ *
+ */
+public class ToolLoreCache {
+
+	public static final int PARSED_LORE_CACHE_SIZE = 256;
+
+	private static ToolLoreCache instance;
+
+	private final Map<List<String>, ToolLore> parsedLore;
+
+	private final Map<UUID, ToolLoreCounter> pendingCounters;
+
+	/**
+	 * <p>Package private so the tests can have their own cache.
+	 * </p>
+	 */
+	ToolLoreCache() {
+		super();
+
+		this.parsedLore = new LinkedHashMap<List<String>, ToolLore>( 64, 0.75f, true ) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<List<String>, ToolLore> eldest ) {
+				return size() > PARSED_LORE_CACHE_SIZE;
+			}
+		};
+
+		this.pendingCounters = new HashMap<>();
+	}
+
+	public static ToolLoreCache getInstance() {
+		if ( instance == null ) {
+			synchronized ( ToolLoreCache.class ) {
+				if ( instance == null ) {
+					instance = new ToolLoreCache();
+				}
+			}
+		}
+		return instance;
+	}
+
+
+	/**
+	 * <p>Identifies a tool between block breaks.  The bukkit ItemStack is a new
+	 * instance on each event, so the tool is identified by its type, its display
+	 * name, and its lore, which the SpigotItemStack and the parsed lore cache have
+	 * already read.  The hash is checked first so a different tool is usually
+	 * found without comparing the lore.
+	 * </p>
+	 */
+	static final class ToolKey {
+		private final Material type;
+		private final String displayName;
+		private final List<String> lore;
+		private final int hash;
+
+		ToolKey( Material type, String displayName, List<String> lore ) {
+			super();
+
+			this.type = type;
+			this.displayName = displayName;
+			this.lore = lore;
+			this.hash = Objects.hash( type, displayName, lore );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			boolean results = this == obj;
+
+			if ( !results && obj instanceof ToolKey ) {
+				ToolKey key = (ToolKey) obj;
+
+				// The parsed lore is shared, so the lists are usually the same instance:
+				results = hash == key.hash && type == key.type &&
+						Objects.equals( displayName, key.displayName ) &&
+						(lore == key.lore || lore.equals( key.lore ));
+			}
+
+			return results;
+		}
+	}
+
+	/**
+	 * <p>The counts that have not been written to the tool yet.
+	 * </p>
+	 */
+	static class ToolLoreCounter {
+		private final Player player;
+		private final int slot;
+		private final ItemStack tool;
+		private final ToolKey key;
+
+		private final Map<String, Integer> counts;
+		private int blocks;
+
+		public ToolLoreCounter( Player player, int slot, ItemStack tool, ToolKey key ) {
+			super();
+
+			this.player = player;
+			this.slot = slot;
+			this.tool = tool;
+			this.key = key;
+
+			this.counts = new LinkedHashMap<>();
+			this.blocks = 0;
+		}
+	}
+
+
+	/**
+	 * <p>Gets the parsed lore for the given lore lines.
+	 * </p>
+	 *
+	 * @param lore
+	 * @return
+	 */
+	public ToolLore getToolLore( List<String> lore ) {
+		ToolLore results = ToolLore.EMPTY;
+
+		if ( lore != null && !lore.isEmpty() ) {
+
+			synchronized ( parsedLore ) {
+
+				results = parsedLore.get( lore );
+
+				if ( results == null ) {
+					List<String> key = new ArrayList<>( lore );
+
+					results = new ToolLore( key );
+					parsedLore.put( key, results );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Gets the parsed lore of the tool.  The SpigotItemStack already has a
+	 * copy of the lore, so the ItemMeta does not have to be read again.
+	 * </p>
+	 *
+	 * @param itemInHand
+	 * @return
+	 */
+	public ToolLore getToolLore( SpigotItemStack itemInHand ) {
+		return itemInHand == null || itemInHand.isAir() ?
+					ToolLore.EMPTY : getToolLore( itemInHand.getLore() );
+	}
+
+	/**
+	 * <p>Gets the parsed lore of the bukkit ItemStack.
+	 * </p>
+	 *
+	 * @param item
+	 * @return
+	 */
+	public ToolLore getToolLore( ItemStack item ) {
+		ToolLore results = ToolLore.EMPTY;
+
+		if ( item != null && item.getType() != Material.AIR ) {
+			ItemMeta meta = item.getItemMeta();
+
+			if ( meta != null && meta.hasLore() ) {
+				results = getToolLore( meta.getLore() );
+			}
+		}
+
+		return results;
+	}
+
+
+	/**
+	 * <p>Adds the blocks to the lore counter of the player's tool.  The counts
+	 * are only written to the tool when the flushInterval number of blocks have
+	 * been counted, or if the player is now using a different tool, or the same 
+	 * kind of tool in another slot.
+	 * </p>
+	 *
+	 * @param player
+	 * @param itemInHand
+	 * @param itemLore The lore counter's name, with the color codes translated and the trailing space.
+	 * @param blocks
+	 * @param flushInterval A value of 1 or less writes the counts on every block break.
+	 */
+	public void addLoreCount( Player player, SpigotItemStack itemInHand, String itemLore,
+					int blocks, int flushInterval ) {
+
+		ItemStack tool = itemInHand.getBukkitStack();
+		ToolKey key = new ToolKey( tool.getType(), itemInHand.getDisplayName(),
+							getToolLore( itemInHand ).getLore() );
+
+		addLoreCount( player, tool, key, itemLore, blocks, flushInterval );
+	}
+
+	void addLoreCount( Player player, ItemStack tool, ToolKey key, String itemLore,
+					int blocks, int flushInterval ) {
+
+		UUID playerUuid = player.getUniqueId();
+		int slot = player.getInventory().getHeldItemSlot();
+
+		ToolLoreCounter flushCounter = null;
+		ToolLoreCounter writeCounter = null;
+
+		synchronized ( pendingCounters ) {
+
+			ToolLoreCounter counter = pendingCounters.get( playerUuid );
+
+			if ( counter != null && (counter.slot != slot || !counter.key.equals( key )) ) {
+				// The player switched tools, so write the old tool's counts:
+				flushCounter = counter;
+				counter = null;
+			}
+
+			if ( counter == null ) {
+				counter = new ToolLoreCounter( player, slot, tool, key );
+				pendingCounters.put( playerUuid, counter );
+			}
+
+			Integer count = counter.counts.get( itemLore );
+			counter.counts.put( itemLore, (count == null ? 0 : count.intValue()) + blocks );
+			counter.blocks += blocks;
+
+			if ( counter.blocks >= flushInterval ) {
+				writeCounter = counter;
+				pendingCounters.remove( playerUuid );
+			}
+		}
+
+		if ( flushCounter != null ) {
+			writeCounts( flushCounter );
+		}
+		if ( writeCounter != null ) {
+			writeCounts( writeCounter );
+		}
+	}
+
+	/**
+	 * <p>Writes the player's pending lore counts to their tool.
+	 * </p>
+	 *
+	 * @param player
+	 */
+	public void flush( Player player ) {
+		ToolLoreCounter counter = null;
+
+		synchronized ( pendingCounters ) {
+			counter = pendingCounters.remove( player.getUniqueId() );
+		}
+
+		if ( counter != null ) {
+			writeCounts( counter );
+		}
+	}
+
+	boolean hasPendingCounts( UUID playerUuid ) {
+		synchronized ( pendingCounters ) {
+			return pendingCounters.containsKey( playerUuid );
+		}
+	}
+
+	/**
+	 * <p>Writes all of the pending lore counts.  This is used when the server
+	 * is shutting down.
+	 * </p>
+	 */
+	public void flushAll() {
+		List<ToolLoreCounter> counters = null;
+
+		synchronized ( pendingCounters ) {
+			counters = new ArrayList<>( pendingCounters.values() );
+			pendingCounters.clear();
+		}
+
+		for ( ToolLoreCounter counter : counters ) {
+			writeCounts( counter );
+		}
+	}
+
+	/**
+	 * <p>Finds the counter's tool within the player's current inventory, first in
+	 * the slot that held it, and then in the rest of the inventory in case it was
+	 * moved.  The server may return a new ItemStack for the same item, so if it is 
+	 * not the same instance, then the whole ItemStack must be equal, including its
+	 * durability, and not just the ToolKey.
+	 * </p>
+	 *
+	 * @param counter
+	 * @return The tool, or null if the player no longer has it.
+	 */
+	ItemStack findTool( ToolLoreCounter counter ) {
+		ItemStack results = null;
+
+		PlayerInventory inventory = counter.player.getInventory();
+		ItemStack item = inventory.getItem( counter.slot );
+
+		if ( isSameTool( counter.tool, item ) ) {
+			results = item;
+		}
+		else {
+			for ( ItemStack content : inventory.getContents() ) {
+				if ( isSameTool( counter.tool, content ) ) {
+					results = content;
+					break;
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private boolean isSameTool( ItemStack tool, ItemStack item ) {
+		return item != null && (item == tool || item.equals( tool ));
+	}
+
+	private void writeCounts( ToolLoreCounter counter ) {
+		ItemStack tool = findTool( counter );
+
+		if ( tool == null ) {
+			Output.get().logDebug( "ToolLoreCache: the tool is no longer in the player's inventory, " +
+						"so the lore counts were not written: %s", counter.counts );
+		}
+		else {
+			writeCounts( tool, counter.counts );
+		}
+	}
+
+
+	/**
+	 * <p>Updates the lore on the tool with all of the counts, with only one
+	 * update of the ItemMeta.
+	 * </p>
+	 *
+	 * @param tool
+	 * @param counts The blocks to add for each lore counter.
+	 */
+	void writeCounts( ItemStack tool, Map<String, Integer> counts ) {
+
+		if ( tool == null || !tool.hasItemMeta() ) {
+			return;
+		}
+
+		ItemMeta meta = tool.getItemMeta();
+		List<String> lore = meta.hasLore() ? meta.getLore() : new ArrayList<>();
+
+		for ( Map.Entry<String, Integer> entry : counts.entrySet() ) {
+			String itemLore = entry.getKey();
+			int blocks = entry.getValue().intValue();
+
+			boolean found = false;
+
+			for ( int i = 0; i < lore.size(); i++ ) {
+				if ( lore.get( i ).startsWith( itemLore ) ) {
+					String val = lore.get( i ).replace( itemLore, "" ).trim();
+					int count = blocks;
+
+					try {
+						count += Integer.parseInt( val );
+					}
+					catch ( NumberFormatException e1 ) {
+						Output.get().logError( "AutoManager: tool counter failure. lore= [" + lore.get( i ) +
+									"] val= [" + val + "] error: " + e1.getMessage() );
+					}
+
+					lore.set( i, itemLore + count );
+					found = true;
+
+					break;
+				}
+			}
+
+			if ( !found ) {
+				lore.add( itemLore + blocks );
+			}
+		}
+
+		meta.setLore( lore );
+		tool.setItemMeta( meta );
+	}
+}
@@ -6,6 +6,7 @@ import org.bukkit.inventory.ItemStack;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.internal.block.BlockFace;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
 import tech.mcprison.prison.util.BlockType;
@@ -15,7 +16,17 @@ public interface CompatibilityBlocks
 
 	public BlockType getBlockType(Block spigotBlock);
 
-	public PrisonBlock getPrisonBlock(Block spigotBlock);
+	/**
+	 * <p>Identifies the block.  The block that is returned is interned and
+	 * shared with all blocks of the same type, so it has no location and cannot
+	 * be changed.  Use SpigotBlock.getPrisonBlock() to get a copy with the 
+	 * location.
+	 * </p>
+	 * 
+	 * @param spigotBlock
+	 * @return
+	 */
+	public InternedPrisonBlock getPrisonBlock(Block spigotBlock);
 	
 	public XMaterial getXMaterial( Block spigotBlock );
 	
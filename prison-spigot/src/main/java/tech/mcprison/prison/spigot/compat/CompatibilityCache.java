@@ -1,8 +1,9 @@
 package tech.mcprison.prison.spigot.compat;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.inventory.ItemStack;
 
@@ -17,6 +18,25 @@ import tech.mcprison.prison.util.BlockType;
  * the resource was accessed.
  * </p>
  *
+ * <p>The cache used to be a TreeMap keyed on the material name with the data
+ * value appended, so every lookup built a new String and then compared Strings
+ * to find it.  It also was not thread safe, but it is used by the async mine
+ * resets and the block break events.
+ * </p>
+ *
+ * <p>Now each name has one CacheEntry which holds an array of the values
+ * indexed by the data value.  The entries are found by the ordinal of the
+ * spigot Material or the prison BlockType, so no Strings are created for a
+ * lookup.  The entries are still shared by name, so a spigot Material, a
+ * BlockType, and a PrisonBlock with the same name will share the same cached
+ * XMaterial, just as they did with the String keys.  A data value of zero or
+ * less is the same as no data value.
+ * </p>
+ *
+ * <p>Like before, once a value has been cached it is never replaced. A null value
+ * is stored as BlockType.NULL_BLOCK or NULL_TOKEN so it is only looked up once.
+ * </p>
+ *
  */
 public class CompatibilityCache {
 	
@@ -24,17 +44,41 @@ public class CompatibilityCache {
 	
 	public static final XMaterial NULL_TOKEN = XMaterial.VOID_AIR;
 	
+	/**
+	 * The data values range from 0 through 127 since they are a byte, and all
+	 * negative values are treated as zero.
+	 */
+	private static final int DATA_VALUES = Byte.MAX_VALUE + 1;
 	
-	private Map<String, BlockType> blockTypeCache;
 	
-	private Map<String, XMaterial> xMaterialCache;
+	private final ConcurrentHashMap<String, CacheEntry> entriesByName;
+
+	private final AtomicReferenceArray<CacheEntry> materialEntries;
+
+	private final AtomicReferenceArray<CacheEntry> blockTypeEntries;
+
+
+	private static class CacheEntry {
+
+		private final AtomicReferenceArray<BlockType> blockTypes;
+		private final AtomicReferenceArray<XMaterial> xMaterials;
+
+		private CacheEntry() {
+			super();
+
+			this.blockTypes = new AtomicReferenceArray<>( DATA_VALUES );
+			this.xMaterials = new AtomicReferenceArray<>( DATA_VALUES );
+		}
+	}
 	
 	
 	public CompatibilityCache() {
 		super();
 		
-		this.blockTypeCache = new TreeMap<>();
-		this.xMaterialCache = new TreeMap<>();
+		this.entriesByName = new ConcurrentHashMap<>();
+
+		this.materialEntries = new AtomicReferenceArray<>( Material.values().length );
+		this.blockTypeEntries = new AtomicReferenceArray<>( BlockType.values().length );
 		
 		initializeForcedCache();
 	}
@@ -47,44 +91,66 @@ public class CompatibilityCache {
 	 */
 	private void initializeForcedCache() {
 		
-		xMaterialCache.put( "STATIONARY_WATER", XMaterial.WATER );
-		xMaterialCache.put( "WATER", XMaterial.WATER );
+		getEntry( "STATIONARY_WATER" ).xMaterials.set( 0, XMaterial.WATER );
+		getEntry( "WATER" ).xMaterials.set( 0, XMaterial.WATER );
 		
 	}
+
+	private static int dataIndex( byte data ) {
+		return data <= 0 ? 0 : data;
+	}
+
+	private CacheEntry getEntry( String name ) {
+		return entriesByName.computeIfAbsent( name, k -> new CacheEntry() );
+	}
+
+	private CacheEntry getEntry( Material material ) {
+		int ordinal = material.ordinal();
+
+		CacheEntry entry = materialEntries.get( ordinal );
+		if ( entry == null ) {
+			entry = getEntry( material.name() );
+			materialEntries.set( ordinal, entry );
+		}
+
+		return entry;
+	}
+
+	private CacheEntry getEntry( BlockType blockType ) {
+		int ordinal = blockType.ordinal();
+
+		CacheEntry entry = blockTypeEntries.get( ordinal );
+		if ( entry == null ) {
+			entry = getEntry( blockType.name() );
+			blockTypeEntries.set( ordinal, entry );
+		}
+
+		return entry;
+	}
 	
 	
 	public BlockType getCachedBlockType( Block spigotBlock, byte data ) {
-		String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" +data);
-		
-		BlockType blockType = blockTypeCache.get( key );
 		
-		return blockType; //blockType == BlockType.NULL_BLOCK ? null : blockType;
+		return getEntry( spigotBlock.getType() ).blockTypes.get( dataIndex( data ) );
 	}
 	public void putCachedBlockType( Block spigotBlock, byte data, BlockType blockType ) {
 		if ( spigotBlock != null ) {
-			String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" + data);
 			
-			if ( !blockTypeCache.containsKey( key ) ) {
-				blockTypeCache.put( key, blockType == null ? BlockType.NULL_BLOCK : blockType );
-			}
+			getEntry( spigotBlock.getType() ).blockTypes.compareAndSet( dataIndex( data ),
+					null, blockType == null ? BlockType.NULL_BLOCK : blockType );
 		}
 	}
 	
 	
 	public BlockType getCachedBlockType( ItemStack spigotStack, byte data ) {
-		String key = spigotStack.getType().name() + ( data <= 0 ? "" : ":" + data);
 		
-		BlockType blockType = blockTypeCache.get( key );
-		
-		return blockType; // blockType == BlockType.NULL_BLOCK ? null : blockType;
+		return getEntry( spigotStack.getType() ).blockTypes.get( dataIndex( data ) );
 	}
 	public void putCachedBlockType( ItemStack spigotStack, byte data, BlockType blockType ) {
 		if ( spigotStack != null ) {
-			String key = spigotStack.getType().name() + ( data <= 0 ? "" : ":" + data);
 			
-			if ( !blockTypeCache.containsKey( key ) ) {
-				blockTypeCache.put( key, blockType == null ? BlockType.NULL_BLOCK : blockType );
-			}
+			getEntry( spigotStack.getType() ).blockTypes.compareAndSet( dataIndex( data ),
+					null, blockType == null ? BlockType.NULL_BLOCK : blockType );
 		}
 	}
 	
@@ -93,56 +159,40 @@ public class CompatibilityCache {
 	
 	public XMaterial getCachedXMaterial( PrisonBlock prisonBlock )
 	{
-		String key = prisonBlock.getBlockName();
-		
-		XMaterial xMat = xMaterialCache.get( key );
+		// Do not add an entry if the name has never been cached:
+		CacheEntry entry = entriesByName.get( prisonBlock.getBlockName() );
 		
-		// Using VOID_AIR as temp placeholder for null values:
-		return xMat; // xMat == NULL_TOKEN ? null : xMat;
+		return entry == null ? null : entry.xMaterials.get( 0 );
 	}
 	
 	public void putCachedXMaterial( PrisonBlock prisonBlock, XMaterial xMat )
 	{
-		String key = prisonBlock.getBlockName();
-			
-		if ( !xMaterialCache.containsKey( key ) ) {
-			// Using NULL_TOKEN as temp placeholder for null values:
-			xMaterialCache.put( key, xMat == null ? NULL_TOKEN : xMat );
-		}
+		// Using NULL_TOKEN as temp placeholder for null values:
+		getEntry( prisonBlock.getBlockName() ).xMaterials.compareAndSet( 0,
+				null, xMat == null ? NULL_TOKEN : xMat );
 	}
 
 	public XMaterial getCachedXMaterial( Block spigotBlock, byte data ) {
-		String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" +data);
-		
-		XMaterial xMat = xMaterialCache.get( key );
 		
 		// Do not use NULL_TOKEN since this must return null if it does not exist:
-		return xMat; 
+		return getEntry( spigotBlock.getType() ).xMaterials.get( dataIndex( data ) );
 	}
 	public void putCachedXMaterial( Block spigotBlock, byte data, XMaterial xMat ) {
-		String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" +data);
 			
-		if ( !xMaterialCache.containsKey( key ) ) {
-			// Using VOID_AIR as temp placeholder for null values:
-			xMaterialCache.put( key, xMat == null ? NULL_TOKEN : xMat );
-		}
+		// Using VOID_AIR as temp placeholder for null values:
+		getEntry( spigotBlock.getType() ).xMaterials.compareAndSet( dataIndex( data ),
+				null, xMat == null ? NULL_TOKEN : xMat );
 	}
 	
 	public XMaterial getCachedXMaterial( BlockType blockType, byte data ) {
-		String key = blockType.name() + ( data <= 0 ? "" : ":" +data);
-		
-		XMaterial xMat = xMaterialCache.get( key );
 		
-		// Using VOID_AIR as temp placeholder for null values:
-		return xMat; // xMat == XMaterial.VOID_AIR ? null : xMat;
+		return getEntry( blockType ).xMaterials.get( dataIndex( data ) );
 	}
 	public void putCachedXMaterial( BlockType blockType, byte data, XMaterial xMat ) {
-			String key = blockType.name() + ( data <= 0 ? "" : ":" +data);
-			
-			if ( !xMaterialCache.containsKey( key ) ) {
-			// Using VOID_AIR as temp placeholder for null values:
-			xMaterialCache.put( key, xMat == null ? NULL_TOKEN : xMat );
-		}
+		
+		// Using VOID_AIR as temp placeholder for null values:
+		getEntry( blockType ).xMaterials.compareAndSet( dataIndex( data ),
+				null, xMat == null ? NULL_TOKEN : xMat );
 	}
 	
 }
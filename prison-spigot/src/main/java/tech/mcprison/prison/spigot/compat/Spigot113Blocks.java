@@ -11,9 +11,12 @@ import org.bukkit.inventory.meta.ItemMeta;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.internal.block.BlockFace;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockTypes;
 import tech.mcprison.prison.internal.block.PrisonBlockTypes.InternalBlockTypes;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
 import tech.mcprison.prison.util.BlockType;
 
@@ -44,13 +47,15 @@ public abstract class Spigot113Blocks
         return results == BlockType.NULL_BLOCK ? null : results;
     }
 	
-	public PrisonBlock getPrisonBlock(Block spigotBlock) {
-		PrisonBlock pBlock = null;
+	public InternedPrisonBlock getPrisonBlock(Block spigotBlock) {
+		InternedPrisonBlock pBlock = null;
 		
 		XMaterial xMat = getXMaterial( spigotBlock );
 		
 		if ( xMat != null ) {
-			pBlock = new PrisonBlock( xMat.name() );
+			PrisonBlockTypes prisonBlockTypes = SpigotPrison.getInstance().getPrisonBlockTypes();
+			
+			pBlock = prisonBlockTypes.getInternedBlock( xMat.name(), PrisonBlock::new );
 		}
 		// ignore nulls because errors were logged in getXMaterial() so they only
 		// are logged once
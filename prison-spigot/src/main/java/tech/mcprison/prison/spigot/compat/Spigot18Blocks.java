@@ -8,7 +8,9 @@ import org.bukkit.inventory.ItemStack;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.internal.block.BlockFace;
+import tech.mcprison.prison.internal.block.InternedPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockTypes;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
@@ -78,13 +80,15 @@ public abstract class Spigot18Blocks
     }
 	
 	
-	public PrisonBlock getPrisonBlock(Block spigotBlock) {
-		PrisonBlock pBlock = null;
+	public InternedPrisonBlock getPrisonBlock(Block spigotBlock) {
+		InternedPrisonBlock pBlock = null;
 		
 		XMaterial xMat = getXMaterial( spigotBlock );
 		
 		if ( xMat != null ) {
-			pBlock = SpigotPrison.getInstance().getPrisonBlockTypes().getBlockTypesByName( xMat.name() );
+			PrisonBlockTypes prisonBlockTypes = SpigotPrison.getInstance().getPrisonBlockTypes();
+			
+			pBlock = prisonBlockTypes.getInternedBlockType( xMat.name() );
 //			pBlock = new PrisonBlock( xMat.name() );
 		}
 		// ignore nulls because errors were logged in getXMaterial() so they only
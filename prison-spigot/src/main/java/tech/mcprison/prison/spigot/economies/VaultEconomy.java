@@ -82,6 +82,16 @@ public class VaultEconomy
         }
     }
 
+    /**
+     * <p>Vault reports if the withdrawal worked, so the balance does not need
+     * to be read before and after.
+     * </p>
+     */
+    @Override
+    public boolean withdraw(Player player, double amount) {
+        return hasIntegrated() && econWrapper.removeBalance( player, amount );
+    }
+
     @Override 
     public boolean canAfford(Player player, double amount) {
         return hasIntegrated() && getBalance(player) >= amount;
@@ -1,5 +1,9 @@
 package tech.mcprison.prison.spigot.economies;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.RegisteredServiceProvider;
@@ -27,11 +31,15 @@ public class VaultEconomyWrapper
 	
 	private boolean preV1dot4 = false;
 	
+	private final Map<UUID, OfflinePlayer> offlinePlayers;
+	
 	public VaultEconomyWrapper(String providerName ) {
 		super();
 		
 		this.providerName = providerName;
 		
+		this.offlinePlayers = new ConcurrentHashMap<>();
+		
 		RegisteredServiceProvider<net.milkbowl.vault.economy.Economy> economyProvider =
 				Bukkit.getServer().getServicesManager()
 				.getRegistration(net.milkbowl.vault.economy.Economy.class);
@@ -83,9 +91,34 @@ public class VaultEconomyWrapper
 		return economy == null ? "not enabled" : economy.getName();
 	}
 	
+	/**
+	 * <p>Online players are looked up on every call, so a player that has logged
+	 * out is never kept.  SpigotUtil.getBukkitOfflinePlayer() searches all of the
+	 * server's offline players, so only the offline players are cached once they
+	 * are found.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
 	private OfflinePlayer getOfflinePlayer(Player player) {
+		UUID uuid = player.getUUID();
+		
+		OfflinePlayer results = uuid == null ? null : Bukkit.getPlayer( uuid );
 		
-		return SpigotUtil.getBukkitOfflinePlayer( player.getUUID() );
+		if ( results == null && uuid != null ) {
+			results = offlinePlayers.get( uuid );
+			
+			if ( results == null ) {
+				results = SpigotUtil.getBukkitOfflinePlayer( uuid );
+				
+				if ( results != null && !(results instanceof org.bukkit.entity.Player) ) {
+					offlinePlayers.put( uuid, results );
+				}
+			}
+		}
+		
+		return results;
 	}
 	
 	
@@ -143,8 +176,16 @@ public class VaultEconomyWrapper
         					player.getName(), Double.toString( amount ));
         		}
         		else {
-        			economy.withdrawPlayer( oPlayer, getBalance( player ) );
-        			economy.depositPlayer( oPlayer, amount );
+        			// Only change the balance by the difference, instead of withdrawing 
+        			// the whole balance and then depositing the new amount:
+        			double difference = amount - economy.getBalance( oPlayer );
+        			
+        			if ( difference > 0 ) {
+        				economy.depositPlayer( oPlayer, difference );
+        			}
+        			else if ( difference < 0 ) {
+        				economy.withdrawPlayer( oPlayer, -difference );
+        			}
         			results = true;
         		}
         	}
@@ -194,8 +235,7 @@ public class VaultEconomyWrapper
     	boolean results = false;
     	if (economy != null) {
     		if ( isPreV1_4() ) {
-    			economy.withdrawPlayer( player.getName(), amount );
-    			results = true;
+    			results = economy.withdrawPlayer( player.getName(), amount ).transactionSuccess();
     		}
     		else {
     			OfflinePlayer oPlayer = getOfflinePlayer( player );
@@ -205,8 +245,7 @@ public class VaultEconomyWrapper
     						player.getName(), Double.toString( amount ));
     			}
     			else {
-    				economy.withdrawPlayer( oPlayer, amount );
-    				results = true;
+    				results = economy.withdrawPlayer( oPlayer, amount ).transactionSuccess();
     			}
     		}
 
@@ -12,7 +12,6 @@ import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
-import tech.mcprison.prison.ranks.data.RankPlayer;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
@@ -20,7 +19,6 @@ import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * @author GABRYCA
@@ -89,14 +87,9 @@ public class SpigotRanksGUI extends SpigotGUIComponents {
             ranksLore.add(SpigotPrison.format(loreTag2 + ChatColor.translateAlternateColorCodes('&', rank.getTag())));
             ranksLore.add(SpigotPrison.format(lorePrice3 + PlaceholdersUtil.formattedKmbtSISize(rank.getCost(), formatDecimal, "")));
 
-            // Init a variable
-            List<RankPlayer> players =
-                    PrisonRanks.getInstance().getPlayerManager().getPlayers().stream()
-                            .filter(rankPlayer -> rankPlayer.getLadderRanks().containsValue(rank))
-                            .collect(Collectors.toList());
-
             // Add the number of players with this rank
-            ranksLore.add(SpigotPrison.format(lorePlayersWithRank + players.size()));
+            int players = PrisonRanks.getInstance().getPlayerManager().getPlayerCount(rank);
+            ranksLore.add(SpigotPrison.format(lorePlayersWithRank + players));
             ranksLore.add("");
             //getCommands(ranksLore, rank);
 
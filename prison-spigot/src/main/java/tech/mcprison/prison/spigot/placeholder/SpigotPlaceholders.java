@@ -6,17 +6,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.metrics.KeyedMetricTimer;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.PlaceHolderKey;
 import tech.mcprison.prison.placeholders.PlaceholderAttribute;
+import tech.mcprison.prison.placeholders.PlaceholderDispatcher;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceHolderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
-import tech.mcprison.prison.placeholders.PlaceholderResults;
 import tech.mcprison.prison.placeholders.Placeholders;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.managers.PlayerManager;
@@ -26,6 +27,20 @@ import tech.mcprison.prison.spigot.SpigotPrison;
 public class SpigotPlaceholders
 	implements Placeholders {
 
+	/**
+	 * Keyed by "translate" for the single placeholders, and "text" for the text 
+	 * that contains placeholders.
+	 */
+	private static final KeyedMetricTimer METRICS_PLACEHOLDER_TIMER = 
+			PrisonMetrics.get().getKeyedTimer( PrisonMetrics.TIMER_PLACEHOLDER );
+	
+	/**
+	 * The dispatcher is immutable and holds the managers that it was built from, 
+	 * so publishing it through this one field is enough for other threads to see
+	 * a consistent registry and managers.
+	 */
+	private volatile PlaceholderDispatcher placeholderDispatcher;
+
     
 	@Override
     public Map<PlaceHolderFlags, Integer> getPlaceholderDetailCounts() {
@@ -148,29 +163,9 @@ public class SpigotPlaceholders
      */
     @Override
     public String placeholderTranslate(UUID playerUuid, String playerName, String identifier) {
-		String results = null;
-
-		if (  PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() && 
-					playerUuid != null ) {
-			PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
-			if ( pm != null ) {
-				results = pm.getTranslatePlayerPlaceHolder( playerUuid, playerName, identifier );
-			}
-		}
+		long metricsStart = METRICS_PLACEHOLDER_TIMER.start();
 		
-		// If it did not match on a player placeholder, then try mines:
-		if ( PrisonMines.getInstance() != null && PrisonMines.getInstance().isEnabled() && 
-					results == null ) {
-			MineManager mm = PrisonMines.getInstance().getMineManager();
-			if ( mm != null ) {
-				results = mm.getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, identifier );
-
-				if ( results == null ) {
-					results = mm.getTranslateMinesPlaceHolder( identifier );
-				}
-			}
-			
-		}
+		String results = getPlaceholderDispatcher().translate( playerUuid, playerName, identifier );
 		
 //		if ( results == null ) {
 //			Output.get().logInfo( "### ### SpigotPlaceholders.placeholderTranslate: " +
@@ -178,102 +173,83 @@ public class SpigotPlaceholders
 //					(identifier == null ? "(null)" : identifier), playerUuid, playerName );
 //		}
 		
+		METRICS_PLACEHOLDER_TIMER.stop( "translate", metricsStart );
+		
 		return results;
 	}
     
+    private PlayerManager getPlayerManager() {
+    	PlayerManager results = null;
+    	
+    	if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
+    		results = PrisonRanks.getInstance().getPlayerManager();
+    	}
+    	
+    	return results;
+    }
+    
+    private RankManager getRankManager() {
+    	RankManager results = null;
+    	
+    	if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
+    		results = PrisonRanks.getInstance().getRankManager();
+    	}
+    	
+    	return results;
+    }
+    
+    private MineManager getMineManager() {
+    	MineManager results = null;
+    	
+    	if ( PrisonMines.getInstance() != null && PrisonMines.getInstance().isEnabled() ) {
+    		results = PrisonMines.getInstance().getMineManager();
+    	}
+    	
+    	return results;
+    }
+    
     /**
-     * <p>This function is used in this class's placeholderTranslateText() and
-     * also in tech.mcprison.prison.mines.MinesChatHandler.onPlayerChat().
+     * <p>The dispatcher for the player, mine, and rank placeholders, in that order
+     * of priority.  It is rebuilt when the placeholders are reloaded, or if any 
+     * of the managers have regenerated their placeholders.
      * </p>
      * 
+     * @return
      */
-    @Override
-    public String placeholderTranslateText( String text) {
-		String results = text;
-
-		
-		if ( results != null && PrisonMines.getInstance() != null && PrisonMines.getInstance().isEnabled() ) {
-			MineManager mm = PrisonMines.getInstance().getMineManager();
-			
-			if ( mm != null ) {
-				
-				List<PlaceHolderKey> placeholderKeys = mm.getTranslatedPlaceHolderKeys();
-				
-				for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-					
-					String key1 = "{" + placeHolderKey.getKey();
-					String key2 = "}";
-					
-					int idx = results.indexOf( key1 );
-					int idx2 = idx == -1 ? -1 : results.indexOf( key2, idx );
-					if ( idx > -1 && idx2 > -1 ) {
-						
-						String identifier = results.substring( idx + 1, idx2 );
-						
-//						String msg = "&a##^^##  &7key1=" + key1 + " key2=" + key2 + "  idx=" + idx + 
-//								"idx2= " + idx2 + " identifier=[" + identifier + "] ";
-//						Output.get().logInfo( msg );
-						
-						String replacement = mm.getTranslateMinesPlaceHolder( placeHolderKey, identifier );
-						if ( replacement == null ) {
-							replacement = "";
-						}
-						
-						
-						results = placeholderReplace( results, "{" + identifier + "}", replacement );
-//						results = results.replace("{" + identifier + "}", replacement );
-
-					}
-					
-					//String key = "{" + placeHolderKey.getKey() + "}";
-//					if ( results.contains( key )) {
-//						results = results.replace(key, 
-//								mm.getTranslateMinesPlaceHolder( placeHolderKey ) );
-//					}
-				}
-			}
-		}
-		
-		if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
-			
-			RankManager rm = PrisonRanks.getInstance().getRankManager();
-			
-			if ( rm != null ) {
-
-				List<PlaceHolderKey> placeholderKeys = rm.getTranslatedPlaceHolderKeys();
-	    		
-	    		for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-	    			
-	    			PlaceholderResults identifier = placeHolderKey.getIdentifier( results );
-	    			
-	    			if ( results != null && identifier != null && identifier.hasResults() ) {
-	    				
-	    				results = placeholderReplace( results, identifier.getEscapedIdentifier(), 
-	    						rm.getTranslateRanksPlaceHolder( placeHolderKey, identifier.getIdentifier()  ) );
-	    			}
-	    			
-	    		}
-			}
-		}
-		
-		return results;
-	}
+    private PlaceholderDispatcher getPlaceholderDispatcher() {
+    	PlayerManager pm = getPlayerManager();
+    	MineManager mm = getMineManager();
+    	RankManager rm = getRankManager();
+    	
+    	PlaceholderDispatcher results = placeholderDispatcher;
+    	
+    	if ( results == null || !results.isCurrent() || 
+    			pm != results.getPlayers() || mm != results.getMines() || 
+    			rm != results.getRanks() ) {
+    		
+    		results = new PlaceholderDispatcher( Prison.get().getPlaceholderManager(), pm, mm, rm );
+    		placeholderDispatcher = results;
+    	}
+    	
+    	return results;
+    }
     
     /**
-     * This provides for a case insensitive replacement of placeholders.
+     * <p>This function is used in this class's placeholderTranslateText() and
+     * also in tech.mcprison.prison.mines.MinesChatHandler.onPlayerChat().
+     * </p>
      * 
-     * String target = "FOOBar";
-	 * target = target.replaceAll("(?i)foo", "");
+     * <p>This translates the mine and rank placeholders, which do not need a player.
+     * The text is scanned only once, and each placeholder is found through the
+     * PlaceholderDispatcher, so the cost does not depend upon the number of mines
+     * and ranks.
+     * </p>
      * 
-     * @param text
-     * @param placeholder
-     * @param target
-     * @return
      */
-    private String placeholderReplace( String text, String placeholder, String target ) {
-    	
-    	return text.replaceAll( "(?i)" + Pattern.quote(placeholder) , target );
-    }
+    @Override
+    public String placeholderTranslateText( String text) {
+    	return placeholderTranslateText( null, null, text );
+	}
     
     
     /**
@@ -285,129 +261,27 @@ public class SpigotPlaceholders
      * <p>This function is used with the command: /prison placeholders test
      * </p>
      * 
+     * <p>If the playerUuid is null, then the player placeholders are not translated.
+     * </p>
+     * 
      * @param playerUuid
      * @param text
      * @return
      */
     @Override
     public String placeholderTranslateText( UUID playerUuid, String playerName, String text) {
-    	String results = text;
     	
-    	// First the player specific placeholder, which must have a UUID:
-    	if ( text != null && PrisonRanks.getInstance() != null && 
-    			PrisonRanks.getInstance().isEnabled() && playerUuid != null ) {
-    		
-    		PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
-    		
-    		List<PlaceHolderKey> placeholderKeys = pm.getTranslatedPlaceHolderKeys();
-    		
-    		for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-    			
-    			PlaceholderResults identifier = placeHolderKey.getIdentifier( results );
-    			
-    			if ( results != null && identifier != null && identifier.hasResults() ) {
-    				
-    				
-    				results = placeholderReplace( results, identifier.getEscapedIdentifier(), 
-    						pm.getTranslatePlayerPlaceHolder( playerUuid, playerName, identifier.getIdentifier() ) );
-//    				results = results.replace( identifier.getEscapedIdentifier(), 
-//							pm.getTranslatePlayerPlaceHolder( playerUuid, playerName, identifier.getIdentifier() ) );
-    			}
-    			
-//    			// Rank in to an issue with placeholders: prison_mbm_minename and prison_mbm_pm, 
-//    			// because the mine P has a placeholder prison_mbm_p which gets hit for the
-//    			// prison_mbm_pm.  So to zero in on the correct placeholder, but bracket the end
-//    			// of the placeholder with either } or :: to ensure the correct association.
-//    			String test1 = "{" + placeHolderKey.getKey().toLowerCase() + "}";
-//    			String test2 = "{" + placeHolderKey.getKey().toLowerCase() + 
-//    								PlaceholderManager.PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR;
-//    			
-//    			String resultsLowercase = results.toLowerCase();
-//    			if ( resultsLowercase.contains( test1 ) || resultsLowercase.contains( test2 ) ) {
-//    				
-//    				// The key1 and key2 helps ensure that the full placeholder, 
-//    				// including the attribute, is replaced:
-//    				String key1 = "{" + placeHolderKey.getKey().toLowerCase();
-//    				String key2 = "}";
-//    				
-//    				int idx = resultsLowercase.indexOf( key1 );
-//    				int idx2 = ( idx == -1 ? -1 : resultsLowercase.indexOf( key2, idx + key1.length() - 1 ) );
-//    				if ( idx > -1 && idx2 > -1 ) {
-//    					
-//    					String identifier = results.substring( idx + 1, idx2 );
-//    					
-//    					results = results.replace("{" + identifier + "}", 
-//    							pm.getTranslatePlayerPlaceHolder( playerUuid, playerName, identifier ) );
-//    				}
-//    			}
-
-    		}
+    	if ( text == null ) {
+    		return text;
     	}
     	
+    	long metricsStart = METRICS_PLACEHOLDER_TIMER.start();
     	
+    	String translated = getPlaceholderDispatcher().translateText( playerUuid, playerName, text );
     	
-		// Check the mine's playerMines placeholders:
-		if ( PrisonMines.getInstance() != null && PrisonMines.getInstance().isEnabled() ) {
-			
-			MineManager mm = PrisonMines.getInstance().getMineManager();
-			if ( mm != null ) {
-				
-	    		List<PlaceHolderKey> placeholderKeys = mm.getTranslatedPlaceHolderKeys();
-	    		
-	    		for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-	    			
-	    			PlaceholderResults identifier = placeHolderKey.getIdentifier( results );
-	    			
-	    			if ( identifier.hasResults() ) {
-	    				
-	    				results = placeholderReplace( results, identifier.getEscapedIdentifier(), 
-											mm.getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, 
-													placeHolderKey, identifier.getIdentifier() ) );
-	    						
-//	    				results = results.replace( identifier.getEscapedIdentifier(), 
-//								mm.getTranslatePlayerMinesPlaceHolder( playerUuid, playerName, 
-//													placeHolderKey, identifier.getIdentifier() ) );
-	    			}
-	   
-	    			
-//	    			// Rank in to an issue with placeholders: prison_mbm_minename and prison_mbm_pm, 
-//	    			// because the mine P has a placeholder prison_mbm_p which gets hit for the
-//	    			// prison_mbm_pm.  So to zero in on the correct placeholder, but bracket the end
-//	    			// of the placeholder with either } or :: to ensure the correct association.
-//	    			String test1 = "{" + placeHolderKey.getKey() + "}";
-//	    			String test2 = "{" + placeHolderKey.getKey() + 
-//	    								PlaceholderManager.PRISON_PLACEHOLDER_ATTRIBUTE_SEPARATOR;
-//	    			if ( results.contains( test1 ) || results.contains( test2 ) ) {
-//	    				
-//	    				// The key1 and key2 helps ensure that the full placeholder, 
-//	    				// including the attribute, is replaced:
-//	    				String key1 = "{" + placeHolderKey.getKey();
-//	    				String key2 = "}";
-//	    				
-//	    				int idx = results.indexOf( key1 );
-//	    				if ( idx > -1 && results.indexOf( key2, idx ) > -1 ) {
-//	    					
-//	    					String identifier = results.substring( idx + 1, results.indexOf( key2, idx ) );
-//	    					String target = "{" + identifier + "}";
-//	    					
-//	    					String replacement = mm.getTranslatePlayerMinesPlaceHolder( 
-//	    										playerUuid, playerName, placeHolderKey, identifier );
-//	    					
-//	    					results = results.replace( target, 
-//		    									(replacement == null ? "" : replacement) );
-//	    				}
-//	    			}
-	    			
-	    		}
-			}
-			
-		}
-
-		
-    	// Then translate any remaining non-player (mine) related placeholders:
-    	results = placeholderTranslateText( results);
+    	METRICS_PLACEHOLDER_TIMER.stop( "text", metricsStart );
     	
-    	return results;
+    	return translated;
     }
 
 	@Override
@@ -462,7 +336,8 @@ public class SpigotPlaceholders
 					value = mm.getTranslateMinesPlaceHolder( placeHolderKey, attribute );
 				}
 				else if ( pm != null && (placeHolderKey.getPlaceholder().hasFlag( PlaceHolderFlags.PLAYER ) || 
-							placeHolderKey.getPlaceholder().hasFlag( PlaceHolderFlags.LADDERS ))) {
+							placeHolderKey.getPlaceholder().hasFlag( PlaceHolderFlags.LADDERS ) ||
+							placeHolderKey.getPlaceholder().hasFlag( PlaceHolderFlags.TOP ))) {
 					value = pm.getTranslatePlayerPlaceHolder( playerUuid, playerName, placeHolderKey, null );
 				}
 				else if ( rm != null && (placeHolderKey.getPlaceholder().hasFlag( PlaceHolderFlags.RANKS )) ) {
@@ -549,6 +424,8 @@ public class SpigotPlaceholders
     		}
     	}
 
+    	placeholderDispatcher = null;
+    	
     	// Force the re-registration of the placeholder integrations:
     	SpigotPrison.getInstance().reloadIntegrationsPlaceholders();
     	
@@ -22,6 +22,8 @@ import at.pcgamingfreaks.Minepacks.Bukkit.API.Backpack;
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
 import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
+import tech.mcprison.prison.metrics.MetricTimer;
+import tech.mcprison.prison.metrics.PrisonMetrics;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleManager;
 import tech.mcprison.prison.output.Output;
@@ -44,6 +46,8 @@ import tech.mcprison.prison.spigot.integrations.IntegrationMinepacksPlugin;
 public class SellAllUtil {
 
     private static SellAllUtil instance;
+    private static final MetricTimer METRICS_SELLALL_TIMER = 
+    		PrisonMetrics.get().getTimer( PrisonMetrics.TIMER_SELLALL );
     private final boolean isEnabled = isEnabled();
     private File sellAllFile = new File(SpigotPrison.getInstance().getDataFolder() + "/SellAllConfig.yml");
     public Configuration sellAllConfig = SpigotPrison.getInstance().updateSellAllConfig();
@@ -191,11 +195,17 @@ public class SellAllUtil {
      * @param p - Player affected by sellall.
      */
     public void sellAllSell(Player p) {
-        sellAllSellPlayer(p);
+    	sellAllSell(p, true, false);
     }
     
     public void sellAllSell(Player p, boolean notifications, boolean bySignOnly) {
-    	sellAllSellPlayer(p, notifications, bySignOnly);
+    	long metricsStart = METRICS_SELLALL_TIMER.start();
+    	try {
+    		sellAllSellPlayer(p, notifications, bySignOnly);
+    	}
+    	finally {
+    		METRICS_SELLALL_TIMER.stop( metricsStart );
+    	}
     }
 
     /**
@@ -1079,9 +1089,6 @@ public class SellAllUtil {
         return sellAllPlayerGUI(p);
     }
 
-    private void sellAllSellPlayer(Player p) {
-    	sellAllSellPlayer( p, true, false );
-    }
     private void sellAllSellPlayer(Player p, boolean notifications, boolean bySignOnly) {
 
         updateSellAllConfig();
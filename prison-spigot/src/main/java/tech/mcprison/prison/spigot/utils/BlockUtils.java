@@ -38,8 +38,10 @@ public class BlockUtils
 	
 
 	public boolean isUnbreakable( SpigotBlock block ) {
-		PrisonBlock pBlock = block.getPrisonBlock();
-		return isUnbreakable( pBlock );
+		// Only the location is needed, so a PrisonBlock does not have to be created:
+		Location location = block.getLocation();
+		return location == null ? false : 
+						getUnbreakableBlocks().containsKey( location );
 	}
 	
 	public boolean isUnbreakable( PrisonBlock block ) {
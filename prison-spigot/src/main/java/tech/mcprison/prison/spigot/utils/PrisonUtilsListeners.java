@@ -5,7 +5,6 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 
-import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 
 public class PrisonUtilsListeners
@@ -53,7 +52,7 @@ public class PrisonUtilsListeners
     public void unbreakableBlock( BlockBreakEvent e ) {
     	
     	if ( !e.isCancelled() ) {
-    		PrisonBlock block = new SpigotBlock( e.getBlock() ).getPrisonBlock();
+    		SpigotBlock block = new SpigotBlock( e.getBlock() );
     		
     		if ( BlockUtils.getInstance().isUnbreakable( block ) ) {
     			e.setCancelled( true );
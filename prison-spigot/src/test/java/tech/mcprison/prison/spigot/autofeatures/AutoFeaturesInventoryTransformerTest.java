@@ -0,0 +1,158 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import static org.junit.Assert.*;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.autofeatures.AutoFeaturesSnapshot;
+import tech.mcprison.prison.autofeatures.BooleanNode;
+import tech.mcprison.prison.autofeatures.ValueNode;
+import tech.mcprison.prison.spigot.autofeatures.AutoFeaturesInventoryTransformer.Recipe;
+
+public class AutoFeaturesInventoryTransformerTest
+{
+
+	private Map<String, ValueNode> getDefaultConfig() {
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( conf );
+		}
+		return conf;
+	}
+
+	/**
+	 * Only smelts cobblestone, and blocks everything.
+	 */
+	private Map<String, ValueNode> getCobblestoneConfig() {
+		Map<String, ValueNode> conf = getDefaultConfig();
+		for ( Recipe recipe : AutoFeaturesInventoryTransformer.SMELT_RECIPES.values() ) {
+			conf.put( recipe.getFeature().getKey(), BooleanNode.FALSE );
+		}
+		conf.put( AutoFeatures.smeltCobblestone.getKey(), BooleanNode.TRUE );
+		conf.put( AutoFeatures.smeltAllBlocks.getKey(), BooleanNode.FALSE );
+		conf.put( AutoFeatures.autoBlockAllBlocks.getKey(), BooleanNode.TRUE );
+		return conf;
+	}
+
+	private Map<XMaterial, Integer> tally( Object... materialsAndCounts ) {
+		Map<XMaterial, Integer> results = new EnumMap<>( XMaterial.class );
+		for ( int i = 0; i < materialsAndCounts.length; i += 2 ) {
+			results.put( (XMaterial) materialsAndCounts[i], (Integer) materialsAndCounts[i + 1] );
+		}
+		return results;
+	}
+
+	private void assertRecipe( Map<XMaterial, Recipe> recipes, XMaterial source, XMaterial target,
+					int ratio, AutoFeatures feature ) {
+		Recipe recipe = recipes.get( source );
+
+		assertNotNull( source.name(), recipe );
+		assertEquals( source, recipe.getSource() );
+		assertEquals( target, recipe.getTarget() );
+		assertEquals( ratio, recipe.getRatio() );
+		assertEquals( feature, recipe.getFeature() );
+	}
+
+	@Test
+	public void testRecipes()
+	{
+		for ( Map.Entry<XMaterial, Recipe> entry : AutoFeaturesInventoryTransformer.SMELT_RECIPES.entrySet() ) {
+			assertEquals( entry.getKey(), entry.getValue().getSource() );
+		}
+		for ( Map.Entry<XMaterial, Recipe> entry : AutoFeaturesInventoryTransformer.BLOCK_RECIPES.entrySet() ) {
+			assertEquals( entry.getKey(), entry.getValue().getSource() );
+		}
+
+		assertEquals( 12, AutoFeaturesInventoryTransformer.SMELT_RECIPES.size() );
+		assertEquals( 12, AutoFeaturesInventoryTransformer.BLOCK_RECIPES.size() );
+
+		assertRecipe( AutoFeaturesInventoryTransformer.SMELT_RECIPES,
+				XMaterial.COBBLESTONE, XMaterial.STONE, 1, AutoFeatures.smeltCobblestone );
+		assertRecipe( AutoFeaturesInventoryTransformer.SMELT_RECIPES,
+				XMaterial.NETHER_GOLD_ORE, XMaterial.GOLD_INGOT, 1, AutoFeatures.smeltGoldOre );
+		assertRecipe( AutoFeaturesInventoryTransformer.BLOCK_RECIPES,
+				XMaterial.GOLD_INGOT, XMaterial.GOLD_BLOCK, 9, AutoFeatures.autoBlockGoldBlock );
+		assertRecipe( AutoFeaturesInventoryTransformer.BLOCK_RECIPES,
+				XMaterial.QUARTZ, XMaterial.QUARTZ_BLOCK, 4, AutoFeatures.autoBlockQuartzBlock );
+	}
+
+	@Test
+	public void testSmeltConvert()
+	{
+		AutoFeaturesInventoryTransformer smelter =
+				new AutoFeaturesInventoryTransformer( AutoFeaturesInventoryTransformer.SMELT_RECIPES );
+
+		// The gold ores both smelt to gold ingots, so they are added together:
+		assertEquals( tally( XMaterial.STONE, 64, XMaterial.GOLD_INGOT, 5 ),
+				smelter.convert( tally( XMaterial.COBBLESTONE, 64,
+										XMaterial.GOLD_ORE, 3, XMaterial.NETHER_GOLD_ORE, 2 ) ) );
+
+		assertTrue( smelter.convert( tally() ).isEmpty() );
+	}
+
+	@Test
+	public void testBlockConvert()
+	{
+		AutoFeaturesInventoryTransformer blocker =
+				new AutoFeaturesInventoryTransformer( AutoFeaturesInventoryTransformer.BLOCK_RECIPES );
+
+		// The remainder is kept as the source, and too few items are not converted:
+		assertEquals( tally( XMaterial.GOLD_BLOCK, 2, XMaterial.GOLD_INGOT, 2,
+							XMaterial.QUARTZ_BLOCK, 1, XMaterial.SNOWBALL, 3 ),
+				blocker.convert( tally( XMaterial.GOLD_INGOT, 20,
+										XMaterial.QUARTZ, 4, XMaterial.SNOWBALL, 3 ) ) );
+	}
+
+	@Test
+	public void testEnabledRecipes()
+	{
+		Map<String, ValueNode> conf = getCobblestoneConfig();
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		Map<XMaterial, Recipe> enabled = AutoFeaturesInventoryTransformer.enabledRecipes(
+				AutoFeaturesInventoryTransformer.SMELT_RECIPES, false, snapshot );
+
+		assertEquals( 1, enabled.size() );
+		assertTrue( enabled.containsKey( XMaterial.COBBLESTONE ) );
+
+		assertEquals( AutoFeaturesInventoryTransformer.SMELT_RECIPES,
+				AutoFeaturesInventoryTransformer.enabledRecipes(
+						AutoFeaturesInventoryTransformer.SMELT_RECIPES, true, snapshot ) );
+	}
+
+	@Test
+	public void testCachedUntilReload()
+	{
+		Map<String, ValueNode> conf = getCobblestoneConfig();
+
+		AutoFeaturesSnapshot snapshot = AutoFeaturesSnapshot.build( conf );
+
+		AutoFeaturesInventoryTransformer smelter = AutoFeaturesInventoryTransformer.getSmelter( snapshot );
+		AutoFeaturesInventoryTransformer blocker = AutoFeaturesInventoryTransformer.getBlocker( snapshot );
+
+		assertSame( smelter, AutoFeaturesInventoryTransformer.getSmelter( snapshot ) );
+		assertSame( blocker, AutoFeaturesInventoryTransformer.getBlocker( snapshot ) );
+		assertNotSame( smelter, blocker );
+
+		assertEquals( 1, smelter.getRecipes().size() );
+		assertEquals( AutoFeaturesInventoryTransformer.BLOCK_RECIPES, blocker.getRecipes() );
+
+		// A reload builds a new snapshot, so the transformers are rebuilt:
+		conf.put( AutoFeatures.smeltAllBlocks.getKey(), BooleanNode.TRUE );
+		AutoFeaturesSnapshot reloaded = AutoFeaturesSnapshot.build( conf );
+
+		AutoFeaturesInventoryTransformer reloadedSmelter = AutoFeaturesInventoryTransformer.getSmelter( reloaded );
+
+		assertNotSame( smelter, reloadedSmelter );
+		assertEquals( AutoFeaturesInventoryTransformer.SMELT_RECIPES, reloadedSmelter.getRecipes() );
+		assertEquals( 1, smelter.getRecipes().size() );
+	}
+}
@@ -0,0 +1,345 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.spigot.autofeatures.FortuneDropTables.FortuneType;
+import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.util.BlockType;
+
+public class FortuneDropTablesTest
+{
+	private static final int[] FORTUNE_LEVELS_OVER_5 = {
+			6, 7, 9, 10, 11, 25, 99, 100, 150, 199, 200, 201, 500, 1000, 1009, 1010, 5000 };
+
+	/**
+	 * Returns the given values instead of random numbers, so the tables and the
+	 * old calculations can be compared for every value.
+	 */
+	private static class FixedRandom
+			extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int intValue;
+		private final double doubleValue;
+
+		public FixedRandom( int intValue, double doubleValue ) {
+			super();
+
+			this.intValue = intValue;
+			this.doubleValue = doubleValue;
+		}
+
+		@Override
+		public int nextInt( int bound ) {
+			return intValue % bound;
+		}
+
+		@Override
+		public double nextDouble() {
+			return doubleValue;
+		}
+	}
+
+	/**
+	 * The fortune multiplier, as it was calculated by AutoManagerFeatures before
+	 * the tables, with rnd and nextDouble being the random numbers that it would
+	 * have used.
+	 */
+	private int oldFortuneMultiplier( int fortuneLevel, int multiplier, int rnd, double nextDouble ) {
+
+		switch (fortuneLevel) {
+			case 0:
+				break;
+			case 1:
+				if (rnd <= 33) {
+					multiplier = 2;
+				}
+				break;
+
+			case 2:
+				if (rnd <= 25) {
+					multiplier = 2;
+				}
+				else if (rnd <= 50) {
+					multiplier = 3;
+				}
+				break;
+
+			case 3:
+				if (rnd <= 20) {
+					multiplier = 2;
+				}
+				else if (rnd <= 40) {
+					multiplier = 3;
+				}
+				else if (rnd <= 60) {
+					multiplier = 4;
+				}
+				break;
+
+			case 4:
+				if (rnd <= 16) {
+					multiplier = 2;
+				}
+				else if (rnd <= 32) {
+					multiplier = 3;
+				}
+				else if (rnd <= 48) {
+					multiplier = 4;
+				}
+				else if (rnd <= 64) {
+					multiplier = 5;
+				}
+				break;
+
+			case 5:
+				if (rnd <= 14) {
+					multiplier = 2;
+				}
+				else if (rnd <= 28) {
+					multiplier = 3;
+				}
+				else if (rnd <= 42) {
+					multiplier = 4;
+				}
+				else if (rnd <= 56) {
+					multiplier = 5;
+				}
+				else if (rnd <= 70) {
+					multiplier = 6;
+				}
+				break;
+
+			default:
+				int thresholdModifier = Math.floorDiv( fortuneLevel, 10 );
+				if ( thresholdModifier > 100 ) {
+					thresholdModifier = 100;
+				}
+
+				double threshold = 80.0d + thresholdModifier;
+
+				double rndD = nextDouble * 100d;
+
+				if ( rndD <= threshold ) {
+					double chancesPerUnit = threshold / fortuneLevel;
+					double units = rndD / chancesPerUnit;
+
+					multiplier = 1 + (int) Math.floor( units );
+				}
+		}
+
+		return multiplier;
+	}
+
+	/**
+	 * The flint drop, as it was calculated by AutoManagerFeatures before the
+	 * tables, except for fortune 3 and 4 which threw an exception.
+	 */
+	private int oldFlint( int fortune, Random random ) {
+		int quantity = 0;
+		int threshold = 10;
+
+		switch (fortune) {
+			case 0:
+				break;
+			case 1:
+				threshold = 14;
+				break;
+			case 2:
+				threshold = 25;
+				break;
+			case 3:
+			default:
+				threshold = 100;
+				break;
+		}
+
+		if (random.nextInt(100) <= threshold) {
+			quantity = 1;
+
+			if (fortune >= 3) {
+				int bonus = Math.floorDiv( fortune, 5 );
+				quantity += 1 + (bonus > 0 ? random.nextInt( bonus ) : 0);
+			}
+		}
+
+		return quantity;
+	}
+
+	@Test
+	public void testMultiplierTables()
+	{
+		for ( int fortuneLevel = 0; fortuneLevel <= 5; fortuneLevel++ ) {
+			for ( int rnd = 0; rnd < 100; rnd++ ) {
+
+				assertEquals( "fortune " + fortuneLevel + " rnd " + rnd,
+						oldFortuneMultiplier( fortuneLevel, 1, rnd, 0 ),
+						FortuneDropTables.sampleMultiplier( fortuneLevel, 1, new FixedRandom( rnd, 0 ) ) );
+			}
+		}
+	}
+
+	@Test
+	public void testMultiplierOverFortune5()
+	{
+		for ( int fortuneLevel : FORTUNE_LEVELS_OVER_5 ) {
+
+			// Every quarter of a percent, and the edges of the thresholds:
+			for ( int i = 0; i < 400; i++ ) {
+				double nextDouble = i / 400.0d;
+
+				assertEquals( "fortune " + fortuneLevel + " nextDouble " + nextDouble,
+						oldFortuneMultiplier( fortuneLevel, 1, 0, nextDouble ),
+						FortuneDropTables.sampleMultiplier( fortuneLevel, 1, new FixedRandom( 0, nextDouble ) ) );
+			}
+
+			for ( double nextDouble : new double[] { 0.8d, 0.800001d, 0.999999d } ) {
+				assertEquals( "fortune " + fortuneLevel + " nextDouble " + nextDouble,
+						oldFortuneMultiplier( fortuneLevel, 1, 0, nextDouble ),
+						FortuneDropTables.sampleMultiplier( fortuneLevel, 1, new FixedRandom( 0, nextDouble ) ) );
+			}
+		}
+	}
+
+	@Test
+	public void testMultiplierIsKeptIfNotSelected()
+	{
+		// Fortune 1 only selects a multiplier for 0 through 33:
+		assertEquals( 7, FortuneDropTables.sampleMultiplier( 1, 7, new FixedRandom( 34, 0 ) ) );
+		assertEquals( 2, FortuneDropTables.sampleMultiplier( 1, 7, new FixedRandom( 33, 0 ) ) );
+
+		// Fortune 0 never selects one:
+		assertEquals( 7, FortuneDropTables.sampleMultiplier( 0, 7, new FixedRandom( 0, 0 ) ) );
+
+		// Fortune 6 has a threshold of 80%:
+		assertEquals( 7, FortuneDropTables.sampleMultiplier( 6, 7, new FixedRandom( 0, 0.805d ) ) );
+		assertEquals( 6, FortuneDropTables.sampleMultiplier( 6, 7, new FixedRandom( 0, 0.795d ) ) );
+	}
+
+	@Test
+	public void testFortuneTypes()
+	{
+		assertEquals( FortuneType.additive, FortuneDropTables.getFortuneType( BlockType.GLOWSTONE ) );
+		assertEquals( FortuneType.additive, FortuneDropTables.getFortuneType( BlockType.REDSTONE_ORE ) );
+		assertEquals( FortuneType.additive, FortuneDropTables.getFortuneType( BlockType.WHEAT ) );
+
+		assertEquals( FortuneType.multiplier, FortuneDropTables.getFortuneType( BlockType.DIAMOND_ORE ) );
+		assertEquals( FortuneType.multiplier, FortuneDropTables.getFortuneType( BlockType.NETHER_QUARTZ_ORE ) );
+		assertEquals( FortuneType.multiplier, FortuneDropTables.getFortuneType( BlockType.SNOW_BLOCK ) );
+
+		assertEquals( FortuneType.none, FortuneDropTables.getFortuneType( BlockType.STONE ) );
+		assertEquals( FortuneType.none, FortuneDropTables.getFortuneType( BlockType.GRAVEL ) );
+		assertEquals( FortuneType.none, FortuneDropTables.getFortuneType( null ) );
+	}
+
+	@Test
+	public void testAdditive()
+	{
+		BlockType[] blocks = { BlockType.GLOWSTONE, BlockType.SEA_LANTERN, BlockType.MELON, BlockType.WHEAT };
+
+		for ( BlockType block : blocks ) {
+			for ( int fortuneLevel = 1; fortuneLevel <= 20; fortuneLevel++ ) {
+				for ( int rnd = 0; rnd < fortuneLevel; rnd++ ) {
+
+					// The old limits:
+					int expected = rnd;
+					if ( block == BlockType.GLOWSTONE && expected > 5 ) {
+						expected = 5;
+					}
+					else if ( block == BlockType.SEA_LANTERN && expected > 6 ) {
+						expected = 6;
+					}
+					else if ( block == BlockType.MELON && expected > 11 ) {
+						expected = 11;
+					}
+
+					assertEquals( block + " fortune " + fortuneLevel + " rnd " + rnd, expected,
+							FortuneDropTables.sampleAdditive( block, fortuneLevel, new FixedRandom( rnd, 0 ) ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFlint()
+	{
+		for ( int fortune = 0; fortune <= 12; fortune++ ) {
+			for ( int rnd = 0; rnd < 100; rnd++ ) {
+
+				assertEquals( "fortune " + fortune + " rnd " + rnd,
+						oldFlint( fortune, new FixedRandom( rnd, 0 ) ),
+						FortuneDropTables.sampleFlint( fortune, new FixedRandom( rnd, 0 ) ) );
+			}
+		}
+
+		// Fortune 3 and 4 have no bonus, and always drop 2 flint:
+		assertEquals( 2, FortuneDropTables.sampleFlint( 3, new FixedRandom( 99, 0 ) ) );
+		assertEquals( 2, FortuneDropTables.sampleFlint( 4, new FixedRandom( 99, 0 ) ) );
+	}
+
+	@Test
+	public void testDropBufferIsReusedAndCleared()
+	{
+		List<SpigotItemStack> drops = FortuneDropTables.acquireDropBuffer();
+		assertTrue( drops.isEmpty() );
+
+		drops.add( new SpigotItemStack( 1, BlockType.GRAVEL ) );
+		drops.add( new SpigotItemStack( 2, BlockType.FLINT ) );
+		FortuneDropTables.releaseDropBuffer( drops );
+
+		// The next block break gets the same list, without the last block's drops:
+		List<SpigotItemStack> next = FortuneDropTables.acquireDropBuffer();
+
+		assertSame( drops, next );
+		assertTrue( next.isEmpty() );
+
+		FortuneDropTables.releaseDropBuffer( next );
+	}
+
+	@Test
+	public void testDropBufferInUse()
+	{
+		List<SpigotItemStack> drops = FortuneDropTables.acquireDropBuffer();
+		drops.add( new SpigotItemStack( 1, BlockType.COAL ) );
+
+		// A block break while the list is still in use gets another list:
+		List<SpigotItemStack> nested = FortuneDropTables.acquireDropBuffer();
+
+		assertNotSame( drops, nested );
+		assertTrue( nested.isEmpty() );
+
+		nested.add( new SpigotItemStack( 3, BlockType.DIAMOND ) );
+		FortuneDropTables.releaseDropBuffer( nested );
+
+		assertEquals( 1, drops.size() );
+		FortuneDropTables.releaseDropBuffer( drops );
+
+		List<SpigotItemStack> next = FortuneDropTables.acquireDropBuffer();
+		assertTrue( next.isEmpty() );
+		FortuneDropTables.releaseDropBuffer( next );
+	}
+
+	@Test
+	public void testDropBufferPerThread() throws InterruptedException
+	{
+		List<SpigotItemStack> drops = FortuneDropTables.acquireDropBuffer();
+		drops.add( new SpigotItemStack( 1, BlockType.COAL ) );
+		FortuneDropTables.releaseDropBuffer( drops );
+
+		AtomicReference<List<SpigotItemStack>> other = new AtomicReference<>();
+
+		Thread thread = new Thread( () -> other.set( FortuneDropTables.acquireDropBuffer() ) );
+		thread.start();
+		thread.join();
+
+		assertNotSame( drops, other.get() );
+		assertTrue( other.get().isEmpty() );
+	}
+}
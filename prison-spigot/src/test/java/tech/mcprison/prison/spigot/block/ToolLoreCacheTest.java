@@ -0,0 +1,278 @@
+package tech.mcprison.prison.spigot.block;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.junit.Test;
+
+import tech.mcprison.prison.spigot.block.ToolLoreCache.ToolKey;
+
+public class ToolLoreCacheTest
+{
+	private static final String BLOCKS = "Blocks Mined: ";
+	private static final String ORES = "Ores Mined: ";
+
+	/**
+	 * Records the counts that would be written to the tools, since writing the
+	 * lore needs a server.
+	 */
+	private static class TestToolLoreCache
+			extends ToolLoreCache {
+
+		private final List<Map<String, Integer>> writes = new ArrayList<>();
+		private final List<ItemStack> tools = new ArrayList<>();
+
+		@Override
+		void writeCounts( ItemStack tool, Map<String, Integer> counts ) {
+			writes.add( new LinkedHashMap<>( counts ) );
+			tools.add( tool );
+		}
+	}
+
+	/**
+	 * The player's inventory, with the tool that is held in the first slot.
+	 */
+	private static class TestInventory {
+		private final ItemStack[] contents = new ItemStack[36];
+		private int heldSlot = 0;
+
+		public TestInventory( ItemStack... items ) {
+			super();
+
+			for ( int i = 0; i < items.length; i++ ) {
+				contents[i] = items[i];
+			}
+		}
+	}
+
+	private Player getPlayer( UUID uuid ) {
+		return getPlayer( uuid, new TestInventory( new ItemStack( Material.DIAMOND_PICKAXE ) ) );
+	}
+
+	private Player getPlayer( UUID uuid, TestInventory inventory ) {
+		PlayerInventory playerInventory = (PlayerInventory) Proxy.newProxyInstance( 
+				getClass().getClassLoader(),
+				new Class<?>[] { PlayerInventory.class },
+				( proxy, method, args ) -> {
+					switch ( method.getName() ) {
+						case "getHeldItemSlot":
+							return inventory.heldSlot;
+						case "getItem":
+							return inventory.contents[ (Integer) args[0] ];
+						case "getContents":
+							return inventory.contents.clone();
+						default:
+							throw new UnsupportedOperationException( method.getName() );
+					}
+				});
+
+		return (Player) Proxy.newProxyInstance( getClass().getClassLoader(),
+				new Class<?>[] { Player.class },
+				( proxy, method, args ) -> {
+					switch ( method.getName() ) {
+						case "getUniqueId":
+							return uuid;
+						case "getInventory":
+							return playerInventory;
+						default:
+							throw new UnsupportedOperationException( method.getName() );
+					}
+				});
+	}
+
+	private void addLoreCount( ToolLoreCache cache, Player player, ToolKey key, String itemLore,
+					int blocks, int flushInterval ) {
+		PlayerInventory inventory = player.getInventory();
+		ItemStack tool = inventory.getItem( inventory.getHeldItemSlot() );
+
+		cache.addLoreCount( player, tool, key, itemLore, blocks, flushInterval );
+	}
+
+	/**
+	 * A new key for each block break, the same way that each event has a new
+	 * bukkit ItemStack with a new copy of the lore.
+	 */
+	private ToolKey getKey( ToolLoreCache cache, String displayName, String... lore ) {
+		return new ToolKey( Material.DIAMOND_PICKAXE, displayName,
+					cache.getToolLore( new ArrayList<>( Arrays.asList( lore ) ) ).getLore() );
+	}
+
+	@Test
+	public void testParsedLoreHitAndMiss()
+	{
+		ToolLoreCache cache = new ToolLoreCache();
+
+		ToolLore lore = cache.getToolLore( new ArrayList<>( Arrays.asList( BLOCKS + "10" ) ) );
+
+		// The same lore from another ItemStack is a cache hit:
+		assertSame( lore, cache.getToolLore( new ArrayList<>( Arrays.asList( BLOCKS + "10" ) ) ) );
+
+		// Different lore is a miss:
+		ToolLore other = cache.getToolLore( new ArrayList<>( Arrays.asList( BLOCKS + "11" ) ) );
+		assertNotSame( lore, other );
+		assertEquals( Arrays.asList( BLOCKS + "11" ), other.getLore() );
+
+		assertSame( ToolLore.EMPTY, cache.getToolLore( new ArrayList<String>() ) );
+		assertSame( ToolLore.EMPTY, cache.getToolLore( (List<String>) null ) );
+	}
+
+	@Test
+	public void testToolKey()
+	{
+		ToolLoreCache cache = new ToolLoreCache();
+
+		ToolKey key = getKey( cache, "Pick", BLOCKS + "10" );
+
+		assertEquals( key, getKey( cache, "Pick", BLOCKS + "10" ) );
+		assertEquals( key.hashCode(), getKey( cache, "Pick", BLOCKS + "10" ).hashCode() );
+
+		assertNotEquals( key, getKey( cache, "Other Pick", BLOCKS + "10" ) );
+		assertNotEquals( key, getKey( cache, "Pick", BLOCKS + "11" ) );
+		assertNotEquals( key, getKey( cache, null, BLOCKS + "10" ) );
+		assertNotEquals( key, new ToolKey( Material.IRON_PICKAXE, "Pick",
+								Arrays.asList( BLOCKS + "10" ) ) );
+	}
+
+	@Test
+	public void testCountsAreHeldUntilFlushInterval()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		UUID uuid = UUID.randomUUID();
+		Player player = getPlayer( uuid );
+
+		for ( int i = 0; i < 7; i++ ) {
+			addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 1, 10 );
+		}
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), ORES, 2, 10 );
+
+		// The same tool on every event, so the counts are held until 10 blocks:
+		assertTrue( cache.writes.isEmpty() );
+		assertTrue( cache.hasPendingCounts( uuid ) );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 1, 10 );
+
+		assertEquals( 1, cache.writes.size() );
+		assertEquals( Integer.valueOf( 8 ), cache.writes.get( 0 ).get( BLOCKS ) );
+		assertEquals( Integer.valueOf( 2 ), cache.writes.get( 0 ).get( ORES ) );
+		assertFalse( cache.hasPendingCounts( uuid ) );
+	}
+
+	@Test
+	public void testSwitchingToolsWritesTheOldTool()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		UUID uuid = UUID.randomUUID();
+		Player player = getPlayer( uuid );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 3, 100 );
+		addLoreCount( cache, player, getKey( cache, "Other Pick", BLOCKS + "10" ), BLOCKS, 5, 100 );
+
+		assertEquals( 1, cache.writes.size() );
+		assertEquals( Integer.valueOf( 3 ), cache.writes.get( 0 ).get( BLOCKS ) );
+
+		// The new tool's counts are still pending:
+		assertTrue( cache.hasPendingCounts( uuid ) );
+		cache.flushAll();
+
+		assertEquals( 2, cache.writes.size() );
+		assertEquals( Integer.valueOf( 5 ), cache.writes.get( 1 ).get( BLOCKS ) );
+	}
+
+	@Test
+	public void testFlushOnQuit()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		UUID uuid = UUID.randomUUID();
+		Player player = getPlayer( uuid );
+		UUID otherUuid = UUID.randomUUID();
+		Player otherPlayer = getPlayer( otherUuid );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 4, 100 );
+		addLoreCount( cache, otherPlayer, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 7, 100 );
+
+		// What SpigotListener does when the player quits:
+		cache.flush( player );
+
+		assertEquals( 1, cache.writes.size() );
+		assertEquals( Integer.valueOf( 4 ), cache.writes.get( 0 ).get( BLOCKS ) );
+		assertFalse( cache.hasPendingCounts( uuid ) );
+		assertTrue( cache.hasPendingCounts( otherUuid ) );
+
+		// Nothing is left to write for them:
+		cache.flush( player );
+		assertEquals( 1, cache.writes.size() );
+	}
+
+	@Test
+	public void testSwitchingToSameKindOfTool()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		ItemStack pick = new ItemStack( Material.DIAMOND_PICKAXE );
+		ItemStack otherPick = new ItemStack( Material.DIAMOND_PICKAXE );
+
+		TestInventory inventory = new TestInventory( pick, otherPick );
+		Player player = getPlayer( UUID.randomUUID(), inventory );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 3, 100 );
+
+		// The tools have the same ToolKey, but they are in different slots:
+		inventory.heldSlot = 1;
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 5, 100 );
+		cache.flush( player );
+
+		assertEquals( 2, cache.writes.size() );
+		assertSame( pick, cache.tools.get( 0 ) );
+		assertEquals( Integer.valueOf( 3 ), cache.writes.get( 0 ).get( BLOCKS ) );
+		assertSame( otherPick, cache.tools.get( 1 ) );
+		assertEquals( Integer.valueOf( 5 ), cache.writes.get( 1 ).get( BLOCKS ) );
+	}
+
+	@Test
+	public void testMovedToolIsFound()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		ItemStack pick = new ItemStack( Material.DIAMOND_PICKAXE );
+
+		TestInventory inventory = new TestInventory( pick );
+		Player player = getPlayer( UUID.randomUUID(), inventory );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 4, 100 );
+
+		inventory.contents[0] = null;
+		inventory.contents[20] = pick;
+		cache.flush( player );
+
+		assertEquals( 1, cache.writes.size() );
+		assertSame( pick, cache.tools.get( 0 ) );
+	}
+
+	@Test
+	public void testReplacedToolIsNotWritten()
+	{
+		TestToolLoreCache cache = new TestToolLoreCache();
+		ItemStack pick = new ItemStack( Material.DIAMOND_PICKAXE );
+
+		TestInventory inventory = new TestInventory( pick );
+		Player player = getPlayer( UUID.randomUUID(), inventory );
+
+		addLoreCount( cache, player, getKey( cache, "Pick", BLOCKS + "10" ), BLOCKS, 4, 100 );
+
+		// The pick was dropped, and the slot now has another tool:
+		inventory.contents[0] = new ItemStack( Material.IRON_PICKAXE );
+		cache.flush( player );
+
+		assertTrue( cache.writes.isEmpty() );
+		assertFalse( cache.hasPendingCounts( player.getUniqueId() ) );
+	}
+}
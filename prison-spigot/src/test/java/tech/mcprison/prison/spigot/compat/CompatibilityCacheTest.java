@@ -0,0 +1,280 @@
+package tech.mcprison.prison.spigot.compat;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.junit.Test;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.util.BlockType;
+
+public class CompatibilityCacheTest
+{
+	private static final int THREADS = 16;
+	private static final int OPERATIONS = 20000;
+
+	private static final byte[] DATA_VALUES = { -1, 0, 1, 2, 5, 15, 127 };
+
+	/**
+	 * The string keyed cache that CompatibilityCache used to be, which is used
+	 * to check the results.
+	 */
+	private static class StringKeyedCache {
+
+		private Map<String, BlockType> blockTypeCache = new TreeMap<>();
+		private Map<String, XMaterial> xMaterialCache = new TreeMap<>();
+
+		private StringKeyedCache() {
+			xMaterialCache.put( "STATIONARY_WATER", XMaterial.WATER );
+			xMaterialCache.put( "WATER", XMaterial.WATER );
+		}
+
+		private synchronized BlockType getBlockType( String key ) {
+			return blockTypeCache.get( key );
+		}
+		private synchronized void putBlockType( String key, BlockType blockType ) {
+			if ( !blockTypeCache.containsKey( key ) ) {
+				blockTypeCache.put( key, blockType == null ? BlockType.NULL_BLOCK : blockType );
+			}
+		}
+
+		private synchronized XMaterial getXMaterial( String key ) {
+			return xMaterialCache.get( key );
+		}
+		private synchronized void putXMaterial( String key, XMaterial xMat ) {
+			if ( !xMaterialCache.containsKey( key ) ) {
+				xMaterialCache.put( key, xMat == null ? CompatibilityCache.NULL_TOKEN : xMat );
+			}
+		}
+	}
+
+	private static String key( String name, byte data ) {
+		return name + ( data <= 0 ? "" : ":" + data);
+	}
+
+	private static Block block( Material material ) {
+		return (Block) Proxy.newProxyInstance( Block.class.getClassLoader(),
+				new Class<?>[] { Block.class },
+				( proxy, method, args ) -> "getType".equals( method.getName() ) ? material : null );
+	}
+
+	/**
+	 * The value that is always put for a key, so the cached value for a key is
+	 * known no matter which thread put it first.
+	 */
+	private static XMaterial xMaterialFor( String key ) {
+		int hash = Math.abs( key.hashCode() % 1000 );
+		return hash % 7 == 0 ? null : XMaterial.values()[hash % XMaterial.values().length];
+	}
+	private static BlockType blockTypeFor( String key ) {
+		int hash = Math.abs( key.hashCode() % 1000 );
+		return hash % 5 == 0 ? null : BlockType.values()[hash % BlockType.values().length];
+	}
+
+	/**
+	 * A mix of Materials where some have the same name as a BlockType, so the
+	 * sharing of the cached XMaterials between them is tested too.
+	 */
+	private List<Material> getMaterials() {
+		List<Material> materials = new ArrayList<>();
+
+		for ( Material material : Material.values() ) {
+			if ( materials.size() < 60 &&
+					( BlockType.getBlock( material.name() ) != null ||
+						material.ordinal() % 20 == 0 ) ) {
+				materials.add( material );
+			}
+		}
+		materials.add( Material.WATER );
+
+		return materials;
+	}
+
+	private List<BlockType> getBlockTypes() {
+		List<BlockType> blockTypes = new ArrayList<>();
+
+		for ( BlockType blockType : BlockType.values() ) {
+			if ( blockTypes.size() < 60 ) {
+				blockTypes.add( blockType );
+			}
+		}
+		blockTypes.add( BlockType.STILL_WATER );
+
+		return blockTypes;
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException
+	{
+		CompatibilityCache cache = new CompatibilityCache();
+		StringKeyedCache reference = new StringKeyedCache();
+
+		List<Material> materials = getMaterials();
+		List<BlockType> blockTypes = getBlockTypes();
+
+		List<String> names = new ArrayList<>();
+		for ( Material material : materials ) {
+			names.add( material.name() );
+		}
+		names.add( "STATIONARY_WATER" );
+		names.add( "not_a_block" );
+
+		ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+		CountDownLatch start = new CountDownLatch( 1 );
+		CountDownLatch done = new CountDownLatch( THREADS );
+
+		for ( int t = 0; t < THREADS; t++ ) {
+			final long seed = t;
+
+			new Thread( () -> {
+				Random random = new Random( seed );
+
+				try {
+					start.await();
+
+					for ( int i = 0; i < OPERATIONS; i++ ) {
+						byte data = DATA_VALUES[random.nextInt( DATA_VALUES.length )];
+
+						switch ( random.nextInt( 3 ) ) {
+							case 0: {
+								Material material = materials.get( random.nextInt( materials.size() ) );
+								Block block = block( material );
+								String key = key( material.name(), data );
+
+								if ( random.nextBoolean() ) {
+									cache.putCachedBlockType( block, data, blockTypeFor( key ) );
+									reference.putBlockType( key, blockTypeFor( key ) );
+								}
+								if ( random.nextBoolean() ) {
+									cache.putCachedXMaterial( block, data, xMaterialFor( key ) );
+									reference.putXMaterial( key, xMaterialFor( key ) );
+								}
+
+								checkBlockType( failures, key, cache.getCachedBlockType( block, data ) );
+								checkXMaterial( failures, key, cache.getCachedXMaterial( block, data ) );
+								break;
+							}
+
+							case 1: {
+								BlockType blockType = blockTypes.get( random.nextInt( blockTypes.size() ) );
+								String key = key( blockType.name(), data );
+
+								if ( random.nextBoolean() ) {
+									cache.putCachedXMaterial( blockType, data, xMaterialFor( key ) );
+									reference.putXMaterial( key, xMaterialFor( key ) );
+								}
+
+								checkXMaterial( failures, key, cache.getCachedXMaterial( blockType, data ) );
+								break;
+							}
+
+							default: {
+								PrisonBlock prisonBlock = new PrisonBlock(
+										names.get( random.nextInt( names.size() ) ) );
+								String key = prisonBlock.getBlockName();
+
+								if ( random.nextBoolean() ) {
+									cache.putCachedXMaterial( prisonBlock, xMaterialFor( key ) );
+									reference.putXMaterial( key, xMaterialFor( key ) );
+								}
+
+								checkXMaterial( failures, key, cache.getCachedXMaterial( prisonBlock ) );
+								break;
+							}
+						}
+					}
+				}
+				catch ( Throwable e ) {
+					failures.add( e.toString() );
+				}
+				finally {
+					done.countDown();
+				}
+			}).start();
+		}
+
+		start.countDown();
+		assertTrue( done.await( 60, TimeUnit.SECONDS ) );
+
+		assertTrue( "Failures: " + failures, failures.isEmpty() );
+
+		// Every key must now have the same value as the string keyed cache:
+		for ( byte data : DATA_VALUES ) {
+			for ( Material material : materials ) {
+				Block block = block( material );
+				String key = key( material.name(), data );
+
+				assertEquals( key, reference.getBlockType( key ), cache.getCachedBlockType( block, data ) );
+				assertEquals( key, reference.getXMaterial( key ), cache.getCachedXMaterial( block, data ) );
+			}
+
+			for ( BlockType blockType : blockTypes ) {
+				String key = key( blockType.name(), data );
+
+				assertEquals( key, reference.getXMaterial( key ), cache.getCachedXMaterial( blockType, data ) );
+			}
+		}
+
+		for ( String name : names ) {
+			PrisonBlock prisonBlock = new PrisonBlock( name );
+			String key = prisonBlock.getBlockName();
+
+			assertEquals( key, reference.getXMaterial( key ), cache.getCachedXMaterial( prisonBlock ) );
+		}
+	}
+
+	/**
+	 * A value may not be cached yet, but if it is, then it must be the only value
+	 * that is ever put for that key.
+	 */
+	private void checkBlockType( ConcurrentLinkedQueue<String> failures, String key, BlockType results ) {
+		BlockType expected = blockTypeFor( key );
+
+		if ( results != null && results != ( expected == null ? BlockType.NULL_BLOCK : expected ) ) {
+			failures.add( key + " BlockType: " + results + " expected: " + expected );
+		}
+	}
+
+	private void checkXMaterial( ConcurrentLinkedQueue<String> failures, String key, XMaterial results ) {
+		XMaterial expected = xMaterialFor( key );
+
+		if ( "WATER".equals( key ) || "STATIONARY_WATER".equals( key ) ) {
+			expected = XMaterial.WATER;
+		}
+
+		if ( results != null && results != ( expected == null ? CompatibilityCache.NULL_TOKEN : expected ) ) {
+			failures.add( key + " XMaterial: " + results + " expected: " + expected );
+		}
+	}
+
+	@Test
+	public void testForcedCache()
+	{
+		CompatibilityCache cache = new CompatibilityCache();
+
+		assertEquals( XMaterial.WATER, cache.getCachedXMaterial( block( Material.WATER ), CompatibilityCache.NO_DATA_VALUE ) );
+		assertEquals( XMaterial.WATER, cache.getCachedXMaterial( new PrisonBlock( "STATIONARY_WATER" ) ) );
+		assertNull( cache.getCachedXMaterial( BlockType.STILL_WATER, (byte) 0 ) );
+
+		// Data values are cached separately:
+		assertNull( cache.getCachedXMaterial( block( Material.WATER ), (byte) 1 ) );
+
+		// Forced values are never replaced:
+		cache.putCachedXMaterial( new PrisonBlock( "WATER" ), XMaterial.STONE );
+		assertEquals( XMaterial.WATER, cache.getCachedXMaterial( block( Material.WATER ), (byte) 0 ) );
+	}
+}